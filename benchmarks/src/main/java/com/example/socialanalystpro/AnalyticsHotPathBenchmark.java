@@ -0,0 +1,73 @@
+package com.example.socialanalystpro;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// The per-request CPU work once posts are fetched: building the table, the historical pass and its text metrics,
+// and the day/hour aggregations. Run with -prof gc for allocation rate next to throughput.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class AnalyticsHotPathBenchmark {
+
+    @Param({"100", "10000", "100000", "1000000"})
+    private int postCount;
+
+    private List<PostRecord> records;
+    private PostTable table;
+    private PostSnapshot snapshot;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        records = SyntheticPosts.records(postCount);
+        snapshot = new PostSnapshot(0, System.currentTimeMillis(), records);
+        table = snapshot.table();
+    }
+
+    @Benchmark
+    public PostTable buildTable() {
+        return PostTable.of(records);
+    }
+
+    @Benchmark
+    public SocialInsights processHistoricalData() {
+        return SyntheticPosts.insights(table);
+    }
+
+    @Benchmark
+    public SpaceSavingTopK hashtagExtraction() {
+        return AnalyticsServiceImpl.countHashtags(table);
+    }
+
+    @Benchmark
+    public CommentAggregate commentSentiment() {
+        return AnalyticsServiceImpl.aggregateComments(table);
+    }
+
+    @Benchmark
+    public Map<String, Map<String, Integer>> engagementOverTime() {
+        return AnalyticsServiceImpl.aggregateEngagementOverTime(snapshot);
+    }
+
+    @Benchmark
+    public PostingHeatmap dayHourHeatmap() {
+        return PostingHeatmap.of(table);
+    }
+}
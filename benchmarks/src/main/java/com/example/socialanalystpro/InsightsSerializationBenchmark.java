@@ -0,0 +1,81 @@
+package com.example.socialanalystpro;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.concurrent.TimeUnit;
+
+// What RMI does to an analyzePage result: plain Java serialization of SocialInsights against the compact
+// InsightsPayload, both directions. Encoded sizes are printed once per trial.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class InsightsSerializationBenchmark {
+
+    @Param({"50", "1000", "10000"})
+    private int postCount;
+
+    private SocialInsights insights;
+    private byte[] serialized;
+    private byte[] compact;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        insights = SyntheticPosts.insights(PostTable.of(SyntheticPosts.records(postCount)));
+        serialized = write(insights);
+        compact = write(new InsightsPayload(insights));
+        System.out.println("\n" + postCount + " posts: java " + serialized.length + " bytes, compact " + compact.length + " bytes");
+    }
+
+    @Benchmark
+    public byte[] javaSerializationWrite() throws IOException {
+        return write(insights);
+    }
+
+    @Benchmark
+    public Object javaSerializationRead() throws IOException, ClassNotFoundException {
+        return read(serialized);
+    }
+
+    @Benchmark
+    public byte[] compactPayloadWrite() throws IOException {
+        return write(new InsightsPayload(insights));
+    }
+
+    @Benchmark
+    public Object compactPayloadRead() throws IOException, ClassNotFoundException {
+        return ((InsightsPayload) read(compact)).getInsights();
+    }
+
+    private static byte[] write(Object value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Object read(byte[] bytes) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readObject();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.socialanalystpro;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Post sets for the benchmarks, built from the same deterministic SyntheticPages the fake Graph server serves
+final class SyntheticPosts {
+
+    private static final String[] TYPES = {"photo", "video", "status", "link"};
+
+    private SyntheticPosts() {
+    }
+
+    // Like a fetch with POST_FIELDS: full counters, but at most five comment messages per post
+    static List<PostRecord> records(int postCount) {
+        SyntheticPage page = new SyntheticPageGenerator(42).generate(0, postCount, 365);
+        List<PostRecord> records = new ArrayList<>(postCount);
+        for (int i = 0; i < postCount; i++) {
+            List<String> comments = new ArrayList<>();
+            for (int c = 0, n = Math.min(5, page.comments(i)); c < n; c++) {
+                comments.add(page.commentMessage(i, c));
+            }
+            records.add(new PostRecord(page.postId(i), page.createdSeconds(i) * 1000, page.message(i), TYPES[i % TYPES.length],
+                    page.reactions(i), page.comments(i), page.shares(i), comments));
+        }
+        return records;
+    }
+
+    static SocialInsights insights(PostTable table) {
+        SocialInsights insights = new SocialInsights();
+        insights.setTotalFollowers(10_000);
+        AnalyticsServiceImpl.processHistoricalData(insights, table);
+        return insights;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.socialanalystpro;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.rmi.RemoteException;
+import java.util.concurrent.TimeUnit;
+
+// askViralBud called in-process (no RMI hop) over prompts that hit each answer branch and the out-of-scope filter
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ViralBudBenchmark {
+
+    private static final String[] PROMPTS = {
+            "How do I get more likes and followers on my page?",
+            "What is trending right now, which hashtag should I use?",
+            "How can I increase reach and impressions for my reels",
+            "Give me a caption and a hook for my next post",
+            "When is the best time to post?",
+            "hi there",
+            "What's the weather like in Addis tomorrow?",
+            "Can you help me write python code for a sorting algorithm",
+            "My brand is in the health niche, what content should I post?",
+            "I'm not sure what to ask"};
+
+    private AnalyticsServiceImpl service;
+
+    @Setup(Level.Trial)
+    public void setUp() throws RemoteException {
+        System.setProperty("socialanalyst.store.enabled", "false");
+        service = new AnalyticsServiceImpl();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        service.shutdown();
+    }
+
+    // One op answers all prompts once
+    @Benchmark
+    public void askViralBud(Blackhole blackhole) throws RemoteException {
+        for (String prompt : PROMPTS) {
+            blackhole.consume(service.askViralBud(prompt));
+        }
+    }
+}
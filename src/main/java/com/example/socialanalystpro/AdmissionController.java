@@ -0,0 +1,76 @@
+package com.example.socialanalystpro;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Bounds the heavy work (Graph crawls and analyses) the RMI runtime may run at once: up to maxInFlight calls run,
+// up to maxQueued wait for a slot for at most queueTimeoutMillis, and anything beyond that fails fast as busy.
+public class AdmissionController {
+
+    private final int maxInFlight;
+    private final int maxQueued;
+    private final long queueTimeoutMillis;
+    private final Semaphore slots;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong admitted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+
+    public AdmissionController(int maxInFlight, int maxQueued, long queueTimeoutMillis) {
+        if (maxInFlight < 1 || maxQueued < 0) {
+            throw new IllegalArgumentException("Invalid admission limits: " + maxInFlight + " in flight, " + maxQueued + " queued");
+        }
+        this.maxInFlight = maxInFlight;
+        this.maxQueued = maxQueued;
+        this.queueTimeoutMillis = queueTimeoutMillis;
+        this.slots = new Semaphore(maxInFlight, true);
+    }
+
+    public static AdmissionController fromSystemProperties() {
+        return new AdmissionController(
+                Integer.getInteger("socialanalyst.admission.maxInFlight", Math.max(2, Runtime.getRuntime().availableProcessors())),
+                Integer.getInteger("socialanalyst.admission.maxQueued", 32),
+                Long.getLong("socialanalyst.admission.queueTimeoutMillis", 30_000));
+    }
+
+    public <T> T admit(String operation, Callable<T> work) throws Exception {
+        if (!slots.tryAcquire()) {
+            if (queued.incrementAndGet() > maxQueued) {
+                queued.decrementAndGet();
+                rejected.incrementAndGet();
+                throw new ServerBusyException("Server busy: too many " + operation + " requests waiting, please retry shortly");
+            }
+            try {
+                if (!slots.tryAcquire(queueTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                    timedOut.incrementAndGet();
+                    throw new ServerBusyException("Server busy: " + operation + " waited " + queueTimeoutMillis + " ms without a free slot");
+                }
+            } finally {
+                queued.decrementAndGet();
+            }
+        }
+        admitted.incrementAndGet();
+        try {
+            return work.call();
+        } finally {
+            slots.release();
+        }
+    }
+
+    public int getMaxInFlight() { return maxInFlight; }
+    public int getMaxQueued() { return maxQueued; }
+    public int getInFlight() { return maxInFlight - slots.availablePermits(); }
+    public int getQueued() { return queued.get(); }
+    public long getAdmitted() { return admitted.get(); }
+    public long getRejected() { return rejected.get(); }
+    public long getTimedOut() { return timedOut.get(); }
+
+    @Override
+    public String toString() {
+        return "in flight " + getInFlight() + "/" + maxInFlight + ", queued " + getQueued() + "/" + maxQueued
+                + ", admitted " + getAdmitted() + ", rejected " + getRejected() + ", timed out " + getTimedOut();
+    }
+}
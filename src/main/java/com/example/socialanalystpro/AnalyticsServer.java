@@ -0,0 +1,78 @@
+package com.example.socialanalystpro;
+
+import java.nio.file.Paths;
+import java.rmi.NotBoundException;
+import java.rmi.registry.LocateRegistry;
+import java.rmi.registry.Registry;
+import java.rmi.server.ExportException;
+import java.rmi.server.UnicastRemoteObject;
+
+// Headless server entry point: creates the RMI registry, exports AnalyticsServiceImpl and binds it under the name the
+// dashboard looks up. Usage: AnalyticsServer [registryPort] (default 1099, or socialanalyst.rmi.registryPort)
+//
+// With socialanalyst.cluster.nodeId set the server is one node of a cluster: it binds as "AnalyticsService@<nodeId>"
+// and, if another node on this machine already runs a registry on the port, joins that registry instead of
+// creating one. Clients reach the nodes through ShardedAnalyticsService. Nodes on one machine keep separate post
+// stores (under <store dir>/<nodeId>) unless socialanalyst.store.dir is set per node.
+public class AnalyticsServer {
+
+    public static final String SERVICE_NAME = "AnalyticsService";
+
+    // Held statically so neither the registry nor the exported service can be collected while the server runs
+    private static Registry registry;
+    private static boolean ownsRegistry;
+    private static String boundName;
+    private static AnalyticsServiceImpl service;
+
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : Integer.getInteger("socialanalyst.rmi.registryPort", 1099);
+        String nodeId = System.getProperty("socialanalyst.cluster.nodeId");
+        boolean clustered = nodeId != null && !nodeId.isBlank();
+
+        if (clustered) {
+            boundName = SERVICE_NAME + "@" + nodeId.trim();
+            if (System.getProperty("socialanalyst.store.dir") == null) {
+                System.setProperty("socialanalyst.store.dir",
+                        Paths.get(System.getProperty("user.home"), ".socialanalystpro", "posts", nodeId.trim()).toString());
+            }
+            try {
+                registry = LocateRegistry.createRegistry(port);
+                ownsRegistry = true;
+            } catch (ExportException e) {
+                // Port taken, normally by another node's registry on this machine
+                registry = LocateRegistry.getRegistry("localhost", port);
+            }
+        } else {
+            boundName = SERVICE_NAME;
+            registry = LocateRegistry.createRegistry(port);
+            ownsRegistry = true;
+        }
+        service = new AnalyticsServiceImpl();
+        registry.rebind(boundName, service);
+
+        Runtime.getRuntime().addShutdownHook(new Thread(AnalyticsServer::stop, "analytics-server-shutdown"));
+        System.out.println(boundName + " bound on RMI registry port " + port + (ownsRegistry ? "" : " (shared)")
+                + " (admission: " + service.getAdmission().getMaxInFlight() + " in flight, "
+                + service.getAdmission().getMaxQueued() + " queued)");
+    }
+
+    private static void stop() {
+        System.out.println("Shutting down " + boundName + "...");
+        try {
+            registry.unbind(boundName);
+        } catch (NotBoundException e) {
+            // nothing to unbind
+        } catch (Exception e) {
+            System.err.println("Failed to unbind " + boundName + ": " + e.getMessage());
+        }
+        service.shutdown();
+        if (!ownsRegistry) {
+            return;
+        }
+        try {
+            UnicastRemoteObject.unexportObject(registry, true);
+        } catch (Exception e) {
+            System.err.println("Failed to stop RMI registry: " + e.getMessage());
+        }
+    }
+}
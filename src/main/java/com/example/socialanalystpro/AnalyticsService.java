@@ -2,12 +2,18 @@ package com.example.socialanalystpro;
 
 import java.rmi.Remote;
 import java.rmi.RemoteException;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public interface AnalyticsService extends Remote {
     // Changed 'int days' to 'long sinceTimestamp' for better precision (minutes/hours)
     SocialInsights analyzePage(String pageAccessToken, long sinceTimestamp) throws RemoteException;
     PageProfile getPageProfile(String pageAccessToken) throws RemoteException;
+    // Same results as analyzePage / getPageProfile in the compact Externalizable wire format; the insights payload
+    // also says when the analysis was computed, since tracked pages are answered from a background refresh
+    InsightsPayload analyzePageCompact(String pageAccessToken, long sinceTimestamp) throws RemoteException;
+    ProfilePayload getPageProfileCompact(String pageAccessToken) throws RemoteException;
     String askViralBud(String prompt) throws RemoteException;
     long getFollowerCount(String pageAccessToken) throws RemoteException;
     long getPageLikes(String pageAccessToken) throws RemoteException;
@@ -15,5 +21,22 @@ public interface AnalyticsService extends Remote {
     Map<String, Map<String, Integer>> getPostEngagementOverTime(String pageAccessToken, long sinceTimestamp) throws RemoteException;
     Map<String, Double> getBestDayToPost(String pageAccessToken, long sinceTimestamp) throws RemoteException;
     Map<String, Double> getBestHourToPost(String pageAccessToken, long sinceTimestamp) throws RemoteException;
+    // Day x hour average engagement for the window; best day and best hour are its marginals
+    PostingHeatmap getPostingHeatmap(String pageAccessToken, long sinceTimestamp) throws RemoteException;
     Map<String, Map<String, Integer>> getOverallPerformance(String pageAccessToken) throws RemoteException;
+    // Profile, counts, demographics and insights in one Graph batch request and one RMI round trip
+    DashboardBundle getDashboardBundle(String pageAccessToken, long sinceTimestamp, Set<DashboardBundle.Section> sections) throws RemoteException;
+    // Push updates: the server polls each page once and calls back every subscribed dashboard with changed values.
+    // A subscription is a lease of the returned number of millis; renewSubscription keeps it alive and returns false
+    // once the server no longer has it (subscribe again then)
+    long subscribe(String pageAccessToken, long sinceTimestamp, PageUpdateListener listener) throws RemoteException;
+    boolean renewSubscription(PageUpdateListener listener) throws RemoteException;
+    void unsubscribe(PageUpdateListener listener) throws RemoteException;
+    // Tracked pages are re-analyzed in the background so analyzePage answers at once; analyzed pages are tracked
+    // automatically while they keep being opened, trackPage keeps a page until untrackPage
+    void trackPage(String pageAccessToken, long sinceTimestamp) throws RemoteException;
+    void untrackPage(String pageAccessToken) throws RemoteException;
+    // Portfolio analysis: returns once accepted, then streams each page's insights to the listener as it finishes,
+    // followed by the portfolio roll-up
+    void analyzePages(List<String> pageAccessTokens, long sinceTimestamp, PortfolioListener listener) throws RemoteException;
 }
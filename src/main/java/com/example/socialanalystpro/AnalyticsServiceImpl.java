@@ -1,104 +1,207 @@
 package com.example.socialanalystpro;
 
 import com.restfb.Connection;
-import com.restfb.DefaultFacebookClient;
 import com.restfb.FacebookClient;
 import com.restfb.Parameter;
-import com.restfb.Version;
+import com.restfb.batch.BatchRequest;
+import com.restfb.batch.BatchResponse;
 import com.restfb.exception.FacebookException;
-import com.restfb.types.Comment;
 import com.restfb.types.Page;
 import com.restfb.types.Post;
-import com.restfb.types.User;
+import com.restfb.json.Json;
 import com.restfb.json.JsonObject;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.rmi.NoSuchObjectException;
 import java.rmi.RemoteException;
 import java.rmi.server.UnicastRemoteObject;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
 public class AnalyticsServiceImpl extends UnicastRemoteObject implements AnalyticsService {
 
-    private static final Set<String> POSITIVE_KEYWORDS = Set.of("love", "great", "amazing", "excellent", "good", "awesome", "nice", "perfect");
-    private static final Set<String> NEGATIVE_KEYWORDS = Set.of("bad", "hate", "terrible", "awful", "disappointed", "poor", "sad");
-    private static final Set<String> STOP_WORDS = Set.of("the", "and", "is", "in", "to", "of", "a", "for", "on", "with", "at", "by", "this", "that", "it", "from", "be", "are", "was", "were", "an", "as", "or", "if", "but", "so", "my", "your", "we", "you", "can", "will", "all", "has", "do", "more", "one", "about", "out", "up", "what", "when", "which", "who", "how", "why", "there", "their", "they", "just", "like", "new", "now", "get", "see", "our", "us");
+    private static final DateTimeFormatter DAY_LABEL_FORMAT = DateTimeFormatter.ofPattern("MMM dd");
+
+    // analyzePage branch deadlines, measured from the start of the analysis
+    private static final long PROFILE_BRANCH_TIMEOUT_MILLIS = 15_000;
+    private static final long POSTS_BRANCH_TIMEOUT_MILLIS = 60_000;
+    private static final long HISTORY_BRANCH_TIMEOUT_MILLIS = 20_000;
+    private static final long OVERALL_BRANCH_TIMEOUT_MILLIS = 15_000;
+    private static final long COMMENTS_BRANCH_TIMEOUT_MILLIS = 45_000;
+
+    private static final int HASHTAG_COUNTERS = 1_024;
+    private static final int HISTORY_POST_COUNT = Integer.getInteger("socialanalyst.history.posts", 50);
+    private static final long SNAPSHOT_TTL_MILLIS = 60_000;
+    // Posts younger than this still gain reactions/comments, so their counters are refreshed on every sync
+    private static final long HOT_WINDOW_SECONDS = Long.getLong("socialanalyst.sync.hotWindowDays", 3) * 24 * 60 * 60;
+
+    // Per-method TTLs for the shared result cache, chosen to match how often each value actually changes
+    private static final long FOLLOWER_COUNT_TTL_MILLIS = 5_000;
+    private static final long PAGE_LIKES_TTL_MILLIS = 60_000;
+    private static final long PROFILE_TTL_MILLIS = 10 * 60_000;
+    private static final long DEMOGRAPHICS_TTL_MILLIS = 60 * 60_000;
+    private static final long INSIGHTS_TTL_MILLIS = 15 * 60_000;
+    private static final long POST_AGGREGATE_TTL_MILLIS = 60_000;
+    private static final long BUNDLE_TTL_MILLIS = 5_000;
+    private static final long ANALYSIS_TTL_MILLIS = 2 * 60_000;
+    private static final int RESULT_CACHE_MAX_ENTRIES = Integer.getInteger("socialanalyst.cache.maxEntries", 10_000);
+
+    private static final long IDENTITY_TTL_MILLIS = 30 * 60_000;
+    private static final long SESSION_IDLE_MILLIS = 2 * 60 * 60_000;
+
+    private final ResultCache resultCache = new ResultCache(RESULT_CACHE_MAX_ENTRIES);
+    private final PostStore postStore = openPostStore();
+    private final PostSnapshotEngine snapshotEngine = new PostSnapshotEngine(resultCache, SNAPSHOT_TTL_MILLIS, HOT_WINDOW_SECONDS, postStore);
+    private final GraphCallScheduler graphScheduler = GraphCallScheduler.fromSystemProperties();
+    // Only cache misses of window crawls and analyses take a slot; cached results are always served
+    private final AdmissionController admission = AdmissionController.fromSystemProperties();
+    private final ServiceMetrics metrics = new ServiceMetrics(resultCache, graphScheduler, admission);
+    private final TokenSessionRegistry sessions = new TokenSessionRegistry(IDENTITY_TTL_MILLIS, SESSION_IDLE_MILLIS, graphScheduler, metrics);
+    // Full comment histories for sentiment unless socialanalyst.comments.full=false (then the 5-comment samples)
+    private final CommentIngestor commentIngestor = Boolean.parseBoolean(System.getProperty("socialanalyst.comments.full", "true"))
+            ? CommentIngestor.fromSystemProperties() : null;
+    private final PageWatcherHub watcherHub = PageWatcherHub.fromSystemProperties(watcherSource(), metrics);
+    // Background-refreshed insights of recently analyzed pages unless socialanalyst.precompute.enabled=false
+    private final InsightsPrecomputer precomputer = Boolean.parseBoolean(System.getProperty("socialanalyst.precompute.enabled", "true"))
+            ? InsightsPrecomputer.fromSystemProperties(this::precompute, graphScheduler, admission, metrics) : null;
+    private final PortfolioAnalyzer portfolios = PortfolioAnalyzer.fromSystemProperties(this,
+            token -> sessions.session(token).identity().getName(), metrics);
 
     protected AnalyticsServiceImpl() throws RemoteException {
-        super();
+        // Plain sockets unless socialanalyst.rmi.compression=true; the client factory ships with the stub
+        super(0, CompressingClientSocketFactory.fromSystemProperties(), CompressingServerSocketFactory.fromSystemProperties());
+        metrics.register();
     }
 
-    @Override
-    public String askViralBud(String prompt) throws RemoteException {
-        String query = prompt.toLowerCase();
-
-        // Check for out-of-scope topics first
-        if (isOutOfScope(query)) {
-            return "I’m ViralBud — I only help with social media growth, trends, and content strategy. Please ask a social media–related question.";
-        }
-
-        if (query.contains("more likes") || query.contains("followers") || query.contains("growth") || query.contains("engagement")) {
-            return "To get more likes and followers, consistency is key! 🚀\n\n1. Post at least 3 times a week.\n2. Use high-quality visuals (videos perform 2x better).\n3. Engage with every comment in the first hour.\n4. Use trending hashtags like #fyp, #viral, and niche tags.";
-        } else if (query.contains("trending") || query.contains("trend") || query.contains("hashtag")) {
-            return "🔥 Trending Now:\n\n• Short-form educational videos (Reels/Shorts)\n• 'Behind the Scenes' content\n• User Generated Content (UGC)\n• Interactive polls and Q&A posts.";
-        } else if (query.contains("views") || query.contains("reach") || query.contains("impression")) {
-            return "To explode your views 📈:\n\n• Hook viewers in the first 3 seconds.\n• Post when your audience is most active (check the Engagement tab).\n• Collaborate with other creators in your niche.";
-        } else if (query.contains("content") || query.contains("post") || query.contains("caption") || query.contains("hook")) {
-            return "Let's find your perfect content! 🤔\n\nAre you an Educator, Entertainer, or Business?\n• Educator: How-to guides, tips, and industry news.\n• Entertainer: Skits, challenges, and storytelling.\n• Business: Product demos, testimonials, and offers.";
-        } else if (query.contains("time") || query.contains("when")) {
-            return "⏰ Best Posting Times:\n\n• Weekdays: 10 AM - 1 PM and 7 PM - 9 PM.\n• Weekends: 9 AM - 11 AM.\n• Check your specific audience insights for precision.";
-        } else if (query.contains("hello") || query.contains("hi")) {
-            return "Hello! I'm ViralBud 🤖. Ask me anything about growing your social media presence!";
-        } else {
-            // Fallback for potentially relevant but unclassified queries, or slightly vague ones.
-            // Given the strict requirement, if it's not clearly social media related, we might want to be careful.
-            // However, the "isOutOfScope" check should catch obvious non-social media stuff.
-            // Let's provide a generic social media helpful response.
-            return "That's an interesting question! Generally, focusing on authentic storytelling and community building works best. Can you be more specific about your social media goals?";
-        }
-    }
-
-    private boolean isOutOfScope(String query) {
-        // List of keywords that strongly suggest out-of-scope topics
-        // This is a basic filter and can be expanded.
-        String[] forbiddenKeywords = {
-            "weather", "recipe", "math", "code", "java", "python", "programming", 
-            "politics", "medical", "health", "stock", "finance", "movie", "song", 
-            "joke", "life", "love", "dating", "sports", "game", "history", "science"
-        };
-        
-        // However, some of these words might appear in a social media context (e.g., "health niche").
-        // A better approach for a simple rule-based system is to check if it lacks social media keywords
-        // OR if it contains specific "forbidden" topics without social media context.
-        
-        // For this task, let's rely on a positive inclusion list for "social media" context if the query is ambiguous,
-        // but the prompt asks to "Do not respond to general knowledge, coding, math...".
-        
-        // Let's check for specific non-social media intents.
-        for (String word : forbiddenKeywords) {
-            if (query.contains(word) && !query.contains("post") && !query.contains("content") && !query.contains("media")) {
-                return true;
+    // Body of a remote method, timed into the per-method histogram
+    private interface ServiceCall<T> {
+        T call() throws RemoteException;
+    }
+
+    // The page watchers poll the cached loaders directly, so their polls do not count as client calls
+    private PageWatcherHub.Source watcherSource() {
+        return new PageWatcherHub.Source() {
+            @Override
+            public long getFollowerCount(String pageAccessToken) throws RemoteException {
+                return followerCount(pageAccessToken);
+            }
+
+            @Override
+            public long getPageLikes(String pageAccessToken) throws RemoteException {
+                return pageLikes(pageAccessToken);
             }
+
+            @Override
+            public Map<String, Integer> getGenderBreakdown(String pageAccessToken) throws RemoteException {
+                return genderBreakdown(pageAccessToken);
+            }
+
+            @Override
+            public Map<String, Map<String, Integer>> getPostEngagementOverTime(String pageAccessToken, long sinceTimestamp) throws RemoteException {
+                return postEngagementOverTime(pageAccessToken, sinceTimestamp);
+            }
+        };
+    }
+
+    // Post history is kept on disk under socialanalyst.store.dir unless socialanalyst.store.enabled=false
+    private static PostStore openPostStore() {
+        if (!Boolean.parseBoolean(System.getProperty("socialanalyst.store.enabled", "true"))) {
+            return null;
         }
-        
-        // If it's a simple math question like "2+2"
-        if (query.matches(".*\\d+\\s*[+\\-*/]\\s*\\d+.*")) {
-            return true;
+        Path dir = Paths.get(System.getProperty("socialanalyst.store.dir",
+                Paths.get(System.getProperty("user.home"), ".socialanalystpro", "posts").toString()));
+        try {
+            return new PostStore(dir);
+        } catch (RuntimeException e) {
+            System.err.println("Post store disabled, could not open " + dir + ": " + e.getMessage());
+            return null;
         }
+    }
+
+    public GraphCallScheduler getGraphScheduler() {
+        return graphScheduler;
+    }
+
+    public AdmissionController getAdmission() {
+        return admission;
+    }
+
+    public ServiceMetrics getMetrics() {
+        return metrics;
+    }
+
+    // Stops background pollers and releases the post store; called by the server on shutdown
+    public void shutdown() {
+        watcherHub.shutdown();
+        portfolios.shutdown();
+        if (precomputer != null) {
+            precomputer.shutdown();
+        }
+        metrics.unregister();
+        if (postStore != null) {
+            postStore.close();
+        }
+        try {
+            UnicastRemoteObject.unexportObject(this, true);
+        } catch (NoSuchObjectException e) {
+            // already unexported
+        }
+    }
+
+    // Local (non-RMI) view of the result cache counters, used for sizing and monitoring
+    public ResultCache.Stats getCacheStats() {
+        return resultCache.stats();
+    }
+
+    private <T> T measured(String method, ServiceCall<T> call) throws RemoteException {
+        long start = System.nanoTime();
+        try {
+            return call.call();
+        } catch (RemoteException e) {
+            metrics.recordError("service." + e.getClass().getSimpleName());
+            throw e;
+        } finally {
+            metrics.recordServiceCall(method, System.nanoTime() - start);
+        }
+    }
 
-        return false;
+    @Override
+    public String askViralBud(String prompt) throws RemoteException {
+        return measured("askViralBud", () -> ViralBudIntents.getDefault().answer(prompt));
     }
 
     @Override
     public PageProfile getPageProfile(String pageAccessToken) throws RemoteException {
+        return measured("getPageProfile", () -> pageProfile(pageAccessToken));
+    }
+
+    @Override
+    public ProfilePayload getPageProfileCompact(String pageAccessToken) throws RemoteException {
+        return measured("getPageProfileCompact", () -> new ProfilePayload(pageProfile(pageAccessToken)));
+    }
+
+    private PageProfile pageProfile(String pageAccessToken) throws RemoteException {
         try {
-            FacebookClient fbClient = new DefaultFacebookClient(pageAccessToken, Version.LATEST);
-            Page page = fbClient.fetchObject("me", Page.class, Parameter.with("fields", "name,id,category,picture{url}"));
-            String pictureUrl = (page.getPicture() != null && page.getPicture().getUrl() != null) ? page.getPicture().getUrl() : "";
-            return new PageProfile(page.getName(), page.getId(), page.getCategory(), pictureUrl);
+            TokenSession session = sessions.session(pageAccessToken);
+            return resultCache.get(ResultCache.key(session.getTokenHash(), "getPageProfile"), PROFILE_TTL_MILLIS, () -> {
+                Page page = session.getClient().fetchObject("me", Page.class, Parameter.with("fields", "name,id,category,picture{url}"));
+                String pictureUrl = (page.getPicture() != null && page.getPicture().getUrl() != null) ? page.getPicture().getUrl() : "";
+                return new PageProfile(page.getName(), page.getId(), page.getCategory(), pictureUrl);
+            });
         } catch (FacebookException e) {
+            onFacebookError(pageAccessToken, e);
             System.err.println("Facebook API Error in getPageProfile: " + e.getMessage());
             throw new RemoteException("Facebook API Error: " + e.getMessage());
         } catch (Exception e) {
@@ -108,11 +211,18 @@ public class AnalyticsServiceImpl extends UnicastRemoteObject implements Analyti
 
     @Override
     public long getFollowerCount(String pageAccessToken) throws RemoteException {
+        return measured("getFollowerCount", () -> followerCount(pageAccessToken));
+    }
+
+    private long followerCount(String pageAccessToken) throws RemoteException {
         try {
-            FacebookClient fbClient = new DefaultFacebookClient(pageAccessToken, Version.LATEST);
-            Page page = fbClient.fetchObject("me", Page.class, Parameter.with("fields", "fan_count,followers_count"));
-            return page.getFollowersCount() != null ? page.getFollowersCount() : (page.getFanCount() != null ? page.getFanCount() : 0);
+            TokenSession session = sessions.session(pageAccessToken);
+            return resultCache.get(ResultCache.key(session.getTokenHash(), "getFollowerCount"), FOLLOWER_COUNT_TTL_MILLIS, () -> {
+                Page page = session.getClient().fetchObject("me", Page.class, Parameter.with("fields", "fan_count,followers_count"));
+                return followersOf(page);
+            });
         } catch (FacebookException e) {
+            onFacebookError(pageAccessToken, e);
             System.err.println("Facebook API Error in getFollowerCount: " + e.getMessage());
             throw new RemoteException("Facebook API Error: " + e.getMessage());
         } catch (Exception e) {
@@ -122,11 +232,18 @@ public class AnalyticsServiceImpl extends UnicastRemoteObject implements Analyti
 
     @Override
     public long getPageLikes(String pageAccessToken) throws RemoteException {
+        return measured("getPageLikes", () -> pageLikes(pageAccessToken));
+    }
+
+    private long pageLikes(String pageAccessToken) throws RemoteException {
         try {
-            FacebookClient fbClient = new DefaultFacebookClient(pageAccessToken, Version.LATEST);
-            Page page = fbClient.fetchObject("me", Page.class, Parameter.with("fields", "fan_count"));
-            return page.getFanCount() != null ? page.getFanCount() : 0;
+            TokenSession session = sessions.session(pageAccessToken);
+            return resultCache.get(ResultCache.key(session.getTokenHash(), "getPageLikes"), PAGE_LIKES_TTL_MILLIS, () -> {
+                Page page = session.getClient().fetchObject("me", Page.class, Parameter.with("fields", "fan_count"));
+                return page.getFanCount() != null ? page.getFanCount() : 0L;
+            });
         } catch (FacebookException e) {
+            onFacebookError(pageAccessToken, e);
             System.err.println("Facebook API Error in getPageLikes: " + e.getMessage());
             throw new RemoteException("Facebook API Error: " + e.getMessage());
         } catch (Exception e) {
@@ -136,435 +253,718 @@ public class AnalyticsServiceImpl extends UnicastRemoteObject implements Analyti
 
     @Override
     public Map<String, Integer> getGenderBreakdown(String pageAccessToken) throws RemoteException {
-        Map<String, Integer> genderData = new HashMap<>();
-        try {
-            FacebookClient fbClient = new DefaultFacebookClient(pageAccessToken, Version.LATEST);
-            // Fetch page_fans_gender_age metric
-            Connection<JsonObject> insights = fbClient.fetchConnection("me/insights", JsonObject.class,
-                    Parameter.with("metric", "page_fans_gender_age"),
-                    Parameter.with("period", "lifetime"));
-
-            if (insights.getData().isEmpty()) {
-                return genderData;
-            }
-
-            JsonObject metric = insights.getData().get(0);
-            if (metric.get("values") == null || metric.get("values").asArray().isEmpty()) {
-                return genderData;
-            }
-
-            JsonObject values = metric.get("values").asArray().get(0).asObject().get("value").asObject();
-            
-            int maleCount = 0;
-            int femaleCount = 0;
-            int unknownCount = 0;
-
-            for (String key : values.names()) {
-                int count = values.get(key).asInt();
-                if (key.startsWith("M.")) {
-                    maleCount += count;
-                } else if (key.startsWith("F.")) {
-                    femaleCount += count;
-                } else {
-                    unknownCount += count;
-                }
-            }
-
-            if (maleCount > 0) genderData.put("Male", maleCount);
-            if (femaleCount > 0) genderData.put("Female", femaleCount);
-            if (unknownCount > 0) genderData.put("Unknown", unknownCount);
+        return measured("getGenderBreakdown", () -> genderBreakdown(pageAccessToken));
+    }
 
+    private Map<String, Integer> genderBreakdown(String pageAccessToken) throws RemoteException {
+        try {
+            TokenSession session = sessions.session(pageAccessToken);
+            // page_fans_gender_age is a lifetime metric, so it can be cached for a long time
+            return resultCache.get(ResultCache.key(session.getTokenHash(), "getGenderBreakdown"), DEMOGRAPHICS_TTL_MILLIS, () -> {
+                Connection<JsonObject> insights = session.getClient().fetchConnection("me/insights", JsonObject.class,
+                        Parameter.with("metric", "page_fans_gender_age"),
+                        Parameter.with("period", "lifetime"));
+                return parseGenderBreakdown(insights.getData());
+            });
         } catch (FacebookException e) {
+            onFacebookError(pageAccessToken, e);
             System.err.println("Facebook API Error in getGenderBreakdown: " + e.getMessage());
             throw new RemoteException("Facebook API Error: " + e.getMessage());
         } catch (Exception e) {
             throw new RemoteException("Could not fetch gender breakdown: " + e.getMessage());
         }
-        return genderData;
     }
 
     @Override
     public Map<String, Map<String, Integer>> getPostEngagementOverTime(String pageAccessToken, long sinceTimestamp) throws RemoteException {
-        Map<String, Map<String, Integer>> engagementData = new LinkedHashMap<>();
+        return measured("getPostEngagementOverTime", () -> postEngagementOverTime(pageAccessToken, sinceTimestamp));
+    }
+
+    private Map<String, Map<String, Integer>> postEngagementOverTime(String pageAccessToken, long sinceTimestamp) throws RemoteException {
         try {
-            FacebookClient fbClient = new DefaultFacebookClient(pageAccessToken, Version.LATEST);
-            Connection<Post> posts = fbClient.fetchConnection("me/posts", Post.class,
-                    Parameter.with("fields", "created_time,reactions.limit(0).summary(total_count),comments.limit(0).summary(true)"),
-                    Parameter.with("since", sinceTimestamp),
-                    Parameter.with("limit", 100));
-
-            for (List<Post> postPage : posts) {
-                for (Post post : postPage) {
-                    if (post.getCreatedTime() == null) continue;
-                    
-                    String date = post.getCreatedTime().toInstant().atZone(ZoneId.systemDefault()).format(DateTimeFormatter.ofPattern("MMM dd"));
-                    
-                    long likes = (post.getReactions() != null && post.getReactions().getTotalCount() != null) ? post.getReactions().getTotalCount() : 0;
-                    long comments = (post.getComments() != null && post.getComments().getTotalCount() != null) ? post.getComments().getTotalCount() : 0;
-                    long shares = 0; // Shares not available in this view, would need separate call or field if available
-
-                    engagementData.putIfAbsent(date, new HashMap<>());
-                    Map<String, Integer> dayData = engagementData.get(date);
-                    
-                    dayData.put("Likes", dayData.getOrDefault("Likes", 0) + (int) likes);
-                    dayData.put("Comments", dayData.getOrDefault("Comments", 0) + (int) comments);
-                    dayData.put("Shares", dayData.getOrDefault("Shares", 0) + (int) shares);
-                    dayData.put("Total", dayData.getOrDefault("Total", 0) + (int) (likes + comments + shares));
-                }
-            }
+            TokenSession session = sessions.session(pageAccessToken);
+            return resultCache.get(ResultCache.key(session.getTokenHash(), "getPostEngagementOverTime", sinceTimestamp), POST_AGGREGATE_TTL_MILLIS,
+                    () -> admission.admit("getPostEngagementOverTime", () -> {
+                        PostSnapshot snapshot = snapshotEngine.window(pageKey(session), session.getClient(), sinceTimestamp);
+                        metrics.addPostsProcessed(snapshot.table().size());
+                        return aggregateEngagementOverTime(snapshot);
+                    }));
         } catch (FacebookException e) {
+            onFacebookError(pageAccessToken, e);
             System.err.println("Facebook API Error in getPostEngagementOverTime: " + e.getMessage());
             throw new RemoteException("Facebook API Error: " + e.getMessage());
+        } catch (ServerBusyException e) {
+            throw e;
         } catch (Exception e) {
             throw new RemoteException("Could not fetch engagement data: " + e.getMessage());
         }
-        
-        return engagementData;
     }
 
     @Override
     public Map<String, Double> getBestDayToPost(String pageAccessToken, long sinceTimestamp) throws RemoteException {
-        Map<String, Double> bestDayData = new LinkedHashMap<>();
-        // Initialize days with 0.0
-        String[] days = {"Mon", "Tue", "Wed", "Thu", "Fri", "Sat", "Sun"};
-        for (String day : days) {
-            bestDayData.put(day, 0.0);
-        }
-
-        try {
-            FacebookClient fbClient = new DefaultFacebookClient(pageAccessToken, Version.LATEST);
-            Connection<Post> posts = fbClient.fetchConnection("me/posts", Post.class,
-                    Parameter.with("fields", "created_time,reactions.limit(0).summary(total_count),comments.limit(0).summary(true)"),
-                    Parameter.with("since", sinceTimestamp),
-                    Parameter.with("limit", 100));
-
-            Map<String, List<Integer>> dayEngagement = new HashMap<>();
-
-            for (List<Post> postPage : posts) {
-                for (Post post : postPage) {
-                    if (post.getCreatedTime() == null) continue;
-                    
-                    String dayOfWeek = post.getCreatedTime().toInstant().atZone(ZoneId.systemDefault()).format(DateTimeFormatter.ofPattern("Eq"));
-                    
-                    long likes = (post.getReactions() != null && post.getReactions().getTotalCount() != null) ? post.getReactions().getTotalCount() : 0;
-                    long comments = (post.getComments() != null && post.getComments().getTotalCount() != null) ? post.getComments().getTotalCount() : 0;
-                    long shares = 0; // Shares not available in this view
-                    int total = (int) (likes + comments + shares);
-
-                    dayEngagement.putIfAbsent(dayOfWeek, new ArrayList<>());
-                    dayEngagement.get(dayOfWeek).add(total);
-                }
-            }
-
-            // Calculate average engagement per day
-            for (String day : days) {
-                if (dayEngagement.containsKey(day)) {
-                    List<Integer> engagements = dayEngagement.get(day);
-                    double average = engagements.stream().mapToInt(Integer::intValue).average().orElse(0.0);
-                    bestDayData.put(day, average);
-                }
+        return measured("getBestDayToPost", () -> {
+            try {
+                return postingHeatmap(sessions.session(pageAccessToken), sinceTimestamp).getBestDay();
+            } catch (FacebookException e) {
+                onFacebookError(pageAccessToken, e);
+                System.err.println("Facebook API Error in getBestDayToPost: " + e.getMessage());
+                throw new RemoteException("Facebook API Error: " + e.getMessage());
+            } catch (ServerBusyException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RemoteException("Could not fetch best day data: " + e.getMessage());
             }
-
-        } catch (FacebookException e) {
-            System.err.println("Facebook API Error in getBestDayToPost: " + e.getMessage());
-            throw new RemoteException("Facebook API Error: " + e.getMessage());
-        } catch (Exception e) {
-            throw new RemoteException("Could not fetch best day data: " + e.getMessage());
-        }
-        
-        return bestDayData;
+        });
     }
 
     @Override
     public Map<String, Double> getBestHourToPost(String pageAccessToken, long sinceTimestamp) throws RemoteException {
-        Map<String, Double> bestHourData = new LinkedHashMap<>();
-        // Initialize hours 00:00 to 23:00 with 0.0
-        for (int i = 0; i < 24; i++) {
-            bestHourData.put(String.format("%02d:00", i), 0.0);
-        }
-
-        try {
-            FacebookClient fbClient = new DefaultFacebookClient(pageAccessToken, Version.LATEST);
-            Connection<Post> posts = fbClient.fetchConnection("me/posts", Post.class,
-                    Parameter.with("fields", "created_time,reactions.limit(0).summary(total_count),comments.limit(0).summary(true)"),
-                    Parameter.with("since", sinceTimestamp),
-                    Parameter.with("limit", 100));
-
-            Map<String, List<Integer>> hourEngagement = new HashMap<>();
-
-            for (List<Post> postPage : posts) {
-                for (Post post : postPage) {
-                    if (post.getCreatedTime() == null) continue;
-                    
-                    // Extract hour (0-23)
-                    int hour = post.getCreatedTime().toInstant().atZone(ZoneId.systemDefault()).getHour();
-                    String hourKey = String.format("%02d:00", hour);
-                    
-                    long likes = (post.getReactions() != null && post.getReactions().getTotalCount() != null) ? post.getReactions().getTotalCount() : 0;
-                    long comments = (post.getComments() != null && post.getComments().getTotalCount() != null) ? post.getComments().getTotalCount() : 0;
-                    long shares = 0; // Shares not available in this view
-                    int total = (int) (likes + comments + shares);
-
-                    hourEngagement.putIfAbsent(hourKey, new ArrayList<>());
-                    hourEngagement.get(hourKey).add(total);
-                }
+        return measured("getBestHourToPost", () -> {
+            try {
+                return postingHeatmap(sessions.session(pageAccessToken), sinceTimestamp).getBestHour();
+            } catch (FacebookException e) {
+                onFacebookError(pageAccessToken, e);
+                System.err.println("Facebook API Error in getBestHourToPost: " + e.getMessage());
+                throw new RemoteException("Facebook API Error: " + e.getMessage());
+            } catch (ServerBusyException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RemoteException("Could not fetch best hour data: " + e.getMessage());
             }
+        });
+    }
 
-            // Calculate average engagement per hour
-            for (int i = 0; i < 24; i++) {
-                String hourKey = String.format("%02d:00", i);
-                if (hourEngagement.containsKey(hourKey)) {
-                    List<Integer> engagements = hourEngagement.get(hourKey);
-                    double average = engagements.stream().mapToInt(Integer::intValue).average().orElse(0.0);
-                    bestHourData.put(hourKey, average);
-                }
+    @Override
+    public PostingHeatmap getPostingHeatmap(String pageAccessToken, long sinceTimestamp) throws RemoteException {
+        return measured("getPostingHeatmap", () -> {
+            try {
+                return postingHeatmap(sessions.session(pageAccessToken), sinceTimestamp);
+            } catch (FacebookException e) {
+                onFacebookError(pageAccessToken, e);
+                System.err.println("Facebook API Error in getPostingHeatmap: " + e.getMessage());
+                throw new RemoteException("Facebook API Error: " + e.getMessage());
+            } catch (ServerBusyException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RemoteException("Could not fetch posting heatmap: " + e.getMessage());
             }
-
-        } catch (FacebookException e) {
-            System.err.println("Facebook API Error in getBestHourToPost: " + e.getMessage());
-            throw new RemoteException("Facebook API Error: " + e.getMessage());
-        } catch (Exception e) {
-            throw new RemoteException("Could not fetch best hour data: " + e.getMessage());
-        }
-        
-        return bestHourData;
+        });
     }
 
     @Override
     public Map<String, Map<String, Integer>> getOverallPerformance(String pageAccessToken) throws RemoteException {
-        Map<String, Map<String, Integer>> performanceData = new TreeMap<>();
+        return measured("getOverallPerformance", () -> overallPerformance(pageAccessToken));
+    }
+
+    private Map<String, Map<String, Integer>> overallPerformance(String pageAccessToken) throws RemoteException {
         try {
-            FacebookClient fbClient = new DefaultFacebookClient(pageAccessToken, Version.LATEST);
-            
-            // Fetch page_impressions_unique (Reach) and page_engaged_users (Engagement)
-            // Using "day" period to get daily values
-            Connection<JsonObject> insights = fbClient.fetchConnection("me/insights", JsonObject.class,
-                    Parameter.with("metric", "page_impressions_unique,page_engaged_users"),
-                    Parameter.with("period", "day"));
-
-            for (List<JsonObject> insightPage : insights) {
-                for (JsonObject metric : insightPage) {
-                    String metricName = metric.getString("name", "");
-                    if (metric.get("values") == null) continue;
-
-                    for (com.restfb.json.JsonValue valueVal : metric.get("values").asArray()) {
-                        JsonObject valueObj = valueVal.asObject();
-                        String date = valueObj.getString("end_time", "").substring(0, 10); // YYYY-MM-DD
-                        int value = valueObj.getInt("value", 0);
-
-                        performanceData.putIfAbsent(date, new HashMap<>());
-                        Map<String, Integer> dayData = performanceData.get(date);
-
-                        if ("page_impressions_unique".equals(metricName)) {
-                            dayData.put("Reach", value);
-                        } else if ("page_engaged_users".equals(metricName)) {
-                            dayData.put("Engagement", value);
-                        }
-                    }
+            TokenSession session = sessions.session(pageAccessToken);
+            return resultCache.get(ResultCache.key(session.getTokenHash(), "getOverallPerformance"), INSIGHTS_TTL_MILLIS, () -> {
+                Map<String, Map<String, Integer>> performanceData = new TreeMap<>();
+
+                // Fetch page_impressions_unique (Reach) and page_engaged_users (Engagement)
+                // Using "day" period to get daily values
+                Connection<JsonObject> insights = session.getClient().fetchConnection("me/insights", JsonObject.class,
+                        Parameter.with("metric", "page_impressions_unique,page_engaged_users"),
+                        Parameter.with("period", "day"));
+
+                for (List<JsonObject> insightPage : insights) {
+                    collectOverallPerformance(insightPage, performanceData);
                 }
-            }
+                return performanceData;
+            });
         } catch (FacebookException e) {
+            onFacebookError(pageAccessToken, e);
             System.err.println("Facebook API Error in getOverallPerformance: " + e.getMessage());
             throw new RemoteException("Facebook API Error: " + e.getMessage());
         } catch (Exception e) {
             throw new RemoteException("Could not fetch overall performance data: " + e.getMessage());
         }
-        return performanceData;
     }
 
     @Override
-    public SocialInsights analyzePage(String pageAccessToken, long sinceTimestamp) throws RemoteException {
-        SocialInsights insights = new SocialInsights();
-        System.out.println("Connecting to Facebook Graph API with timestamp: " + sinceTimestamp);
-
-        try {
-            FacebookClient fbClient = new DefaultFacebookClient(pageAccessToken, Version.LATEST);
-            
+    public DashboardBundle getDashboardBundle(String pageAccessToken, long sinceTimestamp, Set<DashboardBundle.Section> sections) throws RemoteException {
+        return measured("getDashboardBundle", () -> {
             try {
-                User userCheck = fbClient.fetchObject("me", User.class, Parameter.with("fields", "id,name"));
+                TokenSession session = sessions.session(pageAccessToken);
+                Set<DashboardBundle.Section> requested = EnumSet.noneOf(DashboardBundle.Section.class);
+                requested.addAll(sections);
+                return resultCache.get(ResultCache.key(session.getTokenHash(), "getDashboardBundle" + requested, sinceTimestamp), BUNDLE_TTL_MILLIS,
+                        () -> admission.admit("getDashboardBundle", () -> loadDashboardBundle(session, sinceTimestamp, requested)));
+            } catch (FacebookException e) {
+                onFacebookError(pageAccessToken, e);
+                System.err.println("Facebook API Error in getDashboardBundle: " + e.getMessage());
+                throw new RemoteException("Facebook API Error: " + e.getMessage());
+            } catch (ServerBusyException e) {
+                throw e;
             } catch (Exception e) {
-                // Ignore for now
+                throw new RemoteException("Could not fetch dashboard bundle: " + e.getMessage());
             }
+        });
+    }
 
-            Page page;
+    @Override
+    public long subscribe(String pageAccessToken, long sinceTimestamp, PageUpdateListener listener) throws RemoteException {
+        return measured("subscribe", () -> {
+            if (pageAccessToken == null || pageAccessToken.trim().isEmpty() || listener == null) {
+                throw new RemoteException("A token and a listener are required to subscribe.");
+            }
+            String pageKey;
             try {
-                page = fbClient.fetchObject("me", Page.class, Parameter.with("fields", "fan_count,name,followers_count"));
+                pageKey = pageKey(sessions.session(pageAccessToken));
             } catch (FacebookException e) {
-                if (e.getMessage().contains("node type (User)")) {
-                    throw new RemoteException("Invalid Token Type: You provided a User Access Token. Please provide a Page Access Token.");
-                }
-                throw e;
+                onFacebookError(pageAccessToken, e);
+                throw new RemoteException("Facebook API Error: " + e.getMessage());
             }
+            watcherHub.subscribe(pageKey, pageAccessToken, sinceTimestamp, listener);
+            return watcherHub.getLeaseMillis();
+        });
+    }
 
-            System.out.println("Successfully connected to page: " + page.getName());
-            insights.setTotalFollowers(page.getFollowersCount() != null ? page.getFollowersCount() : (page.getFanCount() != null ? page.getFanCount() : 0));
+    @Override
+    public boolean renewSubscription(PageUpdateListener listener) throws RemoteException {
+        return measured("renewSubscription", () -> listener != null && watcherHub.renew(listener));
+    }
 
-            Connection<Post> periodConnection = fbClient.fetchConnection("me/posts", Post.class,
-                    Parameter.with("fields", "id,message,created_time,reactions.limit(0).summary(total_count),comments.limit(0).summary(true)"),
-                    Parameter.with("since", sinceTimestamp),
-                    Parameter.with("limit", 100));
-            List<Post> periodPosts = periodConnection.getData();
+    @Override
+    public void unsubscribe(PageUpdateListener listener) throws RemoteException {
+        measured("unsubscribe", () -> {
+            if (listener != null) {
+                watcherHub.unsubscribe(listener);
+            }
+            return null;
+        });
+    }
 
-            SocialInsights.PeriodMetrics metrics = new SocialInsights.PeriodMetrics();
-            metrics.setPostsInPeriod(periodPosts.size());
-            long pLikes = 0, pComments = 0, pShares = 0;
-            List<Map<String, Object>> recentPostDetails = new ArrayList<>();
-            
-            for (Post p : periodPosts) {
-                long likes = (p.getReactions() != null && p.getReactions().getTotalCount() != null) ? p.getReactions().getTotalCount() : 0;
-                long comments = (p.getComments() != null && p.getComments().getTotalCount() != null) ? p.getComments().getTotalCount() : 0;
-                long shares = 0; // Shares not always available in this view
-                
-                pLikes += likes;
-                pComments += comments;
-                pShares += shares;
-                
-                String fullMessage = p.getMessage() != null ? p.getMessage() : "Media Post";
-                String shortMessage = fullMessage.length() > 50 ? fullMessage.substring(0, 47) + "..." : fullMessage;
-                
-                Map<String, Object> detail = new HashMap<>();
-                detail.put("id", p.getId());
-                detail.put("text", shortMessage);
-                detail.put("full_text", fullMessage);
-                detail.put("engagement", likes + comments + shares);
-                detail.put("likes", likes);
-                detail.put("comments", comments);
-                detail.put("shares", shares);
-                detail.put("created_time", p.getCreatedTime() != null ? p.getCreatedTime().toString() : "Unknown");
-                recentPostDetails.add(detail);
-            }
-            metrics.setLikesInPeriod(pLikes);
-            metrics.setCommentsInPeriod(pComments);
-            metrics.setSharesInPeriod(pShares);
-            insights.setPeriodMetrics(metrics);
-            insights.setHasRecentActivity(!periodPosts.isEmpty());
-            insights.setRecentPosts(recentPostDetails);
+    @Override
+    public void analyzePages(List<String> pageAccessTokens, long sinceTimestamp, PortfolioListener listener) throws RemoteException {
+        measured("analyzePages", () -> {
+            if (pageAccessTokens == null || pageAccessTokens.isEmpty() || listener == null) {
+                throw new RemoteException("At least one token and a listener are required to analyze a portfolio.");
+            }
+            portfolios.start(pageAccessTokens, sinceTimestamp, listener);
+            return null;
+        });
+    }
 
-            Connection<Post> historyConnection = fbClient.fetchConnection("me/posts", Post.class,
-                    Parameter.with("fields", "message,created_time,reactions.limit(0).summary(total_count),comments.limit(5).summary(true)"),
-                    Parameter.with("limit", 50));
-            List<Post> historyPosts = historyConnection.getData();
+    @Override
+    public SocialInsights analyzePage(String pageAccessToken, long sinceTimestamp) throws RemoteException {
+        return measured("analyzePage", () -> analyzed(pageAccessToken, sinceTimestamp).getInsights());
+    }
 
-            processHistoricalData(insights, historyPosts);
-            generateMockData(insights);
-            generateRecommendations(insights);
-            
-            // Fetch Overall Performance Data
-            try {
-                Map<String, Map<String, Integer>> overallPerformance = getOverallPerformance(pageAccessToken);
-                insights.setOverallPerformance(overallPerformance);
-            } catch (Exception e) {
-                System.err.println("Failed to fetch overall performance: " + e.getMessage());
-                // Don't fail the whole analysis if this part fails
+    @Override
+    public InsightsPayload analyzePageCompact(String pageAccessToken, long sinceTimestamp) throws RemoteException {
+        return measured("analyzePageCompact", () -> {
+            InsightsPrecomputer.Result result = analyzed(pageAccessToken, sinceTimestamp);
+            return new InsightsPayload(result.getInsights(), result.getComputedAtMillis());
+        });
+    }
+
+    @Override
+    public void trackPage(String pageAccessToken, long sinceTimestamp) throws RemoteException {
+        measured("trackPage", () -> {
+            if (pageAccessToken == null || pageAccessToken.trim().isEmpty()) {
+                throw new RemoteException("A token is required to track a page.");
+            }
+            if (precomputer != null) {
+                precomputer.track(pageAccessToken, sinceTimestamp);
             }
+            return null;
+        });
+    }
 
+    @Override
+    public void untrackPage(String pageAccessToken) throws RemoteException {
+        measured("untrackPage", () -> {
+            if (precomputer != null && pageAccessToken != null) {
+                precomputer.untrack(pageAccessToken);
+            }
+            return null;
+        });
+    }
+
+    // Tracked pages are answered from their background-refreshed result; anything else is analyzed now and tracked
+    private InsightsPrecomputer.Result analyzed(String pageAccessToken, long sinceTimestamp) throws RemoteException {
+        try {
+            if (precomputer != null) {
+                InsightsPrecomputer.Result ready = precomputer.latest(pageAccessToken, sinceTimestamp);
+                if (ready != null) {
+                    return ready;
+                }
+            }
+            TokenSession session = sessions.session(pageAccessToken);
+            InsightsPrecomputer.Result result = resultCache.get(ResultCache.key(session.getTokenHash(), "analyzePage", sinceTimestamp), ANALYSIS_TTL_MILLIS,
+                    () -> new InsightsPrecomputer.Result(admission.admit("analyzePage", () -> buildInsights(pageAccessToken, session, sinceTimestamp)),
+                            System.currentTimeMillis()));
+            if (precomputer != null) {
+                precomputer.store(pageAccessToken, sinceTimestamp, result);
+            }
+            return result;
         } catch (FacebookException e) {
+            onFacebookError(pageAccessToken, e);
             System.err.println("Facebook API Error in analyzePage: " + e.getMessage());
             if (e.getMessage().contains("Invalid Token Type")) {
                  throw new RemoteException(e.getMessage());
             }
             throw new RemoteException("Facebook API Error: " + e.getMessage()); 
+        } catch (ServerBusyException e) {
+            throw e;
         } catch (Exception e) {
             System.err.println("General Error: " + e.getMessage());
             throw new RemoteException("Analysis Error: " + e.getMessage());
         }
-        return insights;
     }
 
-    private void processHistoricalData(SocialInsights insights, List<Post> posts) {
-        insights.setTotalPostsAnalyzed(posts.size());
+    private DashboardBundle loadDashboardBundle(TokenSession session, long sinceTimestamp, Set<DashboardBundle.Section> sections) throws Exception {
+        DashboardBundle bundle = new DashboardBundle();
+        FacebookClient fbClient = session.getClient();
 
-        long totalLikes = 0, totalComments = 0, totalShares = 0;
-        int goodComments = 0, badComments = 0;
-        List<Long> likesPerPost = new ArrayList<>(), commentsPerPost = new ArrayList<>(), sharesPerPost = new ArrayList<>();
-        List<Map<String, Object>> postDetails = new ArrayList<>();
-        Map<String, Integer> engagementByContentType = new HashMap<>();
-        Map<String, Integer> hashtagRankings = new HashMap<>();
-        Map<String, Map<String, Object>> postInspectorData = new HashMap<>();
+        // Everything except the paginated post window goes into a single Graph batch request
+        List<BatchRequest> requests = new ArrayList<>();
+        List<DashboardBundle.Section> requestSections = new ArrayList<>();
+
+        StringBuilder meFields = new StringBuilder();
+        if (sections.contains(DashboardBundle.Section.PROFILE)) meFields.append("name,id,category,picture{url}");
+        if (sections.contains(DashboardBundle.Section.COUNTS)) meFields.append(meFields.length() > 0 ? "," : "").append("fan_count,followers_count");
+        if (meFields.length() > 0) {
+            requests.add(new BatchRequest.BatchRequestBuilder("me").parameters(Parameter.with("fields", meFields.toString())).build());
+            requestSections.add(sections.contains(DashboardBundle.Section.PROFILE) ? DashboardBundle.Section.PROFILE : DashboardBundle.Section.COUNTS);
+        }
+        if (sections.contains(DashboardBundle.Section.DEMOGRAPHICS)) {
+            requests.add(new BatchRequest.BatchRequestBuilder("me/insights").parameters(
+                    Parameter.with("metric", "page_fans_gender_age"),
+                    Parameter.with("period", "lifetime")).build());
+            requestSections.add(DashboardBundle.Section.DEMOGRAPHICS);
+        }
+        if (sections.contains(DashboardBundle.Section.INSIGHTS)) {
+            requests.add(new BatchRequest.BatchRequestBuilder("me/insights").parameters(
+                    Parameter.with("metric", "page_impressions_unique,page_engaged_users"),
+                    Parameter.with("period", "day")).build());
+            requestSections.add(DashboardBundle.Section.INSIGHTS);
+        }
+
+        List<BatchResponse> responses = requests.isEmpty() ? Collections.emptyList() : fbClient.executeBatch(requests);
+        for (int i = 0; i < responses.size(); i++) {
+            DashboardBundle.Section section = requestSections.get(i);
+            BatchResponse response = responses.get(i);
+            if (response == null || response.getCode() == null || response.getCode() != 200) {
+                String message = response != null ? response.getBody() : "No response";
+                markBundleFailed(bundle, section, sections, message);
+                continue;
+            }
 
-        for (Post post : posts) {
-            long likes = (post.getReactions() != null && post.getReactions().getTotalCount() != null) ? post.getReactions().getTotalCount() : 0;
-            long comments = (post.getComments() != null && post.getComments().getTotalCount() != null) ? post.getComments().getTotalCount() : 0;
-            long shares = 0;
-
-            totalLikes += likes; totalComments += comments; totalShares += shares;
-            likesPerPost.add(likes); commentsPerPost.add(comments); sharesPerPost.add(shares);
-
-            String fullMessage = post.getMessage() != null ? post.getMessage() : "Media Post";
-            String shortMessage = fullMessage.length() > 50 ? fullMessage.substring(0, 47) + "..." : fullMessage;
-            
-            Map<String, Object> detail = new HashMap<>();
-            detail.put("id", post.getId());
-            detail.put("text", shortMessage);
-            detail.put("full_text", fullMessage);
-            detail.put("engagement", likes + comments + shares);
-            detail.put("likes", likes);
-            detail.put("comments", comments);
-            detail.put("shares", shares);
-            detail.put("created_time", post.getCreatedTime() != null ? post.getCreatedTime().toString() : "Unknown");
-            postDetails.add(detail);
-
-            Map<String, Object> inspectorDetail = new HashMap<>(detail);
-            inspectorDetail.put("type", post.getType() != null ? post.getType() : "unknown");
-            
-            postInspectorData.put(post.getId(), inspectorDetail);
-
-            String type = post.getType();
-            if (type == null) type = "unknown";
-            long engagement = likes + comments + shares;
-            engagementByContentType.put(type, engagementByContentType.getOrDefault(type, 0) + (int) engagement);
-
-            if (post.getMessage() != null) {
-                String[] words = post.getMessage().toLowerCase().split("[\\s\\p{Punct}]+");
-                for (String word : words) {
-                    if (word.startsWith("#")) {
-                        hashtagRankings.put(word, hashtagRankings.getOrDefault(word, 0) + 1);
+            switch (section) {
+                case PROFILE:
+                case COUNTS:
+                    Page page = fbClient.getJsonMapper().toJavaObject(response.getBody(), Page.class);
+                    if (sections.contains(DashboardBundle.Section.PROFILE)) {
+                        String pictureUrl = (page.getPicture() != null && page.getPicture().getUrl() != null) ? page.getPicture().getUrl() : "";
+                        bundle.setProfile(new PageProfile(page.getName(), page.getId(), page.getCategory(), pictureUrl));
+                        bundle.markLoaded(DashboardBundle.Section.PROFILE);
                     }
-                }
+                    if (sections.contains(DashboardBundle.Section.COUNTS)) {
+                        bundle.setFollowerCount(followersOf(page));
+                        bundle.setPageLikes(page.getFanCount() != null ? page.getFanCount() : 0);
+                        bundle.markLoaded(DashboardBundle.Section.COUNTS);
+                    }
+                    break;
+                case DEMOGRAPHICS:
+                    bundle.setGenderBreakdown(parseGenderBreakdown(insightsData(response.getBody())));
+                    bundle.markLoaded(section);
+                    break;
+                case INSIGHTS:
+                    Map<String, Map<String, Integer>> performanceData = new TreeMap<>();
+                    collectOverallPerformance(insightsData(response.getBody()), performanceData);
+                    bundle.setOverallPerformance(performanceData);
+                    bundle.markLoaded(section);
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        if (sections.contains(DashboardBundle.Section.ENGAGEMENT)) {
+            PostSnapshot snapshot = snapshotEngine.window(pageKey(session), fbClient, sinceTimestamp);
+            bundle.setPostEngagementOverTime(aggregateEngagementOverTime(snapshot));
+            bundle.markLoaded(DashboardBundle.Section.ENGAGEMENT);
+        }
+        return bundle;
+    }
+
+    // Background refresh of a tracked page; an analysis like any other, so it takes an admission slot
+    private SocialInsights precompute(String pageAccessToken, long sinceTimestamp) throws Exception {
+        TokenSession session = sessions.session(pageAccessToken);
+        try {
+            return admission.admit("precompute", () -> buildInsights(pageAccessToken, session, sinceTimestamp));
+        } catch (FacebookException e) {
+            onFacebookError(pageAccessToken, e);
+            throw e;
+        }
+    }
+
+    private SocialInsights buildInsights(String pageAccessToken, TokenSession session, long sinceTimestamp) throws Exception {
+        SocialInsights insights = new SocialInsights();
+        FacebookClient fbClient = session.getClient();
+
+        List<Future<?>> branches = new ArrayList<>();
+        ExecutorService scope = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            long started = System.currentTimeMillis();
+            // The Graph calls behind an analysis are independent, so they run as concurrent branches on virtual threads and
+            // the analysis waits roughly for the slowest one. Identity, profile and period posts are required; history and
+            // overall performance fall back (to the period posts / nothing) if they fail or miss their deadline.
+            // Token type is resolved once per session instead of with a throwaway "me" fetch on every call
+            Future<TokenSession.Identity> identity = fork(scope, branches, "analyzePage.identity", session::identity);
+            Future<Page> profile = fork(scope, branches, "analyzePage.profile", () -> fetchAnalyzedPage(fbClient));
+            Future<PostSnapshot> period = fork(scope, branches, "analyzePage.posts", () -> snapshotEngine.window(pageKey(session), fbClient, sinceTimestamp));
+            Future<PostTable> history = fork(scope, branches, "analyzePage.history",
+                    () -> snapshotEngine.mostRecent(pageKey(session), fbClient, null, HISTORY_POST_COUNT));
+            Future<Map<String, Map<String, Integer>>> overall = fork(scope, branches, "analyzePage.overall", () -> overallPerformance(pageAccessToken));
+
+            if (join(identity, started + PROFILE_BRANCH_TIMEOUT_MILLIS, "token identity").getType() == TokenSession.TokenType.USER) {
+                throw new RemoteException("Invalid Token Type: You provided a User Access Token. Please provide a Page Access Token.");
+            }
+            Page page = join(profile, started + PROFILE_BRANCH_TIMEOUT_MILLIS, "page profile");
+            insights.setTotalFollowers(followersOf(page));
+
+            // One walk of the selected window feeds period metrics and recent posts
+            PostSnapshot periodSnapshot = join(period, started + POSTS_BRANCH_TIMEOUT_MILLIS, "period posts");
+            PostTable periodPosts = periodSnapshot.table();
+
+            long processStart = System.nanoTime();
+            SocialInsights.PeriodMetrics metrics = new SocialInsights.PeriodMetrics();
+            metrics.setPostsInPeriod(periodPosts.size());
+            metrics.setLikesInPeriod(periodPosts.totalLikes());
+            metrics.setCommentsInPeriod(periodPosts.totalComments());
+            metrics.setSharesInPeriod(periodPosts.totalShares());
+            insights.setPeriodMetrics(metrics);
+            insights.setHasRecentActivity(periodPosts.size() > 0);
+
+            List<Map<String, Object>> recentPostDetails = new ArrayList<>(periodPosts.size());
+            for (int row = 0; row < periodPosts.size(); row++) {
+                recentPostDetails.add(toPostDetail(periodPosts, row));
+            }
+            insights.setRecentPosts(recentPostDetails);
+
+            PostTable historyTable = joinOrElse(history, started + HISTORY_BRANCH_TIMEOUT_MILLIS, "post history",
+                    () -> periodSnapshot.mostRecent(HISTORY_POST_COUNT));
+            CommentAggregate comments = null;
+            if (commentIngestor != null) {
+                // Waiting on the comment pages is the comments phase, not processing; at the deadline the ingestor
+                // hands back what it has read, with samples standing in for the posts it never reached
+                long waitStart = System.nanoTime();
+                comments = commentIngestor.ingest(fbClient, historyTable, started + COMMENTS_BRANCH_TIMEOUT_MILLIS);
+                long waited = System.nanoTime() - waitStart;
+                this.metrics.recordPhase("analyzePage.comments", waited);
+                processStart += waited;
+            }
+            if (comments == null) {
+                comments = aggregateComments(historyTable);
+            }
+            processHistoricalData(insights, historyTable, comments);
+            generateMockData(insights);
+            generateRecommendations(insights, comments);
+            this.metrics.addPostsProcessed(periodPosts.size() + historyTable.size());
+            this.metrics.recordPhase("analyzePage.process", System.nanoTime() - processStart);
+
+            // Don't fail the whole analysis if overall performance fails
+            Map<String, Map<String, Integer>> overallPerformance = joinOrElse(overall, started + OVERALL_BRANCH_TIMEOUT_MILLIS,
+                    "overall performance", () -> null);
+            if (overallPerformance != null) {
+                insights.setOverallPerformance(overallPerformance);
+            }
+            return insights;
+        } finally {
+            // Only has work to do when a required branch failed: the analysis must not wait for the rest
+            for (Future<?> branch : branches) {
+                branch.cancel(true);
             }
+            scope.shutdown();
+        }
+    }
 
-            if (post.getComments() != null && post.getComments().getData() != null) {
-                for (Comment comment : post.getComments().getData()) {
-                    String commentMsg = comment.getMessage().toLowerCase();
-                    if (POSITIVE_KEYWORDS.stream().anyMatch(commentMsg::contains)) goodComments++;
-                    if (NEGATIVE_KEYWORDS.stream().anyMatch(commentMsg::contains)) badComments++;
+    private Page fetchAnalyzedPage(FacebookClient fbClient) throws RemoteException {
+        try {
+            return fbClient.fetchObject("me", Page.class, Parameter.with("fields", "fan_count,name,followers_count"));
+        } catch (FacebookException e) {
+            if (e.getMessage().contains("node type (User)")) {
+                throw new RemoteException("Invalid Token Type: You provided a User Access Token. Please provide a Page Access Token.");
+            }
+            throw e;
+        }
+    }
+
+    // Branches keep the caller's Graph priority (thread locals do not follow work onto the virtual threads)
+    private <T> Future<T> fork(ExecutorService scope, List<Future<?>> branches, String phase, Callable<T> branch) {
+        GraphCallScheduler.Priority priority = GraphCallScheduler.currentPriority();
+        Future<T> future = scope.submit(() -> {
+            long start = System.nanoTime();
+            try {
+                return GraphCallScheduler.callAs(priority, branch);
+            } finally {
+                metrics.recordPhase(phase, System.nanoTime() - start);
+            }
+        });
+        branches.add(future);
+        return future;
+    }
+
+    // Waits for a required branch until the deadline and rethrows its own failure (so Facebook errors keep their type)
+    private static <T> T join(Future<T> branch, long deadlineMillis, String name) throws Exception {
+        try {
+            return branch.get(Math.max(0, deadlineMillis - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            branch.cancel(true);
+            throw new TimeoutException("Timed out fetching " + name);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw e;
+        }
+    }
+
+    private static <T> T joinOrElse(Future<T> branch, long deadlineMillis, String name, Supplier<T> fallback) {
+        try {
+            return join(branch, deadlineMillis, name);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            System.err.println("Failed to fetch " + name + ": " + e.getMessage());
+        }
+        return fallback.get();
+    }
+
+    // Best day, best hour and the full heatmap all come from one cached pass over the window
+    private PostingHeatmap postingHeatmap(TokenSession session, long sinceTimestamp) throws Exception {
+        return resultCache.get(ResultCache.key(session.getTokenHash(), "getPostingHeatmap", sinceTimestamp), POST_AGGREGATE_TTL_MILLIS,
+                () -> admission.admit("getPostingHeatmap", () -> {
+                    PostSnapshot snapshot = snapshotEngine.window(pageKey(session), session.getClient(), sinceTimestamp);
+                    metrics.addPostsProcessed(snapshot.table().size());
+                    return PostingHeatmap.of(snapshot.table());
+                }));
+    }
+
+    private long followersOf(Page page) {
+        return page.getFollowersCount() != null ? page.getFollowersCount() : (page.getFanCount() != null ? page.getFanCount() : 0);
+    }
+
+    private List<JsonObject> insightsData(String body) {
+        List<JsonObject> metrics = new ArrayList<>();
+        JsonObject root = Json.parse(body).asObject();
+        if (root.get("data") != null) {
+            for (com.restfb.json.JsonValue value : root.get("data").asArray()) {
+                metrics.add(value.asObject());
+            }
+        }
+        return metrics;
+    }
+
+    private void markBundleFailed(DashboardBundle bundle, DashboardBundle.Section section, Set<DashboardBundle.Section> requested, String message) {
+        // PROFILE and COUNTS share the "me" request
+        if (section == DashboardBundle.Section.PROFILE && requested.contains(DashboardBundle.Section.COUNTS)) {
+            bundle.markFailed(DashboardBundle.Section.COUNTS, message);
+        }
+        bundle.markFailed(section, message);
+    }
+
+    private Map<String, Integer> parseGenderBreakdown(List<JsonObject> metrics) {
+        Map<String, Integer> genderData = new HashMap<>();
+        if (metrics.isEmpty()) {
+            return genderData;
+        }
+
+        JsonObject metric = metrics.get(0);
+        if (metric.get("values") == null || metric.get("values").asArray().isEmpty()) {
+            return genderData;
+        }
+
+        JsonObject values = metric.get("values").asArray().get(0).asObject().get("value").asObject();
+
+        int maleCount = 0;
+        int femaleCount = 0;
+        int unknownCount = 0;
+
+        for (String key : values.names()) {
+            int count = values.get(key).asInt();
+            if (key.startsWith("M.")) {
+                maleCount += count;
+            } else if (key.startsWith("F.")) {
+                femaleCount += count;
+            } else {
+                unknownCount += count;
+            }
+        }
+
+        if (maleCount > 0) genderData.put("Male", maleCount);
+        if (femaleCount > 0) genderData.put("Female", femaleCount);
+        if (unknownCount > 0) genderData.put("Unknown", unknownCount);
+        return genderData;
+    }
+
+    static Map<String, Map<String, Integer>> aggregateEngagementOverTime(PostSnapshot snapshot) {
+        PostTable posts = snapshot.table();
+        ZoneId zone = ZoneId.systemDefault();
+
+        // {likes, comments, shares} per day label, in first-seen (newest first) order
+        Map<String, long[]> totalsByDate = new LinkedHashMap<>();
+        for (int row = 0; row < posts.size(); row++) {
+            if (!posts.hasCreatedTime(row)) continue;
+
+            String date = Instant.ofEpochMilli(posts.createdTime(row)).atZone(zone).format(DAY_LABEL_FORMAT);
+            long[] totals = totalsByDate.computeIfAbsent(date, d -> new long[3]);
+            totals[0] += posts.likes(row);
+            totals[1] += posts.comments(row);
+            totals[2] += posts.shares(row);
+        }
+
+        Map<String, Map<String, Integer>> engagementData = new LinkedHashMap<>();
+        totalsByDate.forEach((date, totals) -> {
+            Map<String, Integer> dayData = new HashMap<>();
+            dayData.put("Likes", (int) totals[0]);
+            dayData.put("Comments", (int) totals[1]);
+            dayData.put("Shares", (int) totals[2]);
+            dayData.put("Total", (int) (totals[0] + totals[1] + totals[2]));
+            engagementData.put(date, dayData);
+        });
+        return engagementData;
+    }
+
+    private void collectOverallPerformance(List<JsonObject> metrics, Map<String, Map<String, Integer>> performanceData) {
+        for (JsonObject metric : metrics) {
+            String metricName = metric.getString("name", "");
+            if (metric.get("values") == null) continue;
+
+            for (com.restfb.json.JsonValue valueVal : metric.get("values").asArray()) {
+                JsonObject valueObj = valueVal.asObject();
+                String date = valueObj.getString("end_time", "").substring(0, 10); // YYYY-MM-DD
+                int value = valueObj.getInt("value", 0);
+
+                performanceData.putIfAbsent(date, new HashMap<>());
+                Map<String, Integer> dayData = performanceData.get(date);
+
+                if ("page_impressions_unique".equals(metricName)) {
+                    dayData.put("Reach", value);
+                } else if ("page_engaged_users".equals(metricName)) {
+                    dayData.put("Engagement", value);
                 }
             }
         }
-        
+    }
+
+    // Post timelines belong to the page, not the token, so they outlive a revoked token; a new session re-resolves
+    // the page before it can reach them
+    private void onFacebookError(String pageAccessToken, FacebookException e) {
+        if (sessions.invalidateOnAuthError(pageAccessToken, e)) {
+            resultCache.invalidate(TokenSessionRegistry.hash(pageAccessToken));
+            // A revoked token must neither be served its precomputed insights nor keep being refreshed
+            if (precomputer != null) {
+                precomputer.untrack(pageAccessToken);
+            }
+        }
+    }
+
+    // Post timelines and the post store are keyed by the page id from "me", so every token of a page shares one
+    // history; the token hash stands in only if Graph returns no id
+    private static String pageKey(TokenSession session) {
+        String id = session.identity().getId();
+        return id.isEmpty() ? session.getTokenHash() : id;
+    }
+
+    static void processHistoricalData(SocialInsights insights, PostTable posts) {
+        processHistoricalData(insights, posts, aggregateComments(posts));
+    }
+
+    // comments: the aggregate of the posts' comments, either full histories or the sampled ones on each row
+    static void processHistoricalData(SocialInsights insights, PostTable posts, CommentAggregate comments) {
+        insights.setTotalPostsAnalyzed(posts.size());
+
+        // Only the text-dependent metrics touch the records; everything numeric comes from the columns
+        SpaceSavingTopK hashtagRankings = countHashtags(posts);
+
         Map<String, Double> sentiment = new HashMap<>();
-        sentiment.put("Good", (double) goodComments);
-        sentiment.put("Bad", (double) badComments);
+        sentiment.put("Good", (double) comments.getPositive());
+        sentiment.put("Bad", (double) comments.getNegative());
         insights.setSentimentDistribution(sentiment);
 
-        double totalEngagement = totalLikes + totalComments + totalShares;
+        double totalEngagement = posts.totalLikes() + posts.totalComments() + posts.totalShares();
         long followerCount = insights.getTotalFollowers();
-        insights.setAverageEngagementRate((posts.isEmpty() || followerCount == 0) ? 0 : (totalEngagement / posts.size() / followerCount) * 100);
+        insights.setAverageEngagementRate((posts.size() == 0 || followerCount == 0) ? 0 : (totalEngagement / posts.size() / followerCount) * 100);
         
-        insights.setLikesPerPost(likesPerPost);
-        insights.setCommentsPerPost(commentsPerPost);
-        insights.setSharesPerPost(sharesPerPost);
+        insights.setLikesPerPost(posts.toList(PostTable.Column.LIKES));
+        insights.setCommentsPerPost(posts.toList(PostTable.Column.COMMENTS));
+        insights.setSharesPerPost(posts.toList(PostTable.Column.SHARES));
         
-        // Top Performing Posts: Sort ALL historical posts by engagement descending
-        postDetails.sort(Comparator.comparingLong(p -> (long) ((Map<String, Object>) p).get("engagement")).reversed());
-        insights.setTopPerformingPosts(postDetails.stream().limit(10).collect(Collectors.toList())); // Increased limit to 10
+        // Top Performing Posts: top 10 of ALL historical posts by engagement
+        List<Map<String, Object>> topPosts = new ArrayList<>();
+        for (int row : posts.topByEngagement(10)) {
+            topPosts.add(toPostDetail(posts, row));
+        }
+        insights.setTopPerformingPosts(topPosts);
         
         // Filter out content types with 0 posts
-        Map<String, Integer> filteredEngagementByContentType = new HashMap<>();
-        engagementByContentType.forEach((type, engagement) -> {
-            if (engagement > 0) {
-                filteredEngagementByContentType.put(type, engagement);
+        long[] engagementByType = posts.engagementByType();
+        Map<String, Integer> engagementByContentType = new HashMap<>();
+        for (int code = 0; code < engagementByType.length; code++) {
+            if (engagementByType[code] > 0) {
+                engagementByContentType.put(posts.typeName(code), (int) engagementByType[code]);
             }
-        });
-        insights.setEngagementByContentType(filteredEngagementByContentType);
+        }
+        insights.setEngagementByContentType(engagementByContentType);
 
-        insights.setHashtagRankings(hashtagRankings.entrySet().stream()
-                .sorted(Map.Entry.comparingByValue(Comparator.reverseOrder())).limit(10)
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (e1, e2) -> e1, LinkedHashMap::new)));
+        insights.setHashtagRankings(hashtagRankings.top(10));
         
+        Map<String, Map<String, Object>> postInspectorData = new HashMap<>();
+        for (int row = 0; row < posts.size(); row++) {
+            Map<String, Object> inspectorDetail = toPostDetail(posts, row);
+            inspectorDetail.put("type", posts.typeName(posts.typeCode(row)));
+            postInspectorData.put(posts.id(row), inspectorDetail);
+        }
         insights.setPostInspectorData(postInspectorData);
     }
 
+    // One tokenizer pass per message into a bounded counter set; top 10 of a year of posts needs far fewer than this
+    static SpaceSavingTopK countHashtags(PostTable posts) {
+        SpaceSavingTopK hashtagRankings = new SpaceSavingTopK(HASHTAG_COUNTERS);
+        SocialTokenizer.Sink sink = (kind, tag) -> {
+            if (kind == SocialTokenizer.Kind.HASHTAG) {
+                hashtagRankings.add(tag);
+            }
+        };
+        for (int row = 0; row < posts.size(); row++) {
+            SocialTokenizer.scan(posts.message(row), sink);
+        }
+        return hashtagRankings;
+    }
+
+    // Sentiment and keywords over the comments sampled on every row; a comment is good or bad by the sign of its score
+    static CommentAggregate aggregateComments(PostTable posts) {
+        CommentAggregate aggregate = new CommentAggregate();
+        for (int row = 0; row < posts.size(); row++) {
+            posts.commentMessages(row).forEach(aggregate::accept);
+        }
+        return aggregate;
+    }
+
+    // RMI-facing shape of one row; the only place post text is materialized
+    private static Map<String, Object> toPostDetail(PostTable posts, int row) {
+        String message = posts.message(row);
+        String fullMessage = message != null ? message : "Media Post";
+        String shortMessage = fullMessage.length() > 50 ? fullMessage.substring(0, 47) + "..." : fullMessage;
+
+        Map<String, Object> detail = new HashMap<>();
+        detail.put("id", posts.id(row));
+        detail.put("text", shortMessage);
+        detail.put("full_text", fullMessage);
+        detail.put("engagement", posts.engagement(row));
+        detail.put("likes", posts.likes(row));
+        detail.put("comments", posts.comments(row));
+        detail.put("shares", posts.shares(row));
+        detail.put("created_time", posts.createdTimeText(row));
+        return detail;
+    }
+
     private void generateMockData(SocialInsights insights) {
         Random rand = new Random();
         insights.setGrowthPercentage(1.5 + (3.5 - 1.5) * rand.nextDouble());
@@ -636,7 +1036,7 @@ public class AnalyticsServiceImpl extends UnicastRemoteObject implements Analyti
         insights.setNewVsReturning(newVsReturning);
     }
 
-    private void generateRecommendations(SocialInsights insights) {
+    private void generateRecommendations(SocialInsights insights, CommentAggregate comments) {
         List<String> recommendations = new ArrayList<>();
         
         // Best Content Type Suggestion
@@ -656,6 +1056,13 @@ public class AnalyticsServiceImpl extends UnicastRemoteObject implements Analyti
             recommendations.add("⏰ " + suggestion);
         }
 
+        // What commenters talk about, from every comment read
+        Map<String, Integer> keywords = comments.topKeywords(5);
+        if (!keywords.isEmpty()) {
+            recommendations.add(String.format("💬 Your commenters talk most about: %s (from %d comments).",
+                    String.join(", ", keywords.keySet()), comments.getComments()));
+        }
+
         // Weekly Viral Summary
         String summary = String.format("This week, %s content and %s posts performed best. Overall engagement increased by %.1f%%.",
             bestContentType.map(Map.Entry::getKey).orElse("image"),
@@ -0,0 +1,39 @@
+package com.example.socialanalystpro;
+
+import com.restfb.DefaultWebRequestor;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URL;
+
+// restfb transport that can point at a Graph stand-in (see FakeGraphServer) instead of graph.facebook.com.
+// restfb upgrades every paging URL from http:// to https://, so for a plain-HTTP base URL the upgrade is undone
+// for that host and port; all other URLs are left alone.
+public class BaseUrlWebRequestor extends DefaultWebRequestor {
+
+    private final URL baseUrl;
+
+    // baseUrl may be null for the real Graph API
+    public BaseUrlWebRequestor(String baseUrl) {
+        try {
+            this.baseUrl = baseUrl == null ? null : URI.create(baseUrl).toURL();
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid Graph base URL: " + baseUrl, e);
+        }
+    }
+
+    @Override
+    protected HttpURLConnection openConnection(URL url) throws IOException {
+        if (baseUrl != null && "http".equals(baseUrl.getProtocol()) && "https".equals(url.getProtocol())
+                && url.getHost().equals(baseUrl.getHost()) && url.getPort() == baseUrl.getPort()) {
+            // Swapping the scheme on the text keeps the already-encoded path and query exactly as restfb built them
+            try {
+                url = URI.create("http" + url.toString().substring("https".length())).toURL();
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Invalid Graph URL: " + url, e);
+            }
+        }
+        return super.openConnection(url);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.socialanalystpro;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Set;
+
+// Running totals over a stream of comments: how many were positive or negative (by SentimentLexicon score) and the
+// words commenters use most (Space-Saving, so memory stays bounded however many comments go through). Comments
+// are folded in one at a time and never kept. Not thread-safe; parallel producers each fill their own and merge.
+public final class CommentAggregate {
+
+    private static final Set<String> STOP_WORDS = Set.of("the", "and", "is", "in", "to", "of", "a", "for", "on", "with", "at", "by", "this", "that", "it", "from", "be", "are", "was", "were", "an", "as", "or", "if", "but", "so", "my", "your", "we", "you", "can", "will", "all", "has", "do", "more", "one", "about", "out", "up", "what", "when", "which", "who", "how", "why", "there", "their", "they", "just", "like", "new", "now", "get", "see", "our", "us");
+    private static final int MIN_KEYWORD_LENGTH = 3;
+    private static final int KEYWORD_COUNTERS = 512;
+
+    private final SentimentLexicon lexicon;
+    private SpaceSavingTopK keywords = new SpaceSavingTopK(KEYWORD_COUNTERS);
+    private long comments;
+    private long positive;
+    private long negative;
+
+    public CommentAggregate() {
+        this(SentimentLexicon.getDefault());
+    }
+
+    public CommentAggregate(SentimentLexicon lexicon) {
+        this.lexicon = lexicon;
+    }
+
+    public void accept(String message) {
+        if (message == null) {
+            return;
+        }
+        comments++;
+        double score = lexicon.score(message);
+        if (score > 0) positive++;
+        else if (score < 0) negative++;
+        countKeywords(message);
+    }
+
+    public void merge(CommentAggregate other) {
+        comments += other.comments;
+        positive += other.positive;
+        negative += other.negative;
+        keywords = SpaceSavingTopK.merge(keywords, other.keywords);
+    }
+
+    public long getComments() { return comments; }
+    public long getPositive() { return positive; }
+    public long getNegative() { return negative; }
+
+    public LinkedHashMap<String, Integer> topKeywords(int n) {
+        return keywords.top(n);
+    }
+
+    // Letter runs of at least MIN_KEYWORD_LENGTH, lower-cased, minus stop words; tags and links are skipped whole
+    private void countKeywords(String message) {
+        int length = message.length();
+        int i = 0;
+        while (i < length) {
+            int cp = message.codePointAt(i);
+            if (cp == '#' || cp == '@' || message.startsWith("http://", i) || message.startsWith("https://", i)) {
+                while (i < length && !Character.isWhitespace(message.charAt(i))) i++;
+                continue;
+            }
+            if (!Character.isLetter(cp)) {
+                i += Character.charCount(cp);
+                continue;
+            }
+            int start = i;
+            while (i < length) {
+                int c = message.codePointAt(i);
+                if (!Character.isLetter(c) && c != '\'') break;
+                i += Character.charCount(c);
+            }
+            if (i - start >= MIN_KEYWORD_LENGTH) {
+                String word = message.substring(start, i).toLowerCase(Locale.ROOT);
+                if (!STOP_WORDS.contains(word)) {
+                    keywords.add(word);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.example.socialanalystpro;
+
+import com.restfb.Connection;
+import com.restfb.FacebookClient;
+import com.restfb.Parameter;
+import com.restfb.json.JsonObject;
+import com.restfb.json.JsonValue;
+import com.restfb.types.Comment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Reads every comment of a set of posts into a CommentAggregate instead of the 5-comment sample on each post.
+// First pages come from multi-id queries (?ids=, up to IDS_PER_REQUEST posts per call, so 50 posts cost one request
+// rather than 50); posts with more comments are then paged on their own, at most `parallelism` at a time. Each page
+// is folded into the aggregate and dropped, so memory does not grow with a post's comment count.
+//
+// An ingestion has a deadline: whatever has been read by then is returned, posts whose first pages never arrived
+// count their sampled comments instead, and the pagers still running are stopped.
+//
+// socialanalyst.comments.parallelism (4) bounds concurrent Graph calls per ingestion and
+// socialanalyst.comments.maxPerPost (0 = no limit) optionally caps the comments read from any one post, checked per page.
+// By default every comment is read and the deadline alone bounds an ingestion.
+public class CommentIngestor {
+
+    static final int IDS_PER_REQUEST = 50;
+    private static final int PAGE_SIZE = 100;
+    private static final String COMMENT_FIELDS = "comments.limit(" + PAGE_SIZE + "){message}";
+
+    private final int parallelism;
+    private final long maxCommentsPerPost;
+
+    public CommentIngestor(int parallelism, long maxCommentsPerPost) {
+        this.parallelism = Math.max(1, parallelism);
+        this.maxCommentsPerPost = maxCommentsPerPost;
+    }
+
+    public static CommentIngestor fromSystemProperties() {
+        return new CommentIngestor(Integer.getInteger("socialanalyst.comments.parallelism", 4),
+                Long.getLong("socialanalyst.comments.maxPerPost", 0));
+    }
+
+    // Posts whose sampled comments are already complete are aggregated locally; only the rest go to Graph.
+    // Returns by deadlineMillis at the latest, with what was read by then.
+    public CommentAggregate ingest(FacebookClient client, PostTable posts, long deadlineMillis) {
+        CommentAggregate aggregate = new CommentAggregate();
+        List<Integer> incomplete = new ArrayList<>();
+        for (int row = 0; row < posts.size(); row++) {
+            List<String> sampled = posts.commentMessages(row);
+            if (posts.comments(row) > sampled.size()) {
+                incomplete.add(row);
+            } else {
+                sampled.forEach(aggregate::accept);
+            }
+        }
+        if (incomplete.isEmpty()) {
+            return aggregate;
+        }
+
+        List<List<Integer>> chunks = new ArrayList<>();
+        for (int from = 0; from < incomplete.size(); from += IDS_PER_REQUEST) {
+            chunks.add(incomplete.subList(from, Math.min(incomplete.size(), from + IDS_PER_REQUEST)));
+        }
+        // Only this thread merges, so a chunk counts either its full comments or its samples, never both
+        boolean[] merged = new boolean[chunks.size()];
+        BlockingQueue<Part> parts = new LinkedBlockingQueue<>();
+        AtomicBoolean stopped = new AtomicBoolean();
+
+        GraphCallScheduler.Priority priority = GraphCallScheduler.currentPriority();
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism, Thread.ofVirtual().name("comment-ingest-", 0).factory());
+        int outstanding = 0;
+        try {
+            for (int c = 0; c < chunks.size(); c++) {
+                int chunk = c;
+                List<String> ids = new ArrayList<>(chunks.get(chunk).size());
+                for (int row : chunks.get(chunk)) {
+                    ids.add(posts.id(row));
+                }
+                pool.execute(() -> {
+                    try {
+                        parts.add(GraphCallScheduler.callAs(priority, () -> firstPages(client, chunk, ids)));
+                    } catch (Exception e) {
+                        if (!stopped.get()) {
+                            System.err.println("Could not read first comment pages, using samples: " + e.getMessage());
+                        }
+                        parts.add(new Part(chunk, null, List.of(), true));
+                    }
+                });
+                outstanding++;
+            }
+
+            while (outstanding > 0) {
+                long wait = deadlineMillis - System.currentTimeMillis();
+                Part part = wait > 0 ? parts.poll(wait, TimeUnit.MILLISECONDS) : null;
+                if (part == null) {
+                    System.err.println("Comment ingestion hit its deadline with " + outstanding + " reads outstanding; using what was read");
+                    break;
+                }
+                if (part.aggregate != null) {
+                    aggregate.merge(part.aggregate);
+                    if (part.chunk >= 0) {
+                        merged[part.chunk] = true;
+                    }
+                }
+                for (PendingPost pending : part.pending) {
+                    pool.execute(() -> {
+                        try {
+                            GraphCallScheduler.callAs(priority, () -> {
+                                remainingPages(client, pending, parts, stopped);
+                                return null;
+                            });
+                        } catch (Exception e) {
+                            if (!stopped.get()) {
+                                System.err.println("Stopped reading comments of " + pending.postId + ": " + e.getMessage());
+                            }
+                        } finally {
+                            parts.add(new Part(-1, null, List.of(), true));
+                        }
+                    });
+                    outstanding++;
+                }
+                if (part.last) {
+                    outstanding--;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            stopped.set(true);
+            pool.shutdownNow();
+        }
+
+        for (int chunk = 0; chunk < chunks.size(); chunk++) {
+            if (!merged[chunk]) {
+                for (int row : chunks.get(chunk)) {
+                    posts.commentMessages(row).forEach(aggregate::accept);
+                }
+            }
+        }
+        return aggregate;
+    }
+
+    private Part firstPages(FacebookClient client, int chunk, List<String> ids) {
+        CommentAggregate aggregate = new CommentAggregate();
+        List<PendingPost> pending = new ArrayList<>();
+        JsonObject byId = client.fetchObjects(ids, JsonObject.class, Parameter.with("fields", COMMENT_FIELDS));
+        for (String id : ids) {
+            JsonValue post = byId.get(id);
+            JsonValue comments = post != null && post.isObject() ? post.asObject().get("comments") : null;
+            if (comments == null || !comments.isObject()) {
+                continue;
+            }
+            long read = 0;
+            JsonValue data = comments.asObject().get("data");
+            if (data != null && data.isArray()) {
+                for (JsonValue comment : data.asArray()) {
+                    aggregate.accept(comment.isObject() ? comment.asObject().getString("message", null) : null);
+                    read++;
+                }
+            }
+            JsonValue paging = comments.asObject().get("paging");
+            String next = paging != null && paging.isObject() ? paging.asObject().getString("next", null) : null;
+            if (next != null && !capped(read)) {
+                pending.add(new PendingPost(id, next, read));
+            }
+        }
+        return new Part(chunk, aggregate, pending, true);
+    }
+
+    // Pages through one post's comments, handing over each page as it is read so a deadline keeps what came in
+    private void remainingPages(FacebookClient client, PendingPost pending, BlockingQueue<Part> parts, AtomicBoolean stopped) {
+        long read = pending.read;
+        String next = pending.nextUrl;
+        try {
+            while (next != null && !capped(read)) {
+                if (stopped.get() || Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+                Connection<Comment> page = client.fetchConnectionPage(next, Comment.class);
+                CommentAggregate aggregate = new CommentAggregate();
+                for (Comment comment : page.getData()) {
+                    aggregate.accept(comment.getMessage());
+                    read++;
+                }
+                parts.add(new Part(-1, aggregate, List.of(), false));
+                next = page.hasNext() ? page.getNextPageUrl() : null;
+            }
+        } catch (RuntimeException e) {
+            if (!stopped.get()) {
+                System.err.println("Stopped reading comments of " + pending.postId + " after " + read + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private boolean capped(long read) {
+        return maxCommentsPerPost > 0 && read >= maxCommentsPerPost;
+    }
+
+    // One result handed to the merging thread: comments read (null if the read failed), posts left to page through,
+    // and whether it ends a task (chunk is -1 for a pager)
+    private static final class Part {
+        private final int chunk;
+        private final CommentAggregate aggregate;
+        private final List<PendingPost> pending;
+        private final boolean last;
+
+        Part(int chunk, CommentAggregate aggregate, List<PendingPost> pending, boolean last) {
+            this.chunk = chunk;
+            this.aggregate = aggregate;
+            this.pending = pending;
+            this.last = last;
+        }
+    }
+
+    private static final class PendingPost {
+        private final String postId;
+        private final String nextUrl;
+        private final long read;
+
+        PendingPost(String postId, String nextUrl, long read) {
+            this.postId = postId;
+            this.nextUrl = nextUrl;
+            this.read = read;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.socialanalystpro;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.net.Socket;
+import java.rmi.server.RMIClientSocketFactory;
+import java.util.Objects;
+
+// Travels inside the exported stub, so a client that looks the service up gets the server's compression settings.
+// RMI reuses connections per factory, which is why equals/hashCode cover the settings.
+public class CompressingClientSocketFactory implements RMIClientSocketFactory, Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final int threshold;
+    private final int level;
+
+    public CompressingClientSocketFactory(int threshold, int level) {
+        this.threshold = threshold;
+        this.level = level;
+    }
+
+    // Null (plain sockets) unless socialanalyst.rmi.compression=true
+    public static CompressingClientSocketFactory fromSystemProperties() {
+        if (!Boolean.getBoolean("socialanalyst.rmi.compression")) {
+            return null;
+        }
+        return new CompressingClientSocketFactory(CompressingServerSocketFactory.configuredThreshold(),
+                CompressingServerSocketFactory.configuredLevel());
+    }
+
+    @Override
+    public Socket createSocket(String host, int port) throws IOException {
+        return new CompressingSocket(host, port, threshold, level);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CompressingClientSocketFactory that = (CompressingClientSocketFactory) o;
+        return threshold == that.threshold && level == that.level;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(threshold, level);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.socialanalystpro;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.rmi.server.RMIServerSocketFactory;
+import java.util.Objects;
+import java.util.zip.Deflater;
+
+// Server half of the compressed RMI transport; accepted connections speak the CompressingSocket frame format.
+public class CompressingServerSocketFactory implements RMIServerSocketFactory {
+
+    static final int DEFAULT_THRESHOLD = 1024;
+
+    private final int threshold;
+    private final int level;
+
+    public CompressingServerSocketFactory(int threshold, int level) {
+        if (level < Deflater.DEFAULT_COMPRESSION || level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("Invalid deflate level: " + level);
+        }
+        this.threshold = threshold;
+        this.level = level;
+    }
+
+    // Null (plain sockets) unless socialanalyst.rmi.compression=true
+    public static CompressingServerSocketFactory fromSystemProperties() {
+        if (!Boolean.getBoolean("socialanalyst.rmi.compression")) {
+            return null;
+        }
+        return new CompressingServerSocketFactory(configuredThreshold(), configuredLevel());
+    }
+
+    static int configuredThreshold() {
+        return Integer.getInteger("socialanalyst.rmi.compression.threshold", DEFAULT_THRESHOLD);
+    }
+
+    static int configuredLevel() {
+        return Integer.getInteger("socialanalyst.rmi.compression.level", Deflater.BEST_SPEED);
+    }
+
+    @Override
+    public ServerSocket createServerSocket(int port) throws IOException {
+        return new CompressingServerSocket(port);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CompressingServerSocketFactory that = (CompressingServerSocketFactory) o;
+        return threshold == that.threshold && level == that.level;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(threshold, level);
+    }
+
+    private final class CompressingServerSocket extends ServerSocket {
+        CompressingServerSocket(int port) throws IOException {
+            super(port);
+        }
+
+        @Override
+        public Socket accept() throws IOException {
+            if (isClosed()) {
+                throw new SocketException("Socket is closed");
+            }
+            Socket socket = new CompressingSocket(threshold, level);
+            implAccept(socket);
+            return socket;
+        }
+    }
+}
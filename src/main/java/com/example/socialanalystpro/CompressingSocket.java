@@ -0,0 +1,310 @@
+package com.example.socialanalystpro;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+import java.net.Socket;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+// Socket whose streams carry length-prefixed frames. Everything written between two flushes (RMI flushes once per
+// call/return) becomes one frame, deflated when it is at least `threshold` bytes and compression actually saves space.
+// Frame: 1 byte kind (RAW or DEFLATED), 4 byte payload length, for DEFLATED a 4 byte inflated length, then payload.
+class CompressingSocket extends Socket {
+
+    private static final int RAW = 0;
+    private static final int DEFLATED = 1;
+    private static final int MAX_FRAME_BYTES = 256 * 1024;
+
+    private final int threshold;
+    private final int level;
+    private InputStream in;
+    private OutputStream out;
+
+    // Unconnected, for ServerSocket.implAccept
+    CompressingSocket(int threshold, int level) {
+        this.threshold = threshold;
+        this.level = level;
+    }
+
+    CompressingSocket(String host, int port, int threshold, int level) throws IOException {
+        super(host, port);
+        this.threshold = threshold;
+        this.level = level;
+    }
+
+    @Override
+    public synchronized InputStream getInputStream() throws IOException {
+        if (in == null) {
+            in = new InflatingInputStream(new BufferedInputStream(super.getInputStream()));
+        }
+        return in;
+    }
+
+    @Override
+    public synchronized OutputStream getOutputStream() throws IOException {
+        if (out == null) {
+            out = new DeflatingOutputStream(new BufferedOutputStream(super.getOutputStream()), threshold, level);
+        }
+        return out;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            super.close();
+        } finally {
+            if (out instanceof DeflatingOutputStream) ((DeflatingOutputStream) out).release();
+            if (in instanceof InflatingInputStream) ((InflatingInputStream) in).release();
+        }
+    }
+
+    private static final class DeflatingOutputStream extends FilterOutputStream {
+        private final int threshold;
+        private final Deflater deflater;
+        private byte[] buffer = new byte[8192];
+        private byte[] compressed = new byte[0];
+        private int count;
+        private boolean released;
+
+        DeflatingOutputStream(OutputStream out, int threshold, int level) {
+            super(out);
+            this.threshold = threshold;
+            this.deflater = new Deflater(level);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            ensureCapacity(1);
+            buffer[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                int chunk = Math.min(len, MAX_FRAME_BYTES - count);
+                ensureCapacity(chunk);
+                System.arraycopy(b, off, buffer, count, chunk);
+                count += chunk;
+                off += chunk;
+                len -= chunk;
+                if (count == MAX_FRAME_BYTES) {
+                    writeFrame();
+                }
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writeFrame();
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                out.close();
+            }
+        }
+
+        // The socket may be closed by another thread (e.g. RMI's idle reaper) while a frame is being written
+        synchronized void release() {
+            released = true;
+            deflater.end();
+        }
+
+        private void ensureCapacity(int extra) throws IOException {
+            if (count + extra > MAX_FRAME_BYTES) {
+                writeFrame();
+            }
+            if (count + extra > buffer.length) {
+                byte[] grown = new byte[Math.min(MAX_FRAME_BYTES, Math.max(buffer.length * 2, count + extra))];
+                System.arraycopy(buffer, 0, grown, 0, count);
+                buffer = grown;
+            }
+        }
+
+        private synchronized void writeFrame() throws IOException {
+            if (count == 0) {
+                return;
+            }
+            if (released) {
+                throw new IOException("Socket closed");
+            }
+            int compressedLength = count >= threshold ? deflate() : -1;
+            if (compressedLength > 0 && compressedLength < count) {
+                out.write(DEFLATED);
+                writeInt(compressedLength);
+                writeInt(count);
+                out.write(compressed, 0, compressedLength);
+            } else {
+                out.write(RAW);
+                writeInt(count);
+                out.write(buffer, 0, count);
+            }
+            count = 0;
+        }
+
+        // Returns the deflated length, or -1 if it would not be smaller than the input
+        private int deflate() {
+            if (compressed.length < count) {
+                compressed = new byte[count];
+            }
+            deflater.reset();
+            deflater.setInput(buffer, 0, count);
+            deflater.finish();
+            int length = 0;
+            while (!deflater.finished()) {
+                if (length == compressed.length) {
+                    return -1;
+                }
+                length += deflater.deflate(compressed, length, compressed.length - length);
+            }
+            return length;
+        }
+
+        private void writeInt(int value) throws IOException {
+            out.write(value >>> 24);
+            out.write(value >>> 16);
+            out.write(value >>> 8);
+            out.write(value);
+        }
+    }
+
+    private static final class InflatingInputStream extends InputStream {
+        private final InputStream in;
+        private final Inflater inflater = new Inflater();
+        private byte[] frame = new byte[8192];
+        private byte[] compressed = new byte[0];
+        private int position;
+        private int limit;
+        private boolean released;
+
+        InflatingInputStream(InputStream in) {
+            this.in = in;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (position == limit && !nextFrame()) {
+                return -1;
+            }
+            return frame[position++] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (position == limit && !nextFrame()) {
+                return -1;
+            }
+            int n = Math.min(len, limit - position);
+            System.arraycopy(frame, position, b, off, n);
+            position += n;
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return limit - position;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+
+        synchronized void release() {
+            released = true;
+            inflater.end();
+        }
+
+        // Reads frames until one with data arrives; false on a clean end of stream between frames
+        private synchronized boolean nextFrame() throws IOException {
+            if (released) {
+                throw new IOException("Socket closed");
+            }
+            int kind = in.read();
+            if (kind < 0) {
+                return false;
+            }
+            int length = readInt();
+            if (length < 0 || length > MAX_FRAME_BYTES + 1024) {
+                throw new StreamCorruptedException("Bad frame length " + length);
+            }
+            if (kind == RAW) {
+                ensureFrame(length);
+                readFully(frame, length);
+            } else if (kind == DEFLATED) {
+                int inflatedLength = readInt();
+                if (inflatedLength < 0 || inflatedLength > MAX_FRAME_BYTES) {
+                    throw new StreamCorruptedException("Bad inflated length " + inflatedLength);
+                }
+                if (compressed.length < length) {
+                    compressed = new byte[length];
+                }
+                readFully(compressed, length);
+                ensureFrame(inflatedLength);
+                inflater.reset();
+                inflater.setInput(compressed, 0, length);
+                try {
+                    int inflated = 0;
+                    while (inflated < inflatedLength && !inflater.finished()) {
+                        int n = inflater.inflate(frame, inflated, inflatedLength - inflated);
+                        if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                            throw new StreamCorruptedException("Truncated deflated frame");
+                        }
+                        inflated += n;
+                    }
+                    length = inflated;
+                } catch (DataFormatException e) {
+                    throw new StreamCorruptedException("Corrupt deflated frame: " + e.getMessage());
+                }
+            } else {
+                throw new StreamCorruptedException("Unknown frame kind " + kind);
+            }
+            position = 0;
+            limit = length;
+            return length > 0 || nextFrame();
+        }
+
+        private void ensureFrame(int length) {
+            if (frame.length < length) {
+                frame = new byte[length];
+            }
+        }
+
+        private int readInt() throws IOException {
+            int value = 0;
+            for (int i = 0; i < 4; i++) {
+                int b = in.read();
+                if (b < 0) {
+                    throw new EOFException("Truncated frame header");
+                }
+                value = (value << 8) | b;
+            }
+            return value;
+        }
+
+        private void readFully(byte[] target, int length) throws IOException {
+            int read = 0;
+            while (read < length) {
+                int n = in.read(target, read, length - read);
+                if (n < 0) {
+                    throw new EOFException("Truncated frame");
+                }
+                read += n;
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.socialanalystpro;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+// Consistent hashing of keys onto nodes. Every node sits on the ring at `virtualNodes` points, so load spreads
+// evenly and adding or removing a node only moves the keys next to its points (about 1/N of them). A key's
+// preference list is the distinct nodes met walking clockwise from its hash: the owner first, then the nodes that
+// take over if it is lost. Not thread-safe; the owner swaps in a new ring instead of mutating a shared one.
+public final class ConsistentHashRing {
+
+    private final int virtualNodes;
+    private final TreeMap<Long, String> points = new TreeMap<>();
+    private final Set<String> nodes = new LinkedHashSet<>();
+
+    public ConsistentHashRing(int virtualNodes) {
+        if (virtualNodes <= 0) {
+            throw new IllegalArgumentException("virtualNodes must be positive");
+        }
+        this.virtualNodes = virtualNodes;
+    }
+
+    public ConsistentHashRing(int virtualNodes, Collection<String> nodes) {
+        this(virtualNodes);
+        nodes.forEach(this::add);
+    }
+
+    public void add(String node) {
+        if (nodes.add(node)) {
+            for (int i = 0; i < virtualNodes; i++) {
+                points.putIfAbsent(hash(node + "#" + i), node);
+            }
+        }
+    }
+
+    public void remove(String node) {
+        if (nodes.remove(node)) {
+            points.values().removeIf(node::equals);
+        }
+    }
+
+    public Set<String> nodes() {
+        return nodes;
+    }
+
+    public boolean isEmpty() {
+        return nodes.isEmpty();
+    }
+
+    // Owner of the key, or null on an empty ring
+    public String owner(String key) {
+        if (points.isEmpty()) {
+            return null;
+        }
+        Map.Entry<Long, String> point = points.ceilingEntry(hash(key));
+        return (point != null ? point : points.firstEntry()).getValue();
+    }
+
+    // Every node, in the order they would own the key as the ones before them are lost
+    public List<String> preferenceList(String key) {
+        List<String> preference = new ArrayList<>(nodes.size());
+        if (points.isEmpty()) {
+            return preference;
+        }
+        long hash = hash(key);
+        for (String node : points.tailMap(hash, true).values()) {
+            if (!preference.contains(node) && preference.add(node) && preference.size() == nodes.size()) {
+                return preference;
+            }
+        }
+        for (String node : points.headMap(hash, false).values()) {
+            if (!preference.contains(node) && preference.add(node) && preference.size() == nodes.size()) {
+                return preference;
+            }
+        }
+        return preference;
+    }
+
+    // First 8 bytes of SHA-256: well mixed, so virtual nodes of one node do not cluster
+    private static long hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            long hash = 0;
+            for (int i = 0; i < 8; i++) {
+                hash = (hash << 8) | (digest[i] & 0xff);
+            }
+            return hash;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
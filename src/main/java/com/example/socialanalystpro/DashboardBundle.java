@@ -0,0 +1,50 @@
+package com.example.socialanalystpro;
+
+import java.io.Serializable;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+// Everything the dashboard panels need, returned from one RMI call backed by one Graph batch request.
+public class DashboardBundle implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public enum Section { PROFILE, COUNTS, DEMOGRAPHICS, INSIGHTS, ENGAGEMENT }
+
+    private final Set<Section> sections = EnumSet.noneOf(Section.class);
+    private final Map<Section, String> errors = new HashMap<>();
+    private PageProfile profile;
+    private long followerCount;
+    private long pageLikes;
+    private Map<String, Integer> genderBreakdown = new HashMap<>();
+    private Map<String, Map<String, Integer>> overallPerformance = new LinkedHashMap<>();
+    private Map<String, Map<String, Integer>> postEngagementOverTime = new LinkedHashMap<>();
+
+    public boolean has(Section section) { return sections.contains(section); }
+    public Set<Section> getSections() { return sections; }
+    void markLoaded(Section section) { sections.add(section); }
+
+    // Sections that failed are reported here instead of failing the whole bundle
+    public Map<Section, String> getErrors() { return errors; }
+    void markFailed(Section section, String message) { errors.put(section, message); }
+
+    public PageProfile getProfile() { return profile; }
+    public void setProfile(PageProfile profile) { this.profile = profile; }
+
+    public long getFollowerCount() { return followerCount; }
+    public void setFollowerCount(long followerCount) { this.followerCount = followerCount; }
+
+    public long getPageLikes() { return pageLikes; }
+    public void setPageLikes(long pageLikes) { this.pageLikes = pageLikes; }
+
+    public Map<String, Integer> getGenderBreakdown() { return genderBreakdown; }
+    public void setGenderBreakdown(Map<String, Integer> genderBreakdown) { this.genderBreakdown = genderBreakdown; }
+
+    public Map<String, Map<String, Integer>> getOverallPerformance() { return overallPerformance; }
+    public void setOverallPerformance(Map<String, Map<String, Integer>> overallPerformance) { this.overallPerformance = overallPerformance; }
+
+    public Map<String, Map<String, Integer>> getPostEngagementOverTime() { return postEngagementOverTime; }
+    public void setPostEngagementOverTime(Map<String, Map<String, Integer>> postEngagementOverTime) { this.postEngagementOverTime = postEngagementOverTime; }
+}
@@ -20,20 +20,25 @@ import javafx.scene.layout.VBox;
 import javafx.stage.FileChooser;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
+import javafx.stage.WindowEvent;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.PrintWriter;
-import java.rmi.registry.LocateRegistry;
-import java.rmi.registry.Registry;
+import java.rmi.NoSuchObjectException;
+import java.rmi.server.UnicastRemoteObject;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 public class DashboardController {
@@ -120,10 +125,16 @@ public class DashboardController {
     private boolean isDarkMode = false;
     private SocialInsights currentInsights;
     private AnalyticsService analyticsService;
-    private Timer followerUpdateTimer;
-    private Timer likesUpdateTimer;
-    private Timer genderUpdateTimer;
-    private Timer engagementUpdateTimer;
+    // The exported listener (kept to unexport it on close) and its stub, which is what the server holds
+    private DashboardUpdateListener updateListener;
+    private PageUpdateListener pageUpdateListener;
+    private volatile String subscribedToken;
+    private final ScheduledExecutorService leaseRenewer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "page-updates-lease");
+        t.setDaemon(true);
+        return t;
+    });
+    private ScheduledFuture<?> leaseRenewal;
 
     @FXML
     private void initialize() {
@@ -144,8 +155,7 @@ public class DashboardController {
         
         new Thread(() -> {
             try {
-                Registry registry = LocateRegistry.getRegistry("localhost", 1099);
-                analyticsService = (AnalyticsService) registry.lookup("AnalyticsService");
+                analyticsService = ShardedAnalyticsService.locate("localhost", 1099);
                 Platform.runLater(() -> {
                     if (rmiStatusLabel != null) rmiStatusLabel.setText("Connected");
                 });
@@ -158,277 +168,250 @@ public class DashboardController {
         }).start();
 
         if (appVersionLabel != null) appVersionLabel.setText("1.0.0 (Pro Edition)");
+
+        // Release the subscription and the exported listener when the dashboard window goes away
+        rootPane.sceneProperty().addListener((sceneObs, oldScene, scene) -> {
+            if (scene != null) {
+                scene.windowProperty().addListener((windowObs, oldWindow, window) -> {
+                    if (window != null) {
+                        window.addEventHandler(WindowEvent.WINDOW_HIDDEN, e -> close());
+                    }
+                });
+            }
+        });
     }
 
-    private void startFollowerUpdater() {
-        if (followerUpdateTimer != null) {
-            followerUpdateTimer.cancel();
-        }
-        
-        followerUpdateTimer = new Timer(true);
-        followerUpdateTimer.scheduleAtFixedRate(new TimerTask() {
-            @Override
-            public void run() {
-                // Only update if dashboard tab is selected and we have a token
-                if (contentTabPane.getSelectionModel().getSelectedItem() != dashboardTab) {
-                    return;
-                }
-                
-                String token = tokenField.getText();
-                if (token == null || token.trim().isEmpty()) {
-                    return;
+    // The server runs one shared poller per page and pushes changed values here, replacing the per-dashboard timers
+    private void startPageUpdates(String token) {
+        new Thread(() -> {
+            try {
+                if (analyticsService == null) {
+                    analyticsService = ShardedAnalyticsService.locate("localhost", 1099);
                 }
-
-                try {
-                    if (analyticsService == null) {
-                        Registry registry = LocateRegistry.getRegistry("localhost", 1099);
-                        analyticsService = (AnalyticsService) registry.lookup("AnalyticsService");
-                    }
-                    
-                    long currentFollowers = analyticsService.getFollowerCount(token);
-                    
-                    Platform.runLater(() -> {
-                        if (totalFollowersLabel != null) {
-                            String currentText = totalFollowersLabel.getText().replace(",", "");
-                            long displayedFollowers = 0;
-                            try {
-                                displayedFollowers = Long.parseLong(currentText);
-                            } catch (NumberFormatException e) {
-                                // Ignore
-                            }
-                            
-                            if (currentFollowers != displayedFollowers) {
-                                totalFollowersLabel.setText(String.format("%,d", currentFollowers));
-                            }
-                        }
-                    });
-                } catch (Exception e) {
-                    // Silently fail or log, don't disrupt UI
-                    System.err.println("Failed to update follower count: " + e.getMessage());
+                if (pageUpdateListener == null) {
+                    updateListener = new DashboardUpdateListener();
+                    pageUpdateListener = (PageUpdateListener) UnicastRemoteObject.exportObject(updateListener, 0,
+                            CompressingClientSocketFactory.fromSystemProperties(), CompressingServerSocketFactory.fromSystemProperties());
                 }
+                long leaseMillis = analyticsService.subscribe(token, sinceTimestamp, pageUpdateListener);
+                subscribedToken = token;
+                scheduleLeaseRenewal(leaseMillis);
+            } catch (Exception e) {
+                System.err.println("Failed to subscribe to page updates: " + e.getMessage());
             }
-        }, 5000, 5000); // Start after 5s, repeat every 5s
+        }).start();
     }
 
-    private void stopFollowerUpdater() {
-        if (followerUpdateTimer != null) {
-            followerUpdateTimer.cancel();
-            followerUpdateTimer = null;
+    // The subscription is a lease; renewing it well before it runs out keeps the updates coming while we are open
+    private synchronized void scheduleLeaseRenewal(long leaseMillis) {
+        if (leaseRenewal != null) {
+            leaseRenewal.cancel(false);
         }
+        long period = Math.max(1_000, leaseMillis / 3);
+        leaseRenewal = leaseRenewer.scheduleWithFixedDelay(this::renewLease, period, period, TimeUnit.MILLISECONDS);
     }
 
-    private void startLikesUpdater() {
-        if (likesUpdateTimer != null) {
-            likesUpdateTimer.cancel();
+    private synchronized void cancelLeaseRenewal() {
+        if (leaseRenewal != null) {
+            leaseRenewal.cancel(false);
+            leaseRenewal = null;
         }
-        
-        likesUpdateTimer = new Timer(true);
-        likesUpdateTimer.scheduleAtFixedRate(new TimerTask() {
-            @Override
-            public void run() {
-                // Only update if dashboard tab is selected and we have a token
-                if (contentTabPane.getSelectionModel().getSelectedItem() != dashboardTab) {
-                    return;
-                }
-                
-                String token = tokenField.getText();
-                if (token == null || token.trim().isEmpty()) {
-                    return;
-                }
+    }
 
-                try {
-                    if (analyticsService == null) {
-                        Registry registry = LocateRegistry.getRegistry("localhost", 1099);
-                        analyticsService = (AnalyticsService) registry.lookup("AnalyticsService");
-                    }
-                    
-                    long currentLikes = analyticsService.getPageLikes(token);
-                    
-                    Platform.runLater(() -> {
-                        if (likesReachSubtitle != null) {
-                            String currentDate = LocalDate.now().format(DateTimeFormatter.ofPattern("MMM yyyy"));
-                            likesReachSubtitle.setText(currentDate + ": page like and reach: " + currentLikes + " likes");
-                        }
-                        
-                        // Update the graph if needed (simplified: just adding a point for "Now")
-                        if (likesReachChart != null) {
-                            XYChart.Series<String, Number> likesSeries = null;
-                            for (XYChart.Series<String, Number> s : likesReachChart.getData()) {
-                                if ("Page Likes".equals(s.getName())) {
-                                    likesSeries = s;
-                                    break;
-                                }
-                            }
-                            
-                            if (likesSeries != null) {
-                                String nowLabel = LocalDateTime.now().format(DateTimeFormatter.ofPattern("MMM dd HH:mm"));
-                                // Check if last data point is different
-                                if (!likesSeries.getData().isEmpty()) {
-                                    XYChart.Data<String, Number> lastData = likesSeries.getData().get(likesSeries.getData().size() - 1);
-                                    if (lastData.getYValue().longValue() != currentLikes) {
-                                         likesSeries.getData().add(new XYChart.Data<>(nowLabel, currentLikes));
-                                    }
-                                } else {
-                                    likesSeries.getData().add(new XYChart.Data<>(nowLabel, currentLikes));
-                                }
-                            }
-                        }
-                    });
-                } catch (Exception e) {
-                    System.err.println("Failed to update page likes: " + e.getMessage());
+    private void renewLease() {
+        String token = subscribedToken;
+        PageUpdateListener listener = pageUpdateListener;
+        if (token == null || listener == null) {
+            return;
+        }
+        try {
+            if (!analyticsService.renewSubscription(listener)) {
+                // The server no longer has us (restarted, or a renewal was missed): subscribe again
+                analyticsService.subscribe(token, sinceTimestamp, listener);
+            }
+        } catch (Exception e) {
+            System.err.println("Failed to renew page updates: " + e.getMessage());
+        }
+    }
+
+    private void stopPageUpdates() {
+        PageUpdateListener listener = pageUpdateListener;
+        subscribedToken = null;
+        cancelLeaseRenewal();
+        if (listener == null) {
+            return;
+        }
+        new Thread(() -> {
+            try {
+                if (analyticsService != null) {
+                    analyticsService.unsubscribe(listener);
                 }
+            } catch (Exception e) {
+                System.err.println("Failed to unsubscribe from page updates: " + e.getMessage());
             }
-        }, 60000, 60000); // Start after 60s, repeat every 60s
+        }).start();
     }
 
-    private void stopLikesUpdater() {
-        if (likesUpdateTimer != null) {
-            likesUpdateTimer.cancel();
-            likesUpdateTimer = null;
+    // Called when the dashboard window closes; once unexported, this JVM no longer accepts the server's callbacks
+    public void close() {
+        stopPageUpdates();
+        leaseRenewer.shutdownNow();
+        DashboardUpdateListener exported = updateListener;
+        updateListener = null;
+        pageUpdateListener = null;
+        if (exported != null) {
+            try {
+                UnicastRemoteObject.unexportObject(exported, true);
+            } catch (NoSuchObjectException e) {
+                // already unexported
+            }
         }
     }
 
-    private void startGenderUpdater() {
-        if (genderUpdateTimer != null) {
-            genderUpdateTimer.cancel();
+    private class DashboardUpdateListener implements PageUpdateListener {
+        @Override
+        public void onFollowerCount(long followers) {
+            Platform.runLater(() -> applyFollowerCount(followers));
         }
-        
-        genderUpdateTimer = new Timer(true);
-        genderUpdateTimer.scheduleAtFixedRate(new TimerTask() {
-            @Override
-            public void run() {
-                // Only update if audience tab is selected and we have a token
-                if (contentTabPane.getSelectionModel().getSelectedItem() != audienceTab) {
-                    return;
-                }
-                
-                String token = tokenField.getText();
-                if (token == null || token.trim().isEmpty()) {
-                    return;
-                }
 
-                try {
-                    if (analyticsService == null) {
-                        Registry registry = LocateRegistry.getRegistry("localhost", 1099);
-                        analyticsService = (AnalyticsService) registry.lookup("AnalyticsService");
-                    }
-                    
-                    Map<String, Integer> genderData = analyticsService.getGenderBreakdown(token);
-                    
-                    Platform.runLater(() -> {
-                        if (genderBreakdownChart != null) {
-                            if (genderData.isEmpty()) {
-                                genderBreakdownChart.setTitle("No gender data available");
-                                genderBreakdownChart.setData(FXCollections.observableArrayList());
-                            } else {
-                                genderBreakdownChart.setTitle("Gender Breakdown");
-                                genderBreakdownChart.setData(FXCollections.observableArrayList(
-                                    genderData.entrySet().stream()
-                                        .map(entry -> new PieChart.Data(entry.getKey(), entry.getValue()))
-                                        .collect(Collectors.toList())
-                                ));
-                            }
-                        }
-                    });
-                } catch (Exception e) {
-                    System.err.println("Failed to update gender breakdown: " + e.getMessage());
-                }
-            }
-        }, 5000, 300000); // Start after 5s, repeat every 5 minutes
+        @Override
+        public void onPageLikes(long likes) {
+            Platform.runLater(() -> applyPageLikes(likes));
+        }
+
+        @Override
+        public void onGenderBreakdown(Map<String, Integer> genderBreakdown) {
+            Platform.runLater(() -> applyGenderBreakdown(genderBreakdown));
+        }
+
+        @Override
+        public void onPostEngagementOverTime(Map<String, Map<String, Integer>> engagementData) {
+            Platform.runLater(() -> applyPostEngagementOverTime(engagementData));
+        }
     }
 
-    private void stopGenderUpdater() {
-        if (genderUpdateTimer != null) {
-            genderUpdateTimer.cancel();
-            genderUpdateTimer = null;
+    private void applyDashboardBundle(DashboardBundle bundle) {
+        if (bundle.has(DashboardBundle.Section.COUNTS)) {
+            applyFollowerCount(bundle.getFollowerCount());
+            applyPageLikes(bundle.getPageLikes());
         }
+        if (bundle.has(DashboardBundle.Section.DEMOGRAPHICS)) {
+            applyGenderBreakdown(bundle.getGenderBreakdown());
+        }
+        if (bundle.has(DashboardBundle.Section.ENGAGEMENT)) {
+            applyPostEngagementOverTime(bundle.getPostEngagementOverTime());
+        }
+        bundle.getErrors().forEach((section, message) -> System.err.println("Failed to load " + section + ": " + message));
     }
 
-    private void startEngagementUpdater() {
-        if (engagementUpdateTimer != null) {
-            engagementUpdateTimer.cancel();
+    private void applyFollowerCount(long currentFollowers) {
+        if (totalFollowersLabel != null) {
+            String currentText = totalFollowersLabel.getText().replace(",", "");
+            long displayedFollowers = 0;
+            try {
+                displayedFollowers = Long.parseLong(currentText);
+            } catch (NumberFormatException e) {
+                // Ignore
+            }
+            
+            if (currentFollowers != displayedFollowers) {
+                totalFollowersLabel.setText(String.format("%,d", currentFollowers));
+            }
+        }
+    }
+
+    private void applyPageLikes(long currentLikes) {
+        if (likesReachSubtitle != null) {
+            String currentDate = LocalDate.now().format(DateTimeFormatter.ofPattern("MMM yyyy"));
+            likesReachSubtitle.setText(currentDate + ": page like and reach: " + currentLikes + " likes");
         }
         
-        engagementUpdateTimer = new Timer(true);
-        engagementUpdateTimer.scheduleAtFixedRate(new TimerTask() {
-            @Override
-            public void run() {
-                // Only update if engagement tab is selected and we have a token
-                if (contentTabPane.getSelectionModel().getSelectedItem() != engagementTab) {
-                    return;
+        // Update the graph if needed (simplified: just adding a point for "Now")
+        if (likesReachChart != null) {
+            XYChart.Series<String, Number> likesSeries = null;
+            for (XYChart.Series<String, Number> s : likesReachChart.getData()) {
+                if ("Page Likes".equals(s.getName())) {
+                    likesSeries = s;
+                    break;
                 }
-                
-                String token = tokenField.getText();
-                if (token == null || token.trim().isEmpty()) {
-                    return;
+            }
+            
+            if (likesSeries != null) {
+                String nowLabel = LocalDateTime.now().format(DateTimeFormatter.ofPattern("MMM dd HH:mm"));
+                // Check if last data point is different
+                if (!likesSeries.getData().isEmpty()) {
+                    XYChart.Data<String, Number> lastData = likesSeries.getData().get(likesSeries.getData().size() - 1);
+                    if (lastData.getYValue().longValue() != currentLikes) {
+                         likesSeries.getData().add(new XYChart.Data<>(nowLabel, currentLikes));
+                    }
+                } else {
+                    likesSeries.getData().add(new XYChart.Data<>(nowLabel, currentLikes));
                 }
+            }
+        }
+    }
+
+    private void applyGenderBreakdown(Map<String, Integer> genderData) {
+        if (genderBreakdownChart != null) {
+            if (genderData.isEmpty()) {
+                genderBreakdownChart.setTitle("No gender data available");
+                genderBreakdownChart.setData(FXCollections.observableArrayList());
+            } else {
+                genderBreakdownChart.setTitle("Gender Breakdown");
+                genderBreakdownChart.setData(FXCollections.observableArrayList(
+                    genderData.entrySet().stream()
+                        .map(entry -> new PieChart.Data(entry.getKey(), entry.getValue()))
+                        .collect(Collectors.toList())
+                ));
+            }
+        }
+    }
 
-                try {
-                    if (analyticsService == null) {
-                        Registry registry = LocateRegistry.getRegistry("localhost", 1099);
-                        analyticsService = (AnalyticsService) registry.lookup("AnalyticsService");
+    private void applyPostEngagementOverTime(Map<String, Map<String, Integer>> engagementData) {
+        if (postEngagementOverTimeChart != null) {
+            if (engagementData.isEmpty()) {
+                postEngagementOverTimeChart.setTitle("No engagement data available");
+                postEngagementOverTimeChart.getData().clear();
+            } else {
+                postEngagementOverTimeChart.setTitle("Post Engagement Over Time");
+                
+                XYChart.Series<String, Number> likesSeries = new XYChart.Series<>();
+                likesSeries.setName("Likes");
+                XYChart.Series<String, Number> commentsSeries = new XYChart.Series<>();
+                commentsSeries.setName("Comments");
+                XYChart.Series<String, Number> sharesSeries = new XYChart.Series<>();
+                sharesSeries.setName("Shares");
+                XYChart.Series<String, Number> totalSeries = new XYChart.Series<>();
+                totalSeries.setName("Total Engagement");
+                
+                engagementData.forEach((date, metrics) -> {
+                    likesSeries.getData().add(new XYChart.Data<>(date, metrics.getOrDefault("Likes", 0)));
+                    commentsSeries.getData().add(new XYChart.Data<>(date, metrics.getOrDefault("Comments", 0)));
+                    sharesSeries.getData().add(new XYChart.Data<>(date, metrics.getOrDefault("Shares", 0)));
+                    totalSeries.getData().add(new XYChart.Data<>(date, metrics.getOrDefault("Total", 0)));
+                });
+                
+                postEngagementOverTimeChart.getData().setAll(likesSeries, commentsSeries, sharesSeries, totalSeries);
+                
+                // Apply colors
+                for (XYChart.Series<String, Number> s : postEngagementOverTimeChart.getData()) {
+                    String color = "";
+                    switch (s.getName()) {
+                        case "Likes": color = "#3B82F6"; break;
+                        case "Comments": color = "#10B981"; break;
+                        case "Shares": color = "#F59E0B"; break;
+                        case "Total Engagement": color = "#8B5CF6"; break;
                     }
-                    
-                    Map<String, Map<String, Integer>> engagementData = analyticsService.getPostEngagementOverTime(token, sinceTimestamp);
-                    
-                    Platform.runLater(() -> {
-                        if (postEngagementOverTimeChart != null) {
-                            if (engagementData.isEmpty()) {
-                                postEngagementOverTimeChart.setTitle("No engagement data available");
-                                postEngagementOverTimeChart.getData().clear();
-                            } else {
-                                postEngagementOverTimeChart.setTitle("Post Engagement Over Time");
-                                
-                                XYChart.Series<String, Number> likesSeries = new XYChart.Series<>();
-                                likesSeries.setName("Likes");
-                                XYChart.Series<String, Number> commentsSeries = new XYChart.Series<>();
-                                commentsSeries.setName("Comments");
-                                XYChart.Series<String, Number> sharesSeries = new XYChart.Series<>();
-                                sharesSeries.setName("Shares");
-                                XYChart.Series<String, Number> totalSeries = new XYChart.Series<>();
-                                totalSeries.setName("Total Engagement");
-                                
-                                engagementData.forEach((date, metrics) -> {
-                                    likesSeries.getData().add(new XYChart.Data<>(date, metrics.getOrDefault("Likes", 0)));
-                                    commentsSeries.getData().add(new XYChart.Data<>(date, metrics.getOrDefault("Comments", 0)));
-                                    sharesSeries.getData().add(new XYChart.Data<>(date, metrics.getOrDefault("Shares", 0)));
-                                    totalSeries.getData().add(new XYChart.Data<>(date, metrics.getOrDefault("Total", 0)));
-                                });
-                                
-                                postEngagementOverTimeChart.getData().setAll(likesSeries, commentsSeries, sharesSeries, totalSeries);
-                                
-                                // Apply colors
-                                for (XYChart.Series<String, Number> s : postEngagementOverTimeChart.getData()) {
-                                    String color = "";
-                                    switch (s.getName()) {
-                                        case "Likes": color = "#3B82F6"; break;
-                                        case "Comments": color = "#10B981"; break;
-                                        case "Shares": color = "#F59E0B"; break;
-                                        case "Total Engagement": color = "#8B5CF6"; break;
-                                    }
-                                    if (!color.isEmpty()) {
-                                        s.getNode().setStyle("-fx-stroke: " + color + ";");
-                                        for (XYChart.Data<String, Number> data : s.getData()) {
-                                            if (data.getNode() != null) {
-                                                data.getNode().setStyle("-fx-background-color: " + color + ", white;");
-                                            }
-                                        }
-                                    }
-                                }
+                    if (!color.isEmpty()) {
+                        s.getNode().setStyle("-fx-stroke: " + color + ";");
+                        for (XYChart.Data<String, Number> data : s.getData()) {
+                            if (data.getNode() != null) {
+                                data.getNode().setStyle("-fx-background-color: " + color + ", white;");
                             }
                         }
-                    });
-                } catch (Exception e) {
-                    System.err.println("Failed to update engagement graph: " + e.getMessage());
+                    }
                 }
             }
-        }, 5000, 300000); // Start after 5s, repeat every 5 minutes
-    }
-
-    private void stopEngagementUpdater() {
-        if (engagementUpdateTimer != null) {
-            engagementUpdateTimer.cancel();
-            engagementUpdateTimer = null;
         }
     }
 
@@ -515,18 +498,10 @@ public class DashboardController {
     @FXML protected void showAudienceView(ActionEvent event) { 
         contentTabPane.getSelectionModel().select(audienceTab);
         setActiveNav((Node)event.getSource());
-        // Trigger gender update when switching to Audience tab
-        if (genderUpdateTimer == null) {
-            startGenderUpdater();
-        }
     }
     @FXML protected void showEngagementView(ActionEvent event) { 
         contentTabPane.getSelectionModel().select(engagementTab);
         setActiveNav((Node)event.getSource());
-        // Trigger engagement update when switching to Engagement tab
-        if (engagementUpdateTimer == null) {
-            startEngagementUpdater();
-        }
     }
     @FXML protected void showReportsView(ActionEvent event) { 
         contentTabPane.getSelectionModel().select(reportsTab);
@@ -566,10 +541,9 @@ public class DashboardController {
         new Thread(() -> {
             try {
                 if (analyticsService == null) {
-                    Registry registry = LocateRegistry.getRegistry("localhost", 1099);
-                    analyticsService = (AnalyticsService) registry.lookup("AnalyticsService");
+                    analyticsService = ShardedAnalyticsService.locate("localhost", 1099);
                 }
-                PageProfile profile = analyticsService.getPageProfile(token);
+                PageProfile profile = analyticsService.getPageProfileCompact(token).getProfile();
 
                 Platform.runLater(() -> {
                     Alert alert = new Alert(Alert.AlertType.INFORMATION);
@@ -618,6 +592,11 @@ public class DashboardController {
             default: seconds = 30L * 24 * 60 * 60;
         }
         updateTimestamp(seconds);
+
+        // Engagement over time follows the selected window, so move the subscription along with it
+        if (subscribedToken != null) {
+            startPageUpdates(subscribedToken);
+        }
         
         if (engagementChartTitle != null) engagementChartTitle.setText("Engagement per Post (" + text + ")");
     }
@@ -639,13 +618,17 @@ public class DashboardController {
         new Thread(() -> {
             try {
                 if (analyticsService == null) {
-                    Registry registry = LocateRegistry.getRegistry("localhost", 1099);
-                    analyticsService = (AnalyticsService) registry.lookup("AnalyticsService");
+                    analyticsService = ShardedAnalyticsService.locate("localhost", 1099);
                 }
-                SocialInsights insights = analyticsService.analyzePage(token, sinceTimestamp);
+                InsightsPayload payload = analyticsService.analyzePageCompact(token, sinceTimestamp);
+                SocialInsights insights = payload.getInsights();
+                // One round trip primes the counters, demographics and engagement panels before the first pushed update arrives
+                DashboardBundle bundle = analyticsService.getDashboardBundle(token, sinceTimestamp,
+                        EnumSet.of(DashboardBundle.Section.COUNTS, DashboardBundle.Section.DEMOGRAPHICS, DashboardBundle.Section.ENGAGEMENT));
                 Platform.runLater(() -> {
                     currentInsights = insights;
                     updateDashboard(insights);
+                    applyDashboardBundle(bundle);
                     contentTabPane.getSelectionModel().select(dashboardTab);
                     for(Node node : sidebarMenu.getChildren()) {
                         if(node instanceof Button && ((Button)node).getText().contains("Dashboard")) {
@@ -653,15 +636,14 @@ public class DashboardController {
                             break;
                         }
                     }
+                    // Tracked pages come back precomputed, so show when the analysis ran rather than when it arrived
                     if (lastSyncLabel != null) {
-                        lastSyncLabel.setText(LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
+                        lastSyncLabel.setText(LocalDateTime.ofInstant(Instant.ofEpochMilli(payload.getComputedAtMillis()), ZoneId.systemDefault())
+                                .format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
                     }
                     
-                    // Start the updaters after successful analysis
-                    startFollowerUpdater();
-                    startLikesUpdater();
-                    startGenderUpdater();
-                    startEngagementUpdater();
+                    // Subscribe to live updates after successful analysis
+                    startPageUpdates(token);
                 });
             } catch (Exception e) {
                 Platform.runLater(() -> showApiErrorDialog(e));
@@ -776,10 +758,9 @@ public class DashboardController {
         new Thread(() -> {
             try {
                 if (analyticsService == null) {
-                    Registry registry = LocateRegistry.getRegistry("localhost", 1099);
-                    analyticsService = (AnalyticsService) registry.lookup("AnalyticsService");
+                    analyticsService = ShardedAnalyticsService.locate("localhost", 1099);
                 }
-                PageProfile profile = analyticsService.getPageProfile(settingsTokenField.getText());
+                PageProfile profile = analyticsService.getPageProfileCompact(settingsTokenField.getText()).getProfile();
                 Platform.runLater(() -> settingsStatusLabel.setText("Success! Connected to: " + profile.getName()));
             } catch (Exception e) {
                 Platform.runLater(() -> settingsStatusLabel.setText("Connection failed: " + e.getMessage()));
@@ -789,10 +770,7 @@ public class DashboardController {
 
     @FXML
     protected void logout() {
-        stopFollowerUpdater(); // Stop the updater on logout
-        stopLikesUpdater(); // Stop the likes updater on logout
-        stopGenderUpdater(); // Stop the gender updater on logout
-        stopEngagementUpdater(); // Stop the engagement updater on logout
+        stopPageUpdates(); // Stop live updates on logout
         tokenField.clear();
         if (settingsTokenField != null) settingsTokenField.clear();
         currentInsights = null;
@@ -817,23 +795,18 @@ public class DashboardController {
         chatHistory.appendText("You: " + userMessage + "\n");
         chatInput.clear();
 
-        // Simulate AI response
-        String aiResponse = getViralBudResponse(userMessage);
-        chatHistory.appendText("ViralBud: " + aiResponse + "\n");
-    }
-
-    private String getViralBudResponse(String userMessage) {
-        String lowerCaseMessage = userMessage.toLowerCase();
-
-        if (lowerCaseMessage.contains("followers")) {
-            return "To get more followers, focus on creating high-quality, engaging content. Use relevant hashtags, post consistently, and interact with your audience by responding to comments and messages.";
-        } else if (lowerCaseMessage.contains("trending")) {
-            return "Trending topics vary by platform. On Instagram and TikTok, short-form video content is very popular. For Facebook, focus on community-building posts and live videos.";
-        } else if (lowerCaseMessage.contains("engagement")) {
-            return "To increase engagement, ask questions in your posts, run polls, and create shareable content like infographics or inspiring quotes. The more your audience interacts, the more your content will be seen.";
-        } else {
-            return "I'm here to help with your social media questions. Try asking about how to get more followers, what's trending, or how to increase engagement.";
-        }
+        // Answered by the server's ViralBud classifier, off the FX thread
+        new Thread(() -> {
+            try {
+                if (analyticsService == null) {
+                    analyticsService = ShardedAnalyticsService.locate("localhost", 1099);
+                }
+                String aiResponse = analyticsService.askViralBud(userMessage);
+                Platform.runLater(() -> chatHistory.appendText("ViralBud: " + aiResponse + "\n"));
+            } catch (Exception e) {
+                Platform.runLater(() -> chatHistory.appendText("ViralBud: Sorry, I couldn't reach the server (" + e.getMessage() + ").\n"));
+            }
+        }).start();
     }
 
     private void updateDashboard(SocialInsights insights) {
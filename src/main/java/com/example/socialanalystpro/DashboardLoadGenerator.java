@@ -0,0 +1,467 @@
+package com.example.socialanalystpro;
+
+import javax.management.MBeanServerConnection;
+import javax.management.remote.JMXConnector;
+import javax.management.remote.JMXConnectorFactory;
+import javax.management.remote.JMXServiceURL;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryUsage;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.rmi.RemoteException;
+import java.rmi.registry.LocateRegistry;
+import java.rmi.registry.Registry;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Capacity test for one server node: N simulated dashboards over real RMI doing what DashboardController does.
+// Each one runs Analyze (analyzePageCompact plus the primed getDashboardBundle), then takes live updates and now and
+// then switches the date filter, usually followed by another Analyze. The report gives latency percentiles,
+// throughput and errors per RMI method, plus the server's heap and GC.
+//
+// By default everything runs in this JVM: a FakeGraphServer, the service on its own registry and the clients, which
+// then share the CPU with the server. For cleaner numbers start AnalyticsServer separately (with
+// socialanalyst.graph.baseUrl aimed at a FakeGraphServer) and set socialanalyst.load.registry=host:port, plus
+// socialanalyst.load.jmxUrl=service:jmx:rmi:///jndi/rmi://host:port/jmxrmi for its heap and GC figures.
+//
+// Settings under socialanalyst.load: clients (50), durationSeconds (300), rampUpSeconds (30), pages (10),
+// mode (push subscribes like the current dashboard; poll replays the old 5 s / 60 s / 5 min timers),
+// filterSwitchSeconds (90, mean time between date-filter switches) and reportSeconds (10). In embedded mode
+// socialanalyst.fake.* shapes the Graph stand-in; unless set, pages get 2000 posts and 50 ms +- 50 ms latency.
+public class DashboardLoadGenerator {
+
+    // The dashboard's date filter menu
+    private static final long[] FILTER_WINDOWS_SECONDS = {30 * 60, 60 * 60, 24 * 60 * 60, 5 * 24 * 60 * 60,
+            10 * 24 * 60 * 60, 30L * 24 * 60 * 60, 60L * 24 * 60 * 60, 180L * 24 * 60 * 60, 365L * 24 * 60 * 60};
+    private static final Set<DashboardBundle.Section> ANALYZE_SECTIONS =
+            EnumSet.of(DashboardBundle.Section.COUNTS, DashboardBundle.Section.DEMOGRAPHICS, DashboardBundle.Section.ENGAGEMENT);
+
+    private interface RemoteCall<T> {
+        T call() throws Exception;
+    }
+
+    private final int clients = Integer.getInteger("socialanalyst.load.clients", 50);
+    private final long durationSeconds = Long.getLong("socialanalyst.load.durationSeconds", 300);
+    private final long rampUpSeconds = Long.getLong("socialanalyst.load.rampUpSeconds", 30);
+    private final int pages = Integer.getInteger("socialanalyst.load.pages", 10);
+    private final boolean push = !"poll".equalsIgnoreCase(System.getProperty("socialanalyst.load.mode", "push"));
+    private final long filterSwitchMillis = Long.getLong("socialanalyst.load.filterSwitchSeconds", 90) * 1_000;
+    private final long reportSeconds = Long.getLong("socialanalyst.load.reportSeconds", 10);
+
+    private final Map<String, MethodStats> stats = new ConcurrentHashMap<>();
+    private final LongAdder pushesReceived = new LongAdder();
+    private final AtomicInteger activeClients = new AtomicInteger();
+    private volatile boolean running = true;
+
+    private AnalyticsService service;
+    private ServerHealth serverHealth;
+    private long peakHeapUsed;
+
+    // Embedded mode only
+    private FakeGraphServer fakeGraph;
+    private Registry embeddedRegistry;
+    private AnalyticsServiceImpl embeddedService;
+
+    public static void main(String[] args) throws Exception {
+        new DashboardLoadGenerator().run();
+        System.exit(0);
+    }
+
+    private void run() throws Exception {
+        String registryAddress = System.getProperty("socialanalyst.load.registry");
+        if (registryAddress == null || registryAddress.isBlank()) {
+            startEmbedded();
+        } else {
+            // A cluster (nodes bound as AnalyticsService@<nodeId>, or socialanalyst.cluster.registries) is driven through
+            // the same sharded stub the dashboard uses
+            String[] hostPort = registryAddress.split(":");
+            service = ShardedAnalyticsService.locate(hostPort[0], hostPort.length > 1 ? Integer.parseInt(hostPort[1]) : 1099);
+            String jmxUrl = System.getProperty("socialanalyst.load.jmxUrl");
+            serverHealth = jmxUrl == null ? null : ServerHealth.remote(jmxUrl);
+        }
+
+        System.out.println("Load: " + clients + " dashboards over " + pages + " pages, " + (push ? "push" : "poll") + " mode, "
+                + durationSeconds + " s with " + rampUpSeconds + " s ramp-up");
+        ServerHealth.Sample startHealth = serverHealth == null ? null : serverHealth.sample();
+
+        long startNanos = System.nanoTime();
+        long endNanos = startNanos + TimeUnit.SECONDS.toNanos(durationSeconds);
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
+        reporter.scheduleAtFixedRate(new IntervalReport(startNanos), reportSeconds, reportSeconds, TimeUnit.SECONDS);
+
+        ExecutorService clientThreads = Executors.newThreadPerTaskExecutor(Thread.ofPlatform().daemon().name("load-client-", 0).factory());
+        for (int i = 0; i < clients; i++) {
+            int clientIndex = i;
+            long startDelayNanos = clients <= 1 ? 0 : TimeUnit.SECONDS.toNanos(rampUpSeconds) * i / clients;
+            clientThreads.submit(() -> runClient(clientIndex, startNanos + startDelayNanos, endNanos));
+        }
+        clientThreads.shutdown();
+        if (!clientThreads.awaitTermination(durationSeconds + rampUpSeconds + 120, TimeUnit.SECONDS)) {
+            running = false;
+            System.err.println("Some clients did not finish in time");
+        }
+        reporter.shutdownNow();
+
+        printReport((System.nanoTime() - startNanos) / 1e9, startHealth);
+        stopEmbedded();
+    }
+
+    private void startEmbedded() throws Exception {
+        defaultProperty("socialanalyst.fake.pages", String.valueOf(pages));
+        defaultProperty("socialanalyst.fake.posts", "2000");
+        defaultProperty("socialanalyst.fake.latencyMillis", "50");
+        defaultProperty("socialanalyst.fake.jitterMillis", "50");
+        fakeGraph = FakeGraphServer.fromSystemProperties();
+        fakeGraph.start(0);
+        defaultProperty("socialanalyst.graph.baseUrl", "http://localhost:" + fakeGraph.getPort());
+        // The generator prints its own interval reports and the server's summary at the end
+        defaultProperty("socialanalyst.metrics.logSeconds", "0");
+        defaultProperty("socialanalyst.store.dir", Files.createTempDirectory("socialanalyst-load").toString());
+
+        int registryPort;
+        try (ServerSocket probe = new ServerSocket(0)) {
+            registryPort = probe.getLocalPort();
+        }
+        embeddedRegistry = LocateRegistry.createRegistry(registryPort);
+        embeddedService = new AnalyticsServiceImpl();
+        embeddedRegistry.rebind(AnalyticsServer.SERVICE_NAME, embeddedService);
+        // Look the service up like a real client so calls go through the stub and sockets
+        service = (AnalyticsService) LocateRegistry.getRegistry("localhost", registryPort).lookup(AnalyticsServer.SERVICE_NAME);
+        serverHealth = ServerHealth.local();
+        System.out.println("Embedded server on registry port " + registryPort + ", fake Graph API on port " + fakeGraph.getPort());
+    }
+
+    private void stopEmbedded() {
+        if (embeddedService == null) {
+            return;
+        }
+        try {
+            embeddedRegistry.unbind(AnalyticsServer.SERVICE_NAME);
+            UnicastRemoteObject.unexportObject(embeddedRegistry, true);
+        } catch (Exception e) {
+            System.err.println("Failed to stop embedded registry: " + e.getMessage());
+        }
+        embeddedService.shutdown();
+        fakeGraph.stop();
+    }
+
+    private void runClient(int clientIndex, long startNanos, long endNanos) {
+        Random random = new Random(clientIndex);
+        String token = FakeGraphServer.pageToken(clientIndex % pages);
+        CountingListener exported = null;
+        PageUpdateListener listener = null;
+        try {
+            sleepUntil(startNanos);
+            activeClients.incrementAndGet();
+            long since = pickWindow(random);
+            analyze(token, since);
+            long renewNanos = Long.MAX_VALUE;
+            if (push) {
+                exported = new CountingListener();
+                listener = (PageUpdateListener) UnicastRemoteObject.exportObject(exported, 0,
+                        CompressingClientSocketFactory.fromSystemProperties(), CompressingServerSocketFactory.fromSystemProperties());
+                renewNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1_000, subscribe(token, since, listener) / 3));
+            }
+
+            long now = System.nanoTime();
+            long nextRenew = renewNanos == Long.MAX_VALUE ? Long.MAX_VALUE : now + renewNanos;
+            long nextFilterSwitch = now + exponentialNanos(random, filterSwitchMillis);
+            long nextFollowers = now + TimeUnit.MILLISECONDS.toNanos(PageWatcherHub.FOLLOWER_PERIOD_MILLIS);
+            long nextLikes = now + TimeUnit.MILLISECONDS.toNanos(PageWatcherHub.LIKES_PERIOD_MILLIS);
+            long nextSlowPanels = now + TimeUnit.MILLISECONDS.toNanos(PageWatcherHub.ENGAGEMENT_PERIOD_MILLIS);
+            while (running) {
+                long due = push ? Math.min(nextFilterSwitch, nextRenew)
+                        : Math.min(nextFilterSwitch, Math.min(nextFollowers, Math.min(nextLikes, nextSlowPanels)));
+                sleepUntil(Math.min(due, endNanos));
+                now = System.nanoTime();
+                if (now >= endNanos) {
+                    break;
+                }
+
+                if (!push) {
+                    long windowSince = since;
+                    if (now >= nextFollowers) {
+                        timed("getFollowerCount", () -> service.getFollowerCount(token));
+                        nextFollowers = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(PageWatcherHub.FOLLOWER_PERIOD_MILLIS);
+                    }
+                    if (now >= nextLikes) {
+                        timed("getPageLikes", () -> service.getPageLikes(token));
+                        nextLikes = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(PageWatcherHub.LIKES_PERIOD_MILLIS);
+                    }
+                    if (now >= nextSlowPanels) {
+                        timed("getGenderBreakdown", () -> service.getGenderBreakdown(token));
+                        timed("getPostEngagementOverTime", () -> service.getPostEngagementOverTime(token, windowSince));
+                        nextSlowPanels = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(PageWatcherHub.ENGAGEMENT_PERIOD_MILLIS);
+                    }
+                }
+                if (now >= nextRenew) {
+                    // Like the dashboard: keep the lease, or subscribe again if the server dropped it
+                    PageUpdateListener subscribed = listener;
+                    long windowSince = since;
+                    Boolean renewed = timed("renewSubscription", () -> service.renewSubscription(subscribed));
+                    if (Boolean.FALSE.equals(renewed)) {
+                        subscribe(token, windowSince, listener);
+                    }
+                    nextRenew = System.nanoTime() + renewNanos;
+                }
+                if (now >= nextFilterSwitch) {
+                    since = pickWindow(random);
+                    if (push) {
+                        subscribe(token, since, listener);
+                    }
+                    // Most users press Analyze again after picking a new window
+                    if (random.nextInt(4) != 0) {
+                        analyze(token, since);
+                    }
+                    nextFilterSwitch = System.nanoTime() + exponentialNanos(random, filterSwitchMillis);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RemoteException e) {
+            System.err.println("Client " + clientIndex + " could not export its listener: " + e.getMessage());
+        } finally {
+            if (listener != null) {
+                PageUpdateListener subscribed = listener;
+                timed("unsubscribe", () -> {
+                    service.unsubscribe(subscribed);
+                    return null;
+                });
+                try {
+                    UnicastRemoteObject.unexportObject(exported, true);
+                } catch (Exception e) {
+                    // already gone
+                }
+            }
+            activeClients.decrementAndGet();
+        }
+    }
+
+    private void analyze(String token, long since) {
+        timed("analyzePageCompact", () -> service.analyzePageCompact(token, since));
+        timed("getDashboardBundle", () -> service.getDashboardBundle(token, since, ANALYZE_SECTIONS));
+    }
+
+    // The lease the server granted, or the default one if the call failed
+    private long subscribe(String token, long since, PageUpdateListener listener) {
+        Long lease = timed("subscribe", () -> service.subscribe(token, since, listener));
+        return lease != null ? lease : 60_000;
+    }
+
+    // Failures are counted, not fatal: a dashboard keeps going after an error dialog
+    private <T> T timed(String method, RemoteCall<T> call) {
+        MethodStats methodStats = stats.computeIfAbsent(method, m -> new MethodStats());
+        long started = System.nanoTime();
+        try {
+            T result = call.call();
+            methodStats.latency.recordNanos(System.nanoTime() - started);
+            return result;
+        } catch (Exception e) {
+            methodStats.errorLatency.recordNanos(System.nanoTime() - started);
+            methodStats.errorsByType.computeIfAbsent(e.getClass().getSimpleName(), t -> new LongAdder()).increment();
+            Throwable cause = e;
+            while (cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            methodStats.lastError = cause.getMessage();
+            return null;
+        }
+    }
+
+    private static long pickWindow(Random random) {
+        return System.currentTimeMillis() / 1000 - FILTER_WINDOWS_SECONDS[random.nextInt(FILTER_WINDOWS_SECONDS.length)];
+    }
+
+    private static long exponentialNanos(Random random, long meanMillis) {
+        return TimeUnit.MILLISECONDS.toNanos((long) (-Math.log(1 - random.nextDouble()) * meanMillis));
+    }
+
+    private void sleepUntil(long deadlineNanos) throws InterruptedException {
+        long remaining;
+        while (running && (remaining = deadlineNanos - System.nanoTime()) > 0) {
+            TimeUnit.NANOSECONDS.sleep(Math.min(remaining, TimeUnit.SECONDS.toNanos(1)));
+        }
+    }
+
+    private long totalCalls() {
+        long total = 0;
+        for (MethodStats methodStats : stats.values()) {
+            total += methodStats.latency.getCount() + methodStats.errorLatency.getCount();
+        }
+        return total;
+    }
+
+    private long totalErrors() {
+        long total = 0;
+        for (MethodStats methodStats : stats.values()) {
+            total += methodStats.errorLatency.getCount();
+        }
+        return total;
+    }
+
+    private void printReport(double elapsedSeconds, ServerHealth.Sample startHealth) {
+        System.out.println();
+        System.out.printf("%-28s %9s %7s %8s %9s %9s %9s %9s%n", "method", "calls", "errors", "calls/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (Map.Entry<String, MethodStats> entry : new TreeMap<>(stats).entrySet()) {
+            LatencyHistogram latency = entry.getValue().latency;
+            long errors = entry.getValue().errorLatency.getCount();
+            System.out.printf("%-28s %9d %7d %8.2f %9.1f %9.1f %9.1f %9.1f%n", entry.getKey(), latency.getCount() + errors, errors,
+                    (latency.getCount() + errors) / elapsedSeconds, latency.percentileMillis(50), latency.percentileMillis(95),
+                    latency.percentileMillis(99), latency.getMaxMillis());
+        }
+        System.out.printf("%-28s %9d %7d %8.2f%n", "total", totalCalls(), totalErrors(), totalCalls() / elapsedSeconds);
+        if (push) {
+            System.out.printf("pushes received: %d (%.2f/s)%n", pushesReceived.sum(), pushesReceived.sum() / elapsedSeconds);
+        }
+
+        for (Map.Entry<String, MethodStats> entry : new TreeMap<>(stats).entrySet()) {
+            if (!entry.getValue().errorsByType.isEmpty()) {
+                System.out.println("errors in " + entry.getKey() + ": " + entry.getValue().errorsByType + ", last: " + entry.getValue().lastError);
+            }
+        }
+
+        if (serverHealth != null) {
+            ServerHealth.Sample end = serverHealth.sample();
+            System.out.printf("server heap: %d MB used at end, %d MB peak sampled, %d MB max%n",
+                    end.heapUsed >> 20, Math.max(peakHeapUsed, end.heapUsed) >> 20, end.heapMax >> 20);
+            if (startHealth != null) {
+                System.out.printf("server GC during run: %d collections, %d ms (%.1f%% of wall time)%n",
+                        end.gcCount - startHealth.gcCount, end.gcMillis - startHealth.gcMillis,
+                        (end.gcMillis - startHealth.gcMillis) / (elapsedSeconds * 10));
+            }
+        } else {
+            System.out.println("server heap/GC: not available (set socialanalyst.load.jmxUrl)");
+        }
+        if (embeddedService != null) {
+            System.out.println("graph calls: " + embeddedService.getGraphScheduler().describe());
+            System.out.print(embeddedService.getMetrics().getSummary());
+        }
+    }
+
+    private static void defaultProperty(String key, String value) {
+        if (System.getProperty(key) == null) {
+            System.setProperty(key, value);
+        }
+    }
+
+    private final class IntervalReport implements Runnable {
+        private final long startNanos;
+        private long lastCalls;
+        private long lastErrors;
+        private long lastPushes;
+
+        IntervalReport(long startNanos) {
+            this.startNanos = startNanos;
+        }
+
+        @Override
+        public void run() {
+            try {
+                long calls = totalCalls(), errors = totalErrors(), pushes = pushesReceived.sum();
+                String heap = "";
+                if (serverHealth != null) {
+                    ServerHealth.Sample sample = serverHealth.sample();
+                    peakHeapUsed = Math.max(peakHeapUsed, sample.heapUsed);
+                    heap = ", server heap " + (sample.heapUsed >> 20) + " MB";
+                }
+                System.out.printf("[%4ds] %d clients, %.1f calls/s, %d errors, %d pushes%s%n",
+                        (System.nanoTime() - startNanos) / 1_000_000_000, activeClients.get(),
+                        (calls - lastCalls) / (double) reportSeconds, errors - lastErrors, pushes - lastPushes, heap);
+                lastCalls = calls;
+                lastErrors = errors;
+                lastPushes = pushes;
+            } catch (Exception e) {
+                System.err.println("Interval report failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private static final class MethodStats {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LatencyHistogram errorLatency = new LatencyHistogram();
+        private final Map<String, LongAdder> errorsByType = new ConcurrentHashMap<>();
+        private volatile String lastError;
+    }
+
+    private final class CountingListener implements PageUpdateListener {
+        @Override
+        public void onFollowerCount(long followers) { pushesReceived.increment(); }
+
+        @Override
+        public void onPageLikes(long likes) { pushesReceived.increment(); }
+
+        @Override
+        public void onGenderBreakdown(Map<String, Integer> genderBreakdown) { pushesReceived.increment(); }
+
+        @Override
+        public void onPostEngagementOverTime(Map<String, Map<String, Integer>> engagementData) { pushesReceived.increment(); }
+    }
+
+    // Heap and GC of the server JVM, in-process or over JMX
+    private static final class ServerHealth {
+        private final MemoryMXBean memory;
+        private final List<GarbageCollectorMXBean> collectors;
+
+        private ServerHealth(MemoryMXBean memory, List<GarbageCollectorMXBean> collectors) {
+            this.memory = memory;
+            this.collectors = collectors;
+        }
+
+        static ServerHealth local() {
+            return new ServerHealth(ManagementFactory.getMemoryMXBean(), ManagementFactory.getGarbageCollectorMXBeans());
+        }
+
+        static ServerHealth remote(String jmxUrl) {
+            try {
+                JMXConnector connector = JMXConnectorFactory.connect(new JMXServiceURL(jmxUrl));
+                MBeanServerConnection connection = connector.getMBeanServerConnection();
+                return new ServerHealth(
+                        ManagementFactory.newPlatformMXBeanProxy(connection, ManagementFactory.MEMORY_MXBEAN_NAME, MemoryMXBean.class),
+                        new ArrayList<>(ManagementFactory.getPlatformMXBeans(connection, GarbageCollectorMXBean.class)));
+            } catch (IOException e) {
+                System.err.println("Could not connect to server JMX at " + jmxUrl + ": " + e.getMessage());
+                return null;
+            }
+        }
+
+        Sample sample() {
+            MemoryUsage heap = memory.getHeapMemoryUsage();
+            long gcCount = 0, gcMillis = 0;
+            for (GarbageCollectorMXBean collector : collectors) {
+                gcCount += Math.max(0, collector.getCollectionCount());
+                gcMillis += Math.max(0, collector.getCollectionTime());
+            }
+            return new Sample(heap.getUsed(), heap.getMax(), gcCount, gcMillis);
+        }
+
+        static final class Sample {
+            private final long heapUsed;
+            private final long heapMax;
+            private final long gcCount;
+            private final long gcMillis;
+
+            Sample(long heapUsed, long heapMax, long gcCount, long gcMillis) {
+                this.heapUsed = heapUsed;
+                this.heapMax = heapMax;
+                this.gcCount = gcCount;
+                this.gcMillis = gcMillis;
+            }
+        }
+    }
+}
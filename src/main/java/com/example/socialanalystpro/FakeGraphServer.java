@@ -0,0 +1,497 @@
+package com.example.socialanalystpro;
+
+import com.restfb.json.Json;
+import com.restfb.json.JsonArray;
+import com.restfb.json.JsonObject;
+import com.restfb.json.JsonValue;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Local stand-in for the parts of the Graph API the service uses, serving SyntheticPages so performance can be
+// measured offline. Start it, then run the server with -Dsocialanalyst.graph.baseUrl=http://localhost:<port> and
+// log in with the printed tokens ("fake-page-<n>" for page tokens, "fake-user-<n>" for user tokens). Serves me,
+// me/posts, me/feed, me/insights, {post}/comments, batch requests and ?ids= multi-id reads of post comments.
+//
+// Usage: FakeGraphServer [port] (default 8089). Tuning, all optional system properties under socialanalyst.fake:
+// pages (5), posts per page (1000), spanDays (365), seed (42), latencyMillis (0), jitterMillis (0),
+// errorRate (0.0) for transient 500s, throttleRate (0.0) for code 4 rate-limit errors, and callsPerMinute (0)
+// which, when set, reports X-App-Usage as the share of that budget used in the current minute.
+public class FakeGraphServer {
+
+    private static final DateTimeFormatter GRAPH_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ssxx").withZone(ZoneOffset.UTC);
+    private static final Pattern VERSION_PREFIX = Pattern.compile("^/v\\d+\\.\\d+");
+    private static final Pattern COMMENTS_LIMIT = Pattern.compile("comments\\.limit\\((\\d+)\\)");
+    private static final String PAGE_TOKEN_PREFIX = "fake-page-";
+    private static final String USER_TOKEN_PREFIX = "fake-user-";
+    private static final int DEFAULT_LIMIT = 25;
+    private static final int MAX_LIMIT = 100;
+    private static final int DEFAULT_INSIGHT_DAYS = 2;
+
+    private final SyntheticPage[] pages;
+    private final long latencyMillis;
+    private final long jitterMillis;
+    private final double errorRate;
+    private final double throttleRate;
+    private final long callsPerMinute;
+    private final AtomicLong minuteCalls = new AtomicLong();
+    private volatile long currentMinute;
+    private HttpServer server;
+
+    public FakeGraphServer(SyntheticPage[] pages, long latencyMillis, long jitterMillis, double errorRate,
+                           double throttleRate, long callsPerMinute) {
+        this.pages = pages;
+        this.latencyMillis = latencyMillis;
+        this.jitterMillis = jitterMillis;
+        this.errorRate = errorRate;
+        this.throttleRate = throttleRate;
+        this.callsPerMinute = callsPerMinute;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8089;
+        FakeGraphServer fake = fromSystemProperties();
+        fake.start(port);
+        System.out.println("Fake Graph API listening on http://localhost:" + port
+                + " (tokens " + PAGE_TOKEN_PREFIX + "0.." + PAGE_TOKEN_PREFIX + (fake.getPageCount() - 1) + ")");
+    }
+
+    // Generates the pages and applies the socialanalyst.fake.* settings; the server still has to be started
+    public static FakeGraphServer fromSystemProperties() {
+        int pageCount = Integer.getInteger("socialanalyst.fake.pages", 5);
+        int postCount = Integer.getInteger("socialanalyst.fake.posts", 1000);
+        int spanDays = Integer.getInteger("socialanalyst.fake.spanDays", 365);
+        SyntheticPageGenerator generator = new SyntheticPageGenerator(Long.getLong("socialanalyst.fake.seed", 42));
+
+        long started = System.nanoTime();
+        SyntheticPage[] pages = new SyntheticPage[pageCount];
+        for (int i = 0; i < pageCount; i++) {
+            pages[i] = generator.generate(i, postCount, spanDays);
+        }
+        System.out.println("Generated " + pageCount + " pages x " + postCount + " posts in "
+                + (System.nanoTime() - started) / 1_000_000 + " ms");
+
+        return new FakeGraphServer(pages,
+                Long.getLong("socialanalyst.fake.latencyMillis", 0),
+                Long.getLong("socialanalyst.fake.jitterMillis", 0),
+                Double.parseDouble(System.getProperty("socialanalyst.fake.errorRate", "0")),
+                Double.parseDouble(System.getProperty("socialanalyst.fake.throttleRate", "0")),
+                Long.getLong("socialanalyst.fake.callsPerMinute", 0));
+    }
+
+    public static String pageToken(int pageIndex) {
+        return PAGE_TOKEN_PREFIX + pageIndex;
+    }
+
+    public void start(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        // Platform threads, so an in-process fake keeps answering even if the service pins every carrier thread
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public int getPageCount() {
+        return pages.length;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            Map<String, String> params = parseQuery(exchange.getRequestURI().getRawQuery());
+            if ("POST".equals(exchange.getRequestMethod())) {
+                params.putAll(parseQuery(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8)));
+            }
+            String auth = exchange.getRequestHeaders().getFirst("Authorization");
+            if (auth != null && auth.startsWith("Bearer ") && !params.containsKey("access_token")) {
+                params.put("access_token", auth.substring("Bearer ".length()));
+            }
+            String path = VERSION_PREFIX.matcher(exchange.getRequestURI().getPath()).replaceFirst("");
+            String baseUrl = "http://" + exchange.getRequestHeaders().getFirst("Host") + exchange.getRequestURI().getPath();
+
+            simulateLatency();
+            Reply reply;
+            if ((path.equals("/") || path.isEmpty()) && params.containsKey("ids")) {
+                reply = injectFailure();
+                if (reply == null) {
+                    reply = multiId(params, baseUrl.substring(0, baseUrl.length() - (baseUrl.endsWith("/") ? 1 : 0)));
+                }
+            } else if (path.equals("/") || path.isEmpty()) {
+                reply = params.containsKey("batch") ? batch(params) : error(400, 100, "GraphMethodException", "Unsupported request");
+            } else {
+                reply = injectFailure();
+                if (reply == null) {
+                    reply = route(path.substring(1), params, baseUrl);
+                }
+            }
+
+            byte[] body = reply.body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+            String usage = appUsageHeader();
+            if (usage != null) {
+                exchange.getResponseHeaders().set("X-App-Usage", usage);
+            }
+            exchange.sendResponseHeaders(reply.status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (Exception e) {
+            System.err.println("Fake Graph request failed: " + e.getMessage());
+            exchange.sendResponseHeaders(500, -1);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private Reply route(String path, Map<String, String> params, String baseUrl) {
+        String token = params.get("access_token");
+        SyntheticPage page = pageFor(token);
+        if (page == null) {
+            return error(400, 190, "OAuthException", "Invalid OAuth access token - Cannot parse access token");
+        }
+        switch (path) {
+            case "me":
+                return ok(me(page, token, params));
+            case "me/posts":
+            case "me/feed":
+                return ok(posts(page, params, baseUrl));
+            case "me/insights":
+                return ok(insights(page, params));
+            default:
+                if (path.endsWith("/comments")) {
+                    int index = page.indexOf(path.substring(0, path.length() - "/comments".length()));
+                    if (index >= 0) {
+                        return ok(comments(page, index, params, baseUrl));
+                    }
+                }
+                return error(400, 803, "OAuthException", "Some of the aliases you requested do not exist: " + path);
+        }
+    }
+
+    // ?ids=a,b,c: one object per id, keyed by id. Only the comments edge (fields=comments.limit(n){...}) is served,
+    // with each post's next link pointing at its own /{id}/comments.
+    private Reply multiId(Map<String, String> params, String versionUrl) {
+        SyntheticPage page = pageFor(params.get("access_token"));
+        if (page == null) {
+            return error(400, 190, "OAuthException", "Invalid OAuth access token - Cannot parse access token");
+        }
+        String fields = params.getOrDefault("fields", "id");
+        int commentsLimit = DEFAULT_LIMIT;
+        Matcher matcher = COMMENTS_LIMIT.matcher(fields);
+        if (matcher.find()) {
+            commentsLimit = Math.min(MAX_LIMIT, Integer.parseInt(matcher.group(1)));
+        }
+        JsonObject byId = new JsonObject();
+        // restfb sends the ids as a JSON array, the Graph docs as a comma-separated list
+        String ids = params.get("ids").replaceAll("[\\[\\]\"\\s]", "");
+        for (String id : ids.split(",")) {
+            int index = page.indexOf(id.trim());
+            if (index < 0) {
+                return error(400, 803, "OAuthException", "Some of the aliases you requested do not exist: " + id);
+            }
+            JsonObject post = new JsonObject().add("id", id.trim());
+            if (fields.contains("comments")) {
+                Map<String, String> commentParams = new LinkedHashMap<>();
+                commentParams.put("access_token", params.get("access_token"));
+                commentParams.put("limit", String.valueOf(commentsLimit));
+                int stop = Math.min(page.comments(index), commentsLimit);
+                post.add("comments", connection(commentData(page, index, 0, stop), 0, stop, stop < page.comments(index),
+                        commentParams, versionUrl + "/" + id.trim() + "/comments"));
+            }
+            byId.add(id.trim(), post);
+        }
+        return ok(byId.toString());
+    }
+
+    // Graph batch: a JSON array of {method, relative_url}; each answer carries its body as a string
+    private Reply batch(Map<String, String> params) {
+        JsonArray requests = Json.parse(params.get("batch")).asArray();
+        JsonArray responses = new JsonArray();
+        for (JsonValue value : requests) {
+            String relativeUrl = value.asObject().getString("relative_url", "");
+            int query = relativeUrl.indexOf('?');
+            Map<String, String> itemParams = parseQuery(query < 0 ? null : relativeUrl.substring(query + 1));
+            itemParams.putIfAbsent("access_token", params.get("access_token"));
+            String path = query < 0 ? relativeUrl : relativeUrl.substring(0, query);
+            path = VERSION_PREFIX.matcher(path.startsWith("/") ? path : "/" + path).replaceFirst("").substring(1);
+
+            Reply reply = injectFailure();
+            if (reply == null) {
+                reply = route(path, itemParams, "");
+            }
+            responses.add(new JsonObject().add("code", reply.status).add("headers", new JsonArray()).add("body", reply.body));
+        }
+        return ok(responses.toString());
+    }
+
+    private String me(SyntheticPage page, String token, Map<String, String> params) {
+        String fields = params.getOrDefault("fields", "id,name");
+        JsonObject me = new JsonObject().add("id", page.getId());
+        for (String field : fields.split(",")) {
+            switch (field.trim()) {
+                case "name": me.add("name", page.getName()); break;
+                case "category": me.add("category", page.getCategory()); break;
+                case "fan_count": me.add("fan_count", page.getFanCount()); break;
+                case "followers_count": me.add("followers_count", page.getFollowersCount()); break;
+                case "picture{url}":
+                case "picture":
+                    me.add("picture", new JsonObject().add("data", new JsonObject()
+                            .add("url", "https://example.invalid/pictures/" + page.getId() + ".jpg")));
+                    break;
+                default:
+                    break;
+            }
+        }
+        if ("1".equals(params.get("metadata"))) {
+            me.add("metadata", new JsonObject().add("type", token.startsWith(USER_TOKEN_PREFIX) ? "user" : "page"));
+        }
+        return me.toString();
+    }
+
+    private String posts(SyntheticPage page, Map<String, String> params, String baseUrl) {
+        String fields = params.getOrDefault("fields", "id,message,created_time");
+        int limit = Math.min(MAX_LIMIT, parseInt(params.get("limit"), DEFAULT_LIMIT));
+        int end = params.containsKey("since") ? page.firstIndexBefore(parseTime(params.get("since"))) : page.getPostCount();
+        int start = params.containsKey("until") ? page.firstIndexAtOrBefore(parseTime(params.get("until"))) : 0;
+        start = Math.max(start, parseInt(params.get("after"), 0));
+        int stop = Math.min(end, start + limit);
+
+        int commentsLimit = DEFAULT_LIMIT;
+        Matcher matcher = COMMENTS_LIMIT.matcher(fields);
+        if (matcher.find()) {
+            commentsLimit = Integer.parseInt(matcher.group(1));
+        }
+        boolean withComments = fields.contains("comments");
+        boolean withReactions = fields.contains("reactions");
+        boolean withShares = fields.contains("shares");
+
+        JsonArray data = new JsonArray();
+        for (int i = start; i < stop; i++) {
+            JsonObject post = new JsonObject()
+                    .add("id", page.postId(i))
+                    .add("created_time", GRAPH_TIME.format(Instant.ofEpochSecond(page.createdSeconds(i))));
+            String message = page.message(i);
+            if (message != null && fields.contains("message")) {
+                post.add("message", message);
+            }
+            if (withReactions) {
+                post.add("reactions", new JsonObject().add("data", new JsonArray())
+                        .add("summary", new JsonObject().add("total_count", page.reactions(i))));
+            }
+            if (withComments) {
+                post.add("comments", new JsonObject()
+                        .add("data", commentData(page, i, 0, Math.min(commentsLimit, page.comments(i))))
+                        .add("summary", new JsonObject().add("total_count", page.comments(i)).add("order", "ranked")));
+            }
+            if (withShares && page.shares(i) > 0) {
+                post.add("shares", new JsonObject().add("count", page.shares(i)));
+            }
+            data.add(post);
+        }
+        return connection(data, start, stop, stop < end, params, baseUrl).toString();
+    }
+
+    private String comments(SyntheticPage page, int index, Map<String, String> params, String baseUrl) {
+        int limit = Math.min(MAX_LIMIT, parseInt(params.get("limit"), DEFAULT_LIMIT));
+        int start = parseInt(params.get("after"), 0);
+        int stop = Math.min(page.comments(index), start + limit);
+        JsonObject connection = connection(commentData(page, index, start, stop), start, stop,
+                stop < page.comments(index), params, baseUrl);
+        if (params.getOrDefault("summary", "").equals("true")) {
+            connection.add("summary", new JsonObject().add("total_count", page.comments(index)));
+        }
+        return connection.toString();
+    }
+
+    private static JsonArray commentData(SyntheticPage page, int index, int from, int to) {
+        JsonArray data = new JsonArray();
+        for (int c = from; c < to; c++) {
+            data.add(new JsonObject()
+                    .add("id", page.postId(index) + "_" + c)
+                    .add("message", page.commentMessage(index, c))
+                    .add("created_time", GRAPH_TIME.format(Instant.ofEpochSecond(page.createdSeconds(index) + 60L * (c + 1)))));
+        }
+        return data;
+    }
+
+    private String insights(SyntheticPage page, Map<String, String> params) {
+        JsonArray data = new JsonArray();
+        long todayEnd = System.currentTimeMillis() / 1000 / 86_400 * 86_400 + 7 * 3_600;
+        int days = DEFAULT_INSIGHT_DAYS;
+        if (params.containsKey("since")) {
+            long until = params.containsKey("until") ? parseTime(params.get("until")) : System.currentTimeMillis() / 1000;
+            days = (int) Math.max(1, Math.min(93, (until - parseTime(params.get("since"))) / 86_400));
+        }
+        for (String metric : params.getOrDefault("metric", "").split(",")) {
+            JsonArray values = new JsonArray();
+            if (metric.equals("page_fans_gender_age")) {
+                JsonObject byGenderAge = new JsonObject();
+                page.fansByGenderAge().forEach((key, fans) -> byGenderAge.add(key, fans.intValue()));
+                values.add(new JsonObject().add("value", byGenderAge).add("end_time", GRAPH_TIME.format(Instant.ofEpochSecond(todayEnd))));
+            } else if (metric.equals("page_impressions_unique") || metric.equals("page_engaged_users")) {
+                int column = metric.equals("page_impressions_unique") ? 0 : 1;
+                int day = days;
+                for (long[] sample : page.dailyReachAndEngagement(days)) {
+                    day--;
+                    values.add(new JsonObject().add("value", sample[column])
+                            .add("end_time", GRAPH_TIME.format(Instant.ofEpochSecond(todayEnd - day * 86_400L))));
+                }
+            } else {
+                continue;
+            }
+            data.add(new JsonObject()
+                    .add("name", metric)
+                    .add("period", params.getOrDefault("period", "day"))
+                    .add("values", values)
+                    .add("id", page.getId() + "/insights/" + metric + "/" + params.getOrDefault("period", "day")));
+        }
+        return new JsonObject().add("data", data).toString();
+    }
+
+    // Wraps data in a Graph connection with cursors and, when more remains, an absolute `next` URL back to us
+    private static JsonObject connection(JsonArray data, int start, int stop, boolean more, Map<String, String> params,
+                                         String baseUrl) {
+        JsonObject paging = new JsonObject().add("cursors", new JsonObject()
+                .add("before", String.valueOf(start)).add("after", String.valueOf(stop)));
+        if (more && !baseUrl.isEmpty()) {
+            Map<String, String> next = new LinkedHashMap<>(params);
+            next.put("after", String.valueOf(stop));
+            next.remove("batch");
+            paging.add("next", baseUrl + "?" + encodeQuery(next));
+        }
+        return new JsonObject().add("data", data).add("paging", paging);
+    }
+
+    private SyntheticPage pageFor(String token) {
+        if (token == null) {
+            return null;
+        }
+        String number = token.startsWith(PAGE_TOKEN_PREFIX) ? token.substring(PAGE_TOKEN_PREFIX.length())
+                : token.startsWith(USER_TOKEN_PREFIX) ? token.substring(USER_TOKEN_PREFIX.length()) : null;
+        int index = parseInt(number, -1);
+        return index >= 0 && index < pages.length ? pages[index] : null;
+    }
+
+    private void simulateLatency() throws InterruptedException {
+        long delay = latencyMillis + (jitterMillis > 0 ? ThreadLocalRandom.current().nextLong(jitterMillis + 1) : 0);
+        if (delay > 0) {
+            Thread.sleep(delay);
+        }
+    }
+
+    // Counts the call against the minute budget and rolls the dice for injected errors
+    private Reply injectFailure() {
+        long minute = System.currentTimeMillis() / 60_000;
+        if (minute != currentMinute) {
+            currentMinute = minute;
+            minuteCalls.set(0);
+        }
+        minuteCalls.incrementAndGet();
+        double roll = ThreadLocalRandom.current().nextDouble();
+        if (roll < throttleRate) {
+            return error(403, 4, "OAuthException", "(#4) Application request limit reached");
+        }
+        if (roll < throttleRate + errorRate) {
+            return error(500, 2, "FacebookApiException", "An unexpected error has occurred. Please retry your request later.");
+        }
+        return null;
+    }
+
+    private String appUsageHeader() {
+        if (callsPerMinute <= 0) {
+            return null;
+        }
+        long percent = Math.min(100, minuteCalls.get() * 100 / callsPerMinute);
+        return new JsonObject().add("call_count", percent).add("total_cputime", percent / 2).add("total_time", percent / 2).toString();
+    }
+
+    private static Reply ok(String body) {
+        return new Reply(200, body);
+    }
+
+    private static Reply error(int status, int code, String type, String message) {
+        JsonObject error = new JsonObject().add("message", message).add("type", type).add("code", code)
+                .add("fbtrace_id", Long.toHexString(ThreadLocalRandom.current().nextLong()));
+        if (status >= 500) {
+            error.add("is_transient", true);
+        }
+        return new Reply(status, new JsonObject().add("error", error).toString());
+    }
+
+    private static long parseTime(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return Instant.parse(value.length() == 10 ? value + "T00:00:00Z" : value).getEpochSecond();
+        }
+    }
+
+    private static int parseInt(String value, int fallback) {
+        if (value == null) {
+            return fallback;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> params = new LinkedHashMap<>();
+        if (query == null || query.isEmpty()) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            params.put(key, eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    private static String encodeQuery(Map<String, String> params) {
+        StringBuilder query = new StringBuilder();
+        for (Map.Entry<String, String> param : params.entrySet()) {
+            if (query.length() > 0) query.append('&');
+            query.append(URLEncoder.encode(param.getKey(), StandardCharsets.UTF_8)).append('=')
+                    .append(URLEncoder.encode(param.getValue(), StandardCharsets.UTF_8));
+        }
+        return query.toString();
+    }
+
+    private static final class Reply {
+        private final int status;
+        private final String body;
+
+        Reply(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+}
@@ -0,0 +1,397 @@
+package com.example.socialanalystpro;
+
+import com.restfb.json.Json;
+import com.restfb.json.JsonObject;
+import com.restfb.json.JsonValue;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Gate for every outbound Graph request. It tracks the usage Facebook reports in X-App-Usage, X-Page-Usage and
+// X-Business-Use-Case-Usage and narrows concurrency and pacing as usage climbs. Waiting requests are served
+// interactive-first. Background refreshes are shed outright once usage is high or the app is blocked, so user
+// clicks keep working while the pollers back off.
+//
+// Callers pass a scope: the token whose requests they make. Page usage and page rate-limit errors count only for
+// that scope, and business-use-case usage for the business ids its responses reported, so one hot page slows and
+// blocks its own calls, not everyone's. App usage and app-level rate-limit errors still apply to every call.
+public class GraphCallScheduler {
+
+    public enum Priority { INTERACTIVE, BACKGROUND }
+
+    private static final ThreadLocal<Priority> CURRENT = ThreadLocal.withInitial(() -> Priority.INTERACTIVE);
+
+    static final double SLOW_DOWN_PERCENT = 50;
+    static final double SHED_BACKGROUND_PERCENT = 75;
+    static final double CRITICAL_PERCENT = 90;
+    private static final long USAGE_STALE_MILLIS = 5 * 60_000;
+    private static final long THROTTLED_BACKOFF_MILLIS = 60_000;
+    private static final long RECHECK_MILLIS = 1_000;
+    private static final String APP = "app";
+    private static final String PAGE = "page:";
+    private static final String BUSINESS = "buc:";
+
+    private final int maxConcurrent;
+    private final long interactiveMaxWaitMillis;
+    private final long backgroundMaxWaitMillis;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final PriorityQueue<Ticket> waiting = new PriorityQueue<>(
+            Comparator.comparing((Ticket t) -> t.priority).thenComparingLong(t -> t.sequence));
+    // Keyed "app", "page:<scope>" and "buc:<business id>"
+    private final Map<String, Usage> usage = new ConcurrentHashMap<>();
+    // Page and business blocks, keyed like usage; the app-wide block is blockedUntilMillis
+    private final Map<String, Long> blockedUntil = new ConcurrentHashMap<>();
+    private final Map<String, Caller> callers = new ConcurrentHashMap<>();
+    private long sequence;
+    private int inFlight;
+    private long lastStartMillis;
+    private long lastSweepMillis;
+    private volatile long blockedUntilMillis;
+
+    private long interactiveCalls;
+    private long backgroundCalls;
+    private long shedCalls;
+    private long timedOutCalls;
+    private long throttledResponses;
+
+    public GraphCallScheduler(int maxConcurrent, long interactiveMaxWaitMillis, long backgroundMaxWaitMillis) {
+        this.maxConcurrent = maxConcurrent;
+        this.interactiveMaxWaitMillis = interactiveMaxWaitMillis;
+        this.backgroundMaxWaitMillis = backgroundMaxWaitMillis;
+    }
+
+    public static GraphCallScheduler fromSystemProperties() {
+        return new GraphCallScheduler(
+                Integer.getInteger("socialanalyst.graph.maxConcurrent", 16),
+                Long.getLong("socialanalyst.graph.interactiveMaxWaitMillis", 15_000),
+                Long.getLong("socialanalyst.graph.backgroundMaxWaitMillis", 5_000));
+    }
+
+    // Runs work with every Graph call it makes on this thread scheduled at the given priority
+    public static <T> T callAs(Priority priority, Callable<T> work) throws Exception {
+        Priority previous = CURRENT.get();
+        CURRENT.set(priority);
+        try {
+            return work.call();
+        } finally {
+            CURRENT.set(previous);
+        }
+    }
+
+    public static Priority currentPriority() {
+        return CURRENT.get();
+    }
+
+    // scope: the token the call is made for, or null when only app-level limits apply
+    public void acquire(String scope, Priority priority) throws IOException {
+        lock.lock();
+        try {
+            long now = System.currentTimeMillis();
+            sweep(now);
+            Caller caller = scope == null ? null : callers.computeIfAbsent(scope, Caller::new);
+            if (priority == Priority.BACKGROUND && shouldShed(caller, now)) {
+                shedCalls++;
+                throw new GraphThrottledException("Background Graph call shed at " + Math.round(usagePercent(caller, now)) + "% usage");
+            }
+
+            Ticket ticket = new Ticket(priority, sequence++, caller);
+            waiting.add(ticket);
+            long deadline = now + (priority == Priority.INTERACTIVE ? interactiveMaxWaitMillis : backgroundMaxWaitMillis);
+            try {
+                long wait;
+                while ((wait = waitMillis(ticket, now)) > 0) {
+                    if (priority == Priority.BACKGROUND && shouldShed(caller, now)) {
+                        shedCalls++;
+                        throw new GraphThrottledException("Background Graph call shed at " + Math.round(usagePercent(caller, now)) + "% usage");
+                    }
+                    if (now >= deadline) {
+                        timedOutCalls++;
+                        throw new GraphThrottledException("Timed out waiting for Graph API capacity");
+                    }
+                    changed.await(Math.min(wait, deadline - now), TimeUnit.MILLISECONDS);
+                    now = System.currentTimeMillis();
+                }
+                inFlight++;
+                lastStartMillis = now;
+                if (caller != null) {
+                    caller.inFlight++;
+                    caller.lastStartMillis = now;
+                    caller.lastSeenMillis = now;
+                }
+                if (priority == Priority.INTERACTIVE) interactiveCalls++; else backgroundCalls++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted waiting for Graph API capacity");
+            } finally {
+                waiting.remove(ticket);
+                changed.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release(String scope) {
+        lock.lock();
+        try {
+            inFlight--;
+            Caller caller = scope == null ? null : callers.get(scope);
+            if (caller != null) {
+                caller.inFlight--;
+            }
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Parses the usage headers of one response made for scope; any of them may be null
+    public void recordUsageHeaders(String scope, String appUsage, String pageUsage, String businessUseCaseUsage) {
+        long now = System.currentTimeMillis();
+        try {
+            if (appUsage != null) {
+                JsonObject values = Json.parse(appUsage).asObject();
+                record(APP, percent(values), values.getLong("estimated_time_to_regain_access", 0), now);
+            }
+            if (pageUsage != null && scope != null) {
+                JsonObject values = Json.parse(pageUsage).asObject();
+                record(PAGE + scope, percent(values), values.getLong("estimated_time_to_regain_access", 0), now);
+            }
+            if (businessUseCaseUsage != null) {
+                JsonObject byBusiness = Json.parse(businessUseCaseUsage).asObject();
+                for (String business : byBusiness.names()) {
+                    double percent = 0;
+                    long regainMinutes = 0;
+                    for (JsonValue entry : byBusiness.get(business).asArray()) {
+                        JsonObject usageEntry = entry.asObject();
+                        percent = Math.max(percent, percent(usageEntry));
+                        regainMinutes = Math.max(regainMinutes, usageEntry.getLong("estimated_time_to_regain_access", 0));
+                    }
+                    if (scope != null) {
+                        Caller caller = callers.computeIfAbsent(scope, Caller::new);
+                        caller.businesses.add(business);
+                        caller.lastSeenMillis = now;
+                    }
+                    record(BUSINESS + business, percent, regainMinutes, now);
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Could not parse Graph usage headers: " + e.getMessage());
+        }
+    }
+
+    // A page or business-use-case rate-limit error came back for scope: stop that scope's calls for a while
+    public void onThrottled(String scope) {
+        if (scope == null) {
+            onAppThrottled();
+            return;
+        }
+        block(PAGE + scope, System.currentTimeMillis() + THROTTLED_BACKOFF_MILLIS, true);
+    }
+
+    // An app-level rate-limit error came back despite the headers: stop everything for a while
+    public void onAppThrottled() {
+        block(APP, System.currentTimeMillis() + THROTTLED_BACKOFF_MILLIS, true);
+    }
+
+    // App-level usage, which every call is subject to
+    public double getUsagePercent() {
+        return fresh(APP, System.currentTimeMillis());
+    }
+
+    // What calls for scope are paced by: app, page and business-use-case usage
+    public double getUsagePercent(String scope) {
+        return usagePercent(scope == null ? null : callers.get(scope), System.currentTimeMillis());
+    }
+
+    public long getBlockedUntilMillis() { return blockedUntilMillis; }
+
+    public String describe() {
+        lock.lock();
+        try {
+            return "usage " + Math.round(getUsagePercent()) + "%, in flight " + inFlight + "/" + concurrencyLimit(getUsagePercent())
+                    + ", waiting " + waiting.size() + ", interactive " + interactiveCalls + ", background " + backgroundCalls
+                    + ", shed " + shedCalls + ", timed out " + timedOutCalls + ", throttled " + throttledResponses
+                    + ", blocked scopes " + blockedUntil.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static double percent(JsonObject values) {
+        return Math.max(values.getDouble("call_count", 0),
+                Math.max(values.getDouble("total_cputime", 0), values.getDouble("total_time", 0)));
+    }
+
+    private void record(String key, double percent, long regainMinutes, long now) {
+        usage.put(key, new Usage(percent, now));
+        if (regainMinutes > 0) {
+            block(key, now + regainMinutes * 60_000, false);
+        }
+    }
+
+    private void block(String key, long untilMillis, boolean throttled) {
+        lock.lock();
+        try {
+            if (throttled) {
+                throttledResponses++;
+            }
+            if (key.equals(APP)) {
+                blockedUntilMillis = Math.max(blockedUntilMillis, untilMillis);
+            } else {
+                blockedUntil.merge(key, untilMillis, Math::max);
+            }
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private double fresh(String key, long now) {
+        Usage sample = usage.get(key);
+        return sample != null && now - sample.observedAtMillis < USAGE_STALE_MILLIS ? sample.percent : 0;
+    }
+
+    private double usagePercent(Caller caller, long now) {
+        double max = fresh(APP, now);
+        if (caller != null) {
+            max = Math.max(max, fresh(PAGE + caller.scope, now));
+            for (String business : caller.businesses) {
+                max = Math.max(max, fresh(BUSINESS + business, now));
+            }
+        }
+        return max;
+    }
+
+    private long scopeBlockedUntil(Caller caller) {
+        long until = blockedUntil.getOrDefault(PAGE + caller.scope, 0L);
+        for (String business : caller.businesses) {
+            until = Math.max(until, blockedUntil.getOrDefault(BUSINESS + business, 0L));
+        }
+        return until;
+    }
+
+    private boolean shouldShed(Caller caller, long now) {
+        return now < blockedUntilMillis || (caller != null && now < scopeBlockedUntil(caller))
+                || usagePercent(caller, now) >= SHED_BACKGROUND_PERCENT;
+    }
+
+    private int concurrencyLimit(double percent) {
+        if (percent < SLOW_DOWN_PERCENT) return maxConcurrent;
+        if (percent < SHED_BACKGROUND_PERCENT) return Math.max(1, maxConcurrent / 2);
+        if (percent < CRITICAL_PERCENT) return Math.min(2, maxConcurrent);
+        return 1;
+    }
+
+    private static long minIntervalMillis(double percent) {
+        if (percent < SHED_BACKGROUND_PERCENT) return 0;
+        if (percent < CRITICAL_PERCENT) return 250;
+        return 1_000;
+    }
+
+    // 0 when the ticket may start now, otherwise how long to wait before checking again
+    private long waitMillis(Ticket ticket, long now) {
+        long own = scopeWaitMillis(ticket.caller, now);
+        if (own > 0) {
+            return own;
+        }
+        if (firstReady(now) != ticket) {
+            return RECHECK_MILLIS;
+        }
+        if (now < blockedUntilMillis) {
+            return blockedUntilMillis - now;
+        }
+        double percent = fresh(APP, now);
+        if (inFlight >= concurrencyLimit(percent)) {
+            return RECHECK_MILLIS;
+        }
+        long nextStart = lastStartMillis + minIntervalMillis(percent);
+        return now < nextStart ? nextStart - now : 0;
+    }
+
+    // What holds back a call for this scope alone: its page or business block, concurrency and pacing
+    private long scopeWaitMillis(Caller caller, long now) {
+        if (caller == null) {
+            return 0;
+        }
+        long blocked = scopeBlockedUntil(caller);
+        if (now < blocked) {
+            return blocked - now;
+        }
+        double percent = usagePercent(caller, now);
+        if (caller.inFlight >= concurrencyLimit(percent)) {
+            return RECHECK_MILLIS;
+        }
+        long nextStart = caller.lastStartMillis + minIntervalMillis(percent);
+        return now < nextStart ? nextStart - now : 0;
+    }
+
+    // The best-ranked waiting ticket that its own scope lets start, so a blocked page never holds up the others
+    private Ticket firstReady(long now) {
+        Ticket first = null;
+        for (Ticket ticket : waiting) {
+            if ((first == null || waiting.comparator().compare(ticket, first) < 0) && scopeWaitMillis(ticket.caller, now) == 0) {
+                first = ticket;
+            }
+        }
+        return first;
+    }
+
+    // Drops usage samples, blocks and idle scopes nobody has heard of for a while
+    private void sweep(long now) {
+        if (now - lastSweepMillis < USAGE_STALE_MILLIS) {
+            return;
+        }
+        lastSweepMillis = now;
+        usage.values().removeIf(sample -> now - sample.observedAtMillis >= USAGE_STALE_MILLIS);
+        blockedUntil.values().removeIf(until -> until <= now);
+        callers.values().removeIf(caller -> caller.inFlight == 0 && now - caller.lastSeenMillis >= USAGE_STALE_MILLIS
+                && waiting.stream().noneMatch(ticket -> ticket.caller == caller));
+    }
+
+    private static final class Ticket {
+        private final Priority priority;
+        private final long sequence;
+        private final Caller caller;
+
+        Ticket(Priority priority, long sequence, Caller caller) {
+            this.priority = priority;
+            this.sequence = sequence;
+            this.caller = caller;
+        }
+    }
+
+    // Per-scope counters are guarded by the scheduler lock; businesses is filled from response headers
+    private static final class Caller {
+        private final String scope;
+        private final Set<String> businesses = ConcurrentHashMap.newKeySet();
+        private int inFlight;
+        private long lastStartMillis;
+        private volatile long lastSeenMillis = System.currentTimeMillis();
+
+        Caller(String scope) {
+            this.scope = scope;
+        }
+    }
+
+    private static final class Usage {
+        private final double percent;
+        private final long observedAtMillis;
+
+        Usage(double percent, long observedAtMillis) {
+            this.percent = percent;
+            this.observedAtMillis = observedAtMillis;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.socialanalystpro;
+
+import java.io.IOException;
+
+// Raised by the Graph call scheduler instead of sending a request; restfb surfaces it as a network error.
+public class GraphThrottledException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    public GraphThrottledException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,388 @@
+package com.example.socialanalystpro;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.io.StreamCorruptedException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// Versioned binary encoding of a SocialInsights for RMI. Every post that appears in recent posts, top posts or the
+// inspector is written once into a post table (its short "text" is re-derived from full_text on read) and referenced
+// by index; all keys and labels go through the payload's string table and counters are varints.
+public class InsightsPayload implements Externalizable {
+    private static final long serialVersionUID = 1L;
+
+    // 2: computedAtMillis
+    private static final int VERSION = 2;
+    private static final int SHORT_TEXT_LENGTH = 50;
+
+    private SocialInsights insights;
+    private long computedAtMillis;
+
+    // Required by Externalizable
+    public InsightsPayload() {
+    }
+
+    public InsightsPayload(SocialInsights insights) {
+        this(insights, System.currentTimeMillis());
+    }
+
+    public InsightsPayload(SocialInsights insights, long computedAtMillis) {
+        this.insights = insights;
+        this.computedAtMillis = computedAtMillis;
+    }
+
+    public SocialInsights getInsights() {
+        return insights;
+    }
+
+    // When the server ran the analysis; a precomputed result can be minutes older than the call
+    public long getComputedAtMillis() {
+        return computedAtMillis;
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        WireCodec.Writer w = new WireCodec.Writer();
+        PostTableWriter posts = new PostTableWriter();
+        int[] recent = posts.refs(insights.getRecentPosts());
+        int[] top = posts.refs(insights.getTopPerformingPosts());
+        Map<String, Map<String, Object>> inspectorData = insights.getPostInspectorData();
+        int[] inspector = inspectorData == null ? null : posts.refs(new ArrayList<>(inspectorData.values()));
+
+        w.signed(computedAtMillis);
+        w.signed(insights.getTotalFollowers());
+        w.varint(insights.getTotalPostsAnalyzed());
+        w.bool(insights.isHasRecentActivity());
+        w.decimal(insights.getAverageEngagementRate());
+        w.decimal(insights.getGrowthPercentage());
+        w.decimal(insights.getGrowthPrediction());
+        SocialInsights.PeriodMetrics metrics = insights.getPeriodMetrics();
+        w.bool(metrics != null);
+        if (metrics != null) {
+            w.varint(metrics.getPostsInPeriod());
+            w.signed(metrics.getLikesInPeriod());
+            w.signed(metrics.getCommentsInPeriod());
+            w.signed(metrics.getSharesInPeriod());
+        }
+
+        posts.writeTo(w);
+        writeRefs(w, recent);
+        writeRefs(w, top);
+        writeRefs(w, inspector);
+
+        writeLongs(w, insights.getLikesPerPost());
+        writeLongs(w, insights.getCommentsPerPost());
+        writeLongs(w, insights.getSharesPerPost());
+
+        writeDoubles(w, insights.getSentimentDistribution());
+        writeDoubles(w, insights.getEngagementTrend());
+        writeDoubles(w, insights.getEngagementByDay());
+        writeDoubles(w, insights.getEngagementByHour());
+        writeDoubles(w, insights.getNewVsReturning());
+        writeInts(w, insights.getEngagementByContentType());
+        writeInts(w, insights.getHashtagRankings());
+        writeInts(w, insights.getFollowerGrowth());
+        writeInts(w, insights.getProjectedGrowth());
+        writeInts(w, insights.getReachOverTime());
+
+        Map<String, Map<String, Double>> contentTrend = insights.getContentTrend();
+        w.size(contentTrend, contentTrend == null ? 0 : contentTrend.size());
+        if (contentTrend != null) contentTrend.forEach((k, v) -> { w.string(k); writeDoubles(w, v); });
+        Map<String, Map<String, Double>> ageGender = insights.getAgeGenderDistribution();
+        w.size(ageGender, ageGender == null ? 0 : ageGender.size());
+        if (ageGender != null) ageGender.forEach((k, v) -> { w.string(k); writeDoubles(w, v); });
+        Map<String, Map<String, Integer>> overall = insights.getOverallPerformance();
+        w.size(overall, overall == null ? 0 : overall.size());
+        if (overall != null) overall.forEach((k, v) -> { w.string(k); writeInts(w, v); });
+
+        w.string(insights.getBestContentTypeSuggestion());
+        w.string(insights.getBestTimeToPostSuggestion());
+        w.string(insights.getWeeklyViralSummary());
+        List<String> recommendations = insights.getRecommendations();
+        w.size(recommendations, recommendations == null ? 0 : recommendations.size());
+        if (recommendations != null) recommendations.forEach(w::string);
+
+        out.writeByte(VERSION);
+        w.writeTo(out);
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException {
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new InvalidClassException(InsightsPayload.class.getName(), "Unsupported payload version " + version);
+        }
+        WireCodec.Reader r = new WireCodec.Reader(in);
+        SocialInsights result = new SocialInsights();
+
+        computedAtMillis = r.signed();
+        result.setTotalFollowers(r.signed());
+        result.setTotalPostsAnalyzed((int) r.varint());
+        result.setHasRecentActivity(r.bool());
+        result.setAverageEngagementRate(r.decimal());
+        result.setGrowthPercentage(r.decimal());
+        result.setGrowthPrediction(r.decimal());
+        if (r.bool()) {
+            SocialInsights.PeriodMetrics metrics = new SocialInsights.PeriodMetrics();
+            metrics.setPostsInPeriod((int) r.varint());
+            metrics.setLikesInPeriod(r.signed());
+            metrics.setCommentsInPeriod(r.signed());
+            metrics.setSharesInPeriod(r.signed());
+            result.setPeriodMetrics(metrics);
+        }
+
+        PostEntry[] posts = readPosts(r);
+        result.setRecentPosts(toDetails(readRefs(r), posts));
+        result.setTopPerformingPosts(toDetails(readRefs(r), posts));
+        int[] inspector = readRefs(r);
+        if (inspector != null) {
+            List<Map<String, Object>> details = toDetails(inspector, posts);
+            Map<String, Map<String, Object>> inspectorData = new HashMap<>();
+            for (int i = 0; i < inspector.length; i++) {
+                Map<String, Object> detail = details.get(i);
+                detail.put("type", posts[inspector[i]].type);
+                inspectorData.put(posts[inspector[i]].id, detail);
+            }
+            result.setPostInspectorData(inspectorData);
+        }
+
+        result.setLikesPerPost(readLongs(r));
+        result.setCommentsPerPost(readLongs(r));
+        result.setSharesPerPost(readLongs(r));
+
+        result.setSentimentDistribution(readDoubles(r));
+        result.setEngagementTrend(readDoubles(r));
+        result.setEngagementByDay(readDoubles(r));
+        result.setEngagementByHour(readDoubles(r));
+        result.setNewVsReturning(readDoubles(r));
+        result.setEngagementByContentType(readInts(r));
+        result.setHashtagRankings(readInts(r));
+        result.setFollowerGrowth(readInts(r));
+        result.setProjectedGrowth(readInts(r));
+        result.setReachOverTime(readInts(r));
+
+        int size = r.size();
+        if (size >= 0) {
+            Map<String, Map<String, Double>> contentTrend = new LinkedHashMap<>();
+            for (int i = 0; i < size; i++) contentTrend.put(r.string(), readDoubles(r));
+            result.setContentTrend(contentTrend);
+        }
+        size = r.size();
+        if (size >= 0) {
+            Map<String, Map<String, Double>> ageGender = new LinkedHashMap<>();
+            for (int i = 0; i < size; i++) ageGender.put(r.string(), readDoubles(r));
+            result.setAgeGenderDistribution(ageGender);
+        }
+        size = r.size();
+        if (size >= 0) {
+            Map<String, Map<String, Integer>> overall = new LinkedHashMap<>();
+            for (int i = 0; i < size; i++) overall.put(r.string(), readInts(r));
+            result.setOverallPerformance(overall);
+        }
+
+        result.setBestContentTypeSuggestion(r.string());
+        result.setBestTimeToPostSuggestion(r.string());
+        result.setWeeklyViralSummary(r.string());
+        size = r.size();
+        if (size >= 0) {
+            List<String> recommendations = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) recommendations.add(r.string());
+            result.setRecommendations(recommendations);
+        }
+        insights = result;
+    }
+
+    private static final class PostEntry {
+        String id;
+        String fullText;
+        String createdTime;
+        String type;
+        long likes;
+        long comments;
+        long shares;
+
+        boolean sameContent(PostEntry other) {
+            return likes == other.likes && comments == other.comments && shares == other.shares
+                    && Objects.equals(fullText, other.fullText)
+                    && Objects.equals(createdTime, other.createdTime);
+        }
+
+        Map<String, Object> toDetail() {
+            Map<String, Object> detail = new HashMap<>();
+            detail.put("id", id);
+            detail.put("text", fullText != null && fullText.length() > SHORT_TEXT_LENGTH ? fullText.substring(0, SHORT_TEXT_LENGTH - 3) + "..." : fullText);
+            detail.put("full_text", fullText);
+            detail.put("engagement", likes + comments + shares);
+            detail.put("likes", likes);
+            detail.put("comments", comments);
+            detail.put("shares", shares);
+            detail.put("created_time", createdTime);
+            return detail;
+        }
+    }
+
+    // Collects the distinct posts behind the detail maps; the same post listed in several places is stored once
+    private static final class PostTableWriter {
+        private final List<PostEntry> entries = new ArrayList<>();
+        private final Map<String, List<Integer>> byId = new HashMap<>();
+
+        int[] refs(List<Map<String, Object>> details) {
+            if (details == null) {
+                return null;
+            }
+            int[] refs = new int[details.size()];
+            for (int i = 0; i < refs.length; i++) {
+                refs[i] = ref(details.get(i));
+            }
+            return refs;
+        }
+
+        private int ref(Map<String, Object> detail) {
+            PostEntry entry = new PostEntry();
+            entry.id = (String) detail.get("id");
+            entry.fullText = (String) detail.get("full_text");
+            entry.createdTime = (String) detail.get("created_time");
+            entry.type = (String) detail.get("type");
+            entry.likes = number(detail.get("likes"));
+            entry.comments = number(detail.get("comments"));
+            entry.shares = number(detail.get("shares"));
+
+            List<Integer> candidates = byId.computeIfAbsent(entry.id, id -> new ArrayList<>());
+            for (int index : candidates) {
+                PostEntry existing = entries.get(index);
+                if (existing.sameContent(entry)) {
+                    if (existing.type == null) existing.type = entry.type;
+                    return index;
+                }
+            }
+            candidates.add(entries.size());
+            entries.add(entry);
+            return entries.size() - 1;
+        }
+
+        void writeTo(WireCodec.Writer w) {
+            w.varint(entries.size());
+            for (PostEntry entry : entries) {
+                w.string(entry.id);
+                w.string(entry.fullText);
+                w.string(entry.createdTime);
+                w.string(entry.type);
+                w.signed(entry.likes);
+                w.signed(entry.comments);
+                w.signed(entry.shares);
+            }
+        }
+
+        private static long number(Object value) {
+            return value instanceof Number ? ((Number) value).longValue() : 0;
+        }
+    }
+
+    private static PostEntry[] readPosts(WireCodec.Reader r) throws IOException {
+        PostEntry[] posts = new PostEntry[(int) r.varint()];
+        for (int i = 0; i < posts.length; i++) {
+            PostEntry entry = new PostEntry();
+            entry.id = r.string();
+            entry.fullText = r.string();
+            entry.createdTime = r.string();
+            entry.type = r.string();
+            entry.likes = r.signed();
+            entry.comments = r.signed();
+            entry.shares = r.signed();
+            posts[i] = entry;
+        }
+        return posts;
+    }
+
+    private static void writeRefs(WireCodec.Writer w, int[] refs) {
+        w.size(refs, refs == null ? 0 : refs.length);
+        if (refs != null) {
+            for (int ref : refs) w.varint(ref);
+        }
+    }
+
+    private static int[] readRefs(WireCodec.Reader r) throws IOException {
+        int size = r.size();
+        if (size < 0) {
+            return null;
+        }
+        int[] refs = new int[size];
+        for (int i = 0; i < size; i++) {
+            refs[i] = (int) r.varint();
+        }
+        return refs;
+    }
+
+    private static List<Map<String, Object>> toDetails(int[] refs, PostEntry[] posts) throws IOException {
+        if (refs == null) {
+            return null;
+        }
+        List<Map<String, Object>> details = new ArrayList<>(refs.length);
+        for (int ref : refs) {
+            if (ref >= posts.length) {
+                throw new StreamCorruptedException("Bad post reference " + ref);
+            }
+            details.add(posts[ref].toDetail());
+        }
+        return details;
+    }
+
+    private static void writeLongs(WireCodec.Writer w, List<Long> values) {
+        w.size(values, values == null ? 0 : values.size());
+        if (values != null) {
+            for (Long value : values) w.signed(value != null ? value : 0);
+        }
+    }
+
+    private static List<Long> readLongs(WireCodec.Reader r) throws IOException {
+        int size = r.size();
+        if (size < 0) {
+            return null;
+        }
+        List<Long> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) values.add(r.signed());
+        return values;
+    }
+
+    private static void writeDoubles(WireCodec.Writer w, Map<String, Double> values) {
+        w.size(values, values == null ? 0 : values.size());
+        if (values != null) {
+            values.forEach((k, v) -> { w.string(k); w.decimal(v != null ? v : 0.0); });
+        }
+    }
+
+    private static Map<String, Double> readDoubles(WireCodec.Reader r) throws IOException {
+        int size = r.size();
+        if (size < 0) {
+            return null;
+        }
+        Map<String, Double> values = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) values.put(r.string(), r.decimal());
+        return values;
+    }
+
+    private static void writeInts(WireCodec.Writer w, Map<String, Integer> values) {
+        w.size(values, values == null ? 0 : values.size());
+        if (values != null) {
+            values.forEach((k, v) -> { w.string(k); w.signed(v != null ? v : 0); });
+        }
+    }
+
+    private static Map<String, Integer> readInts(WireCodec.Reader r) throws IOException {
+        int size = r.size();
+        if (size < 0) {
+            return null;
+        }
+        Map<String, Integer> values = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) values.put(r.string(), (int) r.signed());
+        return values;
+    }
+}
@@ -0,0 +1,305 @@
+package com.example.socialanalystpro;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Keeps the insights of tracked pages precomputed so analyzePage can answer from memory instead of crawling while
+// the user waits. A page is tracked once it has been analyzed (or explicitly through trackPage), for each of its
+// last MAX_WINDOWS window lengths ("last 7 days", "last 30 days"), and re-analyzed in the background once its
+// result is refreshInterval old. Refreshes go most recently opened page first, at a bounded rate, on BACKGROUND
+// Graph priority and only while analyses have a free admission slot: at half rate once Graph usage passes
+// SLOW_DOWN_PERCENT and not at all once background calls would be shed, so they fill quiet periods and leave the
+// rate-limit budget to users. Pages nobody opened for idleDays are dropped unless tracked explicitly.
+//
+// socialanalyst.precompute.refreshMinutes (10), maxAgeMinutes (30, older results are never served),
+// pagesPerMinute (12), parallelism (2), idleDays (7) and maxPages (2000).
+public class InsightsPrecomputer {
+
+    public interface Loader {
+        SocialInsights load(String pageAccessToken, long sinceTimestamp) throws Exception;
+    }
+
+    private static final int MAX_WINDOWS = 3;
+    private static final int MAX_FAILURES = 5;
+    private static final long TICK_MILLIS = 5_000;
+    private static final long RETRY_MILLIS = 60_000;
+
+    private final Loader loader;
+    private final GraphCallScheduler graphScheduler;
+    private final AdmissionController admission;
+    private final ServiceMetrics metrics;
+    private final long refreshIntervalMillis;
+    private final long maxAgeMillis;
+    private final double pagesPerTick;
+    private final int parallelism;
+    private final long idleMillis;
+    private final int maxPages;
+
+    private final Map<String, TrackedPage> pages = new ConcurrentHashMap<>();
+    private final AtomicInteger running = new AtomicInteger();
+    private final LongAdder served = new LongAdder();
+    private final LongAdder refreshed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "insights-precompute");
+        t.setDaemon(true);
+        return t;
+    });
+    private final ExecutorService refreshPool = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("insights-refresh-", 0).factory());
+    // Refresh allowance carried between ticks; only the ticker thread touches it
+    private double credits;
+
+    public InsightsPrecomputer(Loader loader, GraphCallScheduler graphScheduler, AdmissionController admission, ServiceMetrics metrics,
+                               long refreshIntervalMillis, long maxAgeMillis, int pagesPerMinute, int parallelism, long idleMillis, int maxPages) {
+        this.loader = loader;
+        this.graphScheduler = graphScheduler;
+        this.admission = admission;
+        this.metrics = metrics;
+        this.refreshIntervalMillis = refreshIntervalMillis;
+        this.maxAgeMillis = Math.max(maxAgeMillis, refreshIntervalMillis);
+        this.pagesPerTick = pagesPerMinute * TICK_MILLIS / 60_000.0;
+        this.parallelism = Math.max(1, parallelism);
+        this.idleMillis = idleMillis;
+        this.maxPages = maxPages;
+        ticker.scheduleWithFixedDelay(this::tick, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    public static InsightsPrecomputer fromSystemProperties(Loader loader, GraphCallScheduler graphScheduler, AdmissionController admission,
+                                                           ServiceMetrics metrics) {
+        return new InsightsPrecomputer(loader, graphScheduler, admission, metrics,
+                Long.getLong("socialanalyst.precompute.refreshMinutes", 10) * 60_000,
+                Long.getLong("socialanalyst.precompute.maxAgeMinutes", 30) * 60_000,
+                Integer.getInteger("socialanalyst.precompute.pagesPerMinute", 12),
+                Integer.getInteger("socialanalyst.precompute.parallelism", 2),
+                Long.getLong("socialanalyst.precompute.idleDays", 7) * 24 * 60 * 60_000,
+                Integer.getInteger("socialanalyst.precompute.maxPages", 2_000));
+    }
+
+    // The precomputed result for this page and window length if there is one young enough to serve; counts as an open
+    public Result latest(String pageAccessToken, long sinceTimestamp) {
+        TrackedPage page = pages.get(TokenSessionRegistry.hash(pageAccessToken));
+        if (page == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        page.lastOpenedMillis = now;
+        Window window = page.window(windowKey(sinceTimestamp), false);
+        Result result = window == null ? null : window.latest;
+        if (result == null || now - result.computedAtMillis > maxAgeMillis) {
+            return null;
+        }
+        served.increment();
+        return result;
+    }
+
+    // A result computed on demand; the page and window are tracked from now on
+    public void store(String pageAccessToken, long sinceTimestamp, Result result) {
+        TrackedPage page = trackedPage(pageAccessToken);
+        page.lastOpenedMillis = System.currentTimeMillis();
+        Window window = page.window(windowKey(sinceTimestamp), true);
+        if (window.latest == null || window.latest.computedAtMillis < result.computedAtMillis) {
+            window.latest = result;
+        }
+    }
+
+    // Explicit tracking: kept (and refreshed) even when nobody opens the page, until untracked
+    public void track(String pageAccessToken, long sinceTimestamp) {
+        TrackedPage page = trackedPage(pageAccessToken);
+        page.pinned = true;
+        page.window(windowKey(sinceTimestamp), true);
+    }
+
+    public void untrack(String pageAccessToken) {
+        pages.remove(TokenSessionRegistry.hash(pageAccessToken));
+    }
+
+    public int getTrackedPages() { return pages.size(); }
+    public int getRunningRefreshes() { return running.get(); }
+    public long getServed() { return served.sum(); }
+    public long getRefreshed() { return refreshed.sum(); }
+    public long getFailed() { return failed.sum(); }
+
+    @Override
+    public String toString() {
+        return "tracked " + getTrackedPages() + ", refreshing " + getRunningRefreshes() + ", served " + getServed()
+                + ", refreshed " + getRefreshed() + ", failed " + getFailed();
+    }
+
+    public void shutdown() {
+        ticker.shutdownNow();
+        refreshPool.shutdownNow();
+        pages.clear();
+    }
+
+    private TrackedPage trackedPage(String pageAccessToken) {
+        String tokenHash = TokenSessionRegistry.hash(pageAccessToken);
+        TrackedPage page = pages.get(tokenHash);
+        if (page == null) {
+            if (pages.size() >= maxPages) {
+                evictLeastRecentlyOpened();
+            }
+            page = pages.computeIfAbsent(tokenHash, h -> new TrackedPage(pageAccessToken));
+        }
+        return page;
+    }
+
+    private void evictLeastRecentlyOpened() {
+        pages.entrySet().stream()
+                .filter(e -> !e.getValue().pinned)
+                .min(Comparator.comparingLong(e -> e.getValue().lastOpenedMillis))
+                .ifPresent(e -> pages.remove(e.getKey(), e.getValue()));
+    }
+
+    private void tick() {
+        try {
+            long now = System.currentTimeMillis();
+            pages.values().removeIf(page -> !page.pinned && now - page.lastOpenedMillis > idleMillis);
+
+            // Off-peak only: users waiting for an analysis slot or a Graph budget near its limit come first
+            double usage = graphScheduler.getUsagePercent();
+            if (usage >= GraphCallScheduler.SHED_BACKGROUND_PERCENT || graphScheduler.getBlockedUntilMillis() > now
+                    || admission.getQueued() > 0 || admission.getInFlight() >= admission.getMaxInFlight()) {
+                return;
+            }
+            credits = Math.min(credits + (usage >= GraphCallScheduler.SLOW_DOWN_PERCENT ? pagesPerTick / 2 : pagesPerTick), parallelism);
+            if (credits < 1 || running.get() >= parallelism) {
+                return;
+            }
+
+            List<TrackedPage> byRecency = new ArrayList<>(pages.values());
+            byRecency.sort(Comparator.comparingLong((TrackedPage p) -> p.lastOpenedMillis).reversed());
+            for (TrackedPage page : byRecency) {
+                for (Map.Entry<Long, Window> due : page.dueWindows(now)) {
+                    if (credits < 1 || running.get() >= parallelism) {
+                        return;
+                    }
+                    credits--;
+                    running.incrementAndGet();
+                    due.getValue().refreshing = true;
+                    due.getValue().lastAttemptMillis = now;
+                    refreshPool.execute(() -> refresh(page, due.getKey(), due.getValue()));
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Insights precompute tick failed: " + e.getMessage());
+        }
+    }
+
+    private void refresh(TrackedPage page, long windowKey, Window window) {
+        long start = System.nanoTime();
+        try {
+            SocialInsights insights = GraphCallScheduler.callAs(GraphCallScheduler.Priority.BACKGROUND,
+                    () -> loader.load(page.pageAccessToken, sinceTimestamp(windowKey)));
+            window.latest = new Result(insights, System.currentTimeMillis());
+            window.failures = 0;
+            refreshed.increment();
+            metrics.recordPhase("precompute.refresh", System.nanoTime() - start);
+        } catch (Exception e) {
+            failed.increment();
+            // Persistent failures (revoked token, deleted page) stop the window from being retried forever
+            if (++window.failures >= MAX_FAILURES) {
+                page.drop(windowKey, window);
+                if (!page.pinned && page.isEmpty()) {
+                    pages.values().remove(page);
+                }
+            }
+            System.err.println("Background refresh of a tracked page failed (" + window.failures + "): " + e.getMessage());
+        } finally {
+            window.refreshing = false;
+            running.decrementAndGet();
+        }
+    }
+
+    // Relative windows are tracked by their length, rounded to the minute, so "now minus 7 days" stays one window
+    // as time moves on; absolute (non-positive) timestamps are kept as they are
+    private static long windowKey(long sinceTimestamp) {
+        if (sinceTimestamp <= 0) {
+            return sinceTimestamp;
+        }
+        long nowSeconds = System.currentTimeMillis() / 1000;
+        return Math.max(60, Math.round((nowSeconds - sinceTimestamp) / 60.0) * 60);
+    }
+
+    private static long sinceTimestamp(long windowKey) {
+        return windowKey <= 0 ? windowKey : System.currentTimeMillis() / 1000 - windowKey;
+    }
+
+    // One precomputed (or freshly computed) analysis and when it was computed
+    public static final class Result {
+        private final SocialInsights insights;
+        private final long computedAtMillis;
+
+        public Result(SocialInsights insights, long computedAtMillis) {
+            this.insights = insights;
+            this.computedAtMillis = computedAtMillis;
+        }
+
+        public SocialInsights getInsights() { return insights; }
+        public long getComputedAtMillis() { return computedAtMillis; }
+    }
+
+    private static final class Window {
+        private volatile Result latest;
+        private volatile boolean refreshing;
+        private volatile long lastAttemptMillis;
+        private volatile int failures;
+    }
+
+    private final class TrackedPage {
+        private final String pageAccessToken;
+        // Window length -> state, least recently used first
+        private final LinkedHashMap<Long, Window> windows = new LinkedHashMap<>(4, 0.75f, true);
+        private volatile long lastOpenedMillis = System.currentTimeMillis();
+        private volatile boolean pinned;
+
+        TrackedPage(String pageAccessToken) {
+            this.pageAccessToken = pageAccessToken;
+        }
+
+        synchronized Window window(long key, boolean create) {
+            Window window = windows.get(key);
+            if (window == null && create) {
+                window = new Window();
+                windows.put(key, window);
+                if (windows.size() > MAX_WINDOWS) {
+                    Iterator<Long> eldest = windows.keySet().iterator();
+                    eldest.next();
+                    eldest.remove();
+                }
+            }
+            return window;
+        }
+
+        synchronized List<Map.Entry<Long, Window>> dueWindows(long now) {
+            List<Map.Entry<Long, Window>> due = new ArrayList<>();
+            for (Map.Entry<Long, Window> entry : windows.entrySet()) {
+                Window window = entry.getValue();
+                Result latest = window.latest;
+                if (!window.refreshing && now - window.lastAttemptMillis >= RETRY_MILLIS
+                        && (latest == null || now - latest.computedAtMillis >= refreshIntervalMillis)) {
+                    due.add(Map.entry(entry.getKey(), window));
+                }
+            }
+            return due;
+        }
+
+        synchronized void drop(long key, Window window) {
+            windows.remove(key, window);
+        }
+
+        synchronized boolean isEmpty() {
+            return windows.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.socialanalystpro;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+// Aho-Corasick automaton over a fixed set of lower-case terms (words or phrases), finding all of them in one scan of
+// a text whatever their number. Matching is case-insensitive and only on word boundaries ("good" does not match
+// "goodbye"); where matches overlap, the longest wins ("waste of time" over "waste"). Immutable and thread-safe.
+public final class KeywordAutomaton {
+
+    // Per state: sorted transition chars and their targets, and the failure link
+    private final char[][] edgeChars;
+    private final int[][] edgeTargets;
+    private final int[] failure;
+    // Term spelled by this state, -1 if none
+    private final int[] stateTerm;
+    // Next state on the failure chain that spells a term (the next shorter term ending here), -1 if none
+    private final int[] outputLink;
+    private final String[] terms;
+    private final int[] termWords;
+
+    public KeywordAutomaton(List<String> terms) {
+        this.terms = terms.toArray(new String[0]);
+        termWords = new int[this.terms.length];
+        for (int t = 0; t < this.terms.length; t++) {
+            termWords[t] = wordCount(this.terms[t]);
+        }
+
+        // Trie, with maps while building, then flattened to sorted arrays
+        List<Map<Character, Integer>> trie = new ArrayList<>();
+        List<Integer> terminal = new ArrayList<>();
+        trie.add(new HashMap<>());
+        terminal.add(-1);
+        for (int t = 0; t < this.terms.length; t++) {
+            int state = 0;
+            for (int i = 0; i < this.terms[t].length(); i++) {
+                char c = this.terms[t].charAt(i);
+                Integer next = trie.get(state).get(c);
+                if (next == null) {
+                    next = trie.size();
+                    trie.add(new HashMap<>());
+                    terminal.add(-1);
+                    trie.get(state).put(c, next);
+                }
+                state = next;
+            }
+            terminal.set(state, t);
+        }
+
+        int states = trie.size();
+        edgeChars = new char[states][];
+        edgeTargets = new int[states][];
+        stateTerm = new int[states];
+        for (int s = 0; s < states; s++) {
+            Character[] chars = trie.get(s).keySet().toArray(new Character[0]);
+            Arrays.sort(chars);
+            edgeChars[s] = new char[chars.length];
+            edgeTargets[s] = new int[chars.length];
+            for (int i = 0; i < chars.length; i++) {
+                edgeChars[s][i] = chars[i];
+                edgeTargets[s][i] = trie.get(s).get(chars[i]);
+            }
+            stateTerm[s] = terminal.get(s);
+        }
+
+        failure = new int[states];
+        outputLink = new int[states];
+        outputLink[0] = -1;
+        // Breadth-first, so every failure target is complete before it is used
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int target : edgeTargets[0]) {
+            queue.add(target);
+        }
+        while (!queue.isEmpty()) {
+            int s = queue.poll();
+            outputLink[s] = stateTerm[failure[s]] >= 0 ? failure[s] : outputLink[failure[s]];
+            for (int i = 0; i < edgeChars[s].length; i++) {
+                int target = edgeTargets[s][i];
+                int f = failure[s];
+                while (f > 0 && next(f, edgeChars[s][i]) < 0) {
+                    f = failure[f];
+                }
+                int fallback = next(f, edgeChars[s][i]);
+                failure[target] = fallback >= 0 && fallback != target ? fallback : 0;
+                queue.add(target);
+            }
+        }
+    }
+
+    public int size() {
+        return terms.length;
+    }
+
+    public String term(int index) {
+        return terms[index];
+    }
+
+    // Whole-word matches in text order, overlaps resolved to the longest
+    public Matches find(String text) {
+        Matches matches = new Matches();
+        if (text == null) {
+            return matches;
+        }
+        int state = 0;
+        int word = 0;
+        int clause = 0;
+        boolean inWord = false;
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            boolean wordChar = isWordChar(c);
+            if (wordChar && !inWord) {
+                word++;
+            } else if (isClauseBreak(c)) {
+                clause++;
+            }
+            inWord = wordChar;
+
+            int next;
+            while ((next = next(state, c)) < 0 && state > 0) {
+                state = failure[state];
+            }
+            state = Math.max(next, 0);
+            if (i + 1 < length && isWordChar(Character.toLowerCase(text.charAt(i + 1)))) {
+                continue;
+            }
+            // Longest term ending here that also starts on a word boundary
+            for (int s = stateTerm[state] >= 0 ? state : outputLink[state]; s >= 0; s = outputLink[s]) {
+                int start = i + 1 - terms[stateTerm[s]].length();
+                if (start == 0 || !isWordChar(Character.toLowerCase(text.charAt(start - 1)))) {
+                    matches.add(stateTerm[s], start, word - termWords[stateTerm[s]] + 1, clause);
+                    break;
+                }
+            }
+        }
+        return matches;
+    }
+
+    private int next(int state, char c) {
+        char[] chars = edgeChars[state];
+        int index = chars.length <= 4 ? linearSearch(chars, c) : Arrays.binarySearch(chars, c);
+        return index >= 0 ? edgeTargets[state][index] : -1;
+    }
+
+    private static int linearSearch(char[] chars, char c) {
+        for (int i = 0; i < chars.length; i++) {
+            if (chars[i] == c) return i;
+        }
+        return -1;
+    }
+
+    private static int wordCount(String term) {
+        int words = 1;
+        for (int i = 0; i < term.length(); i++) {
+            if (term.charAt(i) == ' ') words++;
+        }
+        return words;
+    }
+
+    // Apostrophes stay inside words so "don't" and "isn't" are single terms
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '\'' || c == '’';
+    }
+
+    private static boolean isClauseBreak(char c) {
+        return c == '.' || c == '!' || c == '?' || c == ';' || c == ',';
+    }
+
+    // Matches of one scan: term index, start offset, index of the first word (1-based) and clause (split on .!?;,)
+    public static final class Matches {
+        private int[] term = new int[8];
+        private int[] start = new int[8];
+        private int[] word = new int[8];
+        private int[] clause = new int[8];
+        private int size;
+
+        private void add(int termIndex, int startOffset, int firstWord, int clauseIndex) {
+            // A longer phrase replaces the terms it covers
+            while (size > 0 && start[size - 1] >= startOffset) {
+                size--;
+            }
+            if (size == term.length) {
+                term = Arrays.copyOf(term, size * 2);
+                start = Arrays.copyOf(start, size * 2);
+                word = Arrays.copyOf(word, size * 2);
+                clause = Arrays.copyOf(clause, size * 2);
+            }
+            term[size] = termIndex;
+            start[size] = startOffset;
+            word[size] = firstWord;
+            clause[size] = clauseIndex;
+            size++;
+        }
+
+        public int size() { return size; }
+        public int term(int i) { return term[i]; }
+        public int start(int i) { return start[i]; }
+        public int word(int i) { return word[i]; }
+        public int clause(int i) { return clause[i]; }
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.socialanalystpro;
+
+import javax.management.ConstructorParameters;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Lock-free latency histogram with log-linear buckets: 16 sub-buckets per power of two of microseconds, so any
+// reported percentile is within about 6% of the true value. Fixed size (under 8 KB) whatever the range recorded.
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalMicros = new LongAdder();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    public void recordNanos(long nanos) {
+        long micros = Math.max(0, nanos / 1_000);
+        counts.incrementAndGet(index(micros));
+        count.increment();
+        totalMicros.add(micros);
+        maxMicros.accumulateAndGet(micros, Math::max);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public double getMeanMillis() {
+        long n = count.sum();
+        return n == 0 ? 0 : totalMicros.sum() / 1_000.0 / n;
+    }
+
+    public double getMaxMillis() {
+        return maxMicros.get() / 1_000.0;
+    }
+
+    // Upper bound of the bucket holding the given percentile (0-100), in milliseconds
+    public double percentileMillis(double percentile) {
+        long n = 0;
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            n += snapshot[i];
+        }
+        if (n == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(upperBound(i), maxMicros.get()) / 1_000.0;
+            }
+        }
+        return getMaxMillis();
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        count.reset();
+        totalMicros.reset();
+        maxMicros.set(0);
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(getCount(), getMeanMillis(), percentileMillis(50), percentileMillis(95), percentileMillis(99), getMaxMillis());
+    }
+
+    public String describe() {
+        return String.format("n=%d p50=%.1fms p95=%.1fms p99=%.1fms max=%.1fms", getCount(),
+                percentileMillis(50), percentileMillis(95), percentileMillis(99), getMaxMillis());
+    }
+
+    static int index(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(micros)) - SUB_BUCKET_BITS;
+        int sub = (int) (micros >>> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + sub;
+    }
+
+    static long upperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        int sub = index % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + sub + 1) << shift) - 1;
+    }
+
+    // Read-only view for JMX (an MXBean maps it to CompositeData)
+    public static final class Snapshot {
+        private final long count;
+        private final double meanMillis;
+        private final double p50Millis;
+        private final double p95Millis;
+        private final double p99Millis;
+        private final double maxMillis;
+
+        @ConstructorParameters({"count", "meanMillis", "p50Millis", "p95Millis", "p99Millis", "maxMillis"})
+        public Snapshot(long count, double meanMillis, double p50Millis, double p95Millis, double p99Millis, double maxMillis) {
+            this.count = count;
+            this.meanMillis = meanMillis;
+            this.p50Millis = p50Millis;
+            this.p95Millis = p95Millis;
+            this.p99Millis = p99Millis;
+            this.maxMillis = maxMillis;
+        }
+
+        public long getCount() { return count; }
+        public double getMeanMillis() { return meanMillis; }
+        public double getP50Millis() { return p50Millis; }
+        public double getP95Millis() { return p95Millis; }
+        public double getP99Millis() { return p99Millis; }
+        public double getMaxMillis() { return maxMillis; }
+    }
+}
@@ -1,7 +1,7 @@
 package com.example.socialanalystpro;
 
 public class Launcher {
-    public static void main(String[] args) {
-        HelloApplication.main(args);
+    public static void main(String[] args) throws Exception {
+        AnalyticsServer.main(args);
     }
 }
@@ -0,0 +1,53 @@
+package com.example.socialanalystpro;
+
+import javafx.fxml.FXML;
+import javafx.scene.web.WebEngine;
+import javafx.scene.web.WebView;
+import javafx.stage.Stage;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+
+// Facebook login window (login-view.fxml): shows the OAuth dialog in a WebView and, once Facebook redirects back with
+// "#access_token=..." in the fragment, hands the token to the dashboard and closes.
+public class LoginController {
+
+    @FXML private WebView webView;
+
+    private final FacebookAuth auth = new FacebookAuth();
+    private DashboardController dashboardController;
+
+    public void setDashboardController(DashboardController dashboardController) {
+        this.dashboardController = dashboardController;
+    }
+
+    public void loadLogin() {
+        WebEngine engine = webView.getEngine();
+        engine.locationProperty().addListener((obs, oldLocation, location) -> {
+            String token = accessToken(location);
+            if (token != null) {
+                if (dashboardController != null) {
+                    dashboardController.setToken(token);
+                }
+                ((Stage) webView.getScene().getWindow()).close();
+            }
+        });
+        engine.load(auth.getAuthUrl());
+    }
+
+    private String accessToken(String location) {
+        if (location == null || !location.startsWith(auth.getRedirectUri())) {
+            return null;
+        }
+        int fragment = location.indexOf('#');
+        if (fragment < 0) {
+            return null;
+        }
+        for (String param : location.substring(fragment + 1).split("&")) {
+            if (param.startsWith("access_token=")) {
+                return URLDecoder.decode(param.substring("access_token=".length()), StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.socialanalystpro;
+
+import java.io.Serializable;
+
+// Name, id, category and picture of the page behind an access token.
+public class PageProfile implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final String name;
+    private final String id;
+    private final String category;
+    private final String pictureUrl;
+
+    public PageProfile(String name, String id, String category, String pictureUrl) {
+        this.name = name;
+        this.id = id;
+        this.category = category;
+        this.pictureUrl = pictureUrl;
+    }
+
+    public String getName() { return name; }
+    public String getId() { return id; }
+    public String getCategory() { return category; }
+    public String getPictureUrl() { return pictureUrl; }
+}
@@ -0,0 +1,127 @@
+package com.example.socialanalystpro;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Everything we know about one page's posts, with the bounds of what has been synced:
+// [coveredSinceSeconds, now] is complete, and watermarkSeconds is the newest created_time seen. A timeline restored
+// from a PostStore holds only [pagedInSinceSeconds, now] in memory; older covered posts are still on disk.
+// Snapshot tables are built over these same records and read post text from them, so text is held once per page.
+public class PageTimeline {
+
+    public static final long NOT_SYNCED = Long.MAX_VALUE;
+
+    private final String pageKey;
+    private final Map<String, PostRecord> posts = new HashMap<>();
+    private long coveredSinceSeconds = NOT_SYNCED;
+    private long watermarkSeconds = 0;
+    private long pagedInSinceSeconds = Long.MIN_VALUE;
+    private long lastSyncMillis = 0;
+    private volatile long lastAccessMillis = System.currentTimeMillis();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public PageTimeline(String pageKey) {
+        this.pageKey = pageKey;
+    }
+
+    // Held across Graph syncs of this page
+    ReentrantLock lock() {
+        return lock;
+    }
+
+    public String getPageKey() { return pageKey; }
+    public long getCoveredSinceSeconds() { return coveredSinceSeconds; }
+    public long getWatermarkSeconds() { return watermarkSeconds; }
+    public long getPagedInSinceSeconds() { return pagedInSinceSeconds; }
+    public long getLastSyncMillis() { return lastSyncMillis; }
+    public long getLastAccessMillis() { return lastAccessMillis; }
+    public int size() { return posts.size(); }
+
+    public boolean isSynced() {
+        return coveredSinceSeconds != NOT_SYNCED;
+    }
+
+    public boolean covers(long sinceSeconds) {
+        return coveredSinceSeconds <= sinceSeconds;
+    }
+
+    void touch() {
+        lastAccessMillis = System.currentTimeMillis();
+    }
+
+    // Adds new posts and replaces known ones with fresher counters; returns the posts that actually changed
+    List<PostRecord> merge(Collection<PostRecord> fetched) {
+        List<PostRecord> changed = new ArrayList<>();
+        for (PostRecord post : fetched) {
+            PostRecord previous = posts.put(post.getId(), post);
+            if (!post.sameContent(previous)) {
+                changed.add(post);
+            }
+            if (post.hasCreatedTime()) {
+                watermarkSeconds = Math.max(watermarkSeconds, post.getCreatedTimeMillis() / 1000);
+            }
+        }
+        return changed;
+    }
+
+    // Posts read back from the store; a version already in memory is never older, so it is kept
+    void pageIn(Collection<PostRecord> stored, long sinceSeconds) {
+        for (PostRecord post : stored) {
+            if (posts.putIfAbsent(post.getId(), post) == null && post.hasCreatedTime()) {
+                watermarkSeconds = Math.max(watermarkSeconds, post.getCreatedTimeMillis() / 1000);
+            }
+        }
+        pagedInSinceSeconds = Math.min(pagedInSinceSeconds, sinceSeconds);
+    }
+
+    // A refresh of [fromSeconds, now] is authoritative for that range, so posts missing from it were deleted
+    List<PostRecord> retainFetched(long fromSeconds, Set<String> fetchedIds) {
+        List<PostRecord> removed = new ArrayList<>();
+        Iterator<PostRecord> it = posts.values().iterator();
+        while (it.hasNext()) {
+            PostRecord post = it.next();
+            if (post.hasCreatedTime() && post.getCreatedTimeMillis() / 1000 >= fromSeconds && !fetchedIds.contains(post.getId())) {
+                it.remove();
+                removed.add(post);
+            }
+        }
+        return removed;
+    }
+
+    void markCovered(long sinceSeconds) {
+        coveredSinceSeconds = Math.min(coveredSinceSeconds, sinceSeconds);
+    }
+
+    // Restores the bounds persisted by a previous server run; the next access refreshes from the watermark.
+    // The posts themselves stay on disk until a window asks for them.
+    void restoreCoverage(long coveredSinceSeconds, long watermarkSeconds) {
+        this.coveredSinceSeconds = Math.min(this.coveredSinceSeconds, coveredSinceSeconds);
+        this.watermarkSeconds = Math.max(this.watermarkSeconds, watermarkSeconds);
+        this.pagedInSinceSeconds = NOT_SYNCED;
+    }
+
+    void markSynced(long syncMillis) {
+        lastSyncMillis = syncMillis;
+    }
+
+    List<PostRecord> postsSince(long sinceSeconds) {
+        long sinceMillis = sinceSeconds * 1000;
+        List<PostRecord> window = new ArrayList<>();
+        for (PostRecord post : posts.values()) {
+            if (!post.hasCreatedTime() || post.getCreatedTimeMillis() >= sinceMillis) {
+                window.add(post);
+            }
+        }
+        return window;
+    }
+
+    List<PostRecord> allPosts() {
+        return new ArrayList<>(posts.values());
+    }
+}
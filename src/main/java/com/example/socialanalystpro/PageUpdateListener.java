@@ -0,0 +1,13 @@
+package com.example.socialanalystpro;
+
+import java.rmi.Remote;
+import java.rmi.RemoteException;
+import java.util.Map;
+
+// Exported by the dashboard and called back by the server whenever a watched value changes.
+public interface PageUpdateListener extends Remote {
+    void onFollowerCount(long followers) throws RemoteException;
+    void onPageLikes(long likes) throws RemoteException;
+    void onGenderBreakdown(Map<String, Integer> genderBreakdown) throws RemoteException;
+    void onPostEngagementOverTime(Map<String, Map<String, Integer>> engagementData) throws RemoteException;
+}
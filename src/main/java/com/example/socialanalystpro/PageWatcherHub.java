@@ -0,0 +1,404 @@
+package com.example.socialanalystpro;
+
+import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// Runs one shared poller per page and pushes only changed values to every subscribed dashboard,
+// replacing the per-dashboard follower/likes/gender/engagement timers. Watchers are keyed by page id, so dashboards
+// of one page share a poller whichever token they hold; it polls with one live subscriber's token and moves on to
+// the next one when a poll fails. A subscription is a lease: the dashboard renews it while it is open, and one that
+// is not renewed within leaseMillis is dropped with its poller, so a dashboard that dies without unsubscribing stops
+// costing Graph calls.
+//
+// Each subscriber has its own outbox, drained by one push thread at a time so its updates arrive in order. A value
+// still waiting there is replaced by a newer one of the same kind, so a slow dashboard gets the latest state rather
+// than a backlog, and a hung one holds at most one push thread.
+public class PageWatcherHub {
+
+    static final long FOLLOWER_PERIOD_MILLIS = 5_000;
+    static final long LIKES_PERIOD_MILLIS = 60_000;
+    static final long GENDER_PERIOD_MILLIS = 5 * 60_000;
+    static final long ENGAGEMENT_PERIOD_MILLIS = 5 * 60_000;
+
+    // What the watchers poll: the service's cached loaders, without the per-method client metrics
+    public interface Source {
+        long getFollowerCount(String pageAccessToken) throws RemoteException;
+        long getPageLikes(String pageAccessToken) throws RemoteException;
+        Map<String, Integer> getGenderBreakdown(String pageAccessToken) throws RemoteException;
+        Map<String, Map<String, Integer>> getPostEngagementOverTime(String pageAccessToken, long sinceTimestamp) throws RemoteException;
+    }
+
+    private interface Poll<T> {
+        T load() throws RemoteException;
+    }
+
+    private interface TokenPoll<T> {
+        T load(String pageAccessToken) throws RemoteException;
+    }
+
+    private interface Push {
+        void deliver(PageUpdateListener listener) throws RemoteException;
+    }
+
+    private static final String FOLLOWERS = "followers";
+    private static final String LIKES = "likes";
+    private static final String GENDER = "gender";
+    private static final String ENGAGEMENT = "engagement";
+
+    private final Source source;
+    private final ServiceMetrics metrics;
+    private final long leaseMillis;
+    private final ScheduledExecutorService scheduler;
+    private final ThreadPoolExecutor pushExecutor;
+    private final Map<String, PageWatcher> watchers = new ConcurrentHashMap<>();
+
+    public PageWatcherHub(Source source, ServiceMetrics metrics, int pollThreads, int pushThreads, long leaseMillis) {
+        this.source = source;
+        this.metrics = metrics;
+        this.leaseMillis = leaseMillis;
+        this.scheduler = Executors.newScheduledThreadPool(pollThreads, r -> {
+            Thread t = new Thread(r, "page-watcher");
+            t.setDaemon(true);
+            return t;
+        });
+        // One queued drain per subscriber at most, so the queue is bounded by the number of subscribers
+        this.pushExecutor = new ThreadPoolExecutor(pushThreads, pushThreads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread t = new Thread(r, "page-watcher-push");
+            t.setDaemon(true);
+            return t;
+        });
+        pushExecutor.allowCoreThreadTimeOut(true);
+        long sweepMillis = Math.max(1_000, leaseMillis / 4);
+        scheduler.scheduleWithFixedDelay(this::expireLeases, sweepMillis, sweepMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public static PageWatcherHub fromSystemProperties(Source source, ServiceMetrics metrics) {
+        return new PageWatcherHub(source, metrics, Integer.getInteger("socialanalyst.watcher.threads", 4),
+                Integer.getInteger("socialanalyst.watcher.pushThreads", 8),
+                Long.getLong("socialanalyst.watcher.leaseSeconds", 60) * 1000);
+    }
+
+    public long getLeaseMillis() {
+        return leaseMillis;
+    }
+
+    // pageKey: the page id the token resolves to
+    public synchronized void subscribe(String pageKey, String pageAccessToken, long sinceTimestamp, PageUpdateListener listener) {
+        unsubscribe(listener);
+        PageWatcher watcher = watchers.computeIfAbsent(pageKey, PageWatcher::new);
+        watcher.add(new Subscription(listener, pageAccessToken, ResultCache.normalizeWindow(sinceTimestamp),
+                System.currentTimeMillis() + leaseMillis));
+    }
+
+    // False when the subscription is gone (expired, dropped as unreachable or never made): subscribe again
+    public boolean renew(PageUpdateListener listener) {
+        long expiresAtMillis = System.currentTimeMillis() + leaseMillis;
+        boolean renewed = false;
+        for (PageWatcher watcher : watchers.values()) {
+            for (Subscription s : watcher.subscribers) {
+                if (s.listener.equals(listener)) {
+                    s.expiresAtMillis = expiresAtMillis;
+                    renewed = true;
+                }
+            }
+        }
+        return renewed;
+    }
+
+    public synchronized void unsubscribe(PageUpdateListener listener) {
+        for (PageWatcher watcher : new ArrayList<>(watchers.values())) {
+            watcher.remove(listener);
+        }
+    }
+
+    public int getWatcherCount() {
+        return watchers.size();
+    }
+
+    public int getSubscriberCount() {
+        return watchers.values().stream().mapToInt(w -> w.subscribers.size()).sum();
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+        pushExecutor.shutdownNow();
+        watchers.clear();
+    }
+
+    // Polls are refreshes nobody is waiting on, so their Graph calls yield to interactive ones and are shed first
+    private static Runnable background(Runnable poll) {
+        return () -> {
+            try {
+                GraphCallScheduler.callAs(GraphCallScheduler.Priority.BACKGROUND, () -> {
+                    poll.run();
+                    return null;
+                });
+            } catch (Exception e) {
+                System.err.println("Page watcher poll failed: " + e.getMessage());
+            }
+        };
+    }
+
+    // Polls are timed apart from the client calls, so the service histograms only show what dashboards wait for
+    private <T> T timed(String name, Poll<T> poll) throws RemoteException {
+        long start = System.nanoTime();
+        try {
+            return poll.load();
+        } finally {
+            if (metrics != null) {
+                metrics.recordPhase(name, System.nanoTime() - start);
+            }
+        }
+    }
+
+    private synchronized void dropIfIdle(PageWatcher watcher) {
+        if (watcher.subscribers.isEmpty() && watchers.remove(watcher.pageKey, watcher)) {
+            watcher.stop();
+        }
+    }
+
+    private void expireLeases() {
+        long now = System.currentTimeMillis();
+        for (PageWatcher watcher : new ArrayList<>(watchers.values())) {
+            for (Subscription s : watcher.subscribers) {
+                if (now >= s.expiresAtMillis) {
+                    System.err.println("Dropping page subscriber whose lease ran out");
+                    watcher.remove(s.listener);
+                }
+            }
+        }
+    }
+
+    private static final class Subscription {
+        private final PageUpdateListener listener;
+        private final String pageAccessToken;
+        private final long sinceTimestamp;
+        private volatile long expiresAtMillis;
+
+        // Updates not yet pushed, at most one per kind; guarded by this
+        private final Map<String, Push> outbox = new LinkedHashMap<>();
+        private boolean draining;
+        private volatile boolean removed;
+
+        Subscription(PageUpdateListener listener, String pageAccessToken, long sinceTimestamp, long expiresAtMillis) {
+            this.listener = listener;
+            this.pageAccessToken = pageAccessToken;
+            this.sinceTimestamp = sinceTimestamp;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+
+    private final class PageWatcher {
+        private final String pageKey;
+        private final List<Subscription> subscribers = new CopyOnWriteArrayList<>();
+        private final List<ScheduledFuture<?>> tasks = new ArrayList<>();
+        // Which subscriber's token polls; advanced when a poll fails, e.g. because that token expired
+        private volatile int pollingToken;
+
+        private volatile Long followers;
+        private volatile Long likes;
+        private volatile Map<String, Integer> genderBreakdown;
+        private final Map<Long, Map<String, Map<String, Integer>>> engagementBySince = new ConcurrentHashMap<>();
+
+        PageWatcher(String pageKey) {
+            this.pageKey = pageKey;
+        }
+
+        // The polls need a subscriber's token, so they start with the first subscription
+        private void start() {
+            tasks.add(scheduler.scheduleWithFixedDelay(background(this::pollFollowers), 0, FOLLOWER_PERIOD_MILLIS, TimeUnit.MILLISECONDS));
+            tasks.add(scheduler.scheduleWithFixedDelay(background(this::pollLikes), 0, LIKES_PERIOD_MILLIS, TimeUnit.MILLISECONDS));
+            tasks.add(scheduler.scheduleWithFixedDelay(background(this::pollGender), 0, GENDER_PERIOD_MILLIS, TimeUnit.MILLISECONDS));
+            tasks.add(scheduler.scheduleWithFixedDelay(background(this::pollEngagement), 0, ENGAGEMENT_PERIOD_MILLIS, TimeUnit.MILLISECONDS));
+        }
+
+        void add(Subscription subscription) {
+            subscribers.add(subscription);
+            if (tasks.isEmpty()) {
+                start();
+                return;
+            }
+
+            // Late joiners get the current state straight away instead of waiting for the next change
+            Long currentFollowers = followers;
+            Long currentLikes = likes;
+            Map<String, Integer> currentGender = genderBreakdown;
+            Map<String, Map<String, Integer>> currentEngagement = engagementBySince.get(subscription.sinceTimestamp);
+            if (currentFollowers != null) deliver(subscription, FOLLOWERS, l -> l.onFollowerCount(currentFollowers));
+            if (currentLikes != null) deliver(subscription, LIKES, l -> l.onPageLikes(currentLikes));
+            if (currentGender != null) deliver(subscription, GENDER, l -> l.onGenderBreakdown(currentGender));
+            if (currentEngagement != null) {
+                deliver(subscription, ENGAGEMENT, l -> l.onPostEngagementOverTime(currentEngagement));
+            } else {
+                scheduler.execute(background(() -> pollEngagement(subscription.sinceTimestamp)));
+            }
+        }
+
+        void remove(PageUpdateListener listener) {
+            boolean removed = false;
+            for (Subscription s : subscribers) {
+                if (s.listener.equals(listener) && subscribers.remove(s)) {
+                    s.removed = true;
+                    removed = true;
+                }
+            }
+            if (removed) {
+                dropIfIdle(this);
+            }
+        }
+
+        void stop() {
+            tasks.forEach(t -> t.cancel(false));
+        }
+
+        private void pollFollowers() {
+            try {
+                Long value = poll("watcher.getFollowerCount", source::getFollowerCount);
+                if (value != null && !Objects.equals(followers, value)) {
+                    followers = value;
+                    broadcast(FOLLOWERS, l -> l.onFollowerCount(value));
+                }
+            } catch (Exception e) {
+                System.err.println("Page watcher failed to poll follower count: " + e.getMessage());
+            }
+        }
+
+        private void pollLikes() {
+            try {
+                Long value = poll("watcher.getPageLikes", source::getPageLikes);
+                if (value != null && !Objects.equals(likes, value)) {
+                    likes = value;
+                    broadcast(LIKES, l -> l.onPageLikes(value));
+                }
+            } catch (Exception e) {
+                System.err.println("Page watcher failed to poll page likes: " + e.getMessage());
+            }
+        }
+
+        private void pollGender() {
+            try {
+                Map<String, Integer> value = poll("watcher.getGenderBreakdown", source::getGenderBreakdown);
+                if (value != null && !Objects.equals(genderBreakdown, value)) {
+                    genderBreakdown = value;
+                    broadcast(GENDER, l -> l.onGenderBreakdown(value));
+                }
+            } catch (Exception e) {
+                System.err.println("Page watcher failed to poll gender breakdown: " + e.getMessage());
+            }
+        }
+
+        private void pollEngagement() {
+            Set<Long> windows = new HashSet<>();
+            for (Subscription s : subscribers) {
+                windows.add(s.sinceTimestamp);
+            }
+            engagementBySince.keySet().retainAll(windows);
+            for (long since : windows) {
+                pollEngagement(since);
+            }
+        }
+
+        private void pollEngagement(long sinceTimestamp) {
+            try {
+                Map<String, Map<String, Integer>> value = poll("watcher.getPostEngagementOverTime",
+                        token -> source.getPostEngagementOverTime(token, sinceTimestamp));
+                if (value == null) {
+                    return;
+                }
+                Map<String, Map<String, Integer>> previous = engagementBySince.put(sinceTimestamp, value);
+                if (!Objects.equals(previous, value)) {
+                    for (Subscription s : subscribers) {
+                        if (s.sinceTimestamp == sinceTimestamp) {
+                            deliver(s, ENGAGEMENT, l -> l.onPostEngagementOverTime(value));
+                        }
+                    }
+                }
+            } catch (Exception e) {
+                System.err.println("Page watcher failed to poll engagement: " + e.getMessage());
+            }
+        }
+
+        // Null when no subscriber is left to poll for; a failure moves polling on to the next subscriber's token
+        private <T> T poll(String name, TokenPoll<T> poll) throws RemoteException {
+            Set<String> tokens = new LinkedHashSet<>();
+            for (Subscription s : subscribers) {
+                tokens.add(s.pageAccessToken);
+            }
+            if (tokens.isEmpty()) {
+                return null;
+            }
+            String token = new ArrayList<>(tokens).get(Math.floorMod(pollingToken, tokens.size()));
+            try {
+                return timed(name, () -> poll.load(token));
+            } catch (RemoteException | RuntimeException e) {
+                pollingToken++;
+                throw e;
+            }
+        }
+
+        private void broadcast(String kind, Push push) {
+            for (Subscription s : subscribers) {
+                deliver(s, kind, push);
+            }
+        }
+
+        // Callbacks go through the push pool so one slow or dead dashboard cannot stall the poller
+        private void deliver(Subscription subscription, String kind, Push push) {
+            synchronized (subscription) {
+                subscription.outbox.remove(kind);
+                subscription.outbox.put(kind, push);
+                if (subscription.draining) {
+                    return;
+                }
+                subscription.draining = true;
+            }
+            try {
+                pushExecutor.execute(() -> drain(subscription));
+            } catch (RejectedExecutionException e) {
+                // Shutting down
+                synchronized (subscription) {
+                    subscription.draining = false;
+                }
+            }
+        }
+
+        private void drain(Subscription subscription) {
+            while (true) {
+                Push push;
+                synchronized (subscription) {
+                    Iterator<Push> next = subscription.outbox.values().iterator();
+                    if (!next.hasNext() || subscription.removed) {
+                        subscription.outbox.clear();
+                        subscription.draining = false;
+                        return;
+                    }
+                    push = next.next();
+                    next.remove();
+                }
+                try {
+                    push.deliver(subscription.listener);
+                } catch (RemoteException e) {
+                    System.err.println("Dropping unreachable page subscriber: " + e.getMessage());
+                    remove(subscription.listener);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.socialanalystpro;
+
+import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+
+// Runs analyzePages in the background: each portfolio gets a coordinator and a pool of `parallelism` virtual threads,
+// so at most that many of its pages are analyzed at once, and each analysis still goes through the cache and
+// admission control like a single analyzePage. The coordinator sends results to the listener in the order pages
+// finish, one call at a time, so a slow client only delays its own callbacks, never the analyses. A listener that
+// can no longer be reached cancels the pages still running.
+//
+// socialanalyst.portfolio.parallelism (8) bounds concurrent pages per portfolio, socialanalyst.portfolio.maxPages
+// (1000) the tokens per request and socialanalyst.portfolio.maxActive (4) the portfolios running at once.
+public class PortfolioAnalyzer {
+
+    private static final int BUSY_ATTEMPTS = 3;
+    private static final long BUSY_BACKOFF_MILLIS = 2_000;
+
+    private final AnalyticsService source;
+    private final Function<String, String> pageNames;
+    private final ServiceMetrics metrics;
+    private final int parallelism;
+    private final int maxPages;
+    private final int maxActive;
+    private final Semaphore active;
+    private final ExecutorService coordinators = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("portfolio-", 0).factory());
+
+    public PortfolioAnalyzer(AnalyticsService source, Function<String, String> pageNames, ServiceMetrics metrics,
+                             int parallelism, int maxPages, int maxActive) {
+        this.source = source;
+        this.pageNames = pageNames;
+        this.metrics = metrics;
+        this.parallelism = Math.max(1, parallelism);
+        this.maxPages = maxPages;
+        this.maxActive = Math.max(1, maxActive);
+        this.active = new Semaphore(this.maxActive);
+    }
+
+    public static PortfolioAnalyzer fromSystemProperties(AnalyticsService source, Function<String, String> pageNames, ServiceMetrics metrics) {
+        return new PortfolioAnalyzer(source, pageNames, metrics,
+                Integer.getInteger("socialanalyst.portfolio.parallelism", 8),
+                Integer.getInteger("socialanalyst.portfolio.maxPages", 1_000),
+                Integer.getInteger("socialanalyst.portfolio.maxActive", 4));
+    }
+
+    // Returns as soon as the portfolio is accepted; results arrive through the listener
+    public void start(List<String> pageAccessTokens, long sinceTimestamp, PortfolioListener listener) throws RemoteException {
+        if (pageAccessTokens.size() > maxPages) {
+            throw new RemoteException("A portfolio may have at most " + maxPages + " pages, got " + pageAccessTokens.size());
+        }
+        if (!active.tryAcquire()) {
+            throw new ServerBusyException("Server busy: too many portfolio analyses running, please retry shortly");
+        }
+        List<String> tokens = new ArrayList<>(pageAccessTokens);
+        try {
+            coordinators.execute(() -> {
+                try {
+                    run(tokens, sinceTimestamp, listener);
+                } finally {
+                    active.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            active.release();
+            throw new RemoteException("Could not start portfolio analysis: " + e.getMessage());
+        }
+    }
+
+    public int getActivePortfolios() {
+        return maxActive - active.availablePermits();
+    }
+
+    public void shutdown() {
+        coordinators.shutdownNow();
+    }
+
+    private void run(List<String> tokens, long sinceTimestamp, PortfolioListener listener) {
+        long start = System.nanoTime();
+        PortfolioSummary summary = new PortfolioSummary(tokens.size());
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(parallelism, Math.max(1, tokens.size())),
+                Thread.ofVirtual().name("portfolio-page-", 0).factory());
+        CompletionService<PageOutcome> completion = new ExecutorCompletionService<>(pool);
+        try {
+            for (int i = 0; i < tokens.size(); i++) {
+                int index = i;
+                String token = tokens.get(i);
+                completion.submit(() -> analyze(index, token, sinceTimestamp));
+            }
+            for (int done = 0; done < tokens.size(); done++) {
+                PageOutcome outcome = completion.take().get();
+                long elapsedNanos = System.nanoTime() - start;
+                if (done == 0) {
+                    metrics.recordPhase("analyzePages.firstResult", elapsedNanos);
+                }
+                if (outcome.insights != null) {
+                    summary.add(outcome.index, outcome.pageName, outcome.insights.getInsights(), elapsedNanos / 1_000_000);
+                    listener.onPageAnalyzed(outcome.index, outcome.pageName, outcome.insights);
+                } else {
+                    summary.addFailure(outcome.index, outcome.error, elapsedNanos / 1_000_000);
+                    listener.onPageFailed(outcome.index, outcome.error);
+                }
+            }
+            long elapsedNanos = System.nanoTime() - start;
+            summary.complete(elapsedNanos / 1_000_000);
+            metrics.recordPhase("analyzePages.portfolio", elapsedNanos);
+            listener.onPortfolioComplete(summary);
+        } catch (RemoteException e) {
+            System.err.println("Portfolio listener unreachable, cancelling the remaining pages: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.err.println("Portfolio analysis failed: " + e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // Never throws: a page that cannot be analyzed is reported as failed and the rest of the portfolio goes on
+    private PageOutcome analyze(int index, String token, long sinceTimestamp) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                InsightsPayload insights = source.analyzePageCompact(token, sinceTimestamp);
+                return new PageOutcome(index, pageName(token), insights, null);
+            } catch (ServerBusyException e) {
+                // Admission is full, typically with this portfolio's own pages; back off instead of failing the page
+                if (attempt >= BUSY_ATTEMPTS) {
+                    return new PageOutcome(index, null, null, e.getMessage());
+                }
+                try {
+                    Thread.sleep(BUSY_BACKOFF_MILLIS * attempt);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return new PageOutcome(index, null, null, "Cancelled");
+                }
+            } catch (RemoteException e) {
+                return new PageOutcome(index, null, null, e.getMessage());
+            }
+        }
+    }
+
+    // The analysis has just resolved the token's identity, so this is normally a cache hit
+    private String pageName(String token) {
+        try {
+            return pageNames.apply(token);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static final class PageOutcome {
+        private final int index;
+        private final String pageName;
+        private final InsightsPayload insights;
+        private final String error;
+
+        PageOutcome(int index, String pageName, InsightsPayload insights, String error) {
+            this.index = index;
+            this.pageName = pageName;
+            this.insights = insights;
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.socialanalystpro;
+
+import java.rmi.Remote;
+import java.rmi.RemoteException;
+
+// Exported by the client for analyzePages. Pages are reported by their index in the token list, in the order they
+// finish; onPortfolioComplete always comes last. Calls arrive one at a time. Insights travel in the compact wire form,
+// like analyzePageCompact.
+public interface PortfolioListener extends Remote {
+    void onPageAnalyzed(int index, String pageName, InsightsPayload insights) throws RemoteException;
+    void onPageFailed(int index, String message) throws RemoteException;
+    void onPortfolioComplete(PortfolioSummary summary) throws RemoteException;
+}
@@ -0,0 +1,167 @@
+package com.example.socialanalystpro;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Portfolio-level roll-up of an analyzePages run: totals across pages, follower-weighted averages, the hashtags
+// used most across the portfolio and every page ranked by engagement rate. Filled in as pages finish.
+public class PortfolioSummary implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private static final int TOP_HASHTAGS = 10;
+
+    private final int pagesRequested;
+    private final List<PageResult> pages = new ArrayList<>();
+    private final Map<Integer, String> failures = new TreeMap<>();
+    private long totalFollowers;
+    private long postsInPeriod;
+    private long likesInPeriod;
+    private long commentsInPeriod;
+    private long sharesInPeriod;
+    private double averageEngagementRate;
+    private double averageGrowthPercentage;
+    private Map<String, Integer> topHashtags = new LinkedHashMap<>();
+    private long firstResultMillis = -1;
+    private long elapsedMillis;
+
+    private transient Map<String, Integer> hashtagTotals = new HashMap<>();
+    private transient double weightedEngagement;
+    private transient double weightedGrowth;
+
+    PortfolioSummary(int pagesRequested) {
+        this.pagesRequested = pagesRequested;
+    }
+
+    void add(int index, String pageName, SocialInsights insights, long elapsedMillis) {
+        recordFirst(elapsedMillis);
+        long followers = insights.getTotalFollowers();
+        pages.add(new PageResult(index, pageName, followers, insights.getAverageEngagementRate(), insights.getGrowthPercentage()));
+        totalFollowers += followers;
+        weightedEngagement += insights.getAverageEngagementRate() * followers;
+        weightedGrowth += insights.getGrowthPercentage() * followers;
+
+        SocialInsights.PeriodMetrics period = insights.getPeriodMetrics();
+        if (period != null) {
+            postsInPeriod += period.getPostsInPeriod();
+            likesInPeriod += period.getLikesInPeriod();
+            commentsInPeriod += period.getCommentsInPeriod();
+            sharesInPeriod += period.getSharesInPeriod();
+        }
+        if (insights.getHashtagRankings() != null) {
+            insights.getHashtagRankings().forEach((tag, count) -> hashtagTotals.merge(tag, count, Integer::sum));
+        }
+    }
+
+    void addFailure(int index, String message, long elapsedMillis) {
+        recordFirst(elapsedMillis);
+        failures.put(index, message);
+    }
+
+    void complete(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+        pages.sort(Comparator.comparingDouble(PageResult::getEngagementRate).reversed());
+        if (totalFollowers > 0) {
+            averageEngagementRate = weightedEngagement / totalFollowers;
+            averageGrowthPercentage = weightedGrowth / totalFollowers;
+        } else if (!pages.isEmpty()) {
+            // No follower counts to weigh by, so every page counts the same
+            averageEngagementRate = pages.stream().mapToDouble(PageResult::getEngagementRate).average().orElse(0);
+            averageGrowthPercentage = pages.stream().mapToDouble(PageResult::getGrowthPercentage).average().orElse(0);
+        }
+        topHashtags = new LinkedHashMap<>();
+        hashtagTotals.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(TOP_HASHTAGS)
+                .forEach(e -> topHashtags.put(e.getKey(), e.getValue()));
+        hashtagTotals = new HashMap<>();
+    }
+
+    // One roll-up of a portfolio analyzed in parts (one per cluster node). indexMaps.get(p)[i] is the portfolio index
+    // of page i of part p. Totals add up and averages are re-weighted from the per-page figures; the top hashtags are
+    // merged from each part's own top list, so a tag that misses every part's top list is not counted.
+    static PortfolioSummary merge(int pagesRequested, List<PortfolioSummary> parts, List<int[]> indexMaps) {
+        PortfolioSummary merged = new PortfolioSummary(pagesRequested);
+        for (int p = 0; p < parts.size(); p++) {
+            PortfolioSummary part = parts.get(p);
+            int[] indexMap = indexMaps.get(p);
+            for (PageResult page : part.pages) {
+                merged.pages.add(new PageResult(indexMap[page.index], page.pageName, page.followers, page.engagementRate, page.growthPercentage));
+                merged.weightedEngagement += page.engagementRate * page.followers;
+                merged.weightedGrowth += page.growthPercentage * page.followers;
+            }
+            part.failures.forEach((index, message) -> merged.failures.put(indexMap[index], message));
+            merged.totalFollowers += part.totalFollowers;
+            merged.postsInPeriod += part.postsInPeriod;
+            merged.likesInPeriod += part.likesInPeriod;
+            merged.commentsInPeriod += part.commentsInPeriod;
+            merged.sharesInPeriod += part.sharesInPeriod;
+            part.topHashtags.forEach((tag, count) -> merged.hashtagTotals.merge(tag, count, Integer::sum));
+            if (part.firstResultMillis >= 0 && (merged.firstResultMillis < 0 || part.firstResultMillis < merged.firstResultMillis)) {
+                merged.firstResultMillis = part.firstResultMillis;
+            }
+            merged.elapsedMillis = Math.max(merged.elapsedMillis, part.elapsedMillis);
+        }
+        merged.complete(merged.elapsedMillis);
+        return merged;
+    }
+
+    private void recordFirst(long elapsedMillis) {
+        if (firstResultMillis < 0) {
+            firstResultMillis = elapsedMillis;
+        }
+    }
+
+    public int getPagesRequested() { return pagesRequested; }
+    public int getPagesAnalyzed() { return pages.size(); }
+    public int getPagesFailed() { return failures.size(); }
+
+    // Analyzed pages, highest engagement rate first
+    public List<PageResult> getPages() { return pages; }
+    // Error message by page index
+    public Map<Integer, String> getFailures() { return failures; }
+
+    public long getTotalFollowers() { return totalFollowers; }
+    public long getPostsInPeriod() { return postsInPeriod; }
+    public long getLikesInPeriod() { return likesInPeriod; }
+    public long getCommentsInPeriod() { return commentsInPeriod; }
+    public long getSharesInPeriod() { return sharesInPeriod; }
+
+    // Weighted by each page's followers, so a large page counts for more than a new one
+    public double getAverageEngagementRate() { return averageEngagementRate; }
+    public double getAverageGrowthPercentage() { return averageGrowthPercentage; }
+
+    public Map<String, Integer> getTopHashtags() { return topHashtags; }
+
+    public long getFirstResultMillis() { return firstResultMillis; }
+    public long getElapsedMillis() { return elapsedMillis; }
+
+    public static class PageResult implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final int index;
+        private final String pageName;
+        private final long followers;
+        private final double engagementRate;
+        private final double growthPercentage;
+
+        PageResult(int index, String pageName, long followers, double engagementRate, double growthPercentage) {
+            this.index = index;
+            this.pageName = pageName;
+            this.followers = followers;
+            this.engagementRate = engagementRate;
+            this.growthPercentage = growthPercentage;
+        }
+
+        public int getIndex() { return index; }
+        public String getPageName() { return pageName; }
+        public long getFollowers() { return followers; }
+        public double getEngagementRate() { return engagementRate; }
+        public double getGrowthPercentage() { return growthPercentage; }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.socialanalystpro;
+
+import com.restfb.types.Comment;
+import com.restfb.types.Post;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+
+// Immutable, server-side view of a single post as returned by me/posts.
+public final class PostRecord {
+
+    public static final long UNKNOWN_TIME = Long.MIN_VALUE;
+
+    private final String id;
+    private final long createdTimeMillis;
+    private final String message;
+    private final String type;
+    private final long likes;
+    private final long comments;
+    private final long shares;
+    private final List<String> commentMessages;
+
+    public PostRecord(String id, long createdTimeMillis, String message, String type,
+                      long likes, long comments, long shares, List<String> commentMessages) {
+        this.id = id;
+        this.createdTimeMillis = createdTimeMillis;
+        this.message = message;
+        this.type = type;
+        this.likes = likes;
+        this.comments = comments;
+        this.shares = shares;
+        this.commentMessages = commentMessages != null ? List.copyOf(commentMessages) : Collections.emptyList();
+    }
+
+    public static PostRecord from(Post post) {
+        long likes = (post.getReactions() != null && post.getReactions().getTotalCount() != null) ? post.getReactions().getTotalCount() : 0;
+        long comments = (post.getComments() != null && post.getComments().getTotalCount() != null) ? post.getComments().getTotalCount() : 0;
+        long shares = 0; // Shares not available in this view
+
+        List<String> commentMessages = new ArrayList<>();
+        if (post.getComments() != null && post.getComments().getData() != null) {
+            for (Comment comment : post.getComments().getData()) {
+                if (comment.getMessage() != null) {
+                    commentMessages.add(comment.getMessage());
+                }
+            }
+        }
+
+        long createdTime = post.getCreatedTime() != null ? post.getCreatedTime().getTime() : UNKNOWN_TIME;
+        return new PostRecord(post.getId(), createdTime, post.getMessage(), post.getType(), likes, comments, shares, commentMessages);
+    }
+
+    public String getId() { return id; }
+    public long getCreatedTimeMillis() { return createdTimeMillis; }
+    public boolean hasCreatedTime() { return createdTimeMillis != UNKNOWN_TIME; }
+    public String getMessage() { return message; }
+    public String getType() { return type; }
+    public long getLikes() { return likes; }
+    public long getComments() { return comments; }
+    public long getShares() { return shares; }
+    public long getEngagement() { return likes + comments + shares; }
+    public List<String> getCommentMessages() { return commentMessages; }
+
+    // True when a re-fetch brought nothing new, so there is no need to persist it again
+    public boolean sameContent(PostRecord other) {
+        return other != null && id.equals(other.id) && createdTimeMillis == other.createdTimeMillis
+                && likes == other.likes && comments == other.comments && shares == other.shares
+                && Objects.equals(message, other.message) && Objects.equals(type, other.type)
+                && commentMessages.equals(other.commentMessages);
+    }
+
+    // Same rendering the dashboard has always shown (java.util.Date#toString)
+    public String getCreatedTimeText() {
+        return createdTimeText(createdTimeMillis);
+    }
+
+    static String createdTimeText(long createdTimeMillis) {
+        return createdTimeMillis != UNKNOWN_TIME ? new Date(createdTimeMillis).toString() : "Unknown";
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.socialanalystpro;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+// Immutable result of one me/posts walk for a (page, since) window, held as a PostTable ordered newest first.
+public final class PostSnapshot {
+
+    private final long sinceTimestamp;
+    private final long fetchedAtMillis;
+    private final PostTable table;
+
+    public PostSnapshot(long sinceTimestamp, long fetchedAtMillis, List<PostRecord> posts) {
+        List<PostRecord> sorted = new ArrayList<>(posts);
+        sorted.sort(Comparator.comparingLong(PostRecord::getCreatedTimeMillis).reversed());
+        this.sinceTimestamp = sinceTimestamp;
+        this.fetchedAtMillis = fetchedAtMillis;
+        this.table = PostTable.of(sorted);
+    }
+
+    public long getSinceTimestamp() { return sinceTimestamp; }
+    public long getFetchedAtMillis() { return fetchedAtMillis; }
+    public int size() { return table.size(); }
+
+    // Shared by every aggregation over this snapshot
+    public PostTable table() {
+        return table;
+    }
+
+    public PostTable mostRecent(int count) {
+        return table.head(count);
+    }
+}
@@ -0,0 +1,309 @@
+package com.example.socialanalystpro;
+
+import com.restfb.Connection;
+import com.restfb.FacebookClient;
+import com.restfb.Parameter;
+import com.restfb.types.Post;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Serves me/posts windows from a per-page timeline that is synced incrementally: the first request crawls the
+// window once, later refreshes only fetch posts newer than the watermark plus a "hot" window whose counters still move,
+// and a wider window only backfills the older gap. Refresh cost scales with new activity, not with the window size.
+// With a PostStore, timelines are written through to disk and restored from it, so history survives restarts; a
+// restored timeline reads back from disk only the windows that are asked for, after the same hot-window refresh a
+// live one gets. Timelines are keyed by the page id, so every token of one page shares them; evicting an idle
+// timeline also closes its page in the store.
+public class PostSnapshotEngine {
+
+    // Union of the fields used by analyzePage, engagement over time and best day/hour
+    static final String POST_FIELDS = "id,message,created_time,reactions.limit(0).summary(total_count),comments.limit(5).summary(true)";
+    private static final int PAGE_SIZE = 100;
+    private static final long TIMELINE_IDLE_MILLIS = 60 * 60_000;
+
+    private final ResultCache cache;
+    private final long snapshotTtlMillis;
+    private final long hotWindowSeconds;
+    private final PostStore store;
+    private final Map<String, PageTimeline> timelines = new ConcurrentHashMap<>();
+    private volatile long lastSweepMillis = System.currentTimeMillis();
+
+    public PostSnapshotEngine(ResultCache cache, long snapshotTtlMillis, long hotWindowSeconds) {
+        this(cache, snapshotTtlMillis, hotWindowSeconds, null);
+    }
+
+    public PostSnapshotEngine(ResultCache cache, long snapshotTtlMillis, long hotWindowSeconds, PostStore store) {
+        this.cache = cache;
+        this.snapshotTtlMillis = snapshotTtlMillis;
+        this.hotWindowSeconds = hotWindowSeconds;
+        this.store = store;
+    }
+
+    public PostSnapshot window(String pageKey, FacebookClient fbClient, long sinceTimestamp) throws Exception {
+        long window = ResultCache.normalizeWindow(sinceTimestamp);
+        return cache.get(ResultCache.key(pageKey, "posts.window", window), snapshotTtlMillis, () -> {
+            PageTimeline timeline = timeline(pageKey);
+            timeline.lock().lock();
+            try {
+                sync(timeline, fbClient, window);
+                return new PostSnapshot(window, System.currentTimeMillis(), timeline.postsSince(window));
+            } finally {
+                timeline.lock().unlock();
+            }
+        });
+    }
+
+    // The most recent posts regardless of window; served from the window snapshot when it is large enough.
+    public PostTable mostRecent(String pageKey, FacebookClient fbClient, PostSnapshot window, int count) throws Exception {
+        if (window != null && window.size() >= count) {
+            return window.mostRecent(count);
+        }
+
+        PostSnapshot recent = cache.get(ResultCache.key(pageKey, "posts.recent", count), snapshotTtlMillis, () -> {
+            PageTimeline timeline = timeline(pageKey);
+            timeline.lock().lock();
+            try {
+                if (timeline.isSynced()) {
+                    // A restored timeline has coverage but no refresh yet this run; its newest posts and counters
+                    // must come from Graph, not from what the last run stored
+                    if (System.currentTimeMillis() - timeline.getLastSyncMillis() >= snapshotTtlMillis) {
+                        refresh(timeline, fbClient);
+                    }
+                    pageInRecent(timeline, count);
+                    if (timeline.size() >= count) {
+                        return new PostSnapshot(0, System.currentTimeMillis(), timeline.allPosts());
+                    }
+                }
+            } finally {
+                timeline.lock().unlock();
+            }
+
+            // Fetched without holding the timeline so it can overlap a concurrent window sync of the same page
+            Connection<Post> connection = fbClient.fetchConnection("me/posts", Post.class,
+                    Parameter.with("fields", POST_FIELDS),
+                    Parameter.with("limit", count));
+            List<PostRecord> records = new ArrayList<>();
+            for (Post post : connection.getData()) {
+                records.add(PostRecord.from(post));
+            }
+
+            timeline.lock().lock();
+            try {
+                persist(timeline, timeline.merge(records));
+                // The newest N posts are a complete view back to the oldest of them, and of all history only when
+                // Graph has no further page: a short page on its own proves nothing, Graph often returns fewer than asked
+                long oldest = connection.hasNext() ? Long.MAX_VALUE : 0;
+                for (PostRecord record : records) {
+                    if (record.hasCreatedTime()) oldest = Math.min(oldest, record.getCreatedTimeMillis() / 1000);
+                }
+                if (oldest != Long.MAX_VALUE) {
+                    timeline.markCovered(oldest);
+                    persistCoverage(timeline);
+                }
+                if (timeline.getLastSyncMillis() == 0) {
+                    timeline.markSynced(System.currentTimeMillis());
+                }
+                return new PostSnapshot(0, System.currentTimeMillis(), timeline.allPosts());
+            } finally {
+                timeline.lock().unlock();
+            }
+        });
+        return recent.mostRecent(count);
+    }
+
+    public void invalidate(String pageKey) {
+        if (timelines.remove(pageKey) != null) {
+            release(pageKey);
+        }
+    }
+
+    public int getTimelineCount() {
+        return timelines.size();
+    }
+
+    private PageTimeline timeline(String pageKey) {
+        sweepIdle();
+        PageTimeline timeline = timelines.computeIfAbsent(pageKey, this::restore);
+        timeline.touch();
+        return timeline;
+    }
+
+    // Restores only the coverage a previous run stored; a restored timeline starts unsynced in time (lastSync 0),
+    // so its first access only refreshes from the watermark instead of re-crawling the window.
+    private PageTimeline restore(String pageKey) {
+        PageTimeline timeline = new PageTimeline(pageKey);
+        if (store == null) {
+            return timeline;
+        }
+        try {
+            long[] coverage = store.coverage(pageKey);
+            if (coverage != null) {
+                timeline.restoreCoverage(coverage[0], coverage[1]);
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Could not restore stored posts for page " + pageKey + ": " + e.getMessage());
+        }
+        return timeline;
+    }
+
+    // Reads the stored posts of [sinceSeconds, pagedInSince) into the timeline. On failure the range stays on disk
+    // and is retried by the next access.
+    private void pageIn(PageTimeline timeline, long sinceSeconds) {
+        long pagedInSince = timeline.getPagedInSinceSeconds();
+        if (store == null || pagedInSince <= sinceSeconds) {
+            return;
+        }
+        try {
+            long until = pagedInSince == PageTimeline.NOT_SYNCED ? Long.MAX_VALUE : pagedInSince * 1000;
+            timeline.pageIn(store.read(timeline.getPageKey(), sinceSeconds * 1000, until), sinceSeconds);
+        } catch (RuntimeException e) {
+            System.err.println("Could not read stored posts for page " + timeline.getPageKey() + ": " + e.getMessage());
+        }
+    }
+
+    // Reads just enough of the newest stored posts for the timeline to hold `count`
+    private void pageInRecent(PageTimeline timeline, int count) {
+        long pagedInSince = timeline.getPagedInSinceSeconds();
+        if (store == null || timeline.size() >= count || pagedInSince <= timeline.getCoveredSinceSeconds()) {
+            return;
+        }
+        try {
+            int wanted = count - timeline.size();
+            long until = pagedInSince == PageTimeline.NOT_SYNCED ? Long.MAX_VALUE : pagedInSince * 1000;
+            List<PostRecord> stored = store.readBefore(timeline.getPageKey(), until, wanted);
+            long oldest = Long.MAX_VALUE;
+            int dated = 0;
+            for (PostRecord record : stored) {
+                if (record.hasCreatedTime()) {
+                    oldest = Math.min(oldest, record.getCreatedTimeMillis());
+                    dated++;
+                }
+            }
+            // Fewer than asked means nothing older is stored; otherwise only whole seconds after the oldest read are
+            // complete, since posts sharing its second may have been cut off by the limit
+            long since = dated < wanted ? timeline.getCoveredSinceSeconds() : Math.floorDiv(oldest, 1000) + 1;
+            timeline.pageIn(stored, since);
+        } catch (RuntimeException e) {
+            System.err.println("Could not read stored posts for page " + timeline.getPageKey() + ": " + e.getMessage());
+        }
+    }
+
+    // Store failures are logged, never surfaced: the in-memory timeline stays authoritative for this run
+    private void persist(PageTimeline timeline, List<PostRecord> changed) {
+        if (store == null || changed.isEmpty()) {
+            return;
+        }
+        try {
+            store.append(timeline.getPageKey(), changed);
+        } catch (RuntimeException e) {
+            System.err.println("Could not persist posts for page " + timeline.getPageKey() + ": " + e.getMessage());
+        }
+    }
+
+    private void persistDeleted(PageTimeline timeline, List<PostRecord> removed) {
+        if (store == null || removed.isEmpty()) {
+            return;
+        }
+        try {
+            store.delete(timeline.getPageKey(), removed);
+        } catch (RuntimeException e) {
+            System.err.println("Could not persist deleted posts for page " + timeline.getPageKey() + ": " + e.getMessage());
+        }
+    }
+
+    private void persistCoverage(PageTimeline timeline) {
+        if (store == null || !timeline.isSynced()) {
+            return;
+        }
+        try {
+            store.saveCoverage(timeline.getPageKey(), timeline.getCoveredSinceSeconds(), timeline.getWatermarkSeconds());
+        } catch (RuntimeException e) {
+            System.err.println("Could not persist coverage for page " + timeline.getPageKey() + ": " + e.getMessage());
+        }
+    }
+
+    private void sync(PageTimeline timeline, FacebookClient fbClient, long sinceSeconds) {
+        long nowMillis = System.currentTimeMillis();
+        pageIn(timeline, sinceSeconds);
+        if (!timeline.isSynced()) {
+            persist(timeline, timeline.merge(fetch(fbClient, sinceSeconds, 0)));
+            timeline.markCovered(sinceSeconds);
+            timeline.markSynced(nowMillis);
+            persistCoverage(timeline);
+            return;
+        }
+
+        if (!timeline.covers(sinceSeconds)) {
+            // Only the part of the window older than what we already hold
+            persist(timeline, timeline.merge(fetch(fbClient, sinceSeconds, timeline.getCoveredSinceSeconds())));
+            timeline.markCovered(sinceSeconds);
+            persistCoverage(timeline);
+        }
+
+        if (nowMillis - timeline.getLastSyncMillis() >= snapshotTtlMillis) {
+            refresh(timeline, fbClient);
+        }
+    }
+
+    // Refetches everything newer than the watermark plus the hot window, whose counters still move
+    private void refresh(PageTimeline timeline, FacebookClient fbClient) {
+        long nowMillis = System.currentTimeMillis();
+        long refreshFrom = Math.max(timeline.getCoveredSinceSeconds(),
+                Math.min(timeline.getWatermarkSeconds(), nowMillis / 1000 - hotWindowSeconds));
+        // Deletions are detected against memory, so the whole refreshed range must be paged in first
+        pageIn(timeline, refreshFrom);
+        List<PostRecord> fetched = fetch(fbClient, refreshFrom, 0);
+        Set<String> fetchedIds = new HashSet<>();
+        for (PostRecord record : fetched) {
+            fetchedIds.add(record.getId());
+        }
+        persist(timeline, timeline.merge(fetched));
+        persistDeleted(timeline, timeline.retainFetched(refreshFrom, fetchedIds));
+        timeline.markSynced(nowMillis);
+        persistCoverage(timeline);
+    }
+
+    private List<PostRecord> fetch(FacebookClient fbClient, long sinceSeconds, long untilSeconds) {
+        List<Parameter> parameters = new ArrayList<>();
+        parameters.add(Parameter.with("fields", POST_FIELDS));
+        parameters.add(Parameter.with("since", sinceSeconds));
+        if (untilSeconds > 0) {
+            parameters.add(Parameter.with("until", untilSeconds));
+        }
+        parameters.add(Parameter.with("limit", PAGE_SIZE));
+
+        Connection<Post> connection = fbClient.fetchConnection("me/posts", Post.class, parameters.toArray(new Parameter[0]));
+        List<PostRecord> records = new ArrayList<>();
+        for (List<Post> postPage : connection) {
+            for (Post post : postPage) {
+                records.add(PostRecord.from(post));
+            }
+        }
+        return records;
+    }
+
+    private void sweepIdle() {
+        long now = System.currentTimeMillis();
+        if (now - lastSweepMillis < TIMELINE_IDLE_MILLIS / 4) {
+            return;
+        }
+        lastSweepMillis = now;
+        for (Map.Entry<String, PageTimeline> entry : timelines.entrySet()) {
+            if (now - entry.getValue().getLastAccessMillis() > TIMELINE_IDLE_MILLIS
+                    && timelines.remove(entry.getKey(), entry.getValue())) {
+                release(entry.getKey());
+            }
+        }
+    }
+
+    private void release(String pageKey) {
+        if (store != null) {
+            store.release(pageKey);
+        }
+    }
+}
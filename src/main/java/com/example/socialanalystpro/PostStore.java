@@ -0,0 +1,570 @@
+package com.example.socialanalystpro;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+// Embedded post store: one directory per page holding append-only segment files that are read through memory maps.
+// A later record for the same id supersedes the older one (a tombstone removes it); the per-page index (created_time -> position of the
+// latest record) is rebuilt at open by a header scan, and segments are compacted once most of the log is superseded.
+// A page's log stays open (channels and maps) only while its page is in use: release closes it, the next access reopens it.
+public class PostStore implements AutoCloseable {
+
+    private static final int FLAG_TOMBSTONE = 1;
+    private static final long MAX_SEGMENT_BYTES = 64L * 1024 * 1024;
+    private static final long COMPACT_MIN_BYTES = 8L * 1024 * 1024;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String COVERAGE_FILE = "coverage.meta";
+    // Number of the first segment written by the last compaction; anything below it is superseded
+    private static final String COMPACTED_FILE = "compacted.meta";
+
+    private final Path root;
+    private final Map<String, PageLog> logs = new ConcurrentHashMap<>();
+
+    public PostStore(Path root) {
+        this.root = root;
+        try {
+            Files.createDirectories(root);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create post store at " + root, e);
+        }
+    }
+
+    public Path getRoot() { return root; }
+
+    public void append(String pageKey, Collection<PostRecord> records) {
+        if (!records.isEmpty()) {
+            withLog(pageKey, log -> {
+                log.append(records, false);
+                return null;
+            });
+        }
+    }
+
+    // Appends tombstones so deleted posts do not come back after a restart
+    public void delete(String pageKey, Collection<PostRecord> records) {
+        if (!records.isEmpty()) {
+            withLog(pageKey, log -> {
+                log.append(records, true);
+                return null;
+            });
+        }
+    }
+
+    // Latest version of every stored post created at or after sinceMillis (posts without a created_time are always included)
+    public List<PostRecord> read(String pageKey, long sinceMillis) {
+        return withLog(pageKey, log -> log.read(sinceMillis, Long.MAX_VALUE));
+    }
+
+    // As read(pageKey, sinceMillis), limited to posts created before untilMillis
+    public List<PostRecord> read(String pageKey, long sinceMillis, long untilMillis) {
+        return withLog(pageKey, log -> log.read(sinceMillis, untilMillis));
+    }
+
+    // The newest `limit` stored posts created before untilMillis, plus the posts without a created_time
+    public List<PostRecord> readBefore(String pageKey, long untilMillis, int limit) {
+        return withLog(pageKey, log -> log.readBefore(untilMillis, limit));
+    }
+
+    public int size(String pageKey) {
+        return withLog(pageKey, PageLog::size);
+    }
+
+    public int getOpenPageCount() {
+        return logs.size();
+    }
+
+    // Returns {coveredSinceSeconds, watermarkSeconds}, or null when nothing has been synced for this page yet
+    public long[] coverage(String pageKey) {
+        Path file = root.resolve(pageKey).resolve(COVERAGE_FILE);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+            return buffer.remaining() < 16 ? null : new long[]{buffer.getLong(), buffer.getLong()};
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Coverage claims the posts are on disk, so the page's segments are forced before the new coverage is
+    public void saveCoverage(String pageKey, long coveredSinceSeconds, long watermarkSeconds) {
+        Path dir = root.resolve(pageKey);
+        try {
+            withLog(pageKey, log -> {
+                try {
+                    log.force();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return null;
+            });
+            Path tmp = dir.resolve(COVERAGE_FILE + ".tmp");
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                channel.write(ByteBuffer.allocate(16).putLong(coveredSinceSeconds).putLong(watermarkSeconds).flip());
+                channel.force(true);
+            }
+            Files.move(tmp, dir.resolve(COVERAGE_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Closes the page's log; its segments stay on disk and are reopened (with a header scan) by the next access
+    public void release(String pageKey) {
+        PageLog log = logs.remove(pageKey);
+        if (log != null) {
+            log.close();
+        }
+    }
+
+    @Override
+    public void close() {
+        for (PageLog log : logs.values()) {
+            log.close();
+        }
+        logs.clear();
+    }
+
+    private <T> T withLog(String pageKey, Function<PageLog, T> operation) {
+        while (true) {
+            PageLog log = logs.computeIfAbsent(pageKey, key -> new PageLog(root.resolve(key)));
+            synchronized (log) {
+                if (!log.closed) {
+                    return operation.apply(log);
+                }
+            }
+            // Released between the lookup and the call: open it again
+            logs.remove(pageKey, log);
+        }
+    }
+
+    static byte[] encode(PostRecord record, boolean tombstone) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0); // length placeholder
+        out.writeByte(tombstone ? FLAG_TOMBSTONE : 0);
+        out.writeLong(record.getCreatedTimeMillis());
+        out.writeLong(record.getLikes());
+        out.writeLong(record.getComments());
+        out.writeLong(record.getShares());
+        writeString(out, record.getId());
+        if (tombstone) {
+            writeString(out, null);
+            writeString(out, null);
+            out.writeShort(0);
+        } else {
+            writeString(out, record.getMessage());
+            writeString(out, record.getType());
+            out.writeShort(record.getCommentMessages().size());
+            for (String comment : record.getCommentMessages()) {
+                writeString(out, comment);
+            }
+        }
+        out.flush();
+        byte[] encoded = bytes.toByteArray();
+        ByteBuffer.wrap(encoded).putInt(0, encoded.length - 4);
+        return encoded;
+    }
+
+    static PostRecord decode(ByteBuffer buffer) {
+        buffer.get(); // flags
+        long createdTime = buffer.getLong();
+        long likes = buffer.getLong();
+        long comments = buffer.getLong();
+        long shares = buffer.getLong();
+        String id = readString(buffer);
+        String message = readString(buffer);
+        String type = readString(buffer);
+        int commentCount = buffer.getShort() & 0xFFFF;
+        List<String> commentMessages = new ArrayList<>(commentCount);
+        for (int i = 0; i < commentCount; i++) {
+            commentMessages.add(readString(buffer));
+        }
+        return new PostRecord(id, createdTime, message, type, likes, comments, shares, commentMessages);
+    }
+
+    // Length-prefixed UTF-8; -1 marks null
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] utf8 = new byte[length];
+        buffer.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    private static final class Segment {
+        private final int number;
+        private final Path path;
+        private final FileChannel channel;
+        private long size;
+        private boolean dirty;
+        private MappedByteBuffer map;
+
+        Segment(int number, Path path) throws IOException {
+            this.number = number;
+            this.path = path;
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.size = channel.size();
+        }
+
+        ByteBuffer slice(int offset, int length) throws IOException {
+            if (map == null || offset + length > map.capacity()) {
+                map = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            }
+            return map.duplicate().position(offset).limit(offset + length).slice();
+        }
+
+        void write(byte[] encoded) throws IOException {
+            channel.write(ByteBuffer.wrap(encoded), size);
+            size += encoded.length;
+            dirty = true;
+        }
+
+        // Writes go through the channel (the map is read-only), so the channel is what gets forced
+        void force() throws IOException {
+            if (dirty) {
+                channel.force(false);
+                dirty = false;
+            }
+        }
+
+        // Java cannot unmap explicitly: dropping the only reference to the map lets it be unmapped once collected.
+        // Slices never outlive a decode, so after close nothing but a pending GC keeps the file mapped.
+        void close() {
+            map = null;
+            try {
+                channel.close();
+            } catch (IOException e) {
+                System.err.println("Failed to close post store segment " + path + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private static final class IndexEntry {
+        private final long createdTime;
+        private final int segment;
+        private final int offset;
+        private final int length;
+
+        IndexEntry(long createdTime, int segment, int offset, int length) {
+            this.createdTime = createdTime;
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    private static final class PageLog {
+        private final Path dir;
+        private final List<Segment> segments = new ArrayList<>();
+        private final Map<String, IndexEntry> latest = new HashMap<>();
+        private final List<Path> pendingDeletes = new ArrayList<>();
+        private long totalBytes;
+        private long liveBytes;
+        private boolean closed;
+
+        // Sorted view of the index, rebuilt lazily after appends
+        private long[] sortedTimes = new long[0];
+        private IndexEntry[] sortedEntries = new IndexEntry[0];
+        private boolean sortedDirty = true;
+
+        PageLog(Path dir) {
+            this.dir = dir;
+            try {
+                Files.createDirectories(dir);
+                List<Path> files = new ArrayList<>();
+                try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+                    stream.forEach(files::add);
+                }
+                files.sort(null);
+                int compactedFrom = compactedFrom();
+                for (Path file : files) {
+                    String name = file.getFileName().toString();
+                    int number = Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+                    if (number < compactedFrom) {
+                        pendingDeletes.add(file);
+                        continue;
+                    }
+                    Segment segment = new Segment(number, file);
+                    segments.add(segment);
+                    scan(segment, segments.size() - 1);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not open post store for " + dir, e);
+            }
+            deleteStale();
+        }
+
+        private int compactedFrom() throws IOException {
+            Path file = dir.resolve(COMPACTED_FILE);
+            if (!Files.exists(file)) {
+                return 0;
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+            return buffer.remaining() < 4 ? 0 : buffer.getInt();
+        }
+
+        // Header scan: reads created_time and id of each record, truncating a torn write at the tail
+        private void scan(Segment segment, int segmentIndex) throws IOException {
+            if (segment.size == 0) {
+                return;
+            }
+            ByteBuffer buffer = segment.channel.map(FileChannel.MapMode.READ_ONLY, 0, segment.size);
+            int position = 0;
+            while (position + 4 <= segment.size) {
+                int length = buffer.getInt(position);
+                if (length <= 0 || position + 4L + length > segment.size) {
+                    break;
+                }
+                ByteBuffer record = buffer.duplicate().position(position + 4).limit(position + 4 + length).slice();
+                boolean tombstone = (record.get() & FLAG_TOMBSTONE) != 0;
+                long createdTime = record.getLong();
+                record.position(record.position() + 24);
+                String id = readString(record);
+                if (tombstone) {
+                    unindex(id);
+                } else {
+                    index(id, new IndexEntry(createdTime, segmentIndex, position, length + 4));
+                }
+                totalBytes += length + 4;
+                position += 4 + length;
+            }
+            if (position < segment.size) {
+                System.err.println("Truncating torn tail of " + segment.path + " at " + position);
+                segment.channel.truncate(position);
+                segment.size = position;
+            }
+        }
+
+        private void index(String id, IndexEntry entry) {
+            IndexEntry previous = latest.put(id, entry);
+            if (previous != null) {
+                liveBytes -= previous.length;
+            }
+            liveBytes += entry.length;
+            sortedDirty = true;
+        }
+
+        private void unindex(String id) {
+            IndexEntry previous = latest.remove(id);
+            if (previous != null) {
+                liveBytes -= previous.length;
+                sortedDirty = true;
+            }
+        }
+
+        synchronized void append(Collection<PostRecord> records, boolean tombstone) {
+            try {
+                for (PostRecord record : records) {
+                    byte[] encoded = encode(record, tombstone);
+                    Segment segment = writableSegment(encoded.length);
+                    int offset = (int) segment.size;
+                    segment.write(encoded);
+                    totalBytes += encoded.length;
+                    if (tombstone) {
+                        unindex(record.getId());
+                    } else {
+                        index(record.getId(), new IndexEntry(record.getCreatedTimeMillis(), segments.size() - 1, offset, encoded.length));
+                    }
+                }
+                if (totalBytes > COMPACT_MIN_BYTES && liveBytes * 2 < totalBytes) {
+                    compact();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not append to post store " + dir, e);
+            }
+        }
+
+        synchronized List<PostRecord> read(long sinceMillis, long untilMillis) {
+            ensureSorted();
+            int from = lowerBound(sinceMillis);
+            int to = Math.max(from, untilMillis == Long.MAX_VALUE ? sortedTimes.length : lowerBound(untilMillis));
+            return load(from, to);
+        }
+
+        synchronized List<PostRecord> readBefore(long untilMillis, int limit) {
+            ensureSorted();
+            int to = untilMillis == Long.MAX_VALUE ? sortedTimes.length : lowerBound(untilMillis);
+            return load(Math.max(lowerBound(PostRecord.UNKNOWN_TIME + 1), to - limit), to);
+        }
+
+        // Posts without a created_time sort first (UNKNOWN_TIME is Long.MIN_VALUE) and belong to every range
+        private List<PostRecord> load(int from, int to) {
+            List<PostRecord> records = new ArrayList<>(to - from);
+            try {
+                for (int i = 0; i < from && sortedTimes[i] == PostRecord.UNKNOWN_TIME; i++) {
+                    records.add(load(sortedEntries[i]));
+                }
+                for (int i = from; i < to; i++) {
+                    records.add(load(sortedEntries[i]));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read post store " + dir, e);
+            }
+            return records;
+        }
+
+        // First position whose created_time is at or after timeMillis
+        private int lowerBound(long timeMillis) {
+            int low = 0;
+            int high = sortedTimes.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (sortedTimes[mid] < timeMillis) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        synchronized void force() throws IOException {
+            for (Segment segment : segments) {
+                segment.force();
+            }
+        }
+
+        synchronized int size() {
+            return latest.size();
+        }
+
+        private PostRecord load(IndexEntry entry) throws IOException {
+            ByteBuffer record = segments.get(entry.segment).slice(entry.offset + 4, entry.length - 4);
+            return decode(record);
+        }
+
+        private void ensureSorted() {
+            if (!sortedDirty) {
+                return;
+            }
+            IndexEntry[] entries = latest.values().toArray(new IndexEntry[0]);
+            Arrays.sort(entries, (a, b) -> Long.compare(a.createdTime, b.createdTime));
+            long[] times = new long[entries.length];
+            for (int i = 0; i < entries.length; i++) {
+                times[i] = entries[i].createdTime;
+            }
+            sortedEntries = entries;
+            sortedTimes = times;
+            sortedDirty = false;
+        }
+
+        private Segment writableSegment(int recordBytes) throws IOException {
+            Segment last = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+            if (last != null && last.size + recordBytes <= MAX_SEGMENT_BYTES) {
+                return last;
+            }
+            int number = last == null ? 0 : last.number + 1;
+            Segment segment = new Segment(number, dir.resolve(String.format("%s%05d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX)));
+            segments.add(segment);
+            return segment;
+        }
+
+        // Rewrites only the latest record of each post into fresh segments, then drops the old ones
+        private void compact() throws IOException {
+            ensureSorted();
+            List<PostRecord> live = new ArrayList<>(sortedEntries.length);
+            for (IndexEntry entry : sortedEntries) {
+                live.add(load(entry));
+            }
+
+            List<Segment> old = new ArrayList<>(segments);
+            int nextNumber = old.isEmpty() ? 0 : old.get(old.size() - 1).number + 1;
+            segments.clear();
+            latest.clear();
+            totalBytes = 0;
+            liveBytes = 0;
+
+            Segment segment = new Segment(nextNumber, dir.resolve(String.format("%s%05d%s", SEGMENT_PREFIX, nextNumber, SEGMENT_SUFFIX)));
+            segments.add(segment);
+            for (PostRecord record : live) {
+                byte[] encoded = encode(record, false);
+                segment = writableSegment(encoded.length);
+                int offset = (int) segment.size;
+                segment.write(encoded);
+                totalBytes += encoded.length;
+                index(record.getId(), new IndexEntry(record.getCreatedTimeMillis(), segments.size() - 1, offset, encoded.length));
+            }
+            // The compacted copy must be durable, and recorded as the new base, before the only other copy goes
+            force();
+            Path tmp = dir.resolve(COMPACTED_FILE + ".tmp");
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                channel.write(ByteBuffer.allocate(4).putInt(nextNumber).flip());
+                channel.force(true);
+            }
+            Files.move(tmp, dir.resolve(COMPACTED_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            for (Segment stale : old) {
+                stale.close();
+                pendingDeletes.add(stale.path);
+            }
+            deleteStale();
+        }
+
+        // A file still mapped cannot be deleted on every platform; such files are retried on the next compaction,
+        // at close and at the next open, which never scans segments below the compacted base.
+        private void deleteStale() {
+            Iterator<Path> it = pendingDeletes.iterator();
+            while (it.hasNext()) {
+                Path path = it.next();
+                try {
+                    Files.deleteIfExists(path);
+                    it.remove();
+                } catch (IOException e) {
+                    System.err.println("Could not delete compacted segment " + path + ", will retry: " + e.getMessage());
+                }
+            }
+        }
+
+        synchronized void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                force();
+            } catch (IOException e) {
+                System.err.println("Failed to force post store " + dir + ": " + e.getMessage());
+            }
+            for (Segment segment : segments) {
+                segment.close();
+            }
+            deleteStale();
+        }
+    }
+}
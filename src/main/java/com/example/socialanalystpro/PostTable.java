@@ -0,0 +1,143 @@
+package com.example.socialanalystpro;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Column-oriented view of a list of posts: counters and created_time live in parallel primitive arrays that the
+// aggregations scan and content types are dictionary-encoded. Text (id, message, comments) is not copied: each row
+// reads it from its record, the same instance the page timeline holds, only when a caller asks for it.
+public final class PostTable {
+
+    public static final String UNKNOWN_TYPE = "unknown";
+
+    private final int size;
+    private final long[] createdTime;
+    private final long[] likes;
+    private final long[] comments;
+    private final long[] shares;
+    private final int[] typeCode;
+    private final String[] typeNames;
+    // Text source of each row
+    private final PostRecord[] records;
+
+    private PostTable(List<PostRecord> posts) {
+        this.size = posts.size();
+        this.createdTime = new long[size];
+        this.likes = new long[size];
+        this.comments = new long[size];
+        this.shares = new long[size];
+        this.typeCode = new int[size];
+        this.records = posts.toArray(new PostRecord[0]);
+
+        Map<String, Integer> codes = new HashMap<>();
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            PostRecord post = records[i];
+            createdTime[i] = post.getCreatedTimeMillis();
+            likes[i] = post.getLikes();
+            comments[i] = post.getComments();
+            shares[i] = post.getShares();
+            String type = post.getType() != null ? post.getType() : UNKNOWN_TYPE;
+            Integer code = codes.get(type);
+            if (code == null) {
+                code = names.size();
+                codes.put(type, code);
+                names.add(type);
+            }
+            typeCode[i] = code;
+        }
+        this.typeNames = names.toArray(new String[0]);
+    }
+
+    public static PostTable of(List<PostRecord> posts) {
+        return new PostTable(posts);
+    }
+
+    public int size() { return size; }
+    public long createdTime(int row) { return createdTime[row]; }
+    public boolean hasCreatedTime(int row) { return createdTime[row] != PostRecord.UNKNOWN_TIME; }
+    public long likes(int row) { return likes[row]; }
+    public long comments(int row) { return comments[row]; }
+    public long shares(int row) { return shares[row]; }
+    public long engagement(int row) { return likes[row] + comments[row] + shares[row]; }
+    public int typeCode(int row) { return typeCode[row]; }
+    public int typeCount() { return typeNames.length; }
+    public String typeName(int code) { return typeNames[code]; }
+
+    public String id(int row) { return records[row].getId(); }
+    public String message(int row) { return records[row].getMessage(); }
+    public String createdTimeText(int row) { return PostRecord.createdTimeText(createdTime[row]); }
+    public List<String> commentMessages(int row) { return records[row].getCommentMessages(); }
+
+    // The first `count` rows as a table of their own
+    public PostTable head(int count) {
+        return count >= size ? this : new PostTable(Arrays.asList(records).subList(0, count));
+    }
+
+    public long totalLikes() { return sum(likes); }
+    public long totalComments() { return sum(comments); }
+    public long totalShares() { return sum(shares); }
+
+    public long[] engagementByType() {
+        long[] totals = new long[typeNames.length];
+        for (int i = 0; i < size; i++) {
+            totals[typeCode[i]] += likes[i] + comments[i] + shares[i];
+        }
+        return totals;
+    }
+
+    // Rows of the k most engaging posts, best first; ties keep table order (newest first)
+    public int[] topByEngagement(int k) {
+        int n = Math.min(k, size);
+        int[] top = new int[n];
+        long[] topEngagement = new long[n];
+        int filled = 0;
+        for (int i = 0; i < size; i++) {
+            long engagement = engagement(i);
+            if (filled == n && (n == 0 || engagement <= topEngagement[n - 1])) {
+                continue;
+            }
+            int pos = filled < n ? filled++ : n - 1;
+            while (pos > 0 && topEngagement[pos - 1] < engagement) {
+                top[pos] = top[pos - 1];
+                topEngagement[pos] = topEngagement[pos - 1];
+                pos--;
+            }
+            top[pos] = i;
+            topEngagement[pos] = engagement;
+        }
+        return top;
+    }
+
+    // RMI-facing shape of one column (SocialInsights still exposes List<Long>)
+    public List<Long> toList(Column column) {
+        long[] values = column(column);
+        List<Long> list = new ArrayList<>(size);
+        for (long value : values) {
+            list.add(value);
+        }
+        return list;
+    }
+
+    public enum Column { CREATED_TIME, LIKES, COMMENTS, SHARES }
+
+    private long[] column(Column column) {
+        switch (column) {
+            case CREATED_TIME: return createdTime;
+            case LIKES: return likes;
+            case COMMENTS: return comments;
+            default: return shares;
+        }
+    }
+
+    private static long sum(long[] values) {
+        long total = 0;
+        for (long value : values) {
+            total += value;
+        }
+        return total;
+    }
+}
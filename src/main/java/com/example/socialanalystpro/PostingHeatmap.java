@@ -0,0 +1,80 @@
+package com.example.socialanalystpro;
+
+import java.io.Serializable;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Average engagement and post count for every day-of-week x hour-of-day cell of a window, plus the day and hour
+// marginals that back the best-day / best-hour charts.
+public class PostingHeatmap implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public static final String[] DAY_LABELS = {"Mon", "Tue", "Wed", "Thu", "Fri", "Sat", "Sun"};
+    public static final String[] HOUR_LABELS = new String[PostingTimeKernel.HOURS];
+
+    static {
+        for (int hour = 0; hour < HOUR_LABELS.length; hour++) {
+            HOUR_LABELS[hour] = (hour < 10 ? "0" : "") + hour + ":00";
+        }
+    }
+
+    private final double[][] averageEngagement = new double[PostingTimeKernel.DAYS][PostingTimeKernel.HOURS];
+    private final long[][] postCounts = new long[PostingTimeKernel.DAYS][PostingTimeKernel.HOURS];
+    private final double[] dayAverages;
+    private final double[] hourAverages;
+
+    PostingHeatmap(PostingTimeKernel kernel) {
+        for (int day = 0; day < PostingTimeKernel.DAYS; day++) {
+            for (int hour = 0; hour < PostingTimeKernel.HOURS; hour++) {
+                long count = kernel.cellCount(day, hour);
+                postCounts[day][hour] = count;
+                averageEngagement[day][hour] = average(kernel.cellSum(day, hour), count);
+            }
+        }
+        dayAverages = averages(kernel.daySums(), kernel.dayCounts());
+        hourAverages = averages(kernel.hourSums(), kernel.hourCounts());
+    }
+
+    public static PostingHeatmap of(PostTable posts) {
+        PostingTimeKernel kernel = new PostingTimeKernel(ZoneId.systemDefault());
+        kernel.addAll(posts);
+        return new PostingHeatmap(kernel);
+    }
+
+    // day is Monday = 0, hour is 0-23 in the server's zone
+    public double getAverageEngagement(int day, int hour) { return averageEngagement[day][hour]; }
+    public long getPostCount(int day, int hour) { return postCounts[day][hour]; }
+    public double[][] getAverageEngagement() { return averageEngagement; }
+    public long[][] getPostCounts() { return postCounts; }
+
+    // Same shape getBestDayToPost has always returned: Mon..Sun -> average engagement per post
+    public Map<String, Double> getBestDay() {
+        Map<String, Double> bestDay = new LinkedHashMap<>();
+        for (int day = 0; day < DAY_LABELS.length; day++) {
+            bestDay.put(DAY_LABELS[day], dayAverages[day]);
+        }
+        return bestDay;
+    }
+
+    // Same shape getBestHourToPost has always returned: 00:00..23:00 -> average engagement per post
+    public Map<String, Double> getBestHour() {
+        Map<String, Double> bestHour = new LinkedHashMap<>();
+        for (int hour = 0; hour < HOUR_LABELS.length; hour++) {
+            bestHour.put(HOUR_LABELS[hour], hourAverages[hour]);
+        }
+        return bestHour;
+    }
+
+    private static double[] averages(long[] sums, long[] counts) {
+        double[] averages = new double[sums.length];
+        for (int i = 0; i < sums.length; i++) {
+            averages[i] = average(sums[i], counts[i]);
+        }
+        return averages;
+    }
+
+    private static double average(long sum, long count) {
+        return count == 0 ? 0.0 : (double) sum / count;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.socialanalystpro;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+
+// Day-of-week x hour-of-day engagement sums and counts over fixed primitive arrays. Posts are bucketed with epoch
+// arithmetic on local millis; the zone offset is cached for the span between two transitions, so a scan allocates
+// only when it crosses a DST change.
+final class PostingTimeKernel {
+
+    static final int DAYS = 7;
+    static final int HOURS = 24;
+
+    private static final long HOUR_MILLIS = 60 * 60_000L;
+    private static final long DAY_MILLIS = 24 * HOUR_MILLIS;
+    // 1970-01-01 was a Thursday; days are indexed Monday = 0
+    private static final int EPOCH_DAY_OF_WEEK = 3;
+
+    private final long[] cellSum = new long[DAYS * HOURS];
+    private final long[] cellCount = new long[DAYS * HOURS];
+    private final ZoneRules rules;
+
+    private long offsetValidFrom = Long.MAX_VALUE;
+    private long offsetValidUntil = Long.MIN_VALUE;
+    private long offsetMillis;
+
+    PostingTimeKernel(ZoneId zone) {
+        this.rules = zone.getRules();
+    }
+
+    void add(long epochMillis, long engagement) {
+        long local = epochMillis + offsetAt(epochMillis);
+        int day = Math.floorMod(Math.floorDiv(local, DAY_MILLIS) + EPOCH_DAY_OF_WEEK, DAYS);
+        int hour = (int) (Math.floorMod(local, DAY_MILLIS) / HOUR_MILLIS);
+        int cell = day * HOURS + hour;
+        cellSum[cell] += engagement;
+        cellCount[cell]++;
+    }
+
+    // Likes plus comments, as best day and best hour have always been measured; shares are not in that baseline
+    void addAll(PostTable posts) {
+        for (int row = 0; row < posts.size(); row++) {
+            if (posts.hasCreatedTime(row)) {
+                add(posts.createdTime(row), posts.likes(row) + posts.comments(row));
+            }
+        }
+    }
+
+    long cellSum(int day, int hour) { return cellSum[day * HOURS + hour]; }
+    long cellCount(int day, int hour) { return cellCount[day * HOURS + hour]; }
+
+    // Row and column totals are folded from the cells, so the day and hour views always agree with the matrix
+    long[] daySums() { return fold(cellSum, true); }
+    long[] dayCounts() { return fold(cellCount, true); }
+    long[] hourSums() { return fold(cellSum, false); }
+    long[] hourCounts() { return fold(cellCount, false); }
+
+    private static long[] fold(long[] cells, boolean byDay) {
+        long[] totals = new long[byDay ? DAYS : HOURS];
+        for (int day = 0; day < DAYS; day++) {
+            for (int hour = 0; hour < HOURS; hour++) {
+                totals[byDay ? day : hour] += cells[day * HOURS + hour];
+            }
+        }
+        return totals;
+    }
+
+    private long offsetAt(long epochMillis) {
+        if (epochMillis >= offsetValidFrom && epochMillis < offsetValidUntil) {
+            return offsetMillis;
+        }
+        Instant instant = Instant.ofEpochMilli(epochMillis);
+        offsetMillis = rules.getOffset(instant).getTotalSeconds() * 1000L;
+        if (rules.isFixedOffset()) {
+            offsetValidFrom = Long.MIN_VALUE;
+            offsetValidUntil = Long.MAX_VALUE;
+            return offsetMillis;
+        }
+        ZoneOffsetTransition previous = rules.previousTransition(instant);
+        ZoneOffsetTransition next = rules.nextTransition(instant);
+        offsetValidFrom = previous != null && previous.getOffsetAfter().getTotalSeconds() * 1000L == offsetMillis
+                ? previous.toEpochSecond() * 1000 : epochMillis;
+        offsetValidUntil = next != null ? next.toEpochSecond() * 1000 : Long.MAX_VALUE;
+        return offsetMillis;
+    }
+}
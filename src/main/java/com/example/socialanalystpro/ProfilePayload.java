@@ -0,0 +1,50 @@
+package com.example.socialanalystpro;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+
+// Compact RMI encoding of a PageProfile: four nullable strings behind a version byte, with no class descriptor
+// for the profile itself.
+public class ProfilePayload implements Externalizable {
+    private static final long serialVersionUID = 1L;
+
+    private static final int VERSION = 1;
+
+    private PageProfile profile;
+
+    // Required by Externalizable
+    public ProfilePayload() {
+    }
+
+    public ProfilePayload(PageProfile profile) {
+        this.profile = profile;
+    }
+
+    public PageProfile getProfile() {
+        return profile;
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        WireCodec.Writer w = new WireCodec.Writer();
+        w.string(profile.getName());
+        w.string(profile.getId());
+        w.string(profile.getCategory());
+        w.string(profile.getPictureUrl());
+        out.writeByte(VERSION);
+        w.writeTo(out);
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException {
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new InvalidClassException(ProfilePayload.class.getName(), "Unsupported payload version " + version);
+        }
+        WireCodec.Reader r = new WireCodec.Reader(in);
+        profile = new PageProfile(r.string(), r.string(), r.string(), r.string());
+    }
+}
@@ -0,0 +1,235 @@
+package com.example.socialanalystpro;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+// Bounded LRU cache of Graph-derived results with per-entry TTL and single-flight loading:
+// concurrent callers asking for the same key wait on one in-flight fetch instead of issuing their own. Loads are
+// coalesced per GraphCallScheduler priority: an interactive caller never waits on a background load, which the
+// scheduler may shed or hold back, while a background caller also joins an interactive one.
+public class ResultCache {
+
+    public interface Loader<V> {
+        V load() throws Exception;
+    }
+
+    private final int maxEntries;
+    private final LinkedHashMap<Key, Entry> entries;
+    private final Map<Key, CompletableFuture<Object>> interactiveInFlight = new ConcurrentHashMap<>();
+    private final Map<Key, CompletableFuture<Object>> backgroundInFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    public ResultCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    // Windows are normalized to the minute so "now minus 30 days" computed a few seconds apart shares one entry.
+    // Rounded up, not down: loaders filter by the normalized window, and a shared entry must never hold posts older
+    // than any of its callers asked for.
+    public static long normalizeWindow(long sinceTimestamp) {
+        long rest = Math.floorMod(sinceTimestamp, 60);
+        return sinceTimestamp < 0 || rest == 0 ? sinceTimestamp : sinceTimestamp + (60 - rest);
+    }
+
+    public static Key key(String tokenHash, String method) {
+        return new Key(tokenHash, method, -1);
+    }
+
+    public static Key key(String tokenHash, String method, long sinceTimestamp) {
+        return new Key(tokenHash, method, normalizeWindow(sinceTimestamp));
+    }
+
+    @SuppressWarnings("unchecked")
+    public <V> V get(Key key, long ttlMillis, Loader<V> loader) throws Exception {
+        Object cached = lookup(key);
+        if (cached != null) {
+            hits.increment();
+            return (V) cached;
+        }
+
+        boolean interactive = GraphCallScheduler.currentPriority() == GraphCallScheduler.Priority.INTERACTIVE;
+        Map<Key, CompletableFuture<Object>> inFlight = interactive ? interactiveInFlight : backgroundInFlight;
+        CompletableFuture<Object> ours = new CompletableFuture<>();
+        CompletableFuture<Object> existing = interactive ? null : interactiveInFlight.get(key);
+        if (existing == null) {
+            existing = inFlight.putIfAbsent(key, ours);
+        }
+        if (existing != null) {
+            coalesced.increment();
+            return (V) await(existing);
+        }
+
+        misses.increment();
+        try {
+            V value = loader.load();
+            if (value != null) {
+                store(key, value, ttlMillis);
+            }
+            ours.complete(value);
+            return value;
+        } catch (Exception | Error e) {
+            ours.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, ours);
+        }
+    }
+
+    public void invalidate(String tokenHash) {
+        synchronized (entries) {
+            entries.keySet().removeIf(k -> k.tokenHash.equals(tokenHash));
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), coalesced.sum(), evictions.sum(), expirations.sum(), size());
+    }
+
+    private Object lookup(Key key) {
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (System.currentTimeMillis() >= entry.expiresAtMillis) {
+                entries.remove(key);
+                expirations.increment();
+                return null;
+            }
+            return entry.value;
+        }
+    }
+
+    private void store(Key key, Object value, long ttlMillis) {
+        synchronized (entries) {
+            entries.put(key, new Entry(value, System.currentTimeMillis() + ttlMillis));
+            if (entries.size() > maxEntries) {
+                long now = System.currentTimeMillis();
+                // Drop expired entries first, then the least recently used ones
+                Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator();
+                while (it.hasNext() && entries.size() > maxEntries) {
+                    if (now >= it.next().getValue().expiresAtMillis) {
+                        it.remove();
+                        expirations.increment();
+                    }
+                }
+                it = entries.entrySet().iterator();
+                while (it.hasNext() && entries.size() > maxEntries) {
+                    it.next();
+                    it.remove();
+                    evictions.increment();
+                }
+            }
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) throw (Exception) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw e;
+        }
+    }
+
+    private static final class Entry {
+        private final Object value;
+        private final long expiresAtMillis;
+
+        Entry(Object value, long expiresAtMillis) {
+            this.value = value;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+
+    public static final class Key {
+        private final String tokenHash;
+        private final String method;
+        private final long window;
+
+        Key(String tokenHash, String method, long window) {
+            this.tokenHash = tokenHash;
+            this.method = method;
+            this.window = window;
+        }
+
+        public String getTokenHash() { return tokenHash; }
+        public String getMethod() { return method; }
+        public long getWindow() { return window; }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return window == other.window && tokenHash.equals(other.tokenHash) && method.equals(other.method);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tokenHash, method, window);
+        }
+    }
+
+    public static final class Stats {
+        private final long hits;
+        private final long misses;
+        private final long coalesced;
+        private final long evictions;
+        private final long expirations;
+        private final int size;
+
+        Stats(long hits, long misses, long coalesced, long evictions, long expirations, int size) {
+            this.hits = hits;
+            this.misses = misses;
+            this.coalesced = coalesced;
+            this.evictions = evictions;
+            this.expirations = expirations;
+            this.size = size;
+        }
+
+        public long getHits() { return hits; }
+        public long getMisses() { return misses; }
+        public long getCoalesced() { return coalesced; }
+        public long getEvictions() { return evictions; }
+        public long getExpirations() { return expirations; }
+        public int getSize() { return size; }
+
+        public double getHitRatio() {
+            long total = hits + misses + coalesced;
+            return total == 0 ? 0 : (double) (hits + coalesced) / total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("size=%d hits=%d misses=%d coalesced=%d evictions=%d expirations=%d hitRatio=%.2f",
+                    size, hits, misses, coalesced, evictions, expirations, getHitRatio());
+        }
+    }
+}
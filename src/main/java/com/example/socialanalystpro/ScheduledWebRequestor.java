@@ -0,0 +1,132 @@
+package com.example.socialanalystpro;
+
+import com.restfb.json.Json;
+import com.restfb.json.JsonValue;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.Set;
+
+// restfb transport that routes every request through the GraphCallScheduler at the calling thread's priority and
+// feeds the usage headers of each response back to it. Headers are read from the connection itself, not from
+// DefaultWebRequestor's shared "current headers", because one requestor serves concurrent calls. With ServiceMetrics,
+// each request's latency (including the wait for a scheduler slot) and outcome are recorded per endpoint. Each
+// requestor serves one token, its scheduler scope, so page-level limits only hold back that token's calls.
+public class ScheduledWebRequestor extends BaseUrlWebRequestor {
+
+    // Graph error codes for app and user rate limiting, which hold back every call
+    private static final Set<Integer> APP_RATE_LIMIT_CODES = Set.of(4, 17);
+    // Graph error codes for page and business-use-case rate limiting, which hold back only this token's calls
+    private static final Set<Integer> RATE_LIMIT_CODES = Set.of(32, 613, 80001, 80002, 80003, 80004, 80005, 80006, 80008, 80014);
+
+    enum Throttle { NONE, SCOPE, APP }
+
+    private interface Call {
+        Response execute() throws IOException;
+    }
+
+    private final GraphCallScheduler scheduler;
+    private final String scope;
+    private final ServiceMetrics metrics;
+
+    public ScheduledWebRequestor(GraphCallScheduler scheduler, String scope) {
+        this(scheduler, scope, null);
+    }
+
+    public ScheduledWebRequestor(GraphCallScheduler scheduler, String scope, String baseUrl) {
+        this(scheduler, scope, baseUrl, null);
+    }
+
+    // scope: identifies the token this requestor's client was made for (its hash, never the token itself)
+    public ScheduledWebRequestor(GraphCallScheduler scheduler, String scope, String baseUrl, ServiceMetrics metrics) {
+        super(baseUrl);
+        this.scheduler = scheduler;
+        this.scope = scope;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Response executeGet(Request request) throws IOException {
+        return schedule("GET", request, () -> super.executeGet(request));
+    }
+
+    @Override
+    public Response executePost(Request request) throws IOException {
+        return schedule("POST", request, () -> super.executePost(request));
+    }
+
+    @Override
+    public Response executeDelete(Request request) throws IOException {
+        return schedule("DELETE", request, () -> super.executeDelete(request));
+    }
+
+    @Override
+    protected void fillHeaderAndDebugInfo(HttpURLConnection connection) {
+        super.fillHeaderAndDebugInfo(connection);
+        scheduler.recordUsageHeaders(scope, connection.getHeaderField("X-App-Usage"), connection.getHeaderField("X-Page-Usage"),
+                connection.getHeaderField("X-Business-Use-Case-Usage"));
+    }
+
+    private Response schedule(String method, Request request, Call call) throws IOException {
+        long start = System.nanoTime();
+        Response response = null;
+        try {
+            scheduler.acquire(scope, GraphCallScheduler.currentPriority());
+            try {
+                response = call.execute();
+                switch (throttle(response)) {
+                    case APP -> scheduler.onAppThrottled();
+                    case SCOPE -> scheduler.onThrottled(scope);
+                    default -> { }
+                }
+                return response;
+            } finally {
+                scheduler.release(scope);
+            }
+        } catch (IOException e) {
+            if (metrics != null) {
+                metrics.recordError("graph." + e.getClass().getSimpleName());
+            }
+            throw e;
+        } finally {
+            if (metrics != null) {
+                record(method, request, System.nanoTime() - start, response);
+            }
+        }
+    }
+
+    private void record(String method, Request request, long nanos, Response response) {
+        Integer status = response == null ? null : response.getStatusCode();
+        String body = response == null ? null : response.getBody();
+        metrics.recordGraphRequest(method, request.getUrl(), nanos, status == null ? -1 : status, body == null ? -1 : body.length());
+        if (status != null && status >= 400) {
+            int code = errorCode(response);
+            metrics.recordError(code > 0 ? "graph.code" + code : "graph.http" + status);
+        }
+    }
+
+    // A 429 may come without a body, so the status is checked before the error code
+    static Throttle throttle(Response response) {
+        Integer status = response.getStatusCode();
+        if (status == null || status < 400) {
+            return Throttle.NONE;
+        }
+        int code = errorCode(response);
+        if (APP_RATE_LIMIT_CODES.contains(code)) {
+            return Throttle.APP;
+        }
+        return status == 429 || RATE_LIMIT_CODES.contains(code) ? Throttle.SCOPE : Throttle.NONE;
+    }
+
+    private static int errorCode(Response response) {
+        if (response.getBody() == null) {
+            return 0;
+        }
+        try {
+            JsonValue error = Json.parse(response.getBody()).asObject().get("error");
+            return error != null && error.isObject() ? error.asObject().getInt("code", 0) : 0;
+        } catch (RuntimeException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.socialanalystpro;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Weighted sentiment lexicon compiled into a KeywordAutomaton, so a comment is scored in one scan however many
+// terms the lexicon has. Terms only count on word boundaries ("good" does not match "goodbye"), may be phrases
+// ("waste of time"), and where terms overlap the longest one wins. A negator ("not", "never", ...) flips the sign
+// of the next sentiment term within NEGATION_WINDOW words of the same clause, so "not good" scores negative.
+//
+// Lexicon files have one "term weight" per line, or "term negate" for a negator; '#' starts a comment. The
+// bundled sentiment-lexicon.txt is used unless socialanalyst.sentiment.lexicon points at a file.
+public final class SentimentLexicon {
+
+    private static final int NEGATION_WINDOW = 3;
+    private static final String NEGATE = "negate";
+
+    private static volatile SentimentLexicon defaultLexicon;
+
+    private final KeywordAutomaton automaton;
+    private final double[] weights;
+    private final boolean[] negators;
+
+    private SentimentLexicon(Map<String, Double> weightedTerms, List<String> negatorTerms) {
+        List<String> terms = new ArrayList<>(weightedTerms.keySet());
+        terms.addAll(negatorTerms);
+        automaton = new KeywordAutomaton(terms);
+        weights = new double[terms.size()];
+        negators = new boolean[terms.size()];
+        for (int t = 0; t < terms.size(); t++) {
+            negators[t] = t >= weightedTerms.size();
+            weights[t] = negators[t] ? 0 : weightedTerms.get(terms.get(t));
+        }
+    }
+
+    public static SentimentLexicon getDefault() {
+        SentimentLexicon lexicon = defaultLexicon;
+        if (lexicon == null) {
+            synchronized (SentimentLexicon.class) {
+                if (defaultLexicon == null) {
+                    defaultLexicon = loadDefault();
+                }
+                lexicon = defaultLexicon;
+            }
+        }
+        return lexicon;
+    }
+
+    public static SentimentLexicon load(Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return parse(reader, file.toString());
+        }
+    }
+
+    public static SentimentLexicon parse(Reader source, String name) throws IOException {
+        Map<String, Double> weightedTerms = new HashMap<>();
+        List<String> negatorTerms = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(source);
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            int hash = line.indexOf('#');
+            String entry = (hash >= 0 ? line.substring(0, hash) : line).trim().toLowerCase(Locale.ROOT);
+            if (entry.isEmpty()) {
+                continue;
+            }
+            int split = Math.max(entry.lastIndexOf(' '), entry.lastIndexOf('\t'));
+            if (split <= 0) {
+                throw new IOException(name + ":" + lineNumber + ": expected \"term weight\" or \"term negate\"");
+            }
+            String term = entry.substring(0, split).trim().replaceAll("\\s+", " ");
+            String value = entry.substring(split + 1).trim();
+            if (value.equals(NEGATE)) {
+                if (!negatorTerms.contains(term)) {
+                    negatorTerms.add(term);
+                }
+                weightedTerms.remove(term);
+                continue;
+            }
+            try {
+                weightedTerms.put(term, Double.parseDouble(value));
+                negatorTerms.remove(term);
+            } catch (NumberFormatException e) {
+                throw new IOException(name + ":" + lineNumber + ": bad weight \"" + value + "\"");
+            }
+        }
+        return new SentimentLexicon(weightedTerms, negatorTerms);
+    }
+
+    public int size() {
+        return automaton.size();
+    }
+
+    // Net sentiment of one text: sum of matched term weights, negated ones flipped. 0 for null or no matches.
+    public double score(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        KeywordAutomaton.Matches matches = automaton.find(text);
+        double score = 0;
+        int negatedUntilWord = -1;
+        int negatedClause = -1;
+        for (int m = 0; m < matches.size(); m++) {
+            int term = matches.term(m);
+            if (negators[term]) {
+                negatedUntilWord = matches.word(m) + NEGATION_WINDOW;
+                negatedClause = matches.clause(m);
+                continue;
+            }
+            if (matches.clause(m) == negatedClause && matches.word(m) <= negatedUntilWord) {
+                score -= weights[term];
+                negatedUntilWord = -1;
+            } else {
+                score += weights[term];
+            }
+        }
+        return score;
+    }
+
+    private static SentimentLexicon loadDefault() {
+        String file = System.getProperty("socialanalyst.sentiment.lexicon");
+        if (file != null && !file.isBlank()) {
+            try {
+                return load(Paths.get(file));
+            } catch (IOException e) {
+                System.err.println("Could not load sentiment lexicon " + file + ", using the bundled one: " + e.getMessage());
+            }
+        }
+        try (InputStream in = SentimentLexicon.class.getResourceAsStream("sentiment-lexicon.txt")) {
+            if (in == null) {
+                throw new IllegalStateException("Bundled sentiment-lexicon.txt is missing");
+            }
+            return parse(new InputStreamReader(in, StandardCharsets.UTF_8), "sentiment-lexicon.txt");
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read bundled sentiment lexicon: " + e.getMessage(), e);
+        }
+    }
+}
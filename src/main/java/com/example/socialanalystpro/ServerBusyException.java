@@ -0,0 +1,12 @@
+package com.example.socialanalystpro;
+
+import java.rmi.RemoteException;
+
+// Thrown straight back to the caller when admission control rejects a heavy call; safe to retry later.
+public class ServerBusyException extends RemoteException {
+    private static final long serialVersionUID = 1L;
+
+    public ServerBusyException(String message) {
+        super(message);
+    }
+}
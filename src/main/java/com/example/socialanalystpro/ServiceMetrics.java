@@ -0,0 +1,231 @@
+package com.example.socialanalystpro;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+// Where the server's time goes: latency histograms per AnalyticsService method, per analyzePage phase and per Graph
+// endpoint, plus Graph traffic, posts processed and errors by type. Everything is lock-free on the recording side.
+// Published over JMX and, every socialanalyst.metrics.logSeconds (60, 0 = off), as a summary on stdout.
+public class ServiceMetrics implements ServiceMetricsMXBean {
+
+    private static final Pattern VERSION_PREFIX = Pattern.compile("^/?v\\d+\\.\\d+/?");
+    private static final Pattern NUMERIC_ID = Pattern.compile("^\\d+(_\\d+)*$");
+
+    private final Map<String, LatencyHistogram> serviceLatency = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> phaseLatency = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> graphLatency = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+    private final LongAdder graphRequests = new LongAdder();
+    private final LongAdder graphPagesFetched = new LongAdder();
+    private final LongAdder graphBytesRead = new LongAdder();
+    private final LongAdder postsProcessed = new LongAdder();
+
+    private final ResultCache cache;
+    private final GraphCallScheduler scheduler;
+    private final AdmissionController admission;
+    private ObjectName registeredName;
+    private ScheduledExecutorService logger;
+    private long lastLoggedCalls;
+
+    public ServiceMetrics(ResultCache cache, GraphCallScheduler scheduler, AdmissionController admission) {
+        this.cache = cache;
+        this.scheduler = scheduler;
+        this.admission = admission;
+    }
+
+    public void recordServiceCall(String method, long nanos) {
+        serviceLatency.computeIfAbsent(method, m -> new LatencyHistogram()).recordNanos(nanos);
+    }
+
+    public void recordPhase(String phase, long nanos) {
+        phaseLatency.computeIfAbsent(phase, p -> new LatencyHistogram()).recordNanos(nanos);
+    }
+
+    // status and bodyLength are -1 when no response arrived
+    public void recordGraphRequest(String httpMethod, String url, long nanos, int status, long bodyLength) {
+        String endpoint = graphEndpoint(httpMethod, url);
+        graphLatency.computeIfAbsent(endpoint, e -> new LatencyHistogram()).recordNanos(nanos);
+        graphRequests.increment();
+        if (bodyLength > 0) {
+            graphBytesRead.add(bodyLength);
+        }
+        // Connection pages: any read of an edge such as me/posts, including every followed "next" link
+        if (status == 200 && "GET".equals(httpMethod) && endpoint.indexOf('/') > 0) {
+            graphPagesFetched.increment();
+        }
+    }
+
+    public void recordError(String type) {
+        errors.computeIfAbsent(type, t -> new LongAdder()).increment();
+    }
+
+    public void addPostsProcessed(long posts) {
+        postsProcessed.add(posts);
+    }
+
+    public void register() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName("com.example.socialanalystpro:type=AnalyticsService,name=Metrics");
+            server.registerMBean(this, name);
+            registeredName = name;
+        } catch (InstanceAlreadyExistsException e) {
+            System.err.println("Service metrics already registered by another instance in this JVM; not publishing over JMX");
+        } catch (Exception e) {
+            System.err.println("Could not register service metrics MBean: " + e.getMessage());
+        }
+
+        long logSeconds = Long.getLong("socialanalyst.metrics.logSeconds", 60);
+        if (logSeconds > 0) {
+            logger = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "service-metrics-log");
+                t.setDaemon(true);
+                return t;
+            });
+            logger.scheduleAtFixedRate(this::logSummary, logSeconds, logSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    public void unregister() {
+        if (logger != null) {
+            logger.shutdownNow();
+        }
+        if (registeredName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(registeredName);
+            } catch (Exception e) {
+                System.err.println("Could not unregister service metrics MBean: " + e.getMessage());
+            }
+            registeredName = null;
+        }
+    }
+
+    @Override
+    public Map<String, LatencyHistogram.Snapshot> getServiceLatency() {
+        return snapshots(serviceLatency);
+    }
+
+    @Override
+    public Map<String, LatencyHistogram.Snapshot> getAnalyzePhaseLatency() {
+        return snapshots(phaseLatency);
+    }
+
+    @Override
+    public Map<String, LatencyHistogram.Snapshot> getGraphLatency() {
+        return snapshots(graphLatency);
+    }
+
+    @Override
+    public Map<String, Long> getErrorsByType() {
+        Map<String, Long> counts = new TreeMap<>();
+        errors.forEach((type, count) -> counts.put(type, count.sum()));
+        return counts;
+    }
+
+    @Override public long getGraphRequests() { return graphRequests.sum(); }
+    @Override public long getGraphPagesFetched() { return graphPagesFetched.sum(); }
+    @Override public long getGraphBytesRead() { return graphBytesRead.sum(); }
+    @Override public long getPostsProcessed() { return postsProcessed.sum(); }
+    @Override public double getGraphUsagePercent() { return scheduler.getUsagePercent(); }
+
+    @Override public long getCacheHits() { return cache.stats().getHits(); }
+    @Override public long getCacheMisses() { return cache.stats().getMisses(); }
+    @Override public long getCacheCoalesced() { return cache.stats().getCoalesced(); }
+    @Override public double getCacheHitRatio() { return cache.stats().getHitRatio(); }
+    @Override public int getCacheSize() { return cache.size(); }
+
+    @Override public int getAdmissionInFlight() { return admission.getInFlight(); }
+    @Override public int getAdmissionQueued() { return admission.getQueued(); }
+    @Override public long getAdmissionRejected() { return admission.getRejected(); }
+
+    @Override
+    public String getSummary() {
+        StringBuilder summary = new StringBuilder();
+        appendSection(summary, "service", serviceLatency);
+        appendSection(summary, "analyzePage phases", phaseLatency);
+        appendSection(summary, "graph", graphLatency);
+        summary.append(String.format("graph: %d requests, %d pages, %.1f MB read, usage %.0f%%; posts processed %d%n",
+                graphRequests.sum(), graphPagesFetched.sum(), graphBytesRead.sum() / 1e6, scheduler.getUsagePercent(), postsProcessed.sum()));
+        summary.append("cache: ").append(cache.stats()).append(System.lineSeparator());
+        summary.append("admission: ").append(admission).append(System.lineSeparator());
+        Map<String, Long> errorCounts = getErrorsByType();
+        if (!errorCounts.isEmpty()) {
+            summary.append("errors: ").append(errorCounts).append(System.lineSeparator());
+        }
+        return summary.toString();
+    }
+
+    @Override
+    public void reset() {
+        serviceLatency.clear();
+        phaseLatency.clear();
+        graphLatency.clear();
+        errors.clear();
+        graphRequests.reset();
+        graphPagesFetched.reset();
+        graphBytesRead.reset();
+        postsProcessed.reset();
+        lastLoggedCalls = 0;
+    }
+
+    // "GET me/posts", "GET {id}/comments", "POST batch", "GET ids" (multi-id reads)
+    static String graphEndpoint(String httpMethod, String url) {
+        String path;
+        try {
+            path = URI.create(url).getPath();
+        } catch (IllegalArgumentException e) {
+            path = url;
+        }
+        path = VERSION_PREFIX.matcher(path == null ? "" : path).replaceFirst("");
+        if (path.isEmpty() || path.equals("/")) {
+            return "POST".equals(httpMethod) ? "POST batch" : httpMethod + " ids";
+        }
+        StringBuilder endpoint = new StringBuilder(httpMethod).append(' ');
+        String[] segments = path.split("/");
+        for (int i = 0; i < segments.length; i++) {
+            if (i > 0) endpoint.append('/');
+            endpoint.append(NUMERIC_ID.matcher(segments[i]).matches() ? "{id}" : segments[i]);
+        }
+        return endpoint.toString();
+    }
+
+    private void logSummary() {
+        try {
+            long calls = 0;
+            for (LatencyHistogram histogram : serviceLatency.values()) {
+                calls += histogram.getCount();
+            }
+            if (calls == lastLoggedCalls) {
+                return;
+            }
+            lastLoggedCalls = calls;
+            System.out.print("--- service metrics ---" + System.lineSeparator() + getSummary());
+        } catch (RuntimeException e) {
+            System.err.println("Could not log service metrics: " + e.getMessage());
+        }
+    }
+
+    private static void appendSection(StringBuilder summary, String title, Map<String, LatencyHistogram> histograms) {
+        for (Map.Entry<String, LatencyHistogram> entry : new TreeMap<>(histograms).entrySet()) {
+            summary.append(title).append(' ').append(entry.getKey()).append(": ").append(entry.getValue().describe())
+                    .append(System.lineSeparator());
+        }
+    }
+
+    private static Map<String, LatencyHistogram.Snapshot> snapshots(Map<String, LatencyHistogram> histograms) {
+        Map<String, LatencyHistogram.Snapshot> snapshots = new TreeMap<>();
+        histograms.forEach((name, histogram) -> snapshots.put(name, histogram.snapshot()));
+        return snapshots;
+    }
+}
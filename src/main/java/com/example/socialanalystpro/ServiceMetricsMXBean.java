@@ -0,0 +1,38 @@
+package com.example.socialanalystpro;
+
+import java.util.Map;
+
+// JMX view of ServiceMetrics, registered as com.example.socialanalystpro:type=AnalyticsService,name=Metrics
+public interface ServiceMetricsMXBean {
+
+    // Per AnalyticsService method, cumulative since start or the last reset
+    Map<String, LatencyHistogram.Snapshot> getServiceLatency();
+
+    // Phases of analyzePage (the concurrent Graph branches and the local processing)
+    Map<String, LatencyHistogram.Snapshot> getAnalyzePhaseLatency();
+
+    // Per Graph endpoint, ids replaced by {id}
+    Map<String, LatencyHistogram.Snapshot> getGraphLatency();
+
+    Map<String, Long> getErrorsByType();
+
+    long getGraphRequests();
+    long getGraphPagesFetched();
+    long getGraphBytesRead();
+    long getPostsProcessed();
+    double getGraphUsagePercent();
+
+    long getCacheHits();
+    long getCacheMisses();
+    long getCacheCoalesced();
+    double getCacheHitRatio();
+    int getCacheSize();
+
+    int getAdmissionInFlight();
+    int getAdmissionQueued();
+    long getAdmissionRejected();
+
+    String getSummary();
+
+    void reset();
+}
@@ -0,0 +1,627 @@
+package com.example.socialanalystpro;
+
+import java.io.IOException;
+import java.io.ObjectStreamException;
+import java.rmi.ConnectException;
+import java.rmi.ConnectIOException;
+import java.rmi.MarshalException;
+import java.rmi.NoSuchObjectException;
+import java.rmi.NotBoundException;
+import java.rmi.RemoteException;
+import java.rmi.UnknownHostException;
+import java.rmi.UnmarshalException;
+import java.rmi.registry.LocateRegistry;
+import java.rmi.registry.Registry;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Client-side routing stub for a cluster of AnalyticsServer nodes. Each node binds "AnalyticsService@<nodeId>" in an
+// RMI registry (its own, or one shared by the nodes on a machine); this stub finds them in the listed registries and
+// sends every call for a page to the node that owns the page's token hash on a ConsistentHashRing, so the page's
+// sessions, caches, post store and precomputed insights all stay on one node. A node that cannot be reached is
+// skipped for NODE_RETRY_MILLIS and its pages go to the next node on the ring, dashboard subscriptions included;
+// errors raised by a node itself (Facebook errors, busy) are passed through as usual. analyzePages is not
+// idempotent, so it only fails over when the call cannot have reached the node. Membership is re-read from the
+// registries every DISCOVERY_MILLIS, so restarted or added nodes are picked up.
+//
+// socialanalyst.cluster.registries (host:port,host:port) lists the registries, socialanalyst.cluster.virtualNodes
+// (128) the ring points per node and socialanalyst.cluster.portfolioIdleSeconds (300) how long a node may go without
+// reporting on its part of a portfolio before the part's remaining pages are failed.
+public class ShardedAnalyticsService implements AnalyticsService {
+
+    private static final long NODE_RETRY_MILLIS = 30_000;
+    private static final long PART_CHECK_MILLIS = 5_000;
+    private static final long DISCOVERY_MILLIS = 30_000;
+    private static final String NODE_PREFIX = AnalyticsServer.SERVICE_NAME + "@";
+
+    private interface NodeCall<T> {
+        T call(Node node) throws RemoteException;
+    }
+
+    private final List<String> registries;
+    private final int virtualNodes;
+    private final long portfolioIdleMillis;
+    private volatile Map<String, Node> nodes = new LinkedHashMap<>();
+    private volatile ConsistentHashRing ring;
+    private volatile long discoveredAtMillis;
+    // Where each dashboard listener is subscribed, so unsubscribe and renewals reach the right node and a lost
+    // node's listeners can be moved
+    private final Map<PageUpdateListener, Subscription> subscriptions = new ConcurrentHashMap<>();
+    // Portfolios split across nodes that have not completed yet, so a lost node's parts can be failed
+    private final Set<PortfolioMerge> portfolios = ConcurrentHashMap.newKeySet();
+
+    public ShardedAnalyticsService(List<String> registries, int virtualNodes) throws RemoteException {
+        this(registries, virtualNodes, 300_000);
+    }
+
+    public ShardedAnalyticsService(List<String> registries, int virtualNodes, long portfolioIdleMillis) throws RemoteException {
+        this.registries = new ArrayList<>(registries);
+        this.virtualNodes = virtualNodes;
+        this.portfolioIdleMillis = portfolioIdleMillis;
+        this.ring = new ConsistentHashRing(virtualNodes);
+        discover();
+    }
+
+    // What a client should talk to at host:port: the plain service if the registry has one and no cluster is
+    // configured, otherwise a sharded view of every node bound there and in socialanalyst.cluster.registries
+    public static AnalyticsService locate(String host, int port) throws RemoteException, NotBoundException {
+        String configured = System.getProperty("socialanalyst.cluster.registries", "");
+        if (configured.isBlank()) {
+            Registry registry = LocateRegistry.getRegistry(host, port);
+            if (Arrays.asList(registry.list()).contains(AnalyticsServer.SERVICE_NAME)) {
+                return (AnalyticsService) registry.lookup(AnalyticsServer.SERVICE_NAME);
+            }
+        }
+        Set<String> registries = new LinkedHashSet<>();
+        registries.add(host + ":" + port);
+        for (String registry : configured.split(",")) {
+            if (!registry.isBlank()) {
+                registries.add(registry.trim());
+            }
+        }
+        ShardedAnalyticsService sharded = new ShardedAnalyticsService(new ArrayList<>(registries),
+                Integer.getInteger("socialanalyst.cluster.virtualNodes", 128),
+                Long.getLong("socialanalyst.cluster.portfolioIdleSeconds", 300) * 1000);
+        if (sharded.getNodeIds().isEmpty()) {
+            throw new NotBoundException("No " + AnalyticsServer.SERVICE_NAME + " node bound in " + registries);
+        }
+        return sharded;
+    }
+
+    public Set<String> getNodeIds() {
+        return nodes.keySet();
+    }
+
+    // Node that currently serves the page, for diagnostics
+    public String nodeFor(String pageAccessToken) {
+        List<Node> preference = preference(pageKey(pageAccessToken));
+        return preference.isEmpty() ? null : preference.get(0).id;
+    }
+
+    @Override
+    public SocialInsights analyzePage(String pageAccessToken, long sinceTimestamp) throws RemoteException {
+        return route(pageKey(pageAccessToken), n -> n.service.analyzePage(pageAccessToken, sinceTimestamp));
+    }
+
+    @Override
+    public PageProfile getPageProfile(String pageAccessToken) throws RemoteException {
+        return route(pageKey(pageAccessToken), n -> n.service.getPageProfile(pageAccessToken));
+    }
+
+    @Override
+    public InsightsPayload analyzePageCompact(String pageAccessToken, long sinceTimestamp) throws RemoteException {
+        return route(pageKey(pageAccessToken), n -> n.service.analyzePageCompact(pageAccessToken, sinceTimestamp));
+    }
+
+    @Override
+    public ProfilePayload getPageProfileCompact(String pageAccessToken) throws RemoteException {
+        return route(pageKey(pageAccessToken), n -> n.service.getPageProfileCompact(pageAccessToken));
+    }
+
+    // Not page data, but routing by prompt still lets each node's answer cache see the repeats
+    @Override
+    public String askViralBud(String prompt) throws RemoteException {
+        return route(prompt == null ? "" : prompt, n -> n.service.askViralBud(prompt));
+    }
+
+    @Override
+    public long getFollowerCount(String pageAccessToken) throws RemoteException {
+        return route(pageKey(pageAccessToken), n -> n.service.getFollowerCount(pageAccessToken));
+    }
+
+    @Override
+    public long getPageLikes(String pageAccessToken) throws RemoteException {
+        return route(pageKey(pageAccessToken), n -> n.service.getPageLikes(pageAccessToken));
+    }
+
+    @Override
+    public Map<String, Integer> getGenderBreakdown(String pageAccessToken) throws RemoteException {
+        return route(pageKey(pageAccessToken), n -> n.service.getGenderBreakdown(pageAccessToken));
+    }
+
+    @Override
+    public Map<String, Map<String, Integer>> getPostEngagementOverTime(String pageAccessToken, long sinceTimestamp) throws RemoteException {
+        return route(pageKey(pageAccessToken), n -> n.service.getPostEngagementOverTime(pageAccessToken, sinceTimestamp));
+    }
+
+    @Override
+    public Map<String, Double> getBestDayToPost(String pageAccessToken, long sinceTimestamp) throws RemoteException {
+        return route(pageKey(pageAccessToken), n -> n.service.getBestDayToPost(pageAccessToken, sinceTimestamp));
+    }
+
+    @Override
+    public Map<String, Double> getBestHourToPost(String pageAccessToken, long sinceTimestamp) throws RemoteException {
+        return route(pageKey(pageAccessToken), n -> n.service.getBestHourToPost(pageAccessToken, sinceTimestamp));
+    }
+
+    @Override
+    public PostingHeatmap getPostingHeatmap(String pageAccessToken, long sinceTimestamp) throws RemoteException {
+        return route(pageKey(pageAccessToken), n -> n.service.getPostingHeatmap(pageAccessToken, sinceTimestamp));
+    }
+
+    @Override
+    public Map<String, Map<String, Integer>> getOverallPerformance(String pageAccessToken) throws RemoteException {
+        return route(pageKey(pageAccessToken), n -> n.service.getOverallPerformance(pageAccessToken));
+    }
+
+    @Override
+    public DashboardBundle getDashboardBundle(String pageAccessToken, long sinceTimestamp, Set<DashboardBundle.Section> sections) throws RemoteException {
+        return route(pageKey(pageAccessToken), n -> n.service.getDashboardBundle(pageAccessToken, sinceTimestamp, sections));
+    }
+
+    @Override
+    public long subscribe(String pageAccessToken, long sinceTimestamp, PageUpdateListener listener) throws RemoteException {
+        long[] lease = new long[1];
+        Node node = route(pageKey(pageAccessToken), n -> {
+            lease[0] = n.service.subscribe(pageAccessToken, sinceTimestamp, listener);
+            return n;
+        });
+        // The node only replaces subscriptions it knows about; one on another node has to be dropped there
+        Subscription previous = listener == null ? null
+                : subscriptions.put(listener, new Subscription(node, pageAccessToken, sinceTimestamp));
+        if (previous != null && previous.node != node) {
+            try {
+                previous.node.service.unsubscribe(listener);
+            } catch (RemoteException e) {
+                // a lost node has dropped its subscriptions anyway
+            }
+        }
+        return lease[0];
+    }
+
+    // A node that cannot be reached has lost the subscription: false, so the client subscribes again elsewhere
+    @Override
+    public boolean renewSubscription(PageUpdateListener listener) throws RemoteException {
+        Subscription subscription = listener == null ? null : subscriptions.get(listener);
+        if (subscription == null) {
+            return false;
+        }
+        try {
+            return subscription.node.service.renewSubscription(listener);
+        } catch (RemoteException e) {
+            if (!isNodeLost(e)) {
+                throw e;
+            }
+            // The client subscribes this one again itself; the node's other listeners are moved
+            subscriptions.remove(listener, subscription);
+            markDown(subscription.node, e);
+            return false;
+        }
+    }
+
+    @Override
+    public void unsubscribe(PageUpdateListener listener) throws RemoteException {
+        Subscription subscription = listener == null ? null : subscriptions.remove(listener);
+        if (subscription == null) {
+            return;
+        }
+        try {
+            subscription.node.service.unsubscribe(listener);
+        } catch (RemoteException e) {
+            if (!isNodeLost(e)) {
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public void trackPage(String pageAccessToken, long sinceTimestamp) throws RemoteException {
+        route(pageKey(pageAccessToken), n -> {
+            n.service.trackPage(pageAccessToken, sinceTimestamp);
+            return null;
+        });
+    }
+
+    @Override
+    public void untrackPage(String pageAccessToken) throws RemoteException {
+        route(pageKey(pageAccessToken), n -> {
+            n.service.untrackPage(pageAccessToken);
+            return null;
+        });
+    }
+
+    // Each node analyzes the pages it owns; their streams are forwarded with the portfolio's own indices and the
+    // roll-ups merged into one once every node has finished
+    @Override
+    public void analyzePages(List<String> pageAccessTokens, long sinceTimestamp, PortfolioListener listener) throws RemoteException {
+        if (pageAccessTokens == null || pageAccessTokens.isEmpty() || listener == null) {
+            throw new RemoteException("At least one token and a listener are required to analyze a portfolio.");
+        }
+        Map<Node, List<Integer>> byNode = new LinkedHashMap<>();
+        for (int i = 0; i < pageAccessTokens.size(); i++) {
+            List<Node> preference = preference(pageKey(pageAccessTokens.get(i)));
+            if (preference.isEmpty()) {
+                throw new ConnectException("No " + AnalyticsServer.SERVICE_NAME + " node available");
+            }
+            byNode.computeIfAbsent(preference.get(0), n -> new ArrayList<>()).add(i);
+        }
+        if (byNode.size() == 1) {
+            route(pageKey(pageAccessTokens.get(0)), false, n -> {
+                n.service.analyzePages(pageAccessTokens, sinceTimestamp, listener);
+                return null;
+            });
+            return;
+        }
+
+        // Accepted as a whole from here on: a part that cannot be started, whose node is lost or that goes quiet for
+        // portfolioIdleMillis reports its remaining pages as failed
+        PortfolioMerge merge = new PortfolioMerge(pageAccessTokens.size(), byNode.size(), listener);
+        portfolios.add(merge);
+        Thread.ofVirtual().name("portfolio-watch").start(() -> watch(merge));
+        for (List<Integer> indices : byNode.values()) {
+            int[] indexMap = indices.stream().mapToInt(Integer::intValue).toArray();
+            List<String> tokens = new ArrayList<>(indexMap.length);
+            for (int index : indexMap) {
+                tokens.add(pageAccessTokens.get(index));
+            }
+            PortfolioMerge.Part part = merge.part(indexMap);
+            try {
+                part.export();
+                part.node = route(pageKey(tokens.get(0)), false, n -> {
+                    n.service.analyzePages(tokens, sinceTimestamp, part.stub);
+                    return n;
+                });
+            } catch (RemoteException e) {
+                merge.partFailed(part, e.getMessage());
+            }
+        }
+    }
+
+    // Fails the parts that have gone quiet until every part of the portfolio has ended
+    private void watch(PortfolioMerge merge) {
+        try {
+            while (!merge.isComplete()) {
+                Thread.sleep(Math.min(PART_CHECK_MILLIS, Math.max(1, portfolioIdleMillis / 2)));
+                merge.failIdle(portfolioIdleMillis);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            portfolios.remove(merge);
+        }
+    }
+
+    private <T> T route(String key, NodeCall<T> call) throws RemoteException {
+        return route(key, true, call);
+    }
+
+    // A call that is not idempotent only moves on to the next node when it cannot have reached the lost one
+    private <T> T route(String key, boolean idempotent, NodeCall<T> call) throws RemoteException {
+        RemoteException lost = null;
+        for (Node node : preference(key)) {
+            try {
+                T result = call.call(node);
+                node.downUntilMillis = 0;
+                return result;
+            } catch (RemoteException e) {
+                if (!isNodeLost(e)) {
+                    throw e;
+                }
+                markDown(node, e);
+                if (!idempotent && !isNotSent(e)) {
+                    throw e;
+                }
+                lost = e;
+            }
+        }
+        throw lost != null ? lost : new ConnectException("No " + AnalyticsServer.SERVICE_NAME + " node available");
+    }
+
+    // The first failure that takes a node down moves its dashboard subscriptions to the next nodes on the ring
+    private void markDown(Node node, RemoteException cause) {
+        long now = System.currentTimeMillis();
+        boolean wasUp = node.downUntilMillis <= now;
+        node.downUntilMillis = now + NODE_RETRY_MILLIS;
+        if (wasUp) {
+            System.err.println("Analytics node " + node.id + " unreachable, failing over: " + cause.getMessage());
+            if (subscriptions.values().stream().anyMatch(s -> s.node == node)) {
+                Thread.ofVirtual().name("resubscribe-" + node.id).start(() -> resubscribe(node));
+            }
+            if (!portfolios.isEmpty()) {
+                String message = "Analytics node " + node.id + " was lost: " + cause.getMessage();
+                Thread.ofVirtual().name("portfolio-failover-" + node.id).start(() -> {
+                    for (PortfolioMerge merge : portfolios) {
+                        merge.nodeLost(node, message);
+                    }
+                });
+            }
+        }
+    }
+
+    // A listener that cannot be moved is dropped; its next renewal returns false and the client subscribes again
+    private void resubscribe(Node lost) {
+        for (Map.Entry<PageUpdateListener, Subscription> entry : subscriptions.entrySet()) {
+            Subscription subscription = entry.getValue();
+            if (subscription.node != lost) {
+                continue;
+            }
+            PageUpdateListener listener = entry.getKey();
+            try {
+                Node node = route(pageKey(subscription.pageAccessToken), n -> {
+                    n.service.subscribe(subscription.pageAccessToken, subscription.sinceTimestamp, listener);
+                    return n;
+                });
+                subscriptions.replace(listener, subscription, new Subscription(node, subscription.pageAccessToken, subscription.sinceTimestamp));
+            } catch (RemoteException e) {
+                subscriptions.remove(listener, subscription);
+                System.err.println("Could not move a dashboard subscription off node " + lost.id + ": " + e.getMessage());
+            }
+        }
+    }
+
+    // Ring order, nodes marked down moved to the end as a last resort
+    private List<Node> preference(String key) {
+        if (System.currentTimeMillis() - discoveredAtMillis > DISCOVERY_MILLIS) {
+            try {
+                discover();
+            } catch (RemoteException e) {
+                System.err.println("Cluster discovery failed, keeping the known nodes: " + e.getMessage());
+            }
+        }
+        Map<String, Node> current = nodes;
+        long now = System.currentTimeMillis();
+        List<Node> up = new ArrayList<>();
+        List<Node> down = new ArrayList<>();
+        for (String id : ring.preferenceList(key)) {
+            Node node = current.get(id);
+            if (node != null) {
+                (node.downUntilMillis > now ? down : up).add(node);
+            }
+        }
+        up.addAll(down);
+        return up;
+    }
+
+    // Reads the nodes bound in every registry; a registry that cannot be reached contributes none this round
+    private synchronized void discover() throws RemoteException {
+        if (System.currentTimeMillis() - discoveredAtMillis <= DISCOVERY_MILLIS && !nodes.isEmpty()) {
+            return;
+        }
+        Map<String, Node> previous = nodes;
+        Map<String, Node> found = new LinkedHashMap<>();
+        RemoteException failure = null;
+        for (String address : registries) {
+            String[] hostPort = address.split(":");
+            try {
+                Registry registry = LocateRegistry.getRegistry(hostPort[0], hostPort.length > 1 ? Integer.parseInt(hostPort[1]) : 1099);
+                for (String name : registry.list()) {
+                    // A plain single-node server in the list takes part under its registry address
+                    String id = name.startsWith(NODE_PREFIX) ? name.substring(NODE_PREFIX.length())
+                            : name.equals(AnalyticsServer.SERVICE_NAME) ? address : null;
+                    if (id == null || found.containsKey(id)) {
+                        continue;
+                    }
+                    try {
+                        AnalyticsService service = (AnalyticsService) registry.lookup(name);
+                        Node known = previous.get(id);
+                        found.put(id, known != null && known.service.equals(service) ? known : new Node(id, service));
+                    } catch (NotBoundException e) {
+                        // unbound while we were listing
+                    }
+                }
+            } catch (RemoteException e) {
+                failure = e;
+            }
+        }
+        discoveredAtMillis = System.currentTimeMillis();
+        if (found.isEmpty() && failure != null) {
+            throw failure;
+        }
+        if (!found.keySet().equals(previous.keySet())) {
+            ring = new ConsistentHashRing(virtualNodes, found.keySet());
+            if (!previous.isEmpty()) {
+                System.out.println("Analytics cluster nodes: " + found.keySet());
+            }
+        }
+        nodes = found;
+    }
+
+    private static String pageKey(String pageAccessToken) {
+        return pageAccessToken == null ? "" : TokenSessionRegistry.hash(pageAccessToken);
+    }
+
+    // The call never left this side (no connection, or nothing exported to receive it), so it did not run
+    private static boolean isNotSent(RemoteException e) {
+        return e instanceof ConnectException || e instanceof ConnectIOException || e instanceof NoSuchObjectException
+                || e instanceof UnknownHostException;
+    }
+
+    // Transport failures mean the node is gone or restarting; anything else came from the node and is final
+    private static boolean isNodeLost(RemoteException e) {
+        return e instanceof ConnectException || e instanceof ConnectIOException || e instanceof NoSuchObjectException
+                || e instanceof UnknownHostException
+                || ((e instanceof MarshalException || e instanceof UnmarshalException) && e.getCause() instanceof IOException
+                        && !(e.getCause() instanceof ObjectStreamException));
+    }
+
+    private static final class Node {
+        private final String id;
+        private final AnalyticsService service;
+        private volatile long downUntilMillis;
+
+        Node(String id, AnalyticsService service) {
+            this.id = id;
+            this.service = service;
+        }
+    }
+
+    private static final class Subscription {
+        private final Node node;
+        private final String pageAccessToken;
+        private final long sinceTimestamp;
+
+        Subscription(Node node, String pageAccessToken, long sinceTimestamp) {
+            this.node = node;
+            this.pageAccessToken = pageAccessToken;
+            this.sinceTimestamp = sinceTimestamp;
+        }
+    }
+
+    // Collects the per-node streams of one portfolio into the caller's listener, one call at a time. Every part ends
+    // exactly once, by its node's roll-up or by partFailed, so onPortfolioComplete always comes.
+    private static final class PortfolioMerge {
+        private final int pagesRequested;
+        private final PortfolioListener listener;
+        private final List<Part> parts = new ArrayList<>();
+        private final List<PortfolioSummary> summaries = new ArrayList<>();
+        private final List<int[]> indexMaps = new ArrayList<>();
+        private int pending;
+
+        PortfolioMerge(int pagesRequested, int partCount, PortfolioListener listener) {
+            this.pagesRequested = pagesRequested;
+            this.pending = partCount;
+            this.listener = listener;
+        }
+
+        synchronized Part part(int[] indexMap) {
+            Part part = new Part(indexMap);
+            parts.add(part);
+            return part;
+        }
+
+        synchronized boolean isComplete() {
+            return pending == 0;
+        }
+
+        synchronized void nodeLost(Node node, String message) {
+            for (Part part : parts) {
+                if (part.node == node) {
+                    partFailed(part, message);
+                }
+            }
+        }
+
+        // A node that accepted a part and then stopped reporting (it died, or lost the part's listener) never
+        // sends the roll-up, so the part is ended here
+        synchronized void failIdle(long idleMillis) {
+            long now = System.currentTimeMillis();
+            for (Part part : parts) {
+                if (now - part.lastHeardMillis > idleMillis) {
+                    partFailed(part, "No progress from analytics node " + (part.node == null ? "" : part.node.id + " ")
+                            + "for " + idleMillis / 1000 + "s");
+                }
+            }
+        }
+
+        // The part's node never took it (or may not have): its pages not reported yet count as failed, and anything
+        // the node still sends for it is refused
+        synchronized void partFailed(Part part, String message) {
+            if (part.done) {
+                return;
+            }
+            part.done = true;
+            try {
+                UnicastRemoteObject.unexportObject(part, true);
+            } catch (NoSuchObjectException e) {
+                // already unexported
+            }
+            PortfolioSummary summary = new PortfolioSummary(part.indexMap.length);
+            for (int i = 0; i < part.indexMap.length; i++) {
+                if (!part.reported[i]) {
+                    summary.addFailure(i, message, 0);
+                    try {
+                        listener.onPageFailed(part.indexMap[i], message);
+                    } catch (RemoteException e) {
+                        System.err.println("Portfolio listener unreachable: " + e.getMessage());
+                    }
+                }
+            }
+            summary.complete(0);
+            try {
+                complete(part, summary);
+            } catch (RemoteException e) {
+                System.err.println("Portfolio listener unreachable: " + e.getMessage());
+            }
+        }
+
+        private void complete(Part part, PortfolioSummary summary) throws RemoteException {
+            summaries.add(summary);
+            indexMaps.add(part.indexMap);
+            if (--pending == 0) {
+                listener.onPortfolioComplete(PortfolioSummary.merge(pagesRequested, summaries, indexMaps));
+            }
+        }
+
+        final class Part implements PortfolioListener {
+            private final int[] indexMap;
+            private final boolean[] reported;
+            private PortfolioListener stub;
+            private volatile Node node;
+            private long lastHeardMillis = System.currentTimeMillis();
+            private boolean done;
+
+            Part(int[] indexMap) {
+                this.indexMap = indexMap;
+                this.reported = new boolean[indexMap.length];
+            }
+
+            void export() throws RemoteException {
+                stub = (PortfolioListener) UnicastRemoteObject.exportObject(this, 0,
+                        CompressingClientSocketFactory.fromSystemProperties(), CompressingServerSocketFactory.fromSystemProperties());
+            }
+
+            @Override
+            public void onPageAnalyzed(int index, String pageName, InsightsPayload insights) throws RemoteException {
+                synchronized (PortfolioMerge.this) {
+                    checkOpen();
+                    reported[index] = true;
+                    lastHeardMillis = System.currentTimeMillis();
+                    listener.onPageAnalyzed(indexMap[index], pageName, insights);
+                }
+            }
+
+            @Override
+            public void onPageFailed(int index, String message) throws RemoteException {
+                synchronized (PortfolioMerge.this) {
+                    checkOpen();
+                    reported[index] = true;
+                    lastHeardMillis = System.currentTimeMillis();
+                    listener.onPageFailed(indexMap[index], message);
+                }
+            }
+
+            @Override
+            public void onPortfolioComplete(PortfolioSummary summary) throws RemoteException {
+                synchronized (PortfolioMerge.this) {
+                    checkOpen();
+                    done = true;
+                    // Not unexported from inside its own call; once the node drops it the distributed GC does
+                    complete(this, summary);
+                }
+            }
+
+            private void checkOpen() throws RemoteException {
+                if (done) {
+                    throw new RemoteException("This part of the portfolio was already reported as failed");
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.socialanalystpro;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+
+// Result of analyzePage: every chart and suggestion of the dashboard for one page and window. Fields left null were
+// not computed (for example when a Graph edge failed) and the dashboard shows them as empty.
+public class SocialInsights implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private long totalFollowers;
+    private int totalPostsAnalyzed;
+    private boolean hasRecentActivity;
+    private double averageEngagementRate;
+    private double growthPercentage;
+    private double growthPrediction;
+    private PeriodMetrics periodMetrics;
+    private List<Map<String, Object>> recentPosts;
+    private List<Map<String, Object>> topPerformingPosts;
+    private Map<String, Map<String, Object>> postInspectorData;
+    private List<Long> likesPerPost;
+    private List<Long> commentsPerPost;
+    private List<Long> sharesPerPost;
+    private Map<String, Double> sentimentDistribution;
+    private Map<String, Double> engagementTrend;
+    private Map<String, Double> engagementByDay;
+    private Map<String, Double> engagementByHour;
+    private Map<String, Double> newVsReturning;
+    private Map<String, Integer> engagementByContentType;
+    private Map<String, Integer> hashtagRankings;
+    private Map<String, Integer> followerGrowth;
+    private Map<String, Integer> projectedGrowth;
+    private Map<String, Integer> reachOverTime;
+    private Map<String, Map<String, Double>> contentTrend;
+    private Map<String, Map<String, Double>> ageGenderDistribution;
+    private Map<String, Map<String, Integer>> overallPerformance;
+    private String bestContentTypeSuggestion;
+    private String bestTimeToPostSuggestion;
+    private String weeklyViralSummary;
+    private List<String> recommendations;
+
+    public long getTotalFollowers() { return totalFollowers; }
+    public void setTotalFollowers(long totalFollowers) { this.totalFollowers = totalFollowers; }
+
+    public int getTotalPostsAnalyzed() { return totalPostsAnalyzed; }
+    public void setTotalPostsAnalyzed(int totalPostsAnalyzed) { this.totalPostsAnalyzed = totalPostsAnalyzed; }
+
+    public boolean isHasRecentActivity() { return hasRecentActivity; }
+    public void setHasRecentActivity(boolean hasRecentActivity) { this.hasRecentActivity = hasRecentActivity; }
+
+    public double getAverageEngagementRate() { return averageEngagementRate; }
+    public void setAverageEngagementRate(double averageEngagementRate) { this.averageEngagementRate = averageEngagementRate; }
+
+    public double getGrowthPercentage() { return growthPercentage; }
+    public void setGrowthPercentage(double growthPercentage) { this.growthPercentage = growthPercentage; }
+
+    public double getGrowthPrediction() { return growthPrediction; }
+    public void setGrowthPrediction(double growthPrediction) { this.growthPrediction = growthPrediction; }
+
+    // Totals of the analysed window
+    public PeriodMetrics getPeriodMetrics() { return periodMetrics; }
+    public void setPeriodMetrics(PeriodMetrics periodMetrics) { this.periodMetrics = periodMetrics; }
+
+    // Post detail maps: id, text, full_text, engagement, likes, comments, shares, created_time
+    public List<Map<String, Object>> getRecentPosts() { return recentPosts; }
+    public void setRecentPosts(List<Map<String, Object>> recentPosts) { this.recentPosts = recentPosts; }
+
+    public List<Map<String, Object>> getTopPerformingPosts() { return topPerformingPosts; }
+    public void setTopPerformingPosts(List<Map<String, Object>> topPerformingPosts) { this.topPerformingPosts = topPerformingPosts; }
+
+    // Post detail maps by post id, with the post type
+    public Map<String, Map<String, Object>> getPostInspectorData() { return postInspectorData; }
+    public void setPostInspectorData(Map<String, Map<String, Object>> postInspectorData) { this.postInspectorData = postInspectorData; }
+
+    public List<Long> getLikesPerPost() { return likesPerPost; }
+    public void setLikesPerPost(List<Long> likesPerPost) { this.likesPerPost = likesPerPost; }
+
+    public List<Long> getCommentsPerPost() { return commentsPerPost; }
+    public void setCommentsPerPost(List<Long> commentsPerPost) { this.commentsPerPost = commentsPerPost; }
+
+    public List<Long> getSharesPerPost() { return sharesPerPost; }
+    public void setSharesPerPost(List<Long> sharesPerPost) { this.sharesPerPost = sharesPerPost; }
+
+    public Map<String, Double> getSentimentDistribution() { return sentimentDistribution; }
+    public void setSentimentDistribution(Map<String, Double> sentimentDistribution) { this.sentimentDistribution = sentimentDistribution; }
+
+    public Map<String, Double> getEngagementTrend() { return engagementTrend; }
+    public void setEngagementTrend(Map<String, Double> engagementTrend) { this.engagementTrend = engagementTrend; }
+
+    public Map<String, Double> getEngagementByDay() { return engagementByDay; }
+    public void setEngagementByDay(Map<String, Double> engagementByDay) { this.engagementByDay = engagementByDay; }
+
+    public Map<String, Double> getEngagementByHour() { return engagementByHour; }
+    public void setEngagementByHour(Map<String, Double> engagementByHour) { this.engagementByHour = engagementByHour; }
+
+    public Map<String, Double> getNewVsReturning() { return newVsReturning; }
+    public void setNewVsReturning(Map<String, Double> newVsReturning) { this.newVsReturning = newVsReturning; }
+
+    public Map<String, Integer> getEngagementByContentType() { return engagementByContentType; }
+    public void setEngagementByContentType(Map<String, Integer> engagementByContentType) { this.engagementByContentType = engagementByContentType; }
+
+    public Map<String, Integer> getHashtagRankings() { return hashtagRankings; }
+    public void setHashtagRankings(Map<String, Integer> hashtagRankings) { this.hashtagRankings = hashtagRankings; }
+
+    public Map<String, Integer> getFollowerGrowth() { return followerGrowth; }
+    public void setFollowerGrowth(Map<String, Integer> followerGrowth) { this.followerGrowth = followerGrowth; }
+
+    public Map<String, Integer> getProjectedGrowth() { return projectedGrowth; }
+    public void setProjectedGrowth(Map<String, Integer> projectedGrowth) { this.projectedGrowth = projectedGrowth; }
+
+    public Map<String, Integer> getReachOverTime() { return reachOverTime; }
+    public void setReachOverTime(Map<String, Integer> reachOverTime) { this.reachOverTime = reachOverTime; }
+
+    public Map<String, Map<String, Double>> getContentTrend() { return contentTrend; }
+    public void setContentTrend(Map<String, Map<String, Double>> contentTrend) { this.contentTrend = contentTrend; }
+
+    public Map<String, Map<String, Double>> getAgeGenderDistribution() { return ageGenderDistribution; }
+    public void setAgeGenderDistribution(Map<String, Map<String, Double>> ageGenderDistribution) { this.ageGenderDistribution = ageGenderDistribution; }
+
+    public Map<String, Map<String, Integer>> getOverallPerformance() { return overallPerformance; }
+    public void setOverallPerformance(Map<String, Map<String, Integer>> overallPerformance) { this.overallPerformance = overallPerformance; }
+
+    public String getBestContentTypeSuggestion() { return bestContentTypeSuggestion; }
+    public void setBestContentTypeSuggestion(String bestContentTypeSuggestion) { this.bestContentTypeSuggestion = bestContentTypeSuggestion; }
+
+    public String getBestTimeToPostSuggestion() { return bestTimeToPostSuggestion; }
+    public void setBestTimeToPostSuggestion(String bestTimeToPostSuggestion) { this.bestTimeToPostSuggestion = bestTimeToPostSuggestion; }
+
+    public String getWeeklyViralSummary() { return weeklyViralSummary; }
+    public void setWeeklyViralSummary(String weeklyViralSummary) { this.weeklyViralSummary = weeklyViralSummary; }
+
+    public List<String> getRecommendations() { return recommendations; }
+    public void setRecommendations(List<String> recommendations) { this.recommendations = recommendations; }
+
+    public static class PeriodMetrics implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private int postsInPeriod;
+        private long likesInPeriod;
+        private long commentsInPeriod;
+        private long sharesInPeriod;
+
+        public int getPostsInPeriod() { return postsInPeriod; }
+        public void setPostsInPeriod(int postsInPeriod) { this.postsInPeriod = postsInPeriod; }
+
+        public long getLikesInPeriod() { return likesInPeriod; }
+        public void setLikesInPeriod(long likesInPeriod) { this.likesInPeriod = likesInPeriod; }
+
+        public long getCommentsInPeriod() { return commentsInPeriod; }
+        public void setCommentsInPeriod(long commentsInPeriod) { this.commentsInPeriod = commentsInPeriod; }
+
+        public long getSharesInPeriod() { return sharesInPeriod; }
+        public void setSharesInPeriod(long sharesInPeriod) { this.sharesInPeriod = sharesInPeriod; }
+    }
+}
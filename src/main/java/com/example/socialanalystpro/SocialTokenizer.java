@@ -0,0 +1,66 @@
+package com.example.socialanalystpro;
+
+import java.util.Locale;
+
+// Single-pass extraction of #hashtags and @mentions from post text, without regex or intermediate arrays. Works on
+// code points, so tags in any script (#café, #東京, #Ελλάδα) and surrogate pairs are handled. A tag must start the
+// text or follow a non-word character (so "a#b" and "&#39;" are not tags), and a hashtag needs at least one
+// letter ("#1" is not one). Tags are reported lower-cased with their marker, e.g. "#summer" or "@brand".
+public final class SocialTokenizer {
+
+    public enum Kind { HASHTAG, MENTION }
+
+    public interface Sink {
+        void accept(Kind kind, String tag);
+    }
+
+    private SocialTokenizer() {
+    }
+
+    public static void scan(String text, Sink sink) {
+        if (text == null) {
+            return;
+        }
+        int length = text.length();
+        int previous = -1;
+        int i = 0;
+        while (i < length) {
+            int cp = text.codePointAt(i);
+            int next = i + Character.charCount(cp);
+            Kind kind = cp == '#' || cp == '＃' ? Kind.HASHTAG : cp == '@' || cp == '＠' ? Kind.MENTION : null;
+            if (kind == null || (previous >= 0 && isTagChar(previous))) {
+                previous = cp;
+                i = next;
+                continue;
+            }
+
+            int end = next;
+            boolean hasLetter = false;
+            while (end < length) {
+                int c = text.codePointAt(end);
+                if (isTagChar(c)) {
+                    hasLetter |= Character.isLetter(c);
+                } else if (!(kind == Kind.MENTION && c == '.' && end + 1 < length && isTagChar(text.codePointAt(end + 1)))) {
+                    // Dots only continue a mention when more name follows ("@brand.store", not "@brand.")
+                    break;
+                }
+                end += Character.charCount(c);
+            }
+            if (end > next && (kind == Kind.MENTION || hasLetter)) {
+                String body = text.substring(next, end).toLowerCase(Locale.ROOT);
+                sink.accept(kind, (kind == Kind.HASHTAG ? "#" : "@") + body);
+            }
+            previous = end > next ? text.codePointBefore(end) : cp;
+            i = end;
+        }
+    }
+
+    // Letters, digits, underscore and combining marks (so accents written as separate code points stay in the tag)
+    static boolean isTagChar(int cp) {
+        if (Character.isLetterOrDigit(cp) || cp == '_') {
+            return true;
+        }
+        int type = Character.getType(cp);
+        return type == Character.NON_SPACING_MARK || type == Character.COMBINING_SPACING_MARK || type == Character.ENCLOSING_MARK;
+    }
+}
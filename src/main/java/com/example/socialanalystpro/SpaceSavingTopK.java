@@ -0,0 +1,171 @@
+package com.example.socialanalystpro;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Streaming top-K counts (Space-Saving, Metwally et al.) in bounded memory: at most `capacity` counters whatever
+// the number of distinct keys. When full, a new key takes over the smallest counter and inherits its count as the
+// error bound, so every key occurring more than total/capacity times is guaranteed to be kept, and counts are
+// overestimated by at most the minimum counter. Counters live in an indexed min-heap, so an update is O(log capacity).
+// Summaries of different time windows can be merged (Agarwal et al., "Mergeable summaries").
+public final class SpaceSavingTopK {
+
+    private final int capacity;
+    private final String[] keys;
+    private final long[] counts;
+    private final long[] errors;
+    private final Map<String, Integer> positions;
+    private int size;
+    private long total;
+
+    public SpaceSavingTopK(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.keys = new String[capacity];
+        this.counts = new long[capacity];
+        this.errors = new long[capacity];
+        this.positions = new HashMap<>(capacity * 2);
+    }
+
+    public void add(String key) {
+        add(key, 1);
+    }
+
+    public void add(String key, long count) {
+        if (count <= 0) {
+            return;
+        }
+        total += count;
+        Integer position = positions.get(key);
+        if (position != null) {
+            counts[position] += count;
+            siftDown(position);
+        } else if (size < capacity) {
+            keys[size] = key;
+            counts[size] = count;
+            errors[size] = 0;
+            positions.put(key, size);
+            siftUp(size++);
+        } else {
+            // Replace the smallest counter, which sits at the root
+            positions.remove(keys[0]);
+            errors[0] = counts[0];
+            counts[0] += count;
+            keys[0] = key;
+            positions.put(key, 0);
+            siftDown(0);
+        }
+    }
+
+    // Combined summary of two windows, bounded by the larger capacity. A key missing from a full summary may still
+    // have occurred there up to its minimum count, which is added to the key's error bound.
+    public static SpaceSavingTopK merge(SpaceSavingTopK a, SpaceSavingTopK b) {
+        Map<String, long[]> combined = new HashMap<>();
+        for (int i = 0; i < a.size; i++) {
+            combined.put(a.keys[i], new long[]{a.counts[i] + b.estimate(a.keys[i]), a.errors[i] + b.error(a.keys[i])});
+        }
+        for (int i = 0; i < b.size; i++) {
+            if (!combined.containsKey(b.keys[i])) {
+                combined.put(b.keys[i], new long[]{b.counts[i] + a.estimate(b.keys[i]), b.errors[i] + a.error(b.keys[i])});
+            }
+        }
+
+        List<Map.Entry<String, long[]>> entries = new ArrayList<>(combined.entrySet());
+        entries.sort((x, y) -> Long.compare(y.getValue()[0], x.getValue()[0]));
+        SpaceSavingTopK merged = new SpaceSavingTopK(Math.max(a.capacity, b.capacity));
+        for (int i = 0; i < entries.size() && i < merged.capacity; i++) {
+            long[] entry = entries.get(i).getValue();
+            merged.keys[i] = entries.get(i).getKey();
+            merged.counts[i] = entry[0];
+            merged.errors[i] = entry[1];
+            merged.positions.put(merged.keys[i], i);
+            merged.size++;
+        }
+        // Entries went in largest first; heapify into the min-heap layout
+        for (int i = merged.size / 2 - 1; i >= 0; i--) {
+            merged.siftDown(i);
+        }
+        merged.total = a.total + b.total;
+        return merged;
+    }
+
+    // The n largest estimated counts, largest first (ties by key for stable output)
+    public LinkedHashMap<String, Integer> top(int n) {
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (x, y) -> counts[x] != counts[y] ? Long.compare(counts[y], counts[x]) : keys[x].compareTo(keys[y]));
+        LinkedHashMap<String, Integer> top = new LinkedHashMap<>();
+        for (int i = 0; i < Math.min(n, size); i++) {
+            top.put(keys[order[i]], (int) Math.min(Integer.MAX_VALUE, counts[order[i]]));
+        }
+        return top;
+    }
+
+    // Upper bound on the key's count; for an untracked key, the most it can have occurred unnoticed
+    public long estimate(String key) {
+        Integer position = positions.get(key);
+        return position != null ? counts[position] : (size == capacity ? minCount() : 0);
+    }
+
+    // How much estimate(key) may exceed the true count
+    public long error(String key) {
+        Integer position = positions.get(key);
+        return position != null ? errors[position] : (size == capacity ? minCount() : 0);
+    }
+
+    public long getTotal() { return total; }
+    public int size() { return size; }
+    public int getCapacity() { return capacity; }
+
+    private long minCount() {
+        return size == 0 ? 0 : counts[0];
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (counts[parent] <= counts[i]) {
+                return;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) {
+                return;
+            }
+            int smallest = left + 1 < size && counts[left + 1] < counts[left] ? left + 1 : left;
+            if (counts[i] <= counts[smallest]) {
+                return;
+            }
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+
+    private void swap(int i, int j) {
+        String key = keys[i];
+        keys[i] = keys[j];
+        keys[j] = key;
+        long count = counts[i];
+        counts[i] = counts[j];
+        counts[j] = count;
+        long error = errors[i];
+        errors[i] = errors[j];
+        errors[j] = error;
+        positions.put(keys[i], i);
+        positions.put(keys[j], j);
+    }
+}
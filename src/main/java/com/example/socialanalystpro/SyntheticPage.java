@@ -0,0 +1,139 @@
+package com.example.socialanalystpro;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+// A generated Facebook page held column-wise so that even a million posts stay a few tens of megabytes.
+// Post text and comments are not stored; they are derived deterministically from the page seed and post index.
+// Posts are indexed newest first (index 0 is the most recent).
+public final class SyntheticPage {
+
+    private static final String[] WORDS = {"launch", "sale", "summer", "team", "community", "event", "today", "weekend",
+            "offer", "thanks", "customers", "update", "behind", "scenes", "new", "collection", "live", "join", "us", "story"};
+    private static final String[] HASHTAGS = {"#promo", "#new", "#summer", "#community", "#sale", "#live", "#tbt"};
+    private static final String[] COMMENTS = {"Love this!", "Great job team", "Amazing work", "This is awesome", "Nice one",
+            "Not good at all", "Terrible service lately", "So disappointed", "Where can I buy it?", "When is the next event?",
+            "I hate waiting this long", "Perfect timing", "Bad experience yesterday", "Good to know", "@friend look at this"};
+    private static final String[] AGE_BUCKETS = {"13-17", "18-24", "25-34", "35-44", "45-54", "55-64", "65+"};
+
+    private final String id;
+    private final String name;
+    private final String category;
+    private final long fanCount;
+    private final long followersCount;
+    private final long seed;
+    private final long[] createdSeconds;
+    private final int[] reactions;
+    private final int[] comments;
+    private final int[] shares;
+
+    SyntheticPage(String id, String name, String category, long fanCount, long followersCount, long seed,
+                  long[] createdSeconds, int[] reactions, int[] comments, int[] shares) {
+        this.id = id;
+        this.name = name;
+        this.category = category;
+        this.fanCount = fanCount;
+        this.followersCount = followersCount;
+        this.seed = seed;
+        this.createdSeconds = createdSeconds;
+        this.reactions = reactions;
+        this.comments = comments;
+        this.shares = shares;
+    }
+
+    public String getId() { return id; }
+    public String getName() { return name; }
+    public String getCategory() { return category; }
+    public long getFanCount() { return fanCount; }
+    public long getFollowersCount() { return followersCount; }
+    public int getPostCount() { return createdSeconds.length; }
+
+    public long createdSeconds(int index) { return createdSeconds[index]; }
+    public int reactions(int index) { return reactions[index]; }
+    public int comments(int index) { return comments[index]; }
+    public int shares(int index) { return shares[index]; }
+
+    // Stable across runs: numbered from the oldest post
+    public String postId(int index) {
+        return id + "_" + (createdSeconds.length - index);
+    }
+
+    // Index of the post with the given id, or -1
+    public int indexOf(String postId) {
+        if (!postId.startsWith(id + "_")) {
+            return -1;
+        }
+        try {
+            int index = createdSeconds.length - Integer.parseInt(postId.substring(id.length() + 1));
+            return index >= 0 && index < createdSeconds.length ? index : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // About one post in ten is a media post without a message
+    public String message(int index) {
+        Random random = new Random(seed * 31 + index);
+        if (random.nextInt(10) == 0) {
+            return null;
+        }
+        StringBuilder message = new StringBuilder();
+        for (int w = 0, n = 4 + random.nextInt(25); w < n; w++) {
+            if (w > 0) message.append(' ');
+            message.append(random.nextInt(6) == 0 ? HASHTAGS[random.nextInt(HASHTAGS.length)] : WORDS[random.nextInt(WORDS.length)]);
+        }
+        return message.toString();
+    }
+
+    public String commentMessage(int index, int commentIndex) {
+        Random random = new Random((seed * 31 + index) * 1_000_003 + commentIndex);
+        return COMMENTS[random.nextInt(COMMENTS.length)];
+    }
+
+    // First index (newest first) whose post is at or before untilSeconds
+    public int firstIndexAtOrBefore(long untilSeconds) {
+        int low = 0, high = createdSeconds.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (createdSeconds[mid] > untilSeconds) low = mid + 1; else high = mid;
+        }
+        return low;
+    }
+
+    // First index whose post is older than sinceSeconds, i.e. the end of a since-window
+    public int firstIndexBefore(long sinceSeconds) {
+        int low = 0, high = createdSeconds.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (createdSeconds[mid] >= sinceSeconds) low = mid + 1; else high = mid;
+        }
+        return low;
+    }
+
+    // page_fans_gender_age: "M.25-34" style keys
+    public Map<String, Integer> fansByGenderAge() {
+        Random random = new Random(seed ^ 0x5DEECE66DL);
+        Map<String, Integer> fans = new LinkedHashMap<>();
+        for (String gender : new String[]{"F", "M", "U"}) {
+            for (String age : AGE_BUCKETS) {
+                double share = gender.equals("U") ? 0.01 : 0.02 + random.nextDouble() * 0.1;
+                fans.put(gender + "." + age, (int) (fanCount * share));
+            }
+        }
+        return fans;
+    }
+
+    // Daily page_impressions_unique and page_engaged_users for the last `days` days, oldest first
+    public List<long[]> dailyReachAndEngagement(int days) {
+        List<long[]> values = new ArrayList<>(days);
+        for (int day = days - 1; day >= 0; day--) {
+            Random random = new Random(seed * 7 + day);
+            long reach = (long) (followersCount * (0.02 + random.nextDouble() * 0.08));
+            values.add(new long[]{reach, (long) (reach * (0.05 + random.nextDouble() * 0.15))});
+        }
+        return values;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.socialanalystpro;
+
+import java.util.Arrays;
+import java.util.Random;
+
+// Builds reproducible SyntheticPages of any size: post times spread over a span with an evening-heavy daily
+// profile, and log-normal engagement scaled to the page's followers. Same seed, same pages.
+public class SyntheticPageGenerator {
+
+    private static final String[] CATEGORIES = {"Retail Company", "Restaurant", "Musician/Band", "Media/News Company", "Sports Team"};
+    // Relative posting weight per hour of day (local to the page)
+    private static final double[] HOUR_WEIGHTS = {
+            0.2, 0.1, 0.1, 0.1, 0.1, 0.2, 0.5, 0.8, 1.0, 1.1, 1.2, 1.3,
+            1.4, 1.3, 1.2, 1.2, 1.3, 1.5, 1.8, 2.0, 1.9, 1.5, 0.9, 0.5};
+
+    private final long seed;
+
+    public SyntheticPageGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    public SyntheticPage generate(int pageIndex, int postCount, int spanDays) {
+        long pageSeed = seed * 1_000_003 + pageIndex;
+        Random random = new Random(pageSeed);
+        long followers = 1_000 + (long) (Math.exp(random.nextGaussian() * 1.5 + 10));
+        long fans = (long) (followers * (0.85 + random.nextDouble() * 0.1));
+
+        long nowSeconds = System.currentTimeMillis() / 1000;
+        long spanSeconds = spanDays * 86_400L;
+        double[] cumulative = cumulativeHourWeights();
+        long[] created = new long[postCount];
+        for (int i = 0; i < postCount; i++) {
+            long day = (long) (random.nextDouble() * spanDays);
+            int hour = pickHour(cumulative, random.nextDouble());
+            long seconds = nowSeconds - day * 86_400L;
+            seconds = seconds - Math.floorMod(seconds, 86_400L) + hour * 3_600L + random.nextInt(3_600);
+            created[i] = Math.min(nowSeconds - 60, Math.max(nowSeconds - spanSeconds, seconds));
+        }
+        Arrays.sort(created);
+        // newest first
+        for (int i = 0, j = postCount - 1; i < j; i++, j--) {
+            long t = created[i];
+            created[i] = created[j];
+            created[j] = t;
+        }
+
+        int[] reactions = new int[postCount];
+        int[] comments = new int[postCount];
+        int[] shares = new int[postCount];
+        double base = followers * 0.005;
+        for (int i = 0; i < postCount; i++) {
+            double engagement = base * Math.exp(random.nextGaussian() * 0.9);
+            reactions[i] = (int) engagement;
+            comments[i] = (int) (engagement * (0.05 + random.nextDouble() * 0.1));
+            shares[i] = (int) (engagement * random.nextDouble() * 0.05);
+        }
+
+        String id = String.valueOf(100_000_000_000L + pageIndex);
+        return new SyntheticPage(id, "Synthetic Page " + pageIndex, CATEGORIES[pageIndex % CATEGORIES.length],
+                fans, followers, pageSeed, created, reactions, comments, shares);
+    }
+
+    private static double[] cumulativeHourWeights() {
+        double[] cumulative = new double[HOUR_WEIGHTS.length];
+        double total = 0;
+        for (int i = 0; i < HOUR_WEIGHTS.length; i++) {
+            total += HOUR_WEIGHTS[i];
+            cumulative[i] = total;
+        }
+        for (int i = 0; i < cumulative.length; i++) {
+            cumulative[i] /= total;
+        }
+        return cumulative;
+    }
+
+    private static int pickHour(double[] cumulative, double r) {
+        for (int hour = 0; hour < cumulative.length; hour++) {
+            if (r < cumulative[hour]) return hour;
+        }
+        return cumulative.length - 1;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.socialanalystpro;
+
+import com.restfb.FacebookClient;
+import com.restfb.Parameter;
+import com.restfb.json.JsonObject;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+// One warmed Graph client per access token, plus the cached result of "who is this token for".
+public class TokenSession {
+
+    public enum TokenType { PAGE, USER, UNKNOWN }
+
+    private final String tokenHash;
+    private final FacebookClient client;
+    private final long identityTtlMillis;
+    // Not a monitor: the Graph call below runs on virtual threads, and blocking inside synchronized pins the carrier
+    private final ReentrantLock identityLock = new ReentrantLock();
+
+    private volatile Identity identity;
+    private volatile long lastUsedMillis;
+
+    TokenSession(String tokenHash, FacebookClient client, long identityTtlMillis) {
+        this.tokenHash = tokenHash;
+        this.client = client;
+        this.identityTtlMillis = identityTtlMillis;
+        this.lastUsedMillis = System.currentTimeMillis();
+    }
+
+    public String getTokenHash() { return tokenHash; }
+
+    public FacebookClient getClient() {
+        lastUsedMillis = System.currentTimeMillis();
+        return client;
+    }
+
+    long getLastUsedMillis() { return lastUsedMillis; }
+
+    // Resolves page id/name and token type once per TTL instead of on every call
+    public Identity identity() {
+        Identity current = identity;
+        if (current != null && System.currentTimeMillis() - current.resolvedAtMillis < identityTtlMillis) {
+            return current;
+        }
+        identityLock.lock();
+        try {
+            current = identity;
+            if (current != null && System.currentTimeMillis() - current.resolvedAtMillis < identityTtlMillis) {
+                return current;
+            }
+            JsonObject me = getClient().fetchObject("me", JsonObject.class,
+                    Parameter.with("fields", "id,name"),
+                    Parameter.with("metadata", 1));
+
+            TokenType type = TokenType.UNKNOWN;
+            if (me.get("metadata") != null && me.get("metadata").isObject()) {
+                String metadataType = me.get("metadata").asObject().getString("type", "");
+                if ("page".equals(metadataType)) {
+                    type = TokenType.PAGE;
+                } else if ("user".equals(metadataType)) {
+                    type = TokenType.USER;
+                }
+            }
+            current = new Identity(me.getString("id", ""), me.getString("name", ""), type, System.currentTimeMillis());
+            identity = current;
+            return current;
+        } finally {
+            identityLock.unlock();
+        }
+    }
+
+    public static final class Identity {
+        private final String id;
+        private final String name;
+        private final TokenType type;
+        private final long resolvedAtMillis;
+
+        Identity(String id, String name, TokenType type, long resolvedAtMillis) {
+            this.id = id;
+            this.name = name;
+            this.type = type;
+            this.resolvedAtMillis = resolvedAtMillis;
+        }
+
+        public String getId() { return id; }
+        public String getName() { return name; }
+        public TokenType getType() { return type; }
+        public long getResolvedAtMillis() { return resolvedAtMillis; }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.socialanalystpro;
+
+import com.restfb.DefaultFacebookClient;
+import com.restfb.DefaultJsonMapper;
+import com.restfb.FacebookClient;
+import com.restfb.FacebookEndpoints;
+import com.restfb.Version;
+import com.restfb.WebRequestor;
+import com.restfb.exception.FacebookException;
+import com.restfb.exception.FacebookOAuthException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Server-side registry of token sessions. Sessions are keyed by a hash of the token so raw tokens are never used as map keys.
+public class TokenSessionRegistry {
+
+    private final Map<String, TokenSession> sessions = new ConcurrentHashMap<>();
+    private final long identityTtlMillis;
+    private final long idleTimeoutMillis;
+    private final GraphCallScheduler scheduler;
+    private final ServiceMetrics metrics;
+    private volatile long lastSweepMillis = System.currentTimeMillis();
+
+    public TokenSessionRegistry(long identityTtlMillis, long idleTimeoutMillis) {
+        this(identityTtlMillis, idleTimeoutMillis, null);
+    }
+
+    // With a scheduler, every client's requests go through it (one shared gate for all tokens)
+    public TokenSessionRegistry(long identityTtlMillis, long idleTimeoutMillis, GraphCallScheduler scheduler) {
+        this(identityTtlMillis, idleTimeoutMillis, scheduler, null);
+    }
+
+    // With metrics as well, every scheduled request is timed per Graph endpoint
+    public TokenSessionRegistry(long identityTtlMillis, long idleTimeoutMillis, GraphCallScheduler scheduler, ServiceMetrics metrics) {
+        this.identityTtlMillis = identityTtlMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.scheduler = scheduler;
+        this.metrics = metrics;
+    }
+
+    public TokenSession session(String pageAccessToken) {
+        sweepIdle();
+        String tokenHash = hash(pageAccessToken);
+        return sessions.computeIfAbsent(tokenHash, h -> new TokenSession(h, createClient(pageAccessToken), identityTtlMillis));
+    }
+
+    public void invalidate(String pageAccessToken) {
+        sessions.remove(hash(pageAccessToken));
+    }
+
+    // Auth failures mean the token was revoked or expired; drop the session so the next call starts clean
+    public boolean invalidateOnAuthError(String pageAccessToken, FacebookException e) {
+        if (e instanceof FacebookOAuthException) {
+            invalidate(pageAccessToken);
+            return true;
+        }
+        return false;
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    protected FacebookClient createClient(String pageAccessToken) {
+        // e.g. http://localhost:8089 to run against FakeGraphServer instead of graph.facebook.com
+        String baseUrl = System.getProperty("socialanalyst.graph.baseUrl");
+        if (baseUrl != null && baseUrl.isBlank()) {
+            baseUrl = null;
+        } else if (baseUrl != null && baseUrl.endsWith("/")) {
+            baseUrl = baseUrl.substring(0, baseUrl.length() - 1);
+        }
+        WebRequestor requestor = scheduler == null ? new BaseUrlWebRequestor(baseUrl) : new ScheduledWebRequestor(scheduler, hash(pageAccessToken), baseUrl, metrics);
+        DefaultFacebookClient client = new DefaultFacebookClient(pageAccessToken, requestor, new DefaultJsonMapper(), Version.LATEST);
+        if (baseUrl != null) {
+            client.setFacebookEndpointUrls(endpoints(baseUrl));
+        }
+        return client;
+    }
+
+    private static FacebookEndpoints endpoints(String baseUrl) {
+        return new FacebookEndpoints() {
+            @Override
+            public String getFacebookEndpoint() { return baseUrl; }
+
+            @Override
+            public String getGraphEndpoint() { return baseUrl; }
+
+            @Override
+            public String getGraphVideoEndpoint() { return baseUrl; }
+        };
+    }
+
+    private void sweepIdle() {
+        long now = System.currentTimeMillis();
+        if (now - lastSweepMillis < idleTimeoutMillis / 4) {
+            return;
+        }
+        lastSweepMillis = now;
+        sessions.values().removeIf(s -> now - s.getLastUsedMillis() > idleTimeoutMillis);
+    }
+
+    public static String hash(String pageAccessToken) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(pageAccessToken.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(32);
+            for (int i = 0; i < 16; i++) {
+                hex.append(String.format("%02x", digest[i]));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package com.example.socialanalystpro;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// ViralBud's intent classifier. The keywords of every intent are compiled into one KeywordAutomaton, so a prompt is
+// classified in a single scan instead of one contains() per keyword; each intent scores the weights of the keywords
+// found (once each), an "unless" keyword rules the intent out, and the highest score answers (ties to the intent
+// listed first, the fallback when nothing scores). Answers are cached per normalised prompt in an LRU map of
+// socialanalyst.viralbud.cacheSize entries (1024, 0 = off), since dashboards keep asking the same few questions.
+//
+// Rules come from the bundled viralbud-rules.txt unless socialanalyst.viralbud.rules points at a file; see that
+// file for the format.
+public final class ViralBudIntents {
+
+    private static final String ARITHMETIC = "{arithmetic}";
+    private static final String FALLBACK = "fallback";
+    private static final double VETO = Double.NEGATIVE_INFINITY;
+
+    private static volatile ViralBudIntents defaultIntents;
+
+    private final String[] responses;
+    private final String fallback;
+    private final KeywordAutomaton automaton;
+    // Per automaton term: the intents it scores for and with what weight (VETO for "unless")
+    private final int[][] termIntents;
+    private final double[][] termWeights;
+    private final int[] arithmeticIntents;
+    private final double[] arithmeticWeights;
+    private final Map<String, String> cache;
+
+    private ViralBudIntents(List<Intent> intents, String fallback, int cacheSize) {
+        this.fallback = fallback;
+        responses = new String[intents.size()];
+        Map<String, List<double[]>> rulesByTerm = new LinkedHashMap<>();
+        List<double[]> arithmeticRules = new ArrayList<>();
+        for (int i = 0; i < intents.size(); i++) {
+            Intent intent = intents.get(i);
+            responses[i] = intent.response;
+            for (Map.Entry<String, Double> term : intent.terms.entrySet()) {
+                List<double[]> rules = term.getKey().equals(ARITHMETIC)
+                        ? arithmeticRules : rulesByTerm.computeIfAbsent(term.getKey(), k -> new ArrayList<>());
+                rules.add(new double[]{i, term.getValue()});
+            }
+        }
+
+        List<String> terms = new ArrayList<>(rulesByTerm.keySet());
+        automaton = new KeywordAutomaton(terms);
+        termIntents = new int[terms.size()][];
+        termWeights = new double[terms.size()][];
+        for (int t = 0; t < terms.size(); t++) {
+            List<double[]> rules = rulesByTerm.get(terms.get(t));
+            termIntents[t] = new int[rules.size()];
+            termWeights[t] = new double[rules.size()];
+            for (int r = 0; r < rules.size(); r++) {
+                termIntents[t][r] = (int) rules.get(r)[0];
+                termWeights[t][r] = rules.get(r)[1];
+            }
+        }
+        arithmeticIntents = new int[arithmeticRules.size()];
+        arithmeticWeights = new double[arithmeticRules.size()];
+        for (int r = 0; r < arithmeticRules.size(); r++) {
+            arithmeticIntents[r] = (int) arithmeticRules.get(r)[0];
+            arithmeticWeights[r] = arithmeticRules.get(r)[1];
+        }
+
+        cache = cacheSize <= 0 ? null : new LinkedHashMap<>(Math.min(cacheSize, 1024) * 4 / 3 + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    public static ViralBudIntents getDefault() {
+        ViralBudIntents intents = defaultIntents;
+        if (intents == null) {
+            synchronized (ViralBudIntents.class) {
+                if (defaultIntents == null) {
+                    defaultIntents = loadDefault();
+                }
+                intents = defaultIntents;
+            }
+        }
+        return intents;
+    }
+
+    public static ViralBudIntents load(Path file, int cacheSize) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return parse(reader, file.toString(), cacheSize);
+        }
+    }
+
+    public static ViralBudIntents parse(Reader source, String name, int cacheSize) throws IOException {
+        List<Intent> intents = new ArrayList<>();
+        String fallback = null;
+        Intent current = null;
+        boolean inFallback = false;
+        BufferedReader reader = new BufferedReader(source);
+        String line;
+        int lineNumber = 0;
+        StringBuilder pending = new StringBuilder();
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            String trimmed = line.trim();
+            if (pending.isEmpty() && (trimmed.isEmpty() || trimmed.startsWith("#"))) {
+                continue;
+            }
+            if (trimmed.endsWith("\\")) {
+                pending.append(trimmed, 0, trimmed.length() - 1).append(' ');
+                continue;
+            }
+            String entry = pending.append(trimmed).toString().trim();
+            pending.setLength(0);
+
+            if (entry.startsWith("[") && entry.endsWith("]")) {
+                String section = entry.substring(1, entry.length() - 1).trim();
+                checkComplete(current, name);
+                inFallback = section.equalsIgnoreCase(FALLBACK);
+                current = inFallback ? null : new Intent(section);
+                if (current != null) {
+                    intents.add(current);
+                }
+                continue;
+            }
+            int equals = entry.indexOf('=');
+            if (equals <= 0 || (current == null && !inFallback)) {
+                throw new IOException(name + ":" + lineNumber + ": expected [intent] or \"key = value\" inside an intent");
+            }
+            String key = entry.substring(0, equals).trim().toLowerCase(Locale.ROOT);
+            String value = entry.substring(equals + 1).trim();
+            switch (key) {
+                case "response" -> {
+                    String response = value.replace("\\n", "\n");
+                    if (inFallback) fallback = response;
+                    else current.response = response;
+                }
+                case "match", "unless" -> {
+                    if (inFallback) {
+                        throw new IOException(name + ":" + lineNumber + ": [" + FALLBACK + "] only takes a response");
+                    }
+                    parseTerms(value, key.equals("unless"), current, name, lineNumber);
+                }
+                default -> throw new IOException(name + ":" + lineNumber + ": unknown key \"" + key + "\"");
+            }
+        }
+        checkComplete(current, name);
+        if (fallback == null) {
+            throw new IOException(name + ": missing [" + FALLBACK + "] response");
+        }
+        return new ViralBudIntents(intents, fallback, cacheSize);
+    }
+
+    // The answer to one prompt; the fallback for null or blank prompts
+    public String answer(String prompt) {
+        String key = normalize(prompt);
+        if (key.isEmpty()) {
+            return fallback;
+        }
+        if (cache != null) {
+            synchronized (cache) {
+                String cached = cache.get(key);
+                if (cached != null) {
+                    return cached;
+                }
+            }
+        }
+        String response = classify(key);
+        if (cache != null) {
+            synchronized (cache) {
+                cache.put(key, response);
+            }
+        }
+        return response;
+    }
+
+    private String classify(String prompt) {
+        double[] scores = new double[responses.length];
+        boolean[] seen = new boolean[automaton.size()];
+        KeywordAutomaton.Matches matches = automaton.find(prompt);
+        for (int m = 0; m < matches.size(); m++) {
+            int term = matches.term(m);
+            if (seen[term]) {
+                continue;
+            }
+            seen[term] = true;
+            for (int r = 0; r < termIntents[term].length; r++) {
+                scores[termIntents[term][r]] += termWeights[term][r];
+            }
+        }
+        if (arithmeticIntents.length > 0 && hasArithmetic(prompt)) {
+            for (int r = 0; r < arithmeticIntents.length; r++) {
+                scores[arithmeticIntents[r]] += arithmeticWeights[r];
+            }
+        }
+
+        int best = -1;
+        double bestScore = 0;
+        for (int i = 0; i < scores.length; i++) {
+            if (scores[i] > bestScore) {
+                best = i;
+                bestScore = scores[i];
+            }
+        }
+        return best >= 0 ? responses[best] : fallback;
+    }
+
+    // "<digits> <op> <digits>" anywhere, spaces optional, op one of + - * /
+    private static boolean hasArithmetic(String text) {
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            if (!Character.isDigit(text.charAt(i))) {
+                continue;
+            }
+            int j = i;
+            while (j < length && Character.isDigit(text.charAt(j))) j++;
+            int op = j;
+            while (op < length && text.charAt(op) == ' ') op++;
+            if (op < length && "+-*/".indexOf(text.charAt(op)) >= 0) {
+                int k = op + 1;
+                while (k < length && text.charAt(k) == ' ') k++;
+                if (k < length && Character.isDigit(text.charAt(k))) {
+                    return true;
+                }
+            }
+            i = j - 1;
+        }
+        return false;
+    }
+
+    // Lower-cased, whitespace runs collapsed to one space and trimmed, so trivially different prompts share a cache entry
+    private static String normalize(String prompt) {
+        if (prompt == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(prompt.length());
+        boolean space = false;
+        for (int i = 0; i < prompt.length(); i++) {
+            char c = prompt.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = normalized.length() > 0;
+                continue;
+            }
+            if (space) {
+                normalized.append(' ');
+                space = false;
+            }
+            normalized.append(c);
+        }
+        return normalized.toString().toLowerCase(Locale.ROOT);
+    }
+
+    private static void parseTerms(String value, boolean veto, Intent intent, String name, int lineNumber) throws IOException {
+        for (String item : value.split(",")) {
+            String term = item.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+            if (term.isEmpty()) {
+                continue;
+            }
+            double weight = 1;
+            int colon = term.lastIndexOf(':');
+            if (colon > 0) {
+                try {
+                    weight = Double.parseDouble(term.substring(colon + 1).trim());
+                } catch (NumberFormatException e) {
+                    throw new IOException(name + ":" + lineNumber + ": bad weight in \"" + item.trim() + "\"");
+                }
+                term = term.substring(0, colon).trim();
+            }
+            intent.terms.put(term, veto ? VETO : weight);
+        }
+    }
+
+    private static void checkComplete(Intent intent, String name) throws IOException {
+        if (intent != null && intent.response == null) {
+            throw new IOException(name + ": intent [" + intent.name + "] has no response");
+        }
+    }
+
+    private static ViralBudIntents loadDefault() {
+        int cacheSize = Integer.getInteger("socialanalyst.viralbud.cacheSize", 1024);
+        String file = System.getProperty("socialanalyst.viralbud.rules");
+        if (file != null && !file.isBlank()) {
+            try {
+                return load(Paths.get(file), cacheSize);
+            } catch (IOException e) {
+                System.err.println("Could not load ViralBud rules " + file + ", using the bundled ones: " + e.getMessage());
+            }
+        }
+        try (InputStream in = ViralBudIntents.class.getResourceAsStream("viralbud-rules.txt")) {
+            if (in == null) {
+                throw new IllegalStateException("Bundled viralbud-rules.txt is missing");
+            }
+            return parse(new InputStreamReader(in, StandardCharsets.UTF_8), "viralbud-rules.txt", cacheSize);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read bundled ViralBud rules: " + e.getMessage(), e);
+        }
+    }
+
+    private static final class Intent {
+        private final String name;
+        private final Map<String, Double> terms = new LinkedHashMap<>();
+        private String response;
+
+        Intent(String name) {
+            this.name = name;
+        }
+    }
+}
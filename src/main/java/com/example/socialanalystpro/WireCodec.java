@@ -0,0 +1,171 @@
+package com.example.socialanalystpro;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Building blocks of the compact RMI payloads: LEB128 varints (zigzag for signed values) and a per-payload string
+// table, so every distinct key, label or post text crosses the wire once and is referenced by index afterwards.
+final class WireCodec {
+
+    private WireCodec() {
+    }
+
+    static final class Writer {
+        private final Map<String, Integer> refs = new HashMap<>();
+        private final List<String> table = new ArrayList<>();
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream(1024);
+
+        void varint(long value) {
+            while ((value & ~0x7FL) != 0) {
+                body.write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            body.write((int) value);
+        }
+
+        void signed(long value) {
+            varint((value << 1) ^ (value >> 63));
+        }
+
+        void decimal(double value) {
+            long bits = Double.doubleToRawLongBits(value);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                body.write((int) (bits >>> shift));
+            }
+        }
+
+        void bool(boolean value) {
+            body.write(value ? 1 : 0);
+        }
+
+        // 0 is null, otherwise table index + 1
+        void string(String value) {
+            if (value == null) {
+                varint(0);
+                return;
+            }
+            Integer ref = refs.get(value);
+            if (ref == null) {
+                ref = table.size();
+                refs.put(value, ref);
+                table.add(value);
+            }
+            varint(ref + 1);
+        }
+
+        // Collection sizes: 0 is null, otherwise size + 1
+        void size(Object collection, int size) {
+            varint(collection == null ? 0 : size + 1L);
+        }
+
+        void writeTo(DataOutput out) throws IOException {
+            ByteArrayOutputStream header = new ByteArrayOutputStream();
+            writeVarint(header, table.size());
+            for (String value : table) {
+                byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+                writeVarint(header, utf8.length);
+                header.write(utf8);
+            }
+            writeVarint(header, body.size());
+            out.write(header.toByteArray());
+            out.write(body.toByteArray());
+        }
+
+        private static void writeVarint(ByteArrayOutputStream out, long value) {
+            while ((value & ~0x7FL) != 0) {
+                out.write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            out.write((int) value);
+        }
+    }
+
+    static final class Reader {
+        private final String[] table;
+        private final byte[] body;
+        private int position;
+
+        Reader(DataInput in) throws IOException {
+            int count = (int) readVarint(in);
+            table = new String[count];
+            for (int i = 0; i < count; i++) {
+                byte[] utf8 = new byte[(int) readVarint(in)];
+                in.readFully(utf8);
+                table[i] = new String(utf8, StandardCharsets.UTF_8);
+            }
+            body = new byte[(int) readVarint(in)];
+            in.readFully(body);
+        }
+
+        long varint() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (position >= body.length) {
+                    throw new StreamCorruptedException("Truncated payload");
+                }
+                byte b = body[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new StreamCorruptedException("Malformed varint");
+        }
+
+        long signed() throws IOException {
+            long value = varint();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        double decimal() throws IOException {
+            if (position + 8 > body.length) {
+                throw new StreamCorruptedException("Truncated payload");
+            }
+            long bits = 0;
+            for (int i = 0; i < 8; i++) {
+                bits = (bits << 8) | (body[position++] & 0xFF);
+            }
+            return Double.longBitsToDouble(bits);
+        }
+
+        boolean bool() throws IOException {
+            if (position >= body.length) {
+                throw new StreamCorruptedException("Truncated payload");
+            }
+            return body[position++] != 0;
+        }
+
+        String string() throws IOException {
+            int ref = (int) varint();
+            if (ref > table.length) {
+                throw new StreamCorruptedException("Bad string reference " + ref);
+            }
+            return ref == 0 ? null : table[ref - 1];
+        }
+
+        // -1 for a null collection
+        int size() throws IOException {
+            return (int) varint() - 1;
+        }
+
+        private static long readVarint(DataInput in) throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = in.readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new StreamCorruptedException("Malformed varint");
+        }
+    }
+}
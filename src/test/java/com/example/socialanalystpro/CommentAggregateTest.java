@@ -0,0 +1,51 @@
+package com.example.socialanalystpro;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CommentAggregateTest {
+
+    private static SentimentLexicon lexicon() throws IOException {
+        return SentimentLexicon.parse(new StringReader("love 2\nhate -2\n"), "test");
+    }
+
+    @Test
+    void countsSentimentAndKeywordsSkippingTagsAndLinks() throws IOException {
+        CommentAggregate aggregate = new CommentAggregate(lexicon());
+        aggregate.accept("Love the colours #promo https://example.com/colours");
+        aggregate.accept("I hate these colours @someone");
+        aggregate.accept("colours ok");
+        aggregate.accept(null);
+
+        assertEquals(3, aggregate.getComments());
+        assertEquals(1, aggregate.getPositive());
+        assertEquals(1, aggregate.getNegative());
+        assertEquals(Map.of("colours", 3), aggregate.topKeywords(1));
+        assertEquals(List.of("colours", "hate", "love", "these"), List.copyOf(aggregate.topKeywords(10).keySet()));
+    }
+
+    @Test
+    void mergeAddsCountsAndCombinesKeywords() throws IOException {
+        CommentAggregate first = new CommentAggregate(lexicon());
+        first.accept("love this shirt");
+        first.accept("shirt shirt");
+        CommentAggregate second = new CommentAggregate(lexicon());
+        second.accept("hate this shirt");
+        second.accept("price too high");
+
+        first.merge(second);
+
+        assertEquals(4, first.getComments());
+        assertEquals(1, first.getPositive());
+        assertEquals(1, first.getNegative());
+        assertEquals(4, first.topKeywords(1).get("shirt"));
+        assertEquals(1, first.topKeywords(10).get("price"));
+        assertEquals(2, second.getComments());
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.socialanalystpro;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.Deflater;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompressingSocketTest {
+
+    private ServerSocket server;
+    private Socket client;
+    private Socket accepted;
+
+    @AfterEach
+    void close() throws IOException {
+        if (client != null) client.close();
+        if (accepted != null) accepted.close();
+        if (server != null) server.close();
+    }
+
+    private void connect(boolean compressingServer, boolean compressingClient) throws IOException {
+        server = compressingServer
+                ? new CompressingServerSocketFactory(1024, Deflater.BEST_SPEED).createServerSocket(0)
+                : new ServerSocket(0);
+        client = compressingClient
+                ? new CompressingClientSocketFactory(1024, Deflater.BEST_SPEED).createSocket("localhost", server.getLocalPort())
+                : new Socket("localhost", server.getLocalPort());
+        accepted = server.accept();
+    }
+
+    private static byte[] readFully(InputStream in, int length) throws IOException {
+        byte[] data = new byte[length];
+        new DataInputStream(in).readFully(data);
+        return data;
+    }
+
+    @Test
+    void smallWritesGoOutAsOneRawFrame() throws IOException {
+        connect(false, true);
+        OutputStream out = client.getOutputStream();
+        out.write(1);
+        out.write(new byte[]{2, 3});
+        out.flush();
+
+        assertArrayEquals(new byte[]{0, 0, 0, 0, 3, 1, 2, 3}, readFully(accepted.getInputStream(), 8));
+    }
+
+    @Test
+    void largeCompressibleWritesAreDeflated() throws IOException {
+        connect(false, true);
+        byte[] payload = new byte[4000];
+        Arrays.fill(payload, (byte) 'a');
+        client.getOutputStream().write(payload);
+        client.getOutputStream().flush();
+
+        DataInputStream in = new DataInputStream(accepted.getInputStream());
+        assertEquals(1, in.readByte());
+        int compressedLength = in.readInt();
+        assertEquals(4000, in.readInt());
+        assertTrue(compressedLength < 400, "compressed to " + compressedLength);
+    }
+
+    @Test
+    void payloadsRoundTripAcrossFrames() throws IOException {
+        connect(true, true);
+        byte[] compressible = new byte[600 * 1024];
+        for (int i = 0; i < compressible.length; i++) {
+            compressible[i] = (byte) ("post message " + (i % 97)).charAt(i % 13);
+        }
+        byte[] random = new byte[5000];
+        new Random(7).nextBytes(random);
+
+        OutputStream out = client.getOutputStream();
+        out.write(compressible);
+        out.flush();
+        out.write(random);
+        out.flush();
+        out.write(42);
+        out.flush();
+
+        InputStream in = accepted.getInputStream();
+        assertArrayEquals(compressible, readFully(in, compressible.length));
+        assertArrayEquals(random, readFully(in, random.length));
+        assertEquals(42, in.read());
+
+        client.close();
+        assertEquals(-1, in.read());
+    }
+
+    @Test
+    void rejectsUnknownFrames() throws IOException {
+        connect(true, false);
+        client.getOutputStream().write(new byte[]{7, 0, 0, 0, 1, 0});
+        client.getOutputStream().flush();
+
+        assertThrows(StreamCorruptedException.class, () -> accepted.getInputStream().read());
+    }
+
+    @Test
+    void rejectsInvalidLevels() {
+        assertThrows(IllegalArgumentException.class, () -> new CompressingServerSocketFactory(1024, 12));
+    }
+}
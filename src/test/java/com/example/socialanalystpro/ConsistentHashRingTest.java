@@ -0,0 +1,86 @@
+package com.example.socialanalystpro;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConsistentHashRingTest {
+
+    private static final int KEYS = 10_000;
+
+    private static Map<String, String> owners(ConsistentHashRing ring) {
+        Map<String, String> owners = new HashMap<>();
+        for (int i = 0; i < KEYS; i++) {
+            owners.put("page" + i, ring.owner("page" + i));
+        }
+        return owners;
+    }
+
+    @Test
+    void addingANodeMovesAboutOneNthOfTheKeysAllToIt() {
+        ConsistentHashRing ring = new ConsistentHashRing(128, List.of("a", "b", "c"));
+        Map<String, String> before = owners(ring);
+
+        ring.add("d");
+        Map<String, String> after = owners(ring);
+
+        int moved = 0;
+        for (String key : before.keySet()) {
+            if (!before.get(key).equals(after.get(key))) {
+                assertEquals("d", after.get(key), key);
+                moved++;
+            }
+        }
+        assertTrue(moved > KEYS / 8 && moved < KEYS * 3 / 8, "moved " + moved);
+    }
+
+    @Test
+    void removingANodeMovesOnlyItsKeysToTheirNextPreference() {
+        ConsistentHashRing ring = new ConsistentHashRing(128, List.of("a", "b", "c", "d"));
+        Map<String, List<String>> preferences = new HashMap<>();
+        for (int i = 0; i < KEYS; i++) {
+            preferences.put("page" + i, ring.preferenceList("page" + i));
+        }
+
+        ring.remove("b");
+
+        for (Map.Entry<String, List<String>> entry : preferences.entrySet()) {
+            List<String> expected = new ArrayList<>(entry.getValue());
+            expected.remove("b");
+            assertEquals(expected, ring.preferenceList(entry.getKey()), entry.getKey());
+            assertEquals(expected.get(0), ring.owner(entry.getKey()));
+        }
+    }
+
+    @Test
+    void preferenceListStartsWithTheOwnerAndHoldsEveryNodeOnce() {
+        ConsistentHashRing ring = new ConsistentHashRing(16, List.of("a", "b", "c", "d", "e"));
+
+        for (int i = 0; i < 1_000; i++) {
+            List<String> preference = ring.preferenceList("page" + i);
+            assertEquals(5, preference.size());
+            assertEquals(5, new HashSet<>(preference).size());
+            assertEquals(ring.owner("page" + i), preference.get(0));
+        }
+    }
+
+    @Test
+    void emptyRingHasNoOwner() {
+        ConsistentHashRing ring = new ConsistentHashRing(8, List.of("a"));
+        ring.remove("a");
+
+        assertTrue(ring.isEmpty());
+        assertNull(ring.owner("page"));
+        assertEquals(List.of(), ring.preferenceList("page"));
+        assertThrows(IllegalArgumentException.class, () -> new ConsistentHashRing(0));
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.socialanalystpro;
+
+import com.restfb.WebRequestor;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GraphCallSchedulerTest {
+
+    private final GraphCallScheduler scheduler = new GraphCallScheduler(4, 200, 200);
+
+    private void call(String scope, GraphCallScheduler.Priority priority) throws IOException {
+        scheduler.acquire(scope, priority);
+        scheduler.release(scope);
+    }
+
+    @Test
+    void backgroundCallsRunWhileUsageIsLow() throws IOException {
+        scheduler.recordUsageHeaders("a", "{\"call_count\":20,\"total_cputime\":5,\"total_time\":10}", null, null);
+
+        call("a", GraphCallScheduler.Priority.BACKGROUND);
+        assertEquals(20, scheduler.getUsagePercent());
+        assertEquals(20, scheduler.getUsagePercent("b"), "app usage applies to every scope");
+    }
+
+    @Test
+    void highPageUsageShedsOnlyThatPagesBackgroundCalls() throws IOException {
+        scheduler.recordUsageHeaders("a", null, "{\"call_count\":10,\"total_cputime\":80,\"total_time\":10}", null);
+
+        assertThrows(GraphThrottledException.class, () -> scheduler.acquire("a", GraphCallScheduler.Priority.BACKGROUND));
+        call("a", GraphCallScheduler.Priority.INTERACTIVE);
+        call("b", GraphCallScheduler.Priority.BACKGROUND);
+        assertEquals(0, scheduler.getUsagePercent());
+        assertEquals(80, scheduler.getUsagePercent("a"));
+        assertTrue(scheduler.describe().contains("shed 1"));
+    }
+
+    @Test
+    void businessUseCaseRegainTimeBlocksOnlyScopesOfThatBusiness() throws IOException {
+        scheduler.recordUsageHeaders("a", null, null,
+                "{\"123\":[{\"type\":\"pages\",\"call_count\":5,\"estimated_time_to_regain_access\":3}]}");
+
+        assertEquals(0, scheduler.getBlockedUntilMillis());
+        assertThrows(GraphThrottledException.class, () -> scheduler.acquire("a", GraphCallScheduler.Priority.BACKGROUND));
+        call("b", GraphCallScheduler.Priority.BACKGROUND);
+    }
+
+    @Test
+    void pageThrottleHoldsBackOnlyThatPage() throws Exception {
+        scheduler.onThrottled("a");
+
+        assertThrows(GraphThrottledException.class, () -> scheduler.acquire("a", GraphCallScheduler.Priority.BACKGROUND));
+        // The blocked page's interactive call waits in the queue without holding up the other page
+        CompletableFuture<Throwable> blocked = CompletableFuture.supplyAsync(() -> assertThrows(GraphThrottledException.class,
+                () -> scheduler.acquire("a", GraphCallScheduler.Priority.INTERACTIVE)));
+        Thread.sleep(50);
+        long start = System.nanoTime();
+        call("b", GraphCallScheduler.Priority.INTERACTIVE);
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 100);
+        assertTrue(blocked.get().getMessage().startsWith("Timed out"));
+    }
+
+    @Test
+    void appThrottleHoldsBackEveryone() {
+        scheduler.onAppThrottled();
+
+        assertThrows(GraphThrottledException.class, () -> scheduler.acquire("b", GraphCallScheduler.Priority.BACKGROUND));
+        GraphThrottledException timedOut = assertThrows(GraphThrottledException.class,
+                () -> scheduler.acquire("b", GraphCallScheduler.Priority.INTERACTIVE));
+        assertTrue(timedOut.getMessage().startsWith("Timed out"));
+    }
+
+    @Test
+    void rateLimitResponsesAreClassifiedByLevel() {
+        assertEquals(ScheduledWebRequestor.Throttle.SCOPE, ScheduledWebRequestor.throttle(new WebRequestor.Response(429, null)));
+        assertEquals(ScheduledWebRequestor.Throttle.APP,
+                ScheduledWebRequestor.throttle(new WebRequestor.Response(400, "{\"error\":{\"code\":4}}")));
+        assertEquals(ScheduledWebRequestor.Throttle.SCOPE,
+                ScheduledWebRequestor.throttle(new WebRequestor.Response(400, "{\"error\":{\"code\":80001}}")));
+        assertEquals(ScheduledWebRequestor.Throttle.NONE,
+                ScheduledWebRequestor.throttle(new WebRequestor.Response(400, "{\"error\":{\"code\":100}}")));
+        assertEquals(ScheduledWebRequestor.Throttle.NONE, ScheduledWebRequestor.throttle(new WebRequestor.Response(200, null)));
+    }
+
+    @Test
+    void unparseableHeadersAreIgnored() throws IOException {
+        scheduler.recordUsageHeaders("a", "not json", "{\"call_count\":", null);
+
+        assertEquals(0, scheduler.getUsagePercent("a"));
+        call("a", GraphCallScheduler.Priority.BACKGROUND);
+    }
+
+    @Test
+    void callAsRestoresThePreviousPriority() throws Exception {
+        assertEquals(GraphCallScheduler.Priority.INTERACTIVE, GraphCallScheduler.currentPriority());
+        GraphCallScheduler.Priority inside = GraphCallScheduler.callAs(GraphCallScheduler.Priority.BACKGROUND,
+                GraphCallScheduler::currentPriority);
+
+        assertEquals(GraphCallScheduler.Priority.BACKGROUND, inside);
+        assertEquals(GraphCallScheduler.Priority.INTERACTIVE, GraphCallScheduler.currentPriority());
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.socialanalystpro;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.StreamCorruptedException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class InsightsPayloadTest {
+
+    private static Map<String, Object> detail(String id, String text, long likes) {
+        Map<String, Object> detail = new HashMap<>();
+        detail.put("id", id);
+        detail.put("text", text.length() > 50 ? text.substring(0, 47) + "..." : text);
+        detail.put("full_text", text);
+        detail.put("engagement", likes + 2 + 1);
+        detail.put("likes", likes);
+        detail.put("comments", 2L);
+        detail.put("shares", 1L);
+        detail.put("created_time", "2024-03-01 10:00");
+        return detail;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T roundTrip(T payload) throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(payload);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            return (T) in.readObject();
+        }
+    }
+
+    @Test
+    void codecRoundTripsPrimitivesAndSharesRepeatedStrings() throws IOException {
+        WireCodec.Writer w = new WireCodec.Writer();
+        w.varint(300);
+        w.signed(-5);
+        w.signed(Long.MIN_VALUE);
+        w.decimal(0.125);
+        w.bool(true);
+        w.string("photo");
+        w.string(null);
+        w.string("photo");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        w.writeTo(new DataOutputStream(bytes));
+
+        WireCodec.Reader r = new WireCodec.Reader(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        assertEquals(300, r.varint());
+        assertEquals(-5, r.signed());
+        assertEquals(Long.MIN_VALUE, r.signed());
+        assertEquals(0.125, r.decimal());
+        assertEquals(true, r.bool());
+        assertEquals("photo", r.string());
+        assertNull(r.string());
+        assertEquals("photo", r.string());
+        assertThrows(StreamCorruptedException.class, r::varint);
+        // One table entry for both writes of "photo"
+        assertEquals(1, bytes.toByteArray()[0]);
+    }
+
+    @Test
+    void insightsSurviveARoundTrip() throws Exception {
+        String longText = "A long post that goes well past the fifty characters of the short text";
+        Map<String, Object> shared = detail("p1", longText, 10);
+        Map<String, Object> inspected = new HashMap<>(shared);
+        inspected.put("type", "photo");
+
+        SocialInsights insights = new SocialInsights();
+        insights.setTotalFollowers(1234);
+        insights.setTotalPostsAnalyzed(2);
+        insights.setHasRecentActivity(true);
+        insights.setAverageEngagementRate(4.5);
+        SocialInsights.PeriodMetrics metrics = new SocialInsights.PeriodMetrics();
+        metrics.setPostsInPeriod(2);
+        metrics.setLikesInPeriod(15);
+        insights.setPeriodMetrics(metrics);
+        insights.setRecentPosts(List.of(shared, detail("p2", "short", 5)));
+        insights.setTopPerformingPosts(List.of(shared));
+        insights.setPostInspectorData(Map.of("p1", inspected));
+        insights.setLikesPerPost(Arrays.asList(10L, 5L));
+        Map<String, Double> byDay = new LinkedHashMap<>();
+        byDay.put("Mon", 12.0);
+        byDay.put("Tue", 0.5);
+        insights.setEngagementByDay(byDay);
+        insights.setHashtagRankings(Map.of("#launch", 3));
+        insights.setOverallPerformance(Map.of("photo", Map.of("likes", 10)));
+        insights.setRecommendations(List.of("Post more photos"));
+
+        SocialInsights read = roundTrip(new InsightsPayload(insights)).getInsights();
+
+        assertEquals(1234, read.getTotalFollowers());
+        assertEquals(2, read.getTotalPostsAnalyzed());
+        assertEquals(true, read.isHasRecentActivity());
+        assertEquals(4.5, read.getAverageEngagementRate());
+        assertEquals(15, read.getPeriodMetrics().getLikesInPeriod());
+        assertEquals(insights.getRecentPosts(), read.getRecentPosts());
+        assertEquals(insights.getTopPerformingPosts(), read.getTopPerformingPosts());
+        assertEquals(inspected, read.getPostInspectorData().get("p1"));
+        assertEquals(List.of(10L, 5L), read.getLikesPerPost());
+        assertEquals(List.of("Mon", "Tue"), List.copyOf(read.getEngagementByDay().keySet()));
+        assertEquals(Map.of("#launch", 3), read.getHashtagRankings());
+        assertEquals(Map.of("photo", Map.of("likes", 10)), read.getOverallPerformance());
+        assertEquals(List.of("Post more photos"), read.getRecommendations());
+        assertNull(read.getSentimentDistribution());
+        assertNull(read.getCommentsPerPost());
+        assertNull(read.getBestTimeToPostSuggestion());
+    }
+
+    @Test
+    void profileSurvivesARoundTrip() throws Exception {
+        PageProfile profile = roundTrip(new ProfilePayload(new PageProfile("Shop", "42", null, "https://img"))).getProfile();
+
+        assertEquals("Shop", profile.getName());
+        assertEquals("42", profile.getId());
+        assertNull(profile.getCategory());
+        assertEquals("https://img", profile.getPictureUrl());
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.socialanalystpro;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class KeywordAutomatonTest {
+
+    private final KeywordAutomaton automaton = new KeywordAutomaton(List.of(
+            "good", "bad", "waste", "waste of time", "don", "love", "hate", "great", "amazing"));
+
+    private List<String> terms(String text) {
+        KeywordAutomaton.Matches matches = automaton.find(text);
+        List<String> found = new ArrayList<>();
+        for (int i = 0; i < matches.size(); i++) {
+            found.add(automaton.term(matches.term(i)));
+        }
+        return found;
+    }
+
+    @Test
+    void matchesOnlyWholeWordsIgnoringCase() {
+        assertEquals(List.of("good", "great"), terms("GOOD stuff, goodbye and Great"));
+        assertEquals(List.of(), terms("don't say bada"));
+        assertEquals(List.of(), terms(null));
+    }
+
+    @Test
+    void longestOverlappingTermWins() {
+        KeywordAutomaton.Matches matches = automaton.find("What a WASTE of time. Still a waste");
+
+        assertEquals(2, matches.size());
+        assertEquals("waste of time", automaton.term(matches.term(0)));
+        assertEquals(7, matches.start(0));
+        assertEquals("waste", automaton.term(matches.term(1)));
+    }
+
+    @Test
+    void reportsWordAndClausePositions() {
+        KeywordAutomaton.Matches matches = automaton.find("I love it! Really, amazing");
+
+        assertEquals(2, matches.size());
+        assertEquals(2, matches.word(0));
+        assertEquals(0, matches.clause(0));
+        assertEquals(5, matches.word(1));
+        assertEquals(2, matches.clause(1));
+    }
+
+    @Test
+    void sharedPrefixesAndSuffixesAreFoundInOneScan() {
+        KeywordAutomaton nested = new KeywordAutomaton(List.of("he", "she", "hers", "his"));
+
+        assertEquals(4, nested.size());
+        KeywordAutomaton.Matches matches = nested.find("she said hers, not his, he");
+        List<String> found = new ArrayList<>();
+        for (int i = 0; i < matches.size(); i++) {
+            found.add(nested.term(matches.term(i)));
+        }
+        assertEquals(List.of("she", "hers", "his", "he"), found);
+    }
+}
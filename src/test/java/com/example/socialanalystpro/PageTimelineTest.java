@@ -0,0 +1,76 @@
+package com.example.socialanalystpro;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PageTimelineTest {
+
+    private static PostRecord post(String id, long createdSeconds, long likes) {
+        return new PostRecord(id, createdSeconds * 1000, "message " + id, "status", likes, 0, 0, List.of());
+    }
+
+    @Test
+    void mergeReturnsOnlyNewOrChangedPostsAndAdvancesWatermark() {
+        PageTimeline timeline = new PageTimeline("page");
+        assertEquals(2, timeline.merge(List.of(post("a", 100, 1), post("b", 200, 1))).size());
+        assertEquals(200, timeline.getWatermarkSeconds());
+
+        List<PostRecord> changed = timeline.merge(List.of(post("a", 100, 1), post("b", 200, 5)));
+        assertEquals(List.of("b"), changed.stream().map(PostRecord::getId).toList());
+        assertEquals(2, timeline.size());
+    }
+
+    @Test
+    void coverageOnlyWidens() {
+        PageTimeline timeline = new PageTimeline("page");
+        assertFalse(timeline.isSynced());
+
+        timeline.markCovered(500);
+        timeline.markCovered(800);
+        assertTrue(timeline.isSynced());
+        assertEquals(500, timeline.getCoveredSinceSeconds());
+        assertTrue(timeline.covers(600));
+        assertFalse(timeline.covers(400));
+    }
+
+    @Test
+    void retainFetchedDropsPostsMissingFromTheRefreshedRange() {
+        PageTimeline timeline = new PageTimeline("page");
+        timeline.merge(List.of(post("old", 100, 1), post("kept", 300, 1), post("deleted", 400, 1)));
+
+        List<PostRecord> removed = timeline.retainFetched(250, Set.of("kept"));
+
+        assertEquals(List.of("deleted"), removed.stream().map(PostRecord::getId).toList());
+        assertEquals(2, timeline.size());
+    }
+
+    @Test
+    void postsSinceIncludesPostsWithoutCreatedTime() {
+        PageTimeline timeline = new PageTimeline("page");
+        PostRecord undated = new PostRecord("undated", PostRecord.UNKNOWN_TIME, null, null, 0, 0, 0, List.of());
+        timeline.merge(List.of(post("old", 100, 1), post("new", 300, 1), undated));
+
+        assertEquals(Set.of("new", "undated"), Set.copyOf(timeline.postsSince(200).stream().map(PostRecord::getId).toList()));
+    }
+
+    @Test
+    void restoredTimelinePagesInWithoutReplacingFresherPosts() {
+        PageTimeline timeline = new PageTimeline("page");
+        timeline.restoreCoverage(100, 400);
+        assertTrue(timeline.covers(100));
+        assertEquals(PageTimeline.NOT_SYNCED, timeline.getPagedInSinceSeconds());
+
+        timeline.merge(List.of(post("a", 300, 9)));
+        timeline.pageIn(List.of(post("a", 300, 1), post("b", 200, 1)), 150);
+
+        assertEquals(150, timeline.getPagedInSinceSeconds());
+        assertEquals(2, timeline.size());
+        assertEquals(9, timeline.postsSince(300).get(0).getLikes());
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.socialanalystpro;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PageWatcherHubTest {
+
+    private final List<String> polledWith = new CopyOnWriteArrayList<>();
+
+    private final PageWatcherHub.Source source = new PageWatcherHub.Source() {
+        @Override
+        public long getFollowerCount(String pageAccessToken) {
+            polledWith.add(pageAccessToken);
+            return 42;
+        }
+
+        @Override
+        public long getPageLikes(String pageAccessToken) {
+            return 7;
+        }
+
+        @Override
+        public Map<String, Integer> getGenderBreakdown(String pageAccessToken) {
+            return Map.of("Female", 60, "Male", 40);
+        }
+
+        @Override
+        public Map<String, Map<String, Integer>> getPostEngagementOverTime(String pageAccessToken, long sinceTimestamp) {
+            return Map.of();
+        }
+    };
+
+    private final PageWatcherHub hub = new PageWatcherHub(source, null, 2, 2, 60_000);
+
+    @AfterEach
+    void shutdown() {
+        hub.shutdown();
+    }
+
+    private static final class Listener implements PageUpdateListener {
+        private final CountDownLatch followers = new CountDownLatch(1);
+        private final List<String> received = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void onFollowerCount(long value) {
+            received.add("followers " + value);
+            followers.countDown();
+        }
+
+        @Override
+        public void onPageLikes(long likes) {
+            received.add("likes " + likes);
+        }
+
+        @Override
+        public void onGenderBreakdown(Map<String, Integer> genderBreakdown) {
+            received.add("gender");
+        }
+
+        @Override
+        public void onPostEngagementOverTime(Map<String, Map<String, Integer>> engagementData) {
+            received.add("engagement");
+        }
+    }
+
+    @Test
+    void dashboardsOfOnePageShareOneWatcherWhateverTheirToken() throws Exception {
+        Listener first = new Listener();
+        Listener second = new Listener();
+        hub.subscribe("page-1", "token-a", 0, first);
+        hub.subscribe("page-1", "token-b", 0, second);
+
+        assertEquals(1, hub.getWatcherCount());
+        assertEquals(2, hub.getSubscriberCount());
+        assertTrue(first.followers.await(5, TimeUnit.SECONDS));
+        assertTrue(second.followers.await(5, TimeUnit.SECONDS));
+        assertTrue(polledWith.stream().allMatch(t -> t.equals("token-a") || t.equals("token-b")));
+        assertEquals(1, polledWith.size(), "one poll for both dashboards");
+    }
+
+    @Test
+    void subscribersGetEachValueOnceAndUnsubscribingStopsTheWatcher() throws Exception {
+        Listener listener = new Listener();
+        hub.subscribe("page-1", "token-a", 0, listener);
+        assertTrue(listener.followers.await(5, TimeUnit.SECONDS));
+        Thread.sleep(200);
+
+        assertEquals(1, listener.received.stream().filter(r -> r.startsWith("followers")).count());
+        assertTrue(listener.received.contains("likes 7"), listener.received.toString());
+        assertTrue(hub.renew(listener));
+
+        hub.unsubscribe(listener);
+        assertEquals(0, hub.getWatcherCount());
+        assertFalse(hub.renew(listener));
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.socialanalystpro;
+
+import com.restfb.Connection;
+import com.restfb.DefaultJsonMapper;
+import com.restfb.FacebookClient;
+import com.restfb.JsonMapper;
+import com.restfb.Parameter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.reflect.Proxy;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PostSnapshotEngineTest {
+
+    private static final long DAY = 24 * 60 * 60;
+    private static final long NOW = System.currentTimeMillis() / 1000 / 60 * 60;
+
+    // me/posts as Graph would serve it: created_time in [since, until), newest first
+    private final Map<String, Long> posts = new LinkedHashMap<>();
+    private final List<String> calls = new ArrayList<>();
+    private final JsonMapper jsonMapper = new DefaultJsonMapper();
+
+    @TempDir
+    Path dir;
+
+    private final FacebookClient fbClient = (FacebookClient) Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class<?>[] {FacebookClient.class}, (proxy, method, args) -> switch (method.getName()) {
+                case "getJsonMapper" -> jsonMapper;
+                case "fetchConnection" -> fetch((Parameter[]) args[2]);
+                default -> throw new UnsupportedOperationException(method.getName());
+            });
+
+    private Connection<?> fetch(Parameter[] parameters) {
+        long since = 0;
+        long until = Long.MAX_VALUE;
+        for (Parameter parameter : parameters) {
+            if (parameter.name.equals("since")) since = Long.parseLong(parameter.value);
+            if (parameter.name.equals("until")) until = Long.parseLong(parameter.value);
+        }
+        calls.add(since + ".." + (until == Long.MAX_VALUE ? "" : until));
+        StringBuilder json = new StringBuilder("{\"data\":[");
+        String separator = "";
+        for (Map.Entry<String, Long> post : posts.entrySet()) {
+            if (post.getValue() >= since && post.getValue() < until) {
+                json.append(separator).append("{\"id\":\"").append(post.getKey())
+                        .append("\",\"created_time\":\"").append(Instant.ofEpochSecond(post.getValue())).append("\"}");
+                separator = ",";
+            }
+        }
+        return new Connection<>(fbClient, json.append("]}").toString(), com.restfb.types.Post.class);
+    }
+
+    private static List<String> ids(PostSnapshot snapshot) {
+        return ids(snapshot.table());
+    }
+
+    private static List<String> ids(PostTable table) {
+        List<String> ids = new ArrayList<>();
+        for (int row = 0; row < table.size(); row++) {
+            ids.add(table.id(row));
+        }
+        return ids;
+    }
+
+    @Test
+    void widerWindowOnlyBackfillsTheOlderGap() throws Exception {
+        posts.put("new", NOW - DAY);
+        posts.put("mid", NOW - 5 * DAY);
+        posts.put("old", NOW - 15 * DAY);
+        PostSnapshotEngine engine = new PostSnapshotEngine(new ResultCache(16), 60_000, DAY);
+
+        assertEquals(List.of("new", "mid"), ids(engine.window("page", fbClient, NOW - 10 * DAY)));
+        assertEquals(List.of("new", "mid", "old"), ids(engine.window("page", fbClient, NOW - 20 * DAY)));
+        assertEquals(List.of((NOW - 10 * DAY) + "..", (NOW - 20 * DAY) + ".." + (NOW - 10 * DAY)), calls);
+    }
+
+    @Test
+    void windowNeverHoldsPostsOlderThanAsked() throws Exception {
+        posts.put("inside", NOW - DAY + 90);
+        posts.put("before", NOW - DAY + 10);
+        PostSnapshotEngine engine = new PostSnapshotEngine(new ResultCache(16), 60_000, DAY);
+
+        assertEquals(List.of("inside"), ids(engine.window("page", fbClient, NOW - DAY + 20)));
+    }
+
+    @Test
+    void refreshDropsPostsDeletedInTheHotWindow() throws Exception {
+        posts.put("kept", NOW - 2 * 60 * 60);
+        posts.put("deleted", NOW - 60 * 60);
+        posts.put("cold", NOW - 5 * DAY);
+        PostSnapshotEngine engine = new PostSnapshotEngine(new ResultCache(16), 0, DAY);
+        assertEquals(List.of("deleted", "kept", "cold"), ids(engine.window("page", fbClient, NOW - 10 * DAY)));
+
+        posts.remove("deleted");
+        posts.remove("cold");
+        assertEquals(List.of("kept", "cold"), ids(engine.window("page", fbClient, NOW - 10 * DAY)),
+                "only the hot window is refetched, so older posts are kept");
+        String refresh = calls.get(calls.size() - 1);
+        assertTrue(Long.parseLong(refresh.substring(0, refresh.indexOf(".."))) >= NOW - DAY, refresh);
+    }
+
+    @Test
+    void restoredTimelineIsRefreshedBeforeServingMostRecent() throws Exception {
+        posts.put("one", NOW - 3 * DAY);
+        posts.put("two", NOW - 2 * DAY);
+        try (PostStore store = new PostStore(dir)) {
+            new PostSnapshotEngine(new ResultCache(16), 60_000, DAY, store).window("page", fbClient, NOW - 10 * DAY);
+        }
+
+        posts.put("new", NOW - 60);
+        calls.clear();
+        try (PostStore store = new PostStore(dir)) {
+            PostSnapshotEngine engine = new PostSnapshotEngine(new ResultCache(16), 60_000, DAY, store);
+            assertEquals(List.of("new", "two"), ids(engine.mostRecent("page", fbClient, null, 2)));
+            assertEquals(1, calls.size(), "one hot-window refresh, no crawl");
+
+            engine.invalidate("page");
+            assertEquals(0, store.getOpenPageCount());
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.socialanalystpro;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PostStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private static PostRecord post(String id, long createdSeconds, long likes) {
+        return new PostRecord(id, createdSeconds * 1000, "message " + id, "status", likes, 2, 3, List.of("nice", "great"));
+    }
+
+    private static Set<String> ids(List<PostRecord> records) {
+        return records.stream().map(PostRecord::getId).collect(Collectors.toSet());
+    }
+
+    @Test
+    void latestVersionsAndTombstonesSurviveARestart() {
+        try (PostStore store = new PostStore(dir)) {
+            store.append("page", List.of(post("a", 100, 1), post("b", 200, 1), post("c", 300, 1)));
+            store.append("page", List.of(post("b", 200, 7)));
+            store.delete("page", List.of(post("c", 300, 1)));
+            store.saveCoverage("page", 50, 300);
+        }
+
+        try (PostStore store = new PostStore(dir)) {
+            List<PostRecord> all = store.read("page", Long.MIN_VALUE);
+            assertEquals(Set.of("a", "b"), ids(all));
+            PostRecord b = all.stream().filter(p -> p.getId().equals("b")).findFirst().orElseThrow();
+            assertEquals(7, b.getLikes());
+            assertEquals(List.of("nice", "great"), b.getCommentMessages());
+            assertArrayEquals(new long[]{50, 300}, store.coverage("page"));
+        }
+    }
+
+    @Test
+    void rangeReadsReturnOnlyTheRequestedWindow() {
+        try (PostStore store = new PostStore(dir)) {
+            List<PostRecord> posts = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                posts.add(post("p" + i, i * 100L, i));
+            }
+            posts.add(new PostRecord("undated", PostRecord.UNKNOWN_TIME, "x", "status", 0, 0, 0, List.of()));
+            store.append("page", posts);
+
+            assertEquals(Set.of("p3", "p4", "undated"), ids(store.read("page", 300_000, 500_000)));
+            assertEquals(Set.of("p7", "p8", "p9", "undated"), ids(store.read("page", 700_000)));
+            assertEquals(Set.of("p4", "p5", "undated"), ids(store.readBefore("page", 600_000, 2)));
+        }
+    }
+
+    @Test
+    void compactionKeepsOnlyLiveRecordsAcrossARestart() {
+        String body = "x".repeat(20_000);
+        try (PostStore store = new PostStore(dir)) {
+            for (int round = 0; round < 5; round++) {
+                List<PostRecord> posts = new ArrayList<>();
+                for (int i = 0; i < 120; i++) {
+                    posts.add(new PostRecord("p" + i, i * 1000L, body, "status", round, 0, 0, List.of()));
+                }
+                store.append("page", posts);
+            }
+            store.delete("page", List.of(post("p0", 0, 0)));
+        }
+
+        try (PostStore store = new PostStore(dir)) {
+            List<PostRecord> all = store.read("page", Long.MIN_VALUE);
+            assertEquals(119, all.size());
+            all.forEach(p -> assertEquals(4, p.getLikes()));
+        }
+    }
+
+    @Test
+    void pagesAreKeptApart() {
+        try (PostStore store = new PostStore(dir)) {
+            store.append("one", List.of(post("a", 100, 1)));
+            store.append("two", List.of(post("b", 100, 1)));
+
+            assertEquals(Set.of("a"), ids(store.read("one", Long.MIN_VALUE)));
+            assertEquals(1, store.size("two"));
+            assertNull(store.coverage("two"));
+        }
+    }
+
+    @Test
+    void releasedPagesAreClosedAndReopenedOnNextAccess() {
+        try (PostStore store = new PostStore(dir)) {
+            store.append("one", List.of(post("a", 100, 1)));
+            store.append("two", List.of(post("b", 100, 1)));
+            assertEquals(2, store.getOpenPageCount());
+
+            store.release("one");
+            assertEquals(1, store.getOpenPageCount());
+            store.append("one", List.of(post("c", 200, 1)));
+            assertEquals(Set.of("a", "c"), ids(store.read("one", Long.MIN_VALUE)));
+            assertEquals(2, store.getOpenPageCount());
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.socialanalystpro;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PostTableTest {
+
+    private final PostTable table = PostTable.of(List.of(
+            new PostRecord("a", 3_000, "first", "photo", 10, 2, 1, List.of("love it", "great")),
+            new PostRecord("b", 2_000, "second", null, 1, 0, 0, List.of()),
+            new PostRecord("c", PostRecord.UNKNOWN_TIME, null, "photo", 4, 4, 4, List.of("meh"))));
+
+    @Test
+    void columnsHoldEveryField() {
+        assertEquals(3, table.size());
+        assertEquals("b", table.id(1));
+        assertEquals("first", table.message(0));
+        assertEquals(List.of("love it", "great"), table.commentMessages(0));
+        assertEquals(List.of(), table.commentMessages(1));
+        assertEquals(List.of("meh"), table.commentMessages(2));
+        assertEquals(13, table.engagement(0));
+        assertFalse(table.hasCreatedTime(2));
+        assertEquals("Unknown", table.createdTimeText(2));
+        assertEquals(new PostRecord("a", 3_000, null, null, 0, 0, 0, null).getCreatedTimeText(), table.createdTimeText(0));
+    }
+
+    @Test
+    void typesAreDictionaryEncoded() {
+        assertEquals(2, table.typeCount());
+        assertEquals(table.typeCode(0), table.typeCode(2));
+        assertEquals(PostTable.UNKNOWN_TYPE, table.typeName(table.typeCode(1)));
+
+        long[] byType = table.engagementByType();
+        assertEquals(25, byType[table.typeCode(0)]);
+        assertEquals(1, byType[table.typeCode(1)]);
+    }
+
+    @Test
+    void totalsAndTopRows() {
+        assertEquals(15, table.totalLikes());
+        assertEquals(6, table.totalComments());
+        assertEquals(5, table.totalShares());
+        assertArrayEquals(new int[]{0, 2}, table.topByEngagement(2));
+        assertEquals(List.of(10L, 1L, 4L), table.toList(PostTable.Column.LIKES));
+    }
+
+    @Test
+    void commentColumnIsReadOnly() {
+        assertThrows(UnsupportedOperationException.class, () -> table.commentMessages(0).set(0, "changed"));
+        assertEquals("love it", table.commentMessages(0).get(0));
+    }
+
+    @Test
+    void headSharesTheFirstRows() {
+        PostTable head = table.head(2);
+        assertEquals(2, head.size());
+        assertEquals("b", head.id(1));
+        assertEquals(11, head.totalLikes());
+        assertSame(table, table.head(5));
+    }
+
+    @Test
+    void snapshotsKeepTheirPostsNewestFirst() {
+        PostSnapshot snapshot = new PostSnapshot(0, 0, List.of(
+                new PostRecord("old", 1_000, null, null, 0, 0, 0, null),
+                new PostRecord("new", 5_000, null, null, 0, 0, 0, null)));
+        assertEquals("new", snapshot.table().id(0));
+        assertEquals("new", snapshot.mostRecent(1).id(0));
+        assertEquals(1, snapshot.mostRecent(1).size());
+    }
+
+    @Test
+    void emptyTable() {
+        PostTable empty = PostTable.of(List.of());
+        assertEquals(0, empty.size());
+        assertEquals(0, empty.totalLikes());
+        assertArrayEquals(new int[0], empty.topByEngagement(5));
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.socialanalystpro;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PostingTimeKernelTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Europe/Berlin");
+
+    private static long at(int year, int month, int day, int hour) {
+        return ZonedDateTime.of(year, month, day, hour, 30, 0, 0, ZONE).toInstant().toEpochMilli();
+    }
+
+    @Test
+    void bucketsLikesAndCommentsByLocalDayAndHour() {
+        PostingTimeKernel kernel = new PostingTimeKernel(ZONE);
+        kernel.addAll(PostTable.of(List.of(
+                // Monday 9:30 local, before and after the spring DST change
+                new PostRecord("a", at(2024, 3, 25, 9), null, null, 10, 2, 100, null),
+                new PostRecord("b", at(2024, 3, 18, 9), null, null, 1, 1, 0, null),
+                new PostRecord("c", at(2024, 3, 24, 23), null, null, 5, 0, 0, null),
+                new PostRecord("undated", PostRecord.UNKNOWN_TIME, null, null, 50, 50, 0, null))));
+
+        assertEquals(14, kernel.cellSum(0, 9), "shares are left out");
+        assertEquals(2, kernel.cellCount(0, 9));
+        assertEquals(5, kernel.cellSum(6, 23));
+        assertArrayEquals(new long[]{2, 0, 0, 0, 0, 0, 1}, kernel.dayCounts());
+        assertEquals(19, kernel.hourSums()[9] + kernel.hourSums()[23]);
+    }
+}
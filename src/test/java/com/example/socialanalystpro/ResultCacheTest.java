@@ -0,0 +1,154 @@
+package com.example.socialanalystpro;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ResultCacheTest {
+
+    private static final ExecutorService CALLERS = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final ResultCache cache = new ResultCache(2);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private static void awaitCoalesced(ResultCache cache, long expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (cache.stats().getCoalesced() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(expected, cache.stats().getCoalesced());
+    }
+
+    private static CompletableFuture<String> getAs(GraphCallScheduler.Priority priority, ResultCache cache,
+                                                   ResultCache.Key key, ResultCache.Loader<String> loader) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return GraphCallScheduler.callAs(priority, () -> cache.get(key, 60_000, loader));
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }, CALLERS);
+    }
+
+    @Test
+    void cachesUntilTheTtlRunsOut() throws Exception {
+        ResultCache.Key key = ResultCache.key("token", "insights");
+
+        assertEquals("v1", cache.get(key, 60_000, () -> "v" + loads.incrementAndGet()));
+        assertEquals("v1", cache.get(key, 60_000, () -> "v" + loads.incrementAndGet()));
+        assertEquals("v2", cache.get(ResultCache.key("token", "other"), 0, () -> "v" + loads.incrementAndGet()));
+        assertEquals("v3", cache.get(ResultCache.key("token", "other"), 0, () -> "v" + loads.incrementAndGet()));
+
+        assertEquals(1, cache.stats().getHits());
+        assertEquals(3, cache.stats().getMisses());
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedEntryAndInvalidatesByToken() throws Exception {
+        cache.get(ResultCache.key("a", "m"), 60_000, () -> "a");
+        cache.get(ResultCache.key("b", "m"), 60_000, () -> "b");
+        cache.get(ResultCache.key("a", "m"), 60_000, () -> "reloaded");
+        cache.get(ResultCache.key("c", "m"), 60_000, () -> "c");
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.stats().getEvictions());
+        assertEquals("a", cache.get(ResultCache.key("a", "m"), 60_000, () -> "reloaded"));
+
+        cache.invalidate("a");
+        assertEquals("reloaded", cache.get(ResultCache.key("a", "m"), 60_000, () -> "reloaded"));
+    }
+
+    @Test
+    void windowsShareAnEntryWithinTheMinute() {
+        assertEquals(ResultCache.key("t", "m", 121), ResultCache.key("t", "m", 180));
+        assertNotEquals(ResultCache.key("t", "m", 180), ResultCache.key("t", "m", 181));
+        assertEquals(180, ResultCache.normalizeWindow(121), "rounded up, never wider than asked");
+        assertEquals(-1, ResultCache.normalizeWindow(-1));
+    }
+
+    @Test
+    void concurrentCallersShareOneLoad() throws Exception {
+        ResultCache.Key key = ResultCache.key("token", "insights");
+        CountDownLatch release = new CountDownLatch(1);
+        ResultCache.Loader<String> loader = () -> {
+            loads.incrementAndGet();
+            release.await();
+            return "shared";
+        };
+
+        List<CompletableFuture<String>> callers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            callers.add(getAs(GraphCallScheduler.Priority.INTERACTIVE, cache, key, loader));
+        }
+        awaitCoalesced(cache, 3);
+        release.countDown();
+
+        for (CompletableFuture<String> caller : callers) {
+            assertEquals("shared", caller.get());
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void failedLoadsReachEveryWaiterAndAreNotCached() throws Exception {
+        ResultCache.Key key = ResultCache.key("token", "insights");
+        CountDownLatch release = new CountDownLatch(1);
+        ResultCache.Loader<String> failing = () -> {
+            release.await();
+            throw new IOException("graph down");
+        };
+
+        CompletableFuture<String> first = getAs(GraphCallScheduler.Priority.INTERACTIVE, cache, key, failing);
+        CompletableFuture<String> second = getAs(GraphCallScheduler.Priority.INTERACTIVE, cache, key, failing);
+        awaitCoalesced(cache, 1);
+        release.countDown();
+
+        for (CompletableFuture<String> caller : List.of(first, second)) {
+            Exception e = assertThrows(Exception.class, caller::get);
+            assertEquals("graph down", e.getCause().getCause().getMessage());
+        }
+        assertEquals("ok", cache.get(key, 60_000, () -> "ok"));
+    }
+
+    @Test
+    void interactiveCallersDoNotWaitOnBackgroundLoads() throws Exception {
+        ResultCache.Key key = ResultCache.key("token", "insights");
+        CountDownLatch releaseBackground = new CountDownLatch(1);
+        CountDownLatch backgroundStarted = new CountDownLatch(1);
+        CompletableFuture<String> background = getAs(GraphCallScheduler.Priority.BACKGROUND, cache, key, () -> {
+            backgroundStarted.countDown();
+            releaseBackground.await();
+            return "background";
+        });
+        backgroundStarted.await();
+        CountDownLatch releaseInteractive = new CountDownLatch(1);
+        CountDownLatch interactiveStarted = new CountDownLatch(1);
+        CompletableFuture<String> interactive = getAs(GraphCallScheduler.Priority.INTERACTIVE, cache, key, () -> {
+            interactiveStarted.countDown();
+            releaseInteractive.await();
+            return "interactive";
+        });
+        interactiveStarted.await();
+
+        // A later background caller joins the interactive load rather than the one the scheduler may shed
+        CompletableFuture<String> joiner = getAs(GraphCallScheduler.Priority.BACKGROUND, cache, key, () -> "own");
+        awaitCoalesced(cache, 1);
+        releaseInteractive.countDown();
+
+        assertEquals("interactive", interactive.get());
+        assertEquals("interactive", joiner.get());
+        releaseBackground.countDown();
+        assertEquals("background", background.get());
+    }
+}
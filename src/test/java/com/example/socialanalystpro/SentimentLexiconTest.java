@@ -0,0 +1,73 @@
+package com.example.socialanalystpro;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SentimentLexiconTest {
+
+    private static SentimentLexicon lexicon() throws IOException {
+        return SentimentLexicon.parse(new StringReader(String.join("\n",
+                "# test lexicon",
+                "good 1",
+                "great 1.5   # trailing comment",
+                "bad -1",
+                "waste -1.5",
+                "waste of   time -2",
+                "not negate",
+                "don't negate")), "test");
+    }
+
+    @Test
+    void scoresWholeWordsCaseInsensitively() throws IOException {
+        SentimentLexicon lexicon = lexicon();
+
+        assertEquals(7, lexicon.size());
+        assertEquals(2.5, lexicon.score("GOOD and Great"));
+        assertEquals(0, lexicon.score("goodbye, badge"));
+        assertEquals(0, lexicon.score(null));
+        assertEquals(0, lexicon.score(""));
+    }
+
+    @Test
+    void longestOverlappingPhraseWins() throws IOException {
+        SentimentLexicon lexicon = lexicon();
+
+        assertEquals(-2, lexicon.score("what a waste of time"));
+        assertEquals(-1.5, lexicon.score("what a waste"));
+    }
+
+    @Test
+    void negatorFlipsTheNextTermInTheSameClause() throws IOException {
+        SentimentLexicon lexicon = lexicon();
+
+        assertEquals(-1, lexicon.score("not good"));
+        assertEquals(-1, lexicon.score("I don't think it good"), "within three words");
+        assertEquals(1, lexicon.score("I don't think it is good"), "past the three-word window");
+        assertEquals(1, lexicon.score("I don't think so, good"), "another clause");
+        assertEquals(-1 + 1.5, lexicon.score("not good but great"), "only the next term");
+        assertEquals(1, lexicon.score("not bad"));
+    }
+
+    @Test
+    void rejectsMalformedLines() {
+        IOException e = assertThrows(IOException.class,
+                () -> SentimentLexicon.parse(new StringReader("good 1\nbad worse"), "broken.txt"));
+        assertTrue(e.getMessage().startsWith("broken.txt:2"));
+        assertThrows(IOException.class, () -> SentimentLexicon.parse(new StringReader("lonely"), "broken.txt"));
+    }
+
+    @Test
+    void bundledLexiconLoads() {
+        SentimentLexicon lexicon = SentimentLexicon.getDefault();
+
+        assertTrue(lexicon.size() > 50);
+        assertTrue(lexicon.score("I love this, great work") > 0);
+        assertTrue(lexicon.score("terrible, a waste of money") < 0);
+    }
+}
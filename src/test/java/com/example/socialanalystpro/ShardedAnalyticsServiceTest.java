@@ -0,0 +1,128 @@
+package com.example.socialanalystpro;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.net.ServerSocket;
+import java.rmi.registry.LocateRegistry;
+import java.rmi.registry.Registry;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShardedAnalyticsServiceTest {
+
+    private int port;
+    private Registry registry;
+    // Node "a" accepts its part of a portfolio and never reports; node "b" fails its pages and completes at once
+    private AnalyticsService silent;
+    private AnalyticsService prompt;
+
+    @BeforeEach
+    void startNodes() throws Exception {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        registry = LocateRegistry.createRegistry(port);
+        silent = node(false);
+        prompt = node(true);
+        registry.rebind(AnalyticsServer.SERVICE_NAME + "@a", UnicastRemoteObject.exportObject(silent, 0));
+        registry.rebind(AnalyticsServer.SERVICE_NAME + "@b", UnicastRemoteObject.exportObject(prompt, 0));
+    }
+
+    @AfterEach
+    void stopNodes() throws Exception {
+        UnicastRemoteObject.unexportObject(silent, true);
+        UnicastRemoteObject.unexportObject(prompt, true);
+        UnicastRemoteObject.unexportObject(registry, true);
+    }
+
+    private static AnalyticsService node(boolean reports) {
+        return (AnalyticsService) Proxy.newProxyInstance(AnalyticsService.class.getClassLoader(), new Class<?>[] {AnalyticsService.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("analyzePages") && reports) {
+                        List<?> tokens = (List<?>) args[0];
+                        PortfolioListener listener = (PortfolioListener) args[2];
+                        PortfolioSummary summary = new PortfolioSummary(tokens.size());
+                        for (int i = 0; i < tokens.size(); i++) {
+                            summary.addFailure(i, "no data", 0);
+                            listener.onPageFailed(i, "no data");
+                        }
+                        summary.complete(0);
+                        listener.onPortfolioComplete(summary);
+                    }
+                    if (method.getName().equals("equals")) return proxy == args[0];
+                    if (method.getName().equals("hashCode")) return System.identityHashCode(proxy);
+                    return method.getReturnType() == long.class ? 0L : method.getReturnType() == boolean.class ? false : null;
+                });
+    }
+
+    private static final class Listener implements PortfolioListener {
+        private final List<Integer> failed = new ArrayList<>();
+        private final CompletableFuture<PortfolioSummary> complete = new CompletableFuture<>();
+
+        @Override
+        public void onPageAnalyzed(int index, String pageName, InsightsPayload insights) {
+        }
+
+        @Override
+        public synchronized void onPageFailed(int index, String message) {
+            failed.add(index);
+        }
+
+        @Override
+        public void onPortfolioComplete(PortfolioSummary summary) {
+            complete.complete(summary);
+        }
+    }
+
+    // One token served by each node
+    private static List<String> tokensOnBothNodes(ShardedAnalyticsService service) {
+        String onA = null;
+        String onB = null;
+        for (int i = 0; onA == null || onB == null; i++) {
+            String token = "token-" + i;
+            if ("a".equals(service.nodeFor(token)) && onA == null) onA = token;
+            if ("b".equals(service.nodeFor(token)) && onB == null) onB = token;
+        }
+        return List.of(onA, onB);
+    }
+
+    @Test
+    void aPartThatGoesQuietIsFailedAfterTheIdleDeadline() throws Exception {
+        ShardedAnalyticsService service = new ShardedAnalyticsService(List.of("localhost:" + port), 16, 200);
+        Listener listener = new Listener();
+        service.analyzePages(tokensOnBothNodes(service), 0, listener);
+
+        PortfolioSummary summary = listener.complete.get(5, TimeUnit.SECONDS);
+        assertEquals(2, summary.getPagesFailed());
+        assertTrue(summary.getFailures().get(0).startsWith("No progress from analytics node a"), summary.getFailures().toString());
+        assertEquals(List.of(1, 0), listener.failed);
+    }
+
+    @Test
+    void aPartOnALostNodeIsFailedAsSoonAsTheNodeIsMarkedDown() throws Exception {
+        ShardedAnalyticsService service = new ShardedAnalyticsService(List.of("localhost:" + port), 16, 600_000);
+        Listener listener = new Listener();
+        List<String> tokens = tokensOnBothNodes(service);
+        service.analyzePages(tokens, 0, listener);
+        assertFalse(listener.complete.isDone());
+
+        UnicastRemoteObject.unexportObject(silent, true);
+        service.getFollowerCount(tokens.get(0));
+
+        PortfolioSummary summary = listener.complete.get(5, TimeUnit.SECONDS);
+        Map<Integer, String> failures = summary.getFailures();
+        assertTrue(failures.get(0).startsWith("Analytics node a was lost"), failures.toString());
+        assertEquals("no data", failures.get(1));
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.socialanalystpro;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SocialTokenizerTest {
+
+    private static List<String> tags(String text) {
+        List<String> tags = new ArrayList<>();
+        SocialTokenizer.scan(text, (kind, tag) -> tags.add(kind + " " + tag));
+        return tags;
+    }
+
+    @Test
+    void findsHashtagsAndMentionsLowerCased() {
+        assertEquals(List.of("HASHTAG #summer", "MENTION @brand", "HASHTAG #sale_2024"),
+                tags("Hello #Summer! Thanks @Brand, #SALE_2024."));
+        assertEquals(List.of(), tags(null));
+        assertEquals(List.of(), tags("no tags here"));
+    }
+
+    @Test
+    void tagsMustStartAtAWordBoundaryAndHashtagsNeedALetter() {
+        assertEquals(List.of(), tags("a#b mail@example &#39; #1 # @"));
+        assertEquals(List.of("HASHTAG #1st", "MENTION @42"), tags("#1st @42"));
+        assertEquals(List.of("HASHTAG #a", "HASHTAG #b"), tags("#a#b (#b)"));
+    }
+
+    @Test
+    void mentionsKeepInnerDotsOnly() {
+        assertEquals(List.of("MENTION @brand.store", "MENTION @shop"), tags("@brand.store and @shop."));
+    }
+
+    @Test
+    void handlesAnyScriptAndSurrogatePairs() {
+        assertEquals(List.of("HASHTAG #café", "HASHTAG #東京", "HASHTAG #ελλάδα", "HASHTAG #fun"),
+                tags("#Café #東京 #Ελλάδα 😀#fun"));
+        assertEquals(List.of("HASHTAG #cafe\u0301"), tags("#Cafe\u0301"), "combining accent");
+        assertEquals(List.of("HASHTAG #fullwidth", "MENTION @wide"), tags("＃FullWidth ＠wide"));
+    }
+}
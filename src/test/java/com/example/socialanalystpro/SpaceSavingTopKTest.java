@@ -0,0 +1,94 @@
+package com.example.socialanalystpro;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpaceSavingTopKTest {
+
+    @Test
+    void countsAreExactBelowCapacity() {
+        SpaceSavingTopK topK = new SpaceSavingTopK(5);
+        for (String key : List.of("a", "b", "a", "c", "a", "c")) {
+            topK.add(key);
+        }
+        topK.add("d", 0);
+
+        assertEquals(3, topK.size());
+        assertEquals(6, topK.getTotal());
+        assertEquals(Map.of("a", 3, "c", 2), topK.top(2));
+        assertEquals(List.of("a", "c", "b"), List.copyOf(topK.top(10).keySet()));
+        assertEquals(0, topK.error("a"));
+        assertEquals(0, topK.estimate("missing"));
+    }
+
+    @Test
+    void heavyHittersSurviveAFullSummaryWithinTheErrorBound() {
+        SpaceSavingTopK topK = new SpaceSavingTopK(4);
+        Map<String, Long> actual = new HashMap<>();
+        for (int i = 0; i < 200; i++) {
+            String cold = "cold" + i;
+            topK.add(cold);
+            actual.merge(cold, 1L, Long::sum);
+            if (i % 2 == 0) {
+                topK.add("hot");
+                actual.merge("hot", 1L, Long::sum);
+            }
+        }
+
+        assertEquals(4, topK.size());
+        assertEquals("hot", topK.top(1).keySet().iterator().next());
+        for (String key : topK.top(4).keySet()) {
+            long estimate = topK.estimate(key);
+            assertTrue(estimate >= actual.get(key), key);
+            assertTrue(estimate - topK.error(key) <= actual.get(key), key);
+        }
+        assertTrue(topK.estimate("never") >= 0);
+    }
+
+    @Test
+    void mergeSumsCountsFromBothWindows() {
+        SpaceSavingTopK a = new SpaceSavingTopK(3);
+        a.add("x", 5);
+        a.add("y", 2);
+        SpaceSavingTopK b = new SpaceSavingTopK(3);
+        b.add("x", 1);
+        b.add("z", 4);
+
+        SpaceSavingTopK merged = SpaceSavingTopK.merge(a, b);
+
+        assertEquals(12, merged.getTotal());
+        assertEquals(List.of("x", "z", "y"), List.copyOf(merged.top(3).keySet()));
+        assertEquals(6, merged.estimate("x"));
+        assertEquals(0, merged.error("x"));
+    }
+
+    @Test
+    void mergeWidensErrorForKeysMissingFromAFullSummary() {
+        SpaceSavingTopK a = new SpaceSavingTopK(2);
+        a.add("x", 10);
+        a.add("y", 3);
+        SpaceSavingTopK b = new SpaceSavingTopK(2);
+        b.add("z", 8);
+        b.add("w", 2);
+
+        SpaceSavingTopK merged = SpaceSavingTopK.merge(a, b);
+
+        assertEquals(2, merged.size());
+        assertEquals(12, merged.estimate("x"));
+        assertEquals(2, merged.error("x"));
+        assertEquals(11, merged.estimate("z"));
+        assertEquals(3, merged.error("z"));
+    }
+
+    @Test
+    void rejectsNonPositiveCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new SpaceSavingTopK(0));
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.socialanalystpro;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ViralBudIntentsTest {
+
+    private static ViralBudIntents rules() throws IOException {
+        return ViralBudIntents.parse(new StringReader(String.join("\n",
+                "# test rules",
+                "[refuse]",
+                "match = weather:10, {arithmetic}:10",
+                "unless = post",
+                "response = refused",
+                "",
+                "[growth]",
+                "match = followers, likes",
+                "response = growth",
+                "[trending]",
+                "match = hashtags, trending, \\",
+                "        viral",
+                "response = trending\\nnow",
+                "[heavy]",
+                "match = boost:3",
+                "response = heavy",
+                "[fallback]",
+                "response = fallback")), "test", 16);
+    }
+
+    @Test
+    void highestScoringIntentAnswersWithTiesToTheEarlierOne() throws IOException {
+        ViralBudIntents intents = rules();
+
+        assertEquals("trending\nnow", intents.answer("followers and trending hashtags"));
+        assertEquals("growth", intents.answer("followers or viral?"));
+        assertEquals("heavy", intents.answer("boost my likes and followers"));
+        assertEquals("growth", intents.answer("followers followers followers and viral hashtags? no: likes"),
+                "terms count once per prompt");
+    }
+
+    @Test
+    void unlessTermsRuleAnIntentOut() throws IOException {
+        ViralBudIntents intents = rules();
+
+        assertEquals("refused", intents.answer("what's the weather"));
+        assertEquals("refused", intents.answer("what is 2+2"));
+        assertEquals("fallback", intents.answer("I post 2 - 3 times a week"));
+        assertEquals("growth", intents.answer("weather post about followers"));
+    }
+
+    @Test
+    void matchesWholeWordsAndFallsBack() throws IOException {
+        ViralBudIntents intents = rules();
+
+        assertEquals("fallback", intents.answer("unfollowers-ish hashtagsss"));
+        assertEquals("fallback", intents.answer("   "));
+        assertEquals("fallback", intents.answer(null));
+        assertEquals("growth", intents.answer("  More   FOLLOWERS  "));
+    }
+
+    @Test
+    void rejectsMalformedRules() {
+        assertThrows(IOException.class, () -> ViralBudIntents.parse(new StringReader("[a]\nmatch = x\n[fallback]\nresponse = f"), "r", 0));
+        assertThrows(IOException.class, () -> ViralBudIntents.parse(new StringReader("[a]\nmatch = x\nresponse = a"), "r", 0));
+        assertThrows(IOException.class, () -> ViralBudIntents.parse(new StringReader("[a]\nmatch = x:lots\nresponse = a\n[fallback]\nresponse = f"), "r", 0));
+        assertThrows(IOException.class, () -> ViralBudIntents.parse(new StringReader("[fallback]\nmatch = x\nresponse = f"), "r", 0));
+        assertThrows(IOException.class, () -> ViralBudIntents.parse(new StringReader("match = x"), "r", 0));
+    }
+
+    @Test
+    void bundledRulesFollowTheDocumentedPrecedence() {
+        ViralBudIntents intents = ViralBudIntents.getDefault();
+
+        assertTrue(intents.answer("followers and trending hashtags").startsWith("🔥 Trending Now"));
+        assertTrue(intents.answer("I post 2-3 times a week, when is best?").startsWith("⏰ Best Posting Times"));
+        assertTrue(intents.answer("what is 2+2").startsWith("I’m ViralBud"));
+        assertTrue(intents.answer("tell me about this history").startsWith("I’m ViralBud"));
+        assertTrue(intents.answer("hi").startsWith("Hello!"));
+    }
+}